@@ -0,0 +1,147 @@
+package com.cimb.wealth.aop;
+
+import jakarta.persistence.Entity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which invocations get their arguments logged and renders them. Sampled calls
+ * only record argument shapes into a reused per-thread buffer; full values are rendered
+ * only for packages switched on at runtime, and never for parameters that look like
+ * credentials.
+ */
+@Component
+public class ArgumentLogging {
+
+    private static final Pattern SENSITIVE = Pattern.compile("(?i)password|token|secret");
+
+    private static final int MAX_VALUE_LENGTH = 200;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final int sampleRate;
+
+    // Copy-on-write: read on every call, written only by the actuator endpoint
+    private volatile Set<String> fullPackages;
+
+    public ArgumentLogging(@Value("${cimb.tracing.sample-rate:100}") int sampleRate,
+                           @Value("${cimb.tracing.full-argument-packages:}") List<String> fullPackages) {
+        this.sampleRate = Math.max(0, sampleRate);
+        this.fullPackages = Set.copyOf(fullPackages);
+    }
+
+    public boolean isSampled() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    public boolean isFullLogging(String packageName) {
+        Set<String> packages = fullPackages;
+        if (packages.isEmpty()) {
+            return false;
+        }
+        for (String enabled : packages) {
+            if (packageName.equals(enabled) || packageName.startsWith(enabled + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Set<String> getFullPackages() {
+        return fullPackages;
+    }
+
+    public synchronized void setFullLogging(String packageName, boolean enabled) {
+        Set<String> packages = new HashSet<>(fullPackages);
+        if (enabled) {
+            packages.add(packageName);
+        } else {
+            packages.remove(packageName);
+        }
+        fullPackages = Set.copyOf(packages);
+    }
+
+    static boolean isSensitive(String parameterName) {
+        return SENSITIVE.matcher(parameterName).find();
+    }
+
+    /**
+     * Renders argument types, sizes and scalar values without calling {@code toString()} on
+     * arbitrary objects. The returned builder is reused by the calling thread.
+     */
+    CharSequence describe(String[] parameterNames, boolean[] sensitive, Object[] args) {
+        StringBuilder out = buffer();
+        for (int i = 0; i < args.length; i++) {
+            appendName(out, parameterNames, i);
+            Object arg = args[i];
+            if (arg == null) {
+                out.append("null");
+            } else if (sensitive[i]) {
+                out.append("***");
+            } else if (arg instanceof Number || arg instanceof Boolean || arg instanceof Enum<?>) {
+                out.append(arg);
+            } else if (arg instanceof CharSequence text) {
+                out.append("String[").append(text.length()).append(']');
+            } else if (arg instanceof Collection<?> collection) {
+                out.append(arg.getClass().getSimpleName()).append('[').append(collection.size()).append(']');
+            } else {
+                out.append(arg.getClass().getSimpleName());
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Renders argument values for packages with full logging on. Entities are reduced to
+     * their type so lazy associations are never touched.
+     */
+    CharSequence render(String[] parameterNames, boolean[] sensitive, Object[] args) {
+        StringBuilder out = buffer();
+        for (int i = 0; i < args.length; i++) {
+            appendName(out, parameterNames, i);
+            Object arg = args[i];
+            if (arg == null) {
+                out.append("null");
+            } else if (sensitive[i]) {
+                out.append("***");
+            } else if (arg.getClass().isAnnotationPresent(Entity.class)) {
+                out.append(arg.getClass().getSimpleName());
+            } else if (arg instanceof CharSequence || arg instanceof Number || arg instanceof Boolean
+                || arg instanceof Enum<?> || arg instanceof TemporalAccessor) {
+                out.append(arg);
+            } else {
+                // Input types carry credentials in fields, which parameter names cannot reveal
+                String value = String.valueOf(arg);
+                if (SENSITIVE.matcher(value).find()) {
+                    out.append(arg.getClass().getSimpleName()).append("(***)");
+                } else {
+                    out.append(value, 0, Math.min(value.length(), MAX_VALUE_LENGTH));
+                }
+            }
+        }
+        return out;
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        return out;
+    }
+
+    private static void appendName(StringBuilder out, String[] parameterNames, int index) {
+        if (index > 0) {
+            out.append(", ");
+        }
+        if (parameterNames != null && index < parameterNames.length) {
+            out.append(parameterNames[index]).append('=');
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.cimb.wealth.aop;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Switches full argument logging on or off per package at runtime, e.g.
+ * {@code POST /actuator/argumentlogging/com.cimb.wealth.service {"enabled": true}}.
+ */
+@Component
+@Endpoint(id = "argumentlogging")
+@RequiredArgsConstructor
+@Slf4j
+public class ArgumentLoggingEndpoint {
+
+    private final ArgumentLogging argumentLogging;
+
+    @ReadOperation
+    public Map<String, Set<String>> packages() {
+        return Map.of("fullArgumentPackages", argumentLogging.getFullPackages());
+    }
+
+    @WriteOperation
+    public void configure(@Selector String packageName, boolean enabled) {
+        log.info("Full argument logging {} for package {}", enabled ? "enabled" : "disabled", packageName);
+        argumentLogging.setFullLogging(packageName, enabled);
+    }
+}
@@ -0,0 +1,112 @@
+package com.cimb.wealth.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times public service and resolver methods into per-method Micrometer timers. Meters and
+ * parameter metadata are resolved once per method, so an unsampled call costs two
+ * {@code nanoTime} reads and a timer update.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MethodMetricsAspect {
+
+    private static final String METRIC_NAME = "cimb.method.invocations";
+
+    private final MeterRegistry meterRegistry;
+    private final ArgumentLogging argumentLogging;
+
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    @Around("(within(com.cimb.wealth.service..*) && @within(org.springframework.stereotype.Service) && execution(public * *(..)))"
+        + " || (within(com.cimb.wealth.graphql..*) && @within(org.springframework.stereotype.Controller) && execution(public * *(..)))")
+    public Object timeMethodExecution(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodMeters methodMeters = meters.computeIfAbsent(method, this::createMeters);
+
+        if (argumentLogging.isFullLogging(methodMeters.packageName())) {
+            log.info("{}({})", methodMeters.name(),
+                argumentLogging.render(methodMeters.parameterNames(), methodMeters.sensitive(), joinPoint.getArgs()));
+        } else if (log.isDebugEnabled() && argumentLogging.isSampled()) {
+            log.debug("{}({})", methodMeters.name(),
+                argumentLogging.describe(methodMeters.parameterNames(), methodMeters.sensitive(), joinPoint.getArgs()));
+        }
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            methodMeters.failure().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+
+        // Async results are timed to completion rather than to the hand-off
+        if (result instanceof CompletionStage<?> stage) {
+            return stage.whenComplete((value, error) ->
+                (error == null ? methodMeters.success() : methodMeters.failure())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        }
+        methodMeters.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private MethodMeters createMeters(Method method) {
+        Class<?> type = method.getDeclaringClass();
+        String className = type.getSimpleName();
+        String[] parameterNames = parameterNames(method);
+
+        boolean[] sensitive = new boolean[method.getParameterCount()];
+        for (int i = 0; i < sensitive.length; i++) {
+            sensitive[i] = ArgumentLogging.isSensitive(parameterNames[i]);
+        }
+
+        return new MethodMeters(
+            className + "." + method.getName(),
+            type.getPackageName(),
+            parameterNames,
+            sensitive,
+            timer(className, method.getName(), "success"),
+            timer(className, method.getName(), "failure"));
+    }
+
+    private Timer timer(String className, String methodName, String outcome) {
+        return Timer.builder(METRIC_NAME)
+            .description("Service and resolver method latency")
+            .tag("class", className)
+            .tag("method", methodName)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private static String[] parameterNames(Method method) {
+        Parameter[] parameters = method.getParameters();
+        String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            names[i] = parameters[i].getName();
+        }
+        return names;
+    }
+
+    private record MethodMeters(String name, String packageName, String[] parameterNames,
+                                boolean[] sensitive, Timer success, Timer failure) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.cimb.wealth.audit;
+
+import java.time.Instant;
+
+public record AuditEvent(Instant occurredAt, Type type, String principal, String operation, String detail) {
+
+    public enum Type {
+        OPERATION, EVENTS_DROPPED
+    }
+
+    public static AuditEvent operation(String principal, String operation) {
+        return new AuditEvent(Instant.now(), Type.OPERATION, principal, operation, null);
+    }
+}
@@ -0,0 +1,187 @@
+package com.cimb.wealth.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single writer thread that drains the {@link AuditTrail} into {@code audit_events} with
+ * JDBC batch inserts. Stops after the web server so in-flight requests can still publish,
+ * and flushes everything left in the buffer before the data source is closed.
+ *
+ * <p>A failed insert is retried with exponential backoff while the buffer keeps accepting
+ * events; only a batch that still fails after the configured retries is dropped.
+ */
+@Component
+@Slf4j
+public class AuditEventWriter implements SmartLifecycle {
+
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_events (occurred_at, event_type, principal, operation, detail) VALUES (?, ?, ?, ?, ?)";
+
+    private final AuditTrail auditTrail;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    private final long idleParkNanos;
+
+    private final Duration shutdownTimeout;
+
+    private final int maxRetries;
+
+    private final long retryBackoffNanos;
+
+    private final Timer lagTimer;
+
+    private final Timer batchTimer;
+
+    private final Counter failedCounter;
+
+    private final Counter retriedCounter;
+
+    private volatile boolean running;
+
+    private Thread writerThread;
+
+    public AuditEventWriter(AuditTrail auditTrail,
+                            JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${cimb.audit.batch-size:500}") int batchSize,
+                            @Value("${cimb.audit.flush-interval:200ms}") Duration flushInterval,
+                            @Value("${cimb.audit.shutdown-timeout:10s}") Duration shutdownTimeout,
+                            @Value("${cimb.audit.max-retries:5}") int maxRetries,
+                            @Value("${cimb.audit.retry-backoff:100ms}") Duration retryBackoff) {
+        this.auditTrail = auditTrail;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.idleParkNanos = flushInterval.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoffNanos = retryBackoff.toNanos();
+        this.lagTimer = Timer.builder("audit.events.lag")
+            .description("Time from an audit event being published to it being written")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("audit.events.batch")
+            .description("Duration of audit event batch inserts")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.events.failed")
+            .description("Audit events lost because their batch insert still failed after every retry")
+            .register(meterRegistry);
+        this.retriedCounter = Counter.builder("audit.events.retried")
+            .description("Audit event batch inserts retried after a failure")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::run, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("Audit writer did not finish flushing within {}", shutdownTimeout);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Lower than the web server's phase, so this stops only after requests have finished
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize + 1);
+        while (running) {
+            if (writeBatch(batch) == 0) {
+                LockSupport.parkNanos(idleParkNanos);
+            }
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        while (!auditTrail.isEmpty() && System.nanoTime() < deadline) {
+            if (writeBatch(batch) == 0) {
+                // A producer has claimed a slot but not yet written it
+                Thread.onSpinWait();
+            }
+        }
+        log.info("Audit writer stopped");
+    }
+
+    private int writeBatch(List<AuditEvent> batch) {
+        batch.clear();
+        auditTrail.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (insert(batch)) {
+                lagTimer.record(Duration.between(batch.get(0).occurredAt(), Instant.now()));
+            }
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return batch.size();
+    }
+
+    private boolean insert(List<AuditEvent> batch) {
+        long backoff = retryBackoffNanos;
+        for (int retry = 0; ; retry++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                    ps.setTimestamp(1, Timestamp.from(event.occurredAt()));
+                    ps.setString(2, event.type().name());
+                    ps.setString(3, event.principal());
+                    ps.setString(4, event.operation());
+                    ps.setString(5, event.detail());
+                });
+                return true;
+            } catch (RuntimeException e) {
+                if (retry >= maxRetries) {
+                    failedCounter.increment(batch.size());
+                    log.error("Failed to write {} audit events after {} retries", batch.size(), retry, e);
+                    return false;
+                }
+                retriedCounter.increment();
+                log.warn("Failed to write {} audit events, retrying in {} ms", batch.size(),
+                    TimeUnit.NANOSECONDS.toMillis(backoff), e);
+                LockSupport.parkNanos(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            }
+        }
+    }
+}
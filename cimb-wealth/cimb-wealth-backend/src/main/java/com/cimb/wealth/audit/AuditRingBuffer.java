@@ -0,0 +1,71 @@
+package com.cimb.wealth.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer. Producers claim a slot with a CAS on
+ * the tail and never block; {@link #offer} fails when the buffer is full. Only the writer
+ * thread may call {@link #drainTo}.
+ */
+final class AuditRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private volatile long head;
+
+    AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    boolean offer(E element) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+
+        slots.set((int) (claimed & mask), element);
+        return true;
+    }
+
+    /**
+     * Moves up to {@code max} published elements into {@code target}, stopping at the first
+     * slot that is claimed but not yet written so order is preserved.
+     */
+    int drainTo(List<E> target, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            E element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            target.add(element);
+            position++;
+            drained++;
+        }
+        // The volatile write releases the emptied slots to producers
+        head = position;
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
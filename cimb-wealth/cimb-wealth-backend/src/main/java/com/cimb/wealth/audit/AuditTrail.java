@@ -0,0 +1,79 @@
+package com.cimb.wealth.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entry point for audit events. Publishing never blocks the caller: when the buffer is full
+ * the newest event is dropped and counted, and the writer records the number of dropped
+ * events as an {@code EVENTS_DROPPED} row so the gap is visible in the trail itself.
+ */
+@Component
+@Slf4j
+public class AuditTrail {
+
+    private static final long DROP_WARNING_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final AuditRingBuffer<AuditEvent> buffer;
+
+    private final Counter publishedCounter;
+
+    private final Counter droppedCounter;
+
+    private final AtomicLong unreportedDrops = new AtomicLong();
+
+    private final AtomicLong lastDropWarning = new AtomicLong(System.nanoTime() - DROP_WARNING_INTERVAL_NANOS);
+
+    public AuditTrail(MeterRegistry meterRegistry,
+                      @Value("${cimb.audit.buffer-capacity:8192}") int capacity) {
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.publishedCounter = Counter.builder("audit.events.published")
+            .description("Audit events accepted into the buffer")
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.events.dropped")
+            .description("Audit events dropped because the buffer was full")
+            .register(meterRegistry);
+        Gauge.builder("audit.events.pending", buffer, AuditRingBuffer::size)
+            .description("Audit events waiting to be written")
+            .register(meterRegistry);
+    }
+
+    public void publish(AuditEvent event) {
+        if (buffer.offer(event)) {
+            publishedCounter.increment();
+            return;
+        }
+
+        droppedCounter.increment();
+        unreportedDrops.incrementAndGet();
+
+        long now = System.nanoTime();
+        long last = lastDropWarning.get();
+        if (now - last >= DROP_WARNING_INTERVAL_NANOS && lastDropWarning.compareAndSet(last, now)) {
+            log.warn("Audit buffer full ({} events), dropping audit events", buffer.capacity());
+        }
+    }
+
+    int drainTo(List<AuditEvent> target, int max) {
+        int drained = buffer.drainTo(target, max);
+
+        long dropped = unreportedDrops.getAndSet(0);
+        if (dropped > 0) {
+            target.add(new AuditEvent(Instant.now(), AuditEvent.Type.EVENTS_DROPPED, "SYSTEM",
+                "audit.buffer", dropped + " events dropped"));
+        }
+        return drained;
+    }
+
+    boolean isEmpty() {
+        return buffer.size() == 0 && unreportedDrops.get() == 0;
+    }
+}
@@ -1,10 +1,13 @@
 package com.cimb.wealth.domain;
 
+import com.cimb.wealth.event.PortfolioEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -16,11 +19,13 @@ import java.util.Set;
 
 @Entity
 @Table(name = "accounts")
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"user", "holdings", "transactions"})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PortfolioEntityListener.class})
 public class Account {
     
     @Id
@@ -63,4 +68,20 @@ public class Account {
     public enum AccountType {
         SAVINGS, INVESTMENT, RETIREMENT, EDUCATION
     }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Account other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Account.class.hashCode();
+    }
 }
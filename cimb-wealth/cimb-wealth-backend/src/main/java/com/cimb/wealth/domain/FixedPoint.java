@@ -0,0 +1,71 @@
+package com.cimb.wealth.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Rounded integer arithmetic shared by {@link Money} and {@link Quantity}. Products are
+ * computed in {@code long} and only fall back to {@link BigDecimal} when they overflow.
+ */
+final class FixedPoint {
+
+    static final int SCALE = 2;
+
+    static final long ONE = 100;
+
+    private FixedPoint() {
+    }
+
+    static long fromDecimal(BigDecimal value, RoundingMode roundingMode) {
+        return value.setScale(SCALE, roundingMode).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal toDecimal(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    /**
+     * {@code a * b / divisor}, rounded with {@code roundingMode}.
+     */
+    static long multiplyDivide(long a, long b, long divisor, RoundingMode roundingMode) {
+        long high = Math.multiplyHigh(a, b);
+        long product = a * b;
+        if ((high == 0 && product >= 0) || (high == -1 && product < 0)) {
+            return divide(product, divisor, roundingMode);
+        }
+        return BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b))
+            .divide(BigDecimal.valueOf(divisor), 0, roundingMode)
+            .longValueExact();
+    }
+
+    static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+        if (divisor == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        // Sign of the exact result; the truncated quotient may be zero
+        int sign = (dividend ^ divisor) < 0 ? -1 : 1;
+        boolean awayFromZero = switch (roundingMode) {
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+            case DOWN -> false;
+            case UP -> true;
+            case FLOOR -> sign < 0;
+            case CEILING -> sign > 0;
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                long absRemainder = Math.abs(remainder);
+                int half = Long.compare(absRemainder, Math.abs(divisor) - absRemainder);
+                if (half != 0) {
+                    yield half > 0;
+                }
+                yield roundingMode == RoundingMode.HALF_UP
+                    || (roundingMode == RoundingMode.HALF_EVEN && (quotient & 1) != 0);
+            }
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+}
@@ -0,0 +1,85 @@
+package com.cimb.wealth.domain;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+
+/**
+ * Maps an immutable fixed-point value to a {@code NUMERIC(19,2)} column.
+ */
+abstract class FixedPointType<T> implements UserType<T> {
+
+    private final Class<T> type;
+
+    FixedPointType(Class<T> type) {
+        this.type = type;
+    }
+
+    protected abstract T fromDecimal(BigDecimal value);
+
+    protected abstract BigDecimal toDecimal(T value);
+
+    @Override
+    public int getSqlType() {
+        return Types.NUMERIC;
+    }
+
+    @Override
+    public Class<T> returnedClass() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(T x, T y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(T x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public T nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        BigDecimal value = rs.getBigDecimal(position);
+        return value != null ? fromDecimal(value) : null;
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, T value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.NUMERIC);
+        } else {
+            st.setBigDecimal(index, toDecimal(value));
+        }
+    }
+
+    @Override
+    public T deepCopy(T value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(T value) {
+        return value != null ? toDecimal(value) : null;
+    }
+
+    @Override
+    public T assemble(Serializable cached, Object owner) {
+        return cached != null ? fromDecimal((BigDecimal) cached) : null;
+    }
+}
@@ -1,25 +1,32 @@
 package com.cimb.wealth.domain;
 
+import com.cimb.wealth.event.SubscriptionEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "goals")
-@Data
+@Getter
+@Setter
+@ToString(exclude = "user")
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, SubscriptionEntityListener.class})
 public class Goal {
     
     @Id
@@ -40,11 +47,13 @@ public class Goal {
     @Column(nullable = false)
     private Priority priority;
     
+    @Type(MoneyType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal targetAmount;
+    private Money targetAmount;
     
+    @Type(MoneyType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal currentAmount;
+    private Money currentAmount;
     
     @Column(nullable = false)
     private LocalDate targetDate;
@@ -85,14 +94,28 @@ public class Goal {
     @PrePersist
     @PreUpdate
     public void calculateProgress() {
-        if (targetAmount != null && currentAmount != null && targetAmount.compareTo(BigDecimal.ZERO) > 0) {
-            progressPercentage = currentAmount
-                .divide(targetAmount, 4, BigDecimal.ROUND_HALF_UP)
-                .multiply(BigDecimal.valueOf(100));
+        if (targetAmount != null && currentAmount != null && targetAmount.signum() > 0) {
+            progressPercentage = currentAmount.percentOf(targetAmount, RoundingMode.HALF_UP);
             
             if (progressPercentage.compareTo(BigDecimal.valueOf(100)) >= 0) {
                 status = GoalStatus.COMPLETED;
             }
         }
     }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Goal other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Goal.class.hashCode();
+    }
 }
@@ -1,24 +1,32 @@
 package com.cimb.wealth.domain;
 
+import com.cimb.wealth.event.PortfolioEntityListener;
+import com.cimb.wealth.event.SubscriptionEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "holdings")
-@Data
+@Getter
+@Setter
+@ToString(exclude = "account")
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, SubscriptionEntityListener.class, PortfolioEntityListener.class})
 public class Holding {
     
     @Id
@@ -38,22 +46,27 @@ public class Holding {
     @Column(nullable = false)
     private String sector;
     
+    @Type(QuantityType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal quantity;
+    private Quantity quantity;
     
+    @Type(MoneyType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal currentPrice;
+    private Money currentPrice;
     
+    @Type(MoneyType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal averageCost;
+    private Money averageCost;
     
+    @Type(MoneyType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal marketValue;
+    private Money marketValue;
     
+    @Type(MoneyType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal unrealizedGainLoss;
+    private Money unrealizedGainLoss;
     
-    @Column(nullable = false, precision = 5, scale = 2)
+    @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal unrealizedGainLossPercentage;
     
     @CreatedDate
@@ -75,18 +88,32 @@ public class Holding {
     @PreUpdate
     public void calculateValues() {
         if (quantity != null && currentPrice != null) {
-            marketValue = quantity.multiply(currentPrice);
+            marketValue = quantity.times(currentPrice, RoundingMode.HALF_UP);
         }
         
         if (quantity != null && averageCost != null && currentPrice != null) {
-            BigDecimal totalCost = quantity.multiply(averageCost);
-            unrealizedGainLoss = marketValue.subtract(totalCost);
+            Money totalCost = quantity.times(averageCost, RoundingMode.HALF_UP);
+            unrealizedGainLoss = marketValue.minus(totalCost);
             
-            if (totalCost.compareTo(BigDecimal.ZERO) > 0) {
-                unrealizedGainLossPercentage = unrealizedGainLoss
-                    .divide(totalCost, 4, BigDecimal.ROUND_HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
+            if (totalCost.signum() > 0) {
+                unrealizedGainLossPercentage = unrealizedGainLoss.percentOf(totalCost, RoundingMode.HALF_UP);
             }
         }
     }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Holding other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Holding.class.hashCode();
+    }
 }
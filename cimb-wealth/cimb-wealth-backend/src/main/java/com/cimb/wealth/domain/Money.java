@@ -0,0 +1,90 @@
+package com.cimb.wealth.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money held as a whole number of hundredths, the scale of every monetary
+ * column. Addition is exact and throws on overflow; operations that produce more decimals
+ * than that take the rounding mode to apply.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private final long units;
+
+    private Money(long units) {
+        this.units = units;
+    }
+
+    public static Money ofUnits(long units) {
+        return units == 0 ? ZERO : new Money(units);
+    }
+
+    /**
+     * The exact amount; throws {@link ArithmeticException} if it has more than two decimals.
+     */
+    public static Money of(BigDecimal value) {
+        return of(value, RoundingMode.UNNECESSARY);
+    }
+
+    public static Money of(BigDecimal value, RoundingMode roundingMode) {
+        return ofUnits(FixedPoint.fromDecimal(value, roundingMode));
+    }
+
+    public static Money of(String value) {
+        return of(new BigDecimal(value));
+    }
+
+    public long units() {
+        return units;
+    }
+
+    public Money plus(Money other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Money minus(Money other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public Money negate() {
+        return ofUnits(Math.negateExact(units));
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    /**
+     * This amount as a percentage of {@code whole}, with two decimals.
+     */
+    public BigDecimal percentOf(Money whole, RoundingMode roundingMode) {
+        return FixedPoint.toDecimal(FixedPoint.multiplyDivide(units, 100 * FixedPoint.ONE, whole.units, roundingMode));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return FixedPoint.toDecimal(units);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && units == other.units);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
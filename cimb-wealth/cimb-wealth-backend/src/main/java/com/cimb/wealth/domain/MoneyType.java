@@ -0,0 +1,22 @@
+package com.cimb.wealth.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public class MoneyType extends FixedPointType<Money> {
+
+    public MoneyType() {
+        super(Money.class);
+    }
+
+    // Columns are NUMERIC(19,2), so a value read back is always exact
+    @Override
+    protected Money fromDecimal(BigDecimal value) {
+        return Money.of(value, RoundingMode.UNNECESSARY);
+    }
+
+    @Override
+    protected BigDecimal toDecimal(Money value) {
+        return value.toBigDecimal();
+    }
+}
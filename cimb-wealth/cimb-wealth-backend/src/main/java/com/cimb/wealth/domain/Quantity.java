@@ -0,0 +1,85 @@
+package com.cimb.wealth.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A number of units of an asset, held like {@link Money} as a whole number of hundredths.
+ */
+public final class Quantity implements Comparable<Quantity> {
+
+    public static final Quantity ZERO = new Quantity(0);
+
+    private final long units;
+
+    private Quantity(long units) {
+        this.units = units;
+    }
+
+    public static Quantity ofUnits(long units) {
+        return units == 0 ? ZERO : new Quantity(units);
+    }
+
+    public static Quantity of(BigDecimal value) {
+        return of(value, RoundingMode.UNNECESSARY);
+    }
+
+    public static Quantity of(BigDecimal value, RoundingMode roundingMode) {
+        return ofUnits(FixedPoint.fromDecimal(value, roundingMode));
+    }
+
+    public static Quantity of(String value) {
+        return of(new BigDecimal(value));
+    }
+
+    public long units() {
+        return units;
+    }
+
+    public Quantity plus(Quantity other) {
+        return ofUnits(Math.addExact(units, other.units));
+    }
+
+    public Quantity minus(Quantity other) {
+        return ofUnits(Math.subtractExact(units, other.units));
+    }
+
+    public Quantity negate() {
+        return ofUnits(Math.negateExact(units));
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    /**
+     * The value of this quantity at {@code price} per unit, rounded to hundredths.
+     */
+    public Money times(Money price, RoundingMode roundingMode) {
+        return Money.ofUnits(FixedPoint.multiplyDivide(units, price.units(), FixedPoint.ONE, roundingMode));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return FixedPoint.toDecimal(units);
+    }
+
+    @Override
+    public int compareTo(Quantity other) {
+        return Long.compare(units, other.units);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Quantity other && units == other.units);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.cimb.wealth.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public class QuantityType extends FixedPointType<Quantity> {
+
+    public QuantityType() {
+        super(Quantity.class);
+    }
+
+    @Override
+    protected Quantity fromDecimal(BigDecimal value) {
+        return Quantity.of(value, RoundingMode.UNNECESSARY);
+    }
+
+    @Override
+    protected BigDecimal toDecimal(Quantity value) {
+        return value.toBigDecimal();
+    }
+}
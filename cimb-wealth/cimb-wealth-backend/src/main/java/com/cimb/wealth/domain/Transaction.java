@@ -1,24 +1,31 @@
 package com.cimb.wealth.domain;
 
+import com.cimb.wealth.event.PortfolioEntityListener;
+import com.cimb.wealth.event.SubscriptionEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "transactions")
-@Data
+@Getter
+@Setter
+@ToString(exclude = "account")
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, SubscriptionEntityListener.class, PortfolioEntityListener.class})
 public class Transaction {
     
     @Id
@@ -38,20 +45,25 @@ public class Transaction {
     @Column(nullable = false)
     private String assetName;
     
+    @Type(QuantityType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal quantity;
+    private Quantity quantity;
     
+    @Type(MoneyType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal price;
+    private Money price;
     
+    @Type(MoneyType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
     
+    @Type(MoneyType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal fees;
+    private Money fees;
     
+    @Type(MoneyType.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     
     @Column(length = 500)
     private String description;
@@ -83,15 +95,31 @@ public class Transaction {
     @PreUpdate
     public void calculateAmounts() {
         if (quantity != null && price != null) {
-            amount = quantity.multiply(price);
+            amount = quantity.times(price, RoundingMode.HALF_UP);
         }
         
         if (amount != null && fees != null) {
             if (transactionType == TransactionType.BUY || transactionType == TransactionType.DEPOSIT) {
-                totalAmount = amount.add(fees);
+                totalAmount = amount.plus(fees);
             } else {
-                totalAmount = amount.subtract(fees);
+                totalAmount = amount.minus(fees);
             }
         }
     }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Transaction other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Transaction.class.hashCode();
+    }
 }
@@ -3,8 +3,10 @@ package com.cimb.wealth.domain;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -15,7 +17,9 @@ import java.util.Set;
 
 @Entity
 @Table(name = "users")
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"password", "accounts", "goals"})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -52,6 +56,10 @@ public class User {
     @Column(nullable = false)
     private Boolean active = true;
     
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer tokenVersion = 0;
+    
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -76,4 +84,22 @@ public class User {
     public String getFullName() {
         return firstName + " " + lastName;
     }
+    
+    // Identity is the database id; unsaved instances are only equal to themselves. The
+    // hash code is constant so it does not change when the id is assigned on persist.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof User other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return User.class.hashCode();
+    }
 }
@@ -0,0 +1,29 @@
+package com.cimb.wealth.dto;
+
+import com.cimb.wealth.domain.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientPortfolioDto {
+    private Long userId;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private User.RiskProfile riskProfile;
+    private BigDecimal totalValue;
+    private BigDecimal totalGainLoss;
+    private BigDecimal totalGainLossPercentage;
+    private Integer holdingCount;
+    private LocalDateTime lastTransactionAt;
+    private LocalDateTime snapshotAt;
+    private LocalDateTime createdAt;
+}
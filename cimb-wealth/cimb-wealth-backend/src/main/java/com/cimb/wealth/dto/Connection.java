@@ -0,0 +1,67 @@
+package com.cimb.wealth.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Relay connection for one page of results. The total count is only queried when a client
+ * selects {@code totalCount}, and at most once.
+ */
+public class Connection<T> {
+
+    private final List<Edge<T>> edges;
+
+    private final PageInfo pageInfo;
+
+    private final LongSupplier totalCountQuery;
+
+    private volatile Long totalCount;
+
+    public Connection(List<Edge<T>> edges, PageInfo pageInfo, LongSupplier totalCountQuery) {
+        this.edges = edges;
+        this.pageInfo = pageInfo;
+        this.totalCountQuery = totalCountQuery;
+    }
+
+    /**
+     * Builds a page from {@code rows}, which were fetched with a limit of {@code first + 1}
+     * so the extra row only signals that another page exists.
+     */
+    public static <E, T> Connection<T> of(List<E> rows, int first, boolean hasPreviousPage,
+                                          Function<E, T> mapper, Function<E, String> cursor,
+                                          LongSupplier totalCountQuery) {
+        int size = Math.min(rows.size(), first);
+        List<Edge<T>> edges = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            E row = rows.get(i);
+            edges.add(new Edge<>(mapper.apply(row), cursor.apply(row)));
+        }
+
+        PageInfo pageInfo = PageInfo.builder()
+            .hasNextPage(rows.size() > first)
+            .hasPreviousPage(hasPreviousPage)
+            .startCursor(edges.isEmpty() ? null : edges.get(0).getCursor())
+            .endCursor(edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor())
+            .build();
+        return new Connection<>(edges, pageInfo, totalCountQuery);
+    }
+
+    public List<Edge<T>> getEdges() {
+        return edges;
+    }
+
+    public PageInfo getPageInfo() {
+        return pageInfo;
+    }
+
+    public int getTotalCount() {
+        Long count = totalCount;
+        if (count == null) {
+            count = totalCountQuery.getAsLong();
+            totalCount = count;
+        }
+        return Math.toIntExact(count);
+    }
+}
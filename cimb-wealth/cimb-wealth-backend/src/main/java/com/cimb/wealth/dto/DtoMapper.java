@@ -0,0 +1,116 @@
+package com.cimb.wealth.dto;
+
+import com.cimb.wealth.domain.Account;
+import com.cimb.wealth.domain.Goal;
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.domain.Quantity;
+import com.cimb.wealth.domain.Transaction;
+import com.cimb.wealth.domain.User;
+
+import java.math.BigDecimal;
+
+/**
+ * Entity to DTO mapping. Parent references are mapped to ids only; reading the id of a lazy
+ * association does not initialize it.
+ */
+public final class DtoMapper {
+
+    private DtoMapper() {
+    }
+
+    public static UserDto toUserDto(User user) {
+        return UserDto.builder()
+            .id(user.getId())
+            .email(user.getEmail())
+            .firstName(user.getFirstName())
+            .lastName(user.getLastName())
+            .phoneNumber(user.getPhoneNumber())
+            .role(user.getRole())
+            .riskProfile(user.getRiskProfile())
+            .active(user.getActive())
+            .createdAt(user.getCreatedAt())
+            .updatedAt(user.getUpdatedAt())
+            .build();
+    }
+
+    public static AccountDto toAccountDto(Account account) {
+        return AccountDto.builder()
+            .id(account.getId())
+            .accountNumber(account.getAccountNumber())
+            .accountName(account.getAccountName())
+            .accountType(account.getAccountType())
+            .balance(account.getBalance())
+            .active(account.getActive())
+            .createdAt(account.getCreatedAt())
+            .updatedAt(account.getUpdatedAt())
+            .userId(account.getUser().getId())
+            .build();
+    }
+
+    public static HoldingDto toHoldingDto(Holding holding) {
+        return HoldingDto.builder()
+            .id(holding.getId())
+            .ticker(holding.getTicker())
+            .assetName(holding.getAssetName())
+            .assetType(holding.getAssetType())
+            .sector(holding.getSector())
+            .quantity(decimal(holding.getQuantity()))
+            .currentPrice(decimal(holding.getCurrentPrice()))
+            .averageCost(decimal(holding.getAverageCost()))
+            .marketValue(decimal(holding.getMarketValue()))
+            .unrealizedGainLoss(decimal(holding.getUnrealizedGainLoss()))
+            .unrealizedGainLossPercentage(holding.getUnrealizedGainLossPercentage())
+            .createdAt(holding.getCreatedAt())
+            .updatedAt(holding.getUpdatedAt())
+            .accountId(holding.getAccount().getId())
+            .build();
+    }
+
+    public static TransactionDto toTransactionDto(Transaction transaction) {
+        return TransactionDto.builder()
+            .id(transaction.getId())
+            .transactionId(transaction.getTransactionId())
+            .transactionType(transaction.getTransactionType())
+            .ticker(transaction.getTicker())
+            .assetName(transaction.getAssetName())
+            .quantity(decimal(transaction.getQuantity()))
+            .price(decimal(transaction.getPrice()))
+            .amount(decimal(transaction.getAmount()))
+            .fees(decimal(transaction.getFees()))
+            .totalAmount(decimal(transaction.getTotalAmount()))
+            .description(transaction.getDescription())
+            .status(transaction.getStatus())
+            .createdAt(transaction.getCreatedAt())
+            .updatedAt(transaction.getUpdatedAt())
+            .accountId(transaction.getAccount().getId())
+            .build();
+    }
+
+    public static GoalDto toGoalDto(Goal goal) {
+        return GoalDto.builder()
+            .id(goal.getId())
+            .title(goal.getTitle())
+            .description(goal.getDescription())
+            .goalType(goal.getGoalType())
+            .priority(goal.getPriority())
+            .targetAmount(decimal(goal.getTargetAmount()))
+            .currentAmount(decimal(goal.getCurrentAmount()))
+            .targetDate(goal.getTargetDate())
+            .startDate(goal.getStartDate())
+            .status(goal.getStatus())
+            .progressPercentage(goal.getProgressPercentage())
+            .createdAt(goal.getCreatedAt())
+            .updatedAt(goal.getUpdatedAt())
+            .userId(goal.getUser().getId())
+            .build();
+    }
+
+    public static BigDecimal decimal(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+
+    public static BigDecimal decimal(Quantity quantity) {
+        return quantity != null ? quantity.toBigDecimal() : null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.cimb.wealth.dto;
+
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.domain.Quantity;
+
+import java.math.BigDecimal;
+import java.util.function.BiConsumer;
+
+/**
+ * Column projections for the DTOs returned by connections. Every projection selects the
+ * id and creation time, which the keyset cursor is built from.
+ */
+public final class DtoProjections {
+
+    public static final EntityProjection<UserDto> USER = EntityProjection.of("User", UserDto::new)
+        .column("id", UserDto::setId)
+        .column("email", UserDto::setEmail)
+        .column("firstName", UserDto::setFirstName)
+        .column("lastName", UserDto::setLastName)
+        .column("phoneNumber", UserDto::setPhoneNumber)
+        .column("role", UserDto::setRole)
+        .column("riskProfile", UserDto::setRiskProfile)
+        .column("active", UserDto::setActive)
+        .column("createdAt", UserDto::setCreatedAt)
+        .column("updatedAt", UserDto::setUpdatedAt)
+        .association("accounts", "id")
+        .association("goals", "id")
+        .required("id", "createdAt");
+
+    public static final EntityProjection<AccountDto> ACCOUNT = EntityProjection.of("Account", AccountDto::new)
+        .column("id", AccountDto::setId)
+        .column("accountNumber", AccountDto::setAccountNumber)
+        .column("accountName", AccountDto::setAccountName)
+        .column("accountType", AccountDto::setAccountType)
+        .column("balance", AccountDto::setBalance)
+        .column("active", AccountDto::setActive)
+        .column("createdAt", AccountDto::setCreatedAt)
+        .column("updatedAt", AccountDto::setUpdatedAt)
+        .column("userId", "user.id", AccountDto::setUserId)
+        .association("user", "userId")
+        .association("holdings", "id")
+        .association("transactions", "id")
+        .required("id", "createdAt");
+
+    public static final EntityProjection<HoldingDto> HOLDING = EntityProjection.of("Holding", HoldingDto::new)
+        .column("id", HoldingDto::setId)
+        .column("ticker", HoldingDto::setTicker)
+        .column("assetName", HoldingDto::setAssetName)
+        .column("assetType", HoldingDto::setAssetType)
+        .column("sector", HoldingDto::setSector)
+        .column("quantity", quantity(HoldingDto::setQuantity))
+        .column("currentPrice", money(HoldingDto::setCurrentPrice))
+        .column("averageCost", money(HoldingDto::setAverageCost))
+        .column("marketValue", money(HoldingDto::setMarketValue))
+        .column("unrealizedGainLoss", money(HoldingDto::setUnrealizedGainLoss))
+        .column("unrealizedGainLossPercentage", HoldingDto::setUnrealizedGainLossPercentage)
+        .column("createdAt", HoldingDto::setCreatedAt)
+        .column("updatedAt", HoldingDto::setUpdatedAt)
+        .column("accountId", "account.id", HoldingDto::setAccountId)
+        .association("account", "accountId")
+        .required("id", "createdAt");
+
+    public static final EntityProjection<TransactionDto> TRANSACTION = EntityProjection.of("Transaction", TransactionDto::new)
+        .column("id", TransactionDto::setId)
+        .column("transactionId", TransactionDto::setTransactionId)
+        .column("transactionType", TransactionDto::setTransactionType)
+        .column("ticker", TransactionDto::setTicker)
+        .column("assetName", TransactionDto::setAssetName)
+        .column("quantity", quantity(TransactionDto::setQuantity))
+        .column("price", money(TransactionDto::setPrice))
+        .column("amount", money(TransactionDto::setAmount))
+        .column("fees", money(TransactionDto::setFees))
+        .column("totalAmount", money(TransactionDto::setTotalAmount))
+        .column("description", TransactionDto::setDescription)
+        .column("status", TransactionDto::setStatus)
+        .column("createdAt", TransactionDto::setCreatedAt)
+        .column("updatedAt", TransactionDto::setUpdatedAt)
+        .column("accountId", "account.id", TransactionDto::setAccountId)
+        .association("account", "accountId")
+        .required("id", "createdAt");
+
+    public static final EntityProjection<GoalDto> GOAL = EntityProjection.of("Goal", GoalDto::new)
+        .column("id", GoalDto::setId)
+        .column("title", GoalDto::setTitle)
+        .column("description", GoalDto::setDescription)
+        .column("goalType", GoalDto::setGoalType)
+        .column("priority", GoalDto::setPriority)
+        .column("targetAmount", money(GoalDto::setTargetAmount))
+        .column("currentAmount", money(GoalDto::setCurrentAmount))
+        .column("targetDate", GoalDto::setTargetDate)
+        .column("startDate", GoalDto::setStartDate)
+        .column("status", GoalDto::setStatus)
+        .column("progressPercentage", GoalDto::setProgressPercentage)
+        .column("createdAt", GoalDto::setCreatedAt)
+        .column("updatedAt", GoalDto::setUpdatedAt)
+        .column("userId", "user.id", GoalDto::setUserId)
+        .association("user", "userId")
+        .required("id", "createdAt");
+
+    private DtoProjections() {
+    }
+
+    // Fixed-point attributes are selected as the domain type and exposed as decimals
+    private static <D> BiConsumer<D, Money> money(BiConsumer<D, BigDecimal> setter) {
+        return (dto, value) -> setter.accept(dto, DtoMapper.decimal(value));
+    }
+
+    private static <D> BiConsumer<D, Quantity> quantity(BiConsumer<D, BigDecimal> setter) {
+        return (dto, value) -> setter.accept(dto, DtoMapper.decimal(value));
+    }
+}
@@ -0,0 +1,94 @@
+package com.cimb.wealth.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Maps GraphQL fields of a type to entity attributes, so a query can select only the
+ * columns a client asked for and fill a DTO from the row without loading the entity.
+ * Association fields select the key their batch mapping needs.
+ */
+public final class EntityProjection<D> {
+
+    private final String entityName;
+
+    private final Supplier<D> factory;
+
+    private final Map<String, Column<D>> columns = new LinkedHashMap<>();
+
+    private final Map<String, String> associations = new HashMap<>();
+
+    private final Set<String> required = new LinkedHashSet<>();
+
+    private EntityProjection(String entityName, Supplier<D> factory) {
+        this.entityName = entityName;
+        this.factory = factory;
+    }
+
+    public static <D> EntityProjection<D> of(String entityName, Supplier<D> factory) {
+        return new EntityProjection<>(entityName, factory);
+    }
+
+    public <V> EntityProjection<D> column(String field, BiConsumer<D, V> setter) {
+        return column(field, field, setter);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> EntityProjection<D> column(String field, String path, BiConsumer<D, V> setter) {
+        columns.put(field, new Column<>(field, path, (BiConsumer<D, Object>) setter));
+        return this;
+    }
+
+    public EntityProjection<D> association(String field, String keyField) {
+        associations.put(field, keyField);
+        return this;
+    }
+
+    public EntityProjection<D> required(String... fields) {
+        required.addAll(List.of(fields));
+        return this;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /**
+     * Columns to select for the requested fields. Fields without a column, such as
+     * {@code __typename}, are ignored.
+     */
+    public List<Column<D>> columnsFor(Collection<String> fields) {
+        Set<String> selected = new LinkedHashSet<>(required);
+        for (String field : fields) {
+            if (columns.containsKey(field)) {
+                selected.add(field);
+            } else if (associations.containsKey(field)) {
+                selected.add(associations.get(field));
+            }
+        }
+        List<Column<D>> result = new ArrayList<>(selected.size());
+        for (String field : selected) {
+            result.add(columns.get(field));
+        }
+        return result;
+    }
+
+    public D map(List<Column<D>> selected, Object[] row) {
+        D dto = factory.get();
+        for (int i = 0; i < selected.size(); i++) {
+            selected.get(i).setter().accept(dto, row[i]);
+        }
+        return dto;
+    }
+
+    public record Column<D>(String field, String path, BiConsumer<D, Object> setter) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.cimb.wealth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageInfo {
+    private boolean hasNextPage;
+    private boolean hasPreviousPage;
+    private String startCursor;
+    private String endCursor;
+}
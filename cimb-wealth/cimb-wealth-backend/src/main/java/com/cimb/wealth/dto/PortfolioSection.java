@@ -0,0 +1,8 @@
+package com.cimb.wealth.dto;
+
+public enum PortfolioSection {
+    ASSET_ALLOCATION,
+    SECTOR_ALLOCATION,
+    TOP_HOLDINGS,
+    RECENT_TRANSACTIONS
+}
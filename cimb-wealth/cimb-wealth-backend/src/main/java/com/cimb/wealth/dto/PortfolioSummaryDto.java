@@ -1,40 +1,45 @@
 package com.cimb.wealth.dto;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Getter;
 
-@Data
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Portfolio totals of one user. The list sections are resolved separately so they can be
+ * loaded in parallel; each is loaded at most once per summary and shared by concurrent
+ * requests while it is in flight. A failed section is forgotten so the next request
+ * retries it.
+ */
+@Getter
 @Builder
-@NoArgsConstructor
-@AllArgsConstructor
 public class PortfolioSummaryDto {
-    private Double totalValue;
-    private Double totalGainLoss;
-    private Double totalGainLossPercentage;
-    private java.util.List<AssetAllocationDto> assetAllocation;
-    private java.util.List<SectorAllocationDto> sectorAllocation;
-    private java.util.List<HoldingDto> topHoldings;
-    private java.util.List<TransactionDto> recentTransactions;
-}
+    private final Long userId;
+    private final BigDecimal totalValue;
+    private final BigDecimal totalGainLoss;
+    private final BigDecimal totalGainLossPercentage;
 
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-class AssetAllocationDto {
-    private String assetType;
-    private Double value;
-    private Double percentage;
-}
+    @Getter(AccessLevel.NONE)
+    @Builder.Default
+    private final Map<PortfolioSection, CompletableFuture<?>> sections = new ConcurrentHashMap<>();
 
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-class SectorAllocationDto {
-    private String sector;
-    private Double value;
-    private Double percentage;
+    public <T> void preload(PortfolioSection section, T value) {
+        sections.put(section, CompletableFuture.completedFuture(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> section(PortfolioSection section, Supplier<CompletableFuture<T>> loader) {
+        CompletableFuture<T> future = (CompletableFuture<T>) sections.computeIfAbsent(section, key -> loader.get());
+        future.whenComplete((value, failure) -> {
+            if (failure != null) {
+                sections.remove(section, future);
+            }
+        });
+        return future;
+    }
 }
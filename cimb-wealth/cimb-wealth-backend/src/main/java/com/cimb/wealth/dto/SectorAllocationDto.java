@@ -0,0 +1,18 @@
+package com.cimb.wealth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SectorAllocationDto {
+    private String sector;
+    private BigDecimal value;
+    private BigDecimal percentage;
+}
@@ -0,0 +1,8 @@
+package com.cimb.wealth.event;
+
+/**
+ * A write that changes the portfolio of one user. Holding and transaction writes only know
+ * their account, so {@code userId} is null for them.
+ */
+public record PortfolioChangedEvent(Long userId, Long accountId) {
+}
@@ -0,0 +1,33 @@
+package com.cimb.wealth.event;
+
+import com.cimb.wealth.domain.Account;
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.domain.Transaction;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Publishes a {@link PortfolioChangedEvent} for every account, holding and transaction
+ * write. Only ids are read, so lazy parents are not initialized.
+ */
+@RequiredArgsConstructor
+public class PortfolioEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (entity instanceof Account account) {
+            eventPublisher.publishEvent(new PortfolioChangedEvent(account.getUser().getId(), account.getId()));
+        } else if (entity instanceof Holding holding) {
+            eventPublisher.publishEvent(new PortfolioChangedEvent(null, holding.getAccount().getId()));
+        } else if (entity instanceof Transaction transaction) {
+            eventPublisher.publishEvent(new PortfolioChangedEvent(null, transaction.getAccount().getId()));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.cimb.wealth.event;
+
+import com.cimb.wealth.domain.Goal;
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.domain.Transaction;
+import com.cimb.wealth.dto.DtoMapper;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Turns writes of subscribable entities into {@link SubscriptionEvent}s. Events are
+ * published as application events so {@link SubscriptionEventBus} only sees them once the
+ * surrounding transaction commits. The DTO is built here, while the entity is still managed.
+ */
+@RequiredArgsConstructor
+public class SubscriptionEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void created(Object entity) {
+        if (entity instanceof Transaction transaction) {
+            publish(SubscriptionEvent.Topic.TRANSACTION_CREATED, transaction.getAccount().getId(),
+                transaction.getId(), DtoMapper.toTransactionDto(transaction));
+        } else if (entity instanceof Holding holding) {
+            publishHolding(holding);
+        }
+    }
+
+    @PostUpdate
+    public void updated(Object entity) {
+        if (entity instanceof Transaction transaction) {
+            publish(SubscriptionEvent.Topic.TRANSACTION_UPDATED, transaction.getAccount().getId(),
+                transaction.getId(), DtoMapper.toTransactionDto(transaction));
+        } else if (entity instanceof Holding holding) {
+            publishHolding(holding);
+        } else if (entity instanceof Goal goal) {
+            publish(SubscriptionEvent.Topic.GOAL_PROGRESS_UPDATED, goal.getUser().getId(),
+                goal.getId(), DtoMapper.toGoalDto(goal));
+        }
+    }
+
+    private void publishHolding(Holding holding) {
+        publish(SubscriptionEvent.Topic.HOLDING_UPDATED, holding.getAccount().getId(),
+            holding.getId(), DtoMapper.toHoldingDto(holding));
+    }
+
+    private void publish(SubscriptionEvent.Topic topic, Long key, Long entityId, Object payload) {
+        eventPublisher.publishEvent(new SubscriptionEvent(topic, key, entityId, payload));
+    }
+}
@@ -0,0 +1,15 @@
+package com.cimb.wealth.event;
+
+/**
+ * A committed change delivered to GraphQL subscribers. The key is the account id for
+ * transaction and holding topics and the user id for goals; the payload is the DTO.
+ */
+public record SubscriptionEvent(Topic topic, Long key, Long entityId, Object payload) {
+
+    public enum Topic {
+        TRANSACTION_CREATED,
+        TRANSACTION_UPDATED,
+        HOLDING_UPDATED,
+        GOAL_PROGRESS_UPDATED
+    }
+}
@@ -0,0 +1,149 @@
+package com.cimb.wealth.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of committed changes to GraphQL subscriptions. Publishing never waits
+ * for a subscriber: each subscriber has its own bounded buffer that drops its oldest events
+ * when the client falls behind, and delivery to the client runs on a dispatch scheduler.
+ * Holding and goal updates are latest-value topics: updates to the same entity within the
+ * coalesce window are merged, so a burst of price changes sends each holding once.
+ */
+@Component
+@Slf4j
+public class SubscriptionEventBus {
+
+    private static final Duration EMIT_RETRY = Duration.ofMillis(100);
+
+    // Events handed to the dispatch thread at a time; the rest wait in the subscriber buffer
+    private static final int DISPATCH_PREFETCH = 16;
+
+    private final Map<SubscriptionEvent.Topic, Sinks.Many<SubscriptionEvent>> sinks =
+        new EnumMap<>(SubscriptionEvent.Topic.class);
+
+    private final Map<SubscriptionEvent.Topic, Counter> droppedCounters =
+        new EnumMap<>(SubscriptionEvent.Topic.class);
+
+    private final Map<SubscriptionEvent.Topic, AtomicInteger> activeSubscribers =
+        new EnumMap<>(SubscriptionEvent.Topic.class);
+
+    // Subscriber count per key, for bulk writers that build events one key at a time
+    private final Map<SubscriptionEvent.Topic, ConcurrentMap<Long, Integer>> subscribedKeys =
+        new EnumMap<>(SubscriptionEvent.Topic.class);
+
+    private final int bufferSize;
+
+    private final Duration coalesceWindow;
+
+    private final Scheduler dispatchScheduler;
+
+    public SubscriptionEventBus(MeterRegistry meterRegistry,
+                                @Value("${cimb.graphql.subscriptions.buffer-size:256}") int bufferSize,
+                                @Value("${cimb.graphql.subscriptions.coalesce-window:250ms}") Duration coalesceWindow,
+                                @Value("${cimb.graphql.subscriptions.dispatch-threads:8}") int dispatchThreads) {
+        this.bufferSize = bufferSize;
+        this.coalesceWindow = coalesceWindow;
+        this.dispatchScheduler = Schedulers.newBoundedElastic(dispatchThreads, Integer.MAX_VALUE, "graphql-subscriptions");
+
+        for (SubscriptionEvent.Topic topic : SubscriptionEvent.Topic.values()) {
+            // Subscribers always request unbounded from the sink, their own buffer applies the limit
+            sinks.put(topic, Sinks.many().multicast().directBestEffort());
+            String tag = topic.name().toLowerCase();
+            droppedCounters.put(topic, Counter.builder("graphql.subscription.dropped")
+                .description("Subscription events dropped because a subscriber fell behind")
+                .tag("topic", tag)
+                .register(meterRegistry));
+            activeSubscribers.put(topic, meterRegistry.gauge("graphql.subscription.active",
+                List.of(Tag.of("topic", tag)), new AtomicInteger()));
+            subscribedKeys.put(topic, new ConcurrentHashMap<>());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(SubscriptionEvent event) {
+        // Concurrent publishers only contend for the hand-off into subscriber buffers
+        sinks.get(event.topic()).emitNext(event, Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY));
+    }
+
+    /**
+     * Whether anyone listens on the topic, so bulk writers can skip building payloads.
+     */
+    public boolean hasSubscribers(SubscriptionEvent.Topic topic) {
+        return sinks.get(topic).currentSubscriberCount() > 0;
+    }
+
+    /**
+     * Whether anyone listens on the topic for {@code key}.
+     */
+    public boolean hasSubscribers(SubscriptionEvent.Topic topic, Long key) {
+        return subscribedKeys.get(topic).containsKey(key);
+    }
+
+    public <T> Flux<T> subscribe(SubscriptionEvent.Topic topic, Long key, Class<T> payloadType) {
+        Flux<SubscriptionEvent> events = sinks.get(topic).asFlux()
+            .filter(event -> key.equals(event.key()));
+        if (topic == SubscriptionEvent.Topic.HOLDING_UPDATED || topic == SubscriptionEvent.Topic.GOAL_PROGRESS_UPDATED) {
+            events = coalesce(events);
+        }
+
+        Counter dropped = droppedCounters.get(topic);
+        AtomicInteger active = activeSubscribers.get(topic);
+        ConcurrentMap<Long, Integer> keys = subscribedKeys.get(topic);
+        return events
+            .onBackpressureBuffer(bufferSize, event -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST)
+            .publishOn(dispatchScheduler, DISPATCH_PREFETCH)
+            .map(event -> payloadType.cast(event.payload()))
+            .doOnSubscribe(subscription -> {
+                active.incrementAndGet();
+                keys.merge(key, 1, Integer::sum);
+            })
+            .doFinally(signal -> {
+                active.decrementAndGet();
+                keys.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+            });
+    }
+
+    // Keeps the last event per entity in each window, in the order of those last events
+    private Flux<SubscriptionEvent> coalesce(Flux<SubscriptionEvent> events) {
+        return events
+            .bufferTimeout(bufferSize, coalesceWindow)
+            .flatMapIterable(batch -> {
+                if (batch.size() == 1) {
+                    return batch;
+                }
+                Map<Long, SubscriptionEvent> latest = new LinkedHashMap<>();
+                for (SubscriptionEvent event : batch) {
+                    latest.remove(event.entityId());
+                    latest.put(event.entityId(), event);
+                }
+                return latest.values();
+            });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sinks.values().forEach(Sinks.Many::tryEmitComplete);
+        dispatchScheduler.dispose();
+    }
+}
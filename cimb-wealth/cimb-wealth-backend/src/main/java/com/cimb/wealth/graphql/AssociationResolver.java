@@ -0,0 +1,87 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.dto.AccountDto;
+import com.cimb.wealth.dto.GoalDto;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.dto.TransactionDto;
+import com.cimb.wealth.dto.UserDto;
+import com.cimb.wealth.service.AssociationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves nested object fields for a whole level of the result at once, so a list of N
+ * parents costs one query per association instead of N.
+ */
+@Controller
+@RequiredArgsConstructor
+public class AssociationResolver {
+
+    private final AssociationService associationService;
+
+    @BatchMapping(typeName = "User")
+    public List<List<AccountDto>> accounts(List<UserDto> users) {
+        Map<Long, List<AccountDto>> accounts = associationService.accountsByUserIds(ids(users, UserDto::getId));
+        return children(users, UserDto::getId, accounts);
+    }
+
+    @BatchMapping(typeName = "User")
+    public List<List<GoalDto>> goals(List<UserDto> users) {
+        Map<Long, List<GoalDto>> goals = associationService.goalsByUserIds(ids(users, UserDto::getId));
+        return children(users, UserDto::getId, goals);
+    }
+
+    @BatchMapping(typeName = "Account")
+    public List<List<HoldingDto>> holdings(List<AccountDto> accounts) {
+        Map<Long, List<HoldingDto>> holdings = associationService.holdingsByAccountIds(ids(accounts, AccountDto::getId));
+        return children(accounts, AccountDto::getId, holdings);
+    }
+
+    @BatchMapping(typeName = "Account")
+    public List<List<TransactionDto>> transactions(List<AccountDto> accounts) {
+        Map<Long, List<TransactionDto>> transactions = associationService.transactionsByAccountIds(ids(accounts, AccountDto::getId));
+        return children(accounts, AccountDto::getId, transactions);
+    }
+
+    @BatchMapping(typeName = "Account", field = "user")
+    public List<UserDto> accountUser(List<AccountDto> accounts) {
+        Map<Long, UserDto> users = associationService.usersByIds(ids(accounts, AccountDto::getUserId));
+        return accounts.stream().map(account -> users.get(account.getUserId())).toList();
+    }
+
+    @BatchMapping(typeName = "Holding", field = "account")
+    public List<AccountDto> holdingAccount(List<HoldingDto> holdings) {
+        Map<Long, AccountDto> accounts = associationService.accountsByIds(ids(holdings, HoldingDto::getAccountId));
+        return holdings.stream().map(holding -> accounts.get(holding.getAccountId())).toList();
+    }
+
+    @BatchMapping(typeName = "Transaction", field = "account")
+    public List<AccountDto> transactionAccount(List<TransactionDto> transactions) {
+        Map<Long, AccountDto> accounts = associationService.accountsByIds(ids(transactions, TransactionDto::getAccountId));
+        return transactions.stream().map(transaction -> accounts.get(transaction.getAccountId())).toList();
+    }
+
+    @BatchMapping(typeName = "Goal", field = "user")
+    public List<UserDto> goalUser(List<GoalDto> goals) {
+        Map<Long, UserDto> users = associationService.usersByIds(ids(goals, GoalDto::getUserId));
+        return goals.stream().map(goal -> users.get(goal.getUserId())).toList();
+    }
+
+    private static <P> Set<Long> ids(List<P> parents, Function<P, Long> id) {
+        return parents.stream().map(id).collect(Collectors.toSet());
+    }
+
+    // Batch results must line up with the parents, with an empty list for childless ones
+    private static <P, C> List<List<C>> children(List<P> parents, Function<P, Long> id, Map<Long, List<C>> byParent) {
+        return parents.stream()
+            .map(parent -> byParent.getOrDefault(id.apply(parent), List.of()))
+            .toList();
+    }
+}
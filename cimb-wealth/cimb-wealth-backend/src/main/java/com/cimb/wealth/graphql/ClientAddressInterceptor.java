@@ -0,0 +1,26 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.security.ClientAddressFilter;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Component
+public class ClientAddressInterceptor implements WebGraphQlInterceptor {
+
+    public static final String CLIENT_ADDRESS = "clientAddress";
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        Object clientAddress = request.getAttributes().get(ClientAddressFilter.CLIENT_ADDRESS_ATTRIBUTE);
+        if (clientAddress != null) {
+            request.configureExecutionInput((input, builder) ->
+                builder.graphQLContext(Map.of(CLIENT_ADDRESS, clientAddress)).build());
+        }
+        return chain.next(request);
+    }
+}
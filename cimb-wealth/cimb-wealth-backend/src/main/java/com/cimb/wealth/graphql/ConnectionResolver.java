@@ -0,0 +1,104 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.domain.Transaction;
+import com.cimb.wealth.dto.AccountDto;
+import com.cimb.wealth.dto.ClientPortfolioDto;
+import com.cimb.wealth.dto.Connection;
+import com.cimb.wealth.dto.GoalDto;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.dto.TransactionDto;
+import com.cimb.wealth.service.ConnectionQueryService;
+import lombok.Data;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+@Controller
+@RequiredArgsConstructor
+public class ConnectionResolver {
+
+    private final ConnectionQueryService connectionQueryService;
+
+    @QueryMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'ADVISOR')")
+    public Connection<AccountDto> accounts(@Argument("first") Integer first, @Argument("after") String after,
+                                           DataFetchingFieldSelectionSet selectionSet) {
+        return connectionQueryService.accounts(Selections.nodeFields(selectionSet), first, after);
+    }
+
+    @QueryMapping
+    @PreAuthorize("@accessControl.canAccessUser(#userId, authentication)")
+    public Connection<AccountDto> accountsByUser(@Argument("userId") Long userId, @Argument("first") Integer first, @Argument("after") String after,
+                                                 DataFetchingFieldSelectionSet selectionSet) {
+        return connectionQueryService.accountsByUser(Selections.nodeFields(selectionSet), userId, first, after);
+    }
+
+    @QueryMapping
+    @PreAuthorize("@accessControl.canAccessAccount(#accountId, authentication)")
+    public Connection<HoldingDto> holdings(@Argument("accountId") Long accountId, @Argument("first") Integer first, @Argument("after") String after,
+                                           @Argument("filter") HoldingFilter filter,
+                                           DataFetchingFieldSelectionSet selectionSet) {
+        HoldingFilter criteria = filter != null ? filter : new HoldingFilter();
+        return connectionQueryService.holdings(Selections.nodeFields(selectionSet), accountId, first, after,
+            criteria.getTicker(), criteria.getAssetType(), criteria.getSector());
+    }
+
+    @QueryMapping
+    @PreAuthorize("@accessControl.canAccessAccount(#accountId, authentication)")
+    public Connection<TransactionDto> transactions(@Argument("accountId") Long accountId, @Argument("first") Integer first, @Argument("after") String after,
+                                                   @Argument("filter") TransactionFilter filter,
+                                                   DataFetchingFieldSelectionSet selectionSet) {
+        TransactionFilter criteria = filter != null ? filter : new TransactionFilter();
+        return connectionQueryService.transactions(Selections.nodeFields(selectionSet), accountId, first, after,
+            criteria.getTransactionType(), criteria.getTicker(), criteria.getStatus(),
+            date(criteria.getStartDate()), date(criteria.getEndDate()));
+    }
+
+    @QueryMapping
+    @PreAuthorize("@accessControl.canAccessUser(#userId, authentication)")
+    public Connection<GoalDto> goals(@Argument("userId") Long userId, @Argument("first") Integer first, @Argument("after") String after,
+                                     DataFetchingFieldSelectionSet selectionSet) {
+        return connectionQueryService.goals(Selections.nodeFields(selectionSet), userId, first, after);
+    }
+
+    @QueryMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'ADVISOR')")
+    public Connection<ClientPortfolioDto> clientPortfolios(@Argument("first") Integer first, @Argument("after") String after) {
+        return connectionQueryService.clientPortfolios(first, after);
+    }
+
+    private static LocalDate date(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd: " + value);
+        }
+    }
+
+    // Input classes
+    @Data
+    public static class HoldingFilter {
+        private String ticker;
+        private Holding.AssetType assetType;
+        private String sector;
+    }
+
+    @Data
+    public static class TransactionFilter {
+        private Transaction.TransactionType transactionType;
+        private String ticker;
+        private Transaction.TransactionStatus status;
+        private String startDate;
+        private String endDate;
+    }
+}
@@ -0,0 +1,115 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.domain.Quantity;
+import graphql.GraphQLContext;
+import graphql.execution.CoercedVariables;
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.GraphQLScalarType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Locale;
+
+/**
+ * The {@code Decimal} scalar for amounts, prices and quantities. Values are written as
+ * strings so clients that parse JSON numbers into doubles keep every digit; strings,
+ * integers and floats are accepted as input.
+ */
+public final class DecimalScalar {
+
+    public static final GraphQLScalarType DECIMAL = GraphQLScalarType.newScalar()
+        .name("Decimal")
+        .description("Exact decimal number, serialized as a string")
+        .coercing(new DecimalCoercing())
+        .build();
+
+    private DecimalScalar() {
+    }
+
+    private static final class DecimalCoercing implements Coercing<BigDecimal, String> {
+
+        @Override
+        public String serialize(Object dataFetcherResult, GraphQLContext graphQLContext, Locale locale) {
+            BigDecimal value = toDecimal(dataFetcherResult);
+            if (value == null) {
+                throw new CoercingSerializeException("Expected a decimal value but was " + typeName(dataFetcherResult));
+            }
+            return value.toPlainString();
+        }
+
+        @Override
+        public BigDecimal parseValue(Object input, GraphQLContext graphQLContext, Locale locale) {
+            BigDecimal value = input instanceof String text ? parse(text) : toDecimal(input);
+            if (value == null) {
+                throw new CoercingParseValueException("Expected a decimal value but was " + typeName(input));
+            }
+            return value;
+        }
+
+        @Override
+        public BigDecimal parseLiteral(Value<?> input, CoercedVariables variables,
+                                       GraphQLContext graphQLContext, Locale locale) {
+            if (input instanceof StringValue string) {
+                BigDecimal value = parse(string.getValue());
+                if (value != null) {
+                    return value;
+                }
+            } else if (input instanceof IntValue integer) {
+                return new BigDecimal(integer.getValue());
+            } else if (input instanceof FloatValue decimal) {
+                return decimal.getValue();
+            }
+            throw new CoercingParseLiteralException("Expected a decimal literal but was " + typeName(input));
+        }
+
+        @Override
+        public Value<?> valueToLiteral(Object input, GraphQLContext graphQLContext, Locale locale) {
+            return StringValue.of(serialize(input, graphQLContext, locale));
+        }
+
+        private static BigDecimal toDecimal(Object value) {
+            if (value instanceof BigDecimal decimal) {
+                return decimal;
+            }
+            if (value instanceof Money money) {
+                return money.toBigDecimal();
+            }
+            if (value instanceof Quantity quantity) {
+                return quantity.toBigDecimal();
+            }
+            if (value instanceof BigInteger integer) {
+                return new BigDecimal(integer);
+            }
+            if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+                return BigDecimal.valueOf(((Number) value).longValue());
+            }
+            // Variables parsed from JSON arrive as doubles; their shortest representation is
+            // the number the client wrote
+            if (value instanceof Double || value instanceof Float) {
+                double number = ((Number) value).doubleValue();
+                return Double.isFinite(number) ? BigDecimal.valueOf(number) : null;
+            }
+            return null;
+        }
+
+        private static BigDecimal parse(String text) {
+            try {
+                return new BigDecimal(text.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static String typeName(Object value) {
+            return value == null ? "null" : value.getClass().getSimpleName();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.security.RateLimitExceededException;
+import graphql.ErrorClassification;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class GraphQlExceptionResolver extends DataFetcherExceptionResolverAdapter {
+
+    public enum ErrorType implements ErrorClassification {
+        TOO_MANY_REQUESTS
+    }
+
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+        if (ex instanceof RateLimitExceededException rateLimited) {
+            return GraphqlErrorBuilder.newError(env)
+                .errorType(ErrorType.TOO_MANY_REQUESTS)
+                .message(rateLimited.getMessage())
+                .extensions(Map.of("retryAfterSeconds", rateLimited.getRetryAfterSeconds()))
+                .build();
+        }
+        // Invalid client input such as a malformed cursor or page size
+        if (ex instanceof IllegalArgumentException) {
+            return GraphqlErrorBuilder.newError(env)
+                .errorType(org.springframework.graphql.execution.ErrorType.BAD_REQUEST)
+                .message(ex.getMessage())
+                .build();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cimb.wealth.graphql;
+
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.scheduler.BatchLoaderScheduler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+
+@Configuration
+public class GraphQlMetricsConfig {
+
+    // Batch loads run outside any data fetcher, so their SQL is counted by the scheduler
+    @Bean
+    public BatchLoaderRegistry batchLoaderRegistry() {
+        BatchLoaderScheduler scheduler = new OperationMetricsInstrumentation.StatementCountingScheduler();
+        return new DefaultBatchLoaderRegistry(() -> DataLoaderOptions.newOptions().setBatchLoaderScheduler(scheduler));
+    }
+}
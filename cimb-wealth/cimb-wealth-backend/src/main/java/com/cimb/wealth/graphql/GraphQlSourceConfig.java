@@ -0,0 +1,20 @@
+package com.cimb.wealth.graphql;
+
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+@Configuration
+public class GraphQlSourceConfig {
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedQueryCustomizer(PersistedQueryDocumentProvider documentProvider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentProvider));
+    }
+
+    @Bean
+    public RuntimeWiringConfigurer decimalScalarConfigurer() {
+        return wiring -> wiring.scalar(DecimalScalar.DECIMAL);
+    }
+}
@@ -0,0 +1,279 @@
+package com.cimb.wealth.graphql;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLFieldDefinition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.BatchLoaderEnvironment;
+import org.dataloader.scheduler.BatchLoaderScheduler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Records per-field resolver latency and per-operation duration, fetch count and SQL
+ * statement count, tagged by operation name. A field whose fetcher runs SQL once per
+ * parent more than the configured threshold within one operation is reported as an N+1,
+ * as are DataLoaders dispatched for one key at a time. Trivial property fetchers are not
+ * wrapped.
+ *
+ * <p>Operation names come from clients, so only names declared in the persisted query
+ * manifest become tag values; other named operations are recorded as {@code unregistered}.
+ */
+@Component
+@Slf4j
+public class OperationMetricsInstrumentation extends SimplePerformantInstrumentation {
+
+    static final String ANONYMOUS = "anonymous";
+
+    static final String UNREGISTERED = "unregistered";
+
+    static final String DATA_LOADER = "DataLoader";
+
+    // GraphQLContext entry through which batch loads find the operation that enqueued their keys
+    static final String STATE_KEY = OperationMetricsInstrumentation.class.getName() + ".state";
+
+    private final MeterRegistry meterRegistry;
+
+    private final PersistedQueryDocumentProvider documentProvider;
+
+    private final int nPlusOneThreshold;
+
+    public OperationMetricsInstrumentation(MeterRegistry meterRegistry,
+                                           PersistedQueryDocumentProvider documentProvider,
+                                           @Value("${cimb.graphql.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.documentProvider = documentProvider;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new OperationState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters,
+                                                                  InstrumentationState state) {
+        OperationState operation = (OperationState) state;
+        parameters.getExecutionInput().getGraphQLContext().put(STATE_KEY, operation);
+        return SimpleInstrumentationContext.whenCompleted((result, error) -> complete(operation, result, error));
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        String name = parameters.getExecutionContext().getOperationDefinition().getName();
+        if (name != null) {
+            ((OperationState) state).name = documentProvider.isRegisteredOperation(name) ? name : UNREGISTERED;
+        }
+        return SimpleInstrumentationContext.noOp();
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher()) {
+            return dataFetcher;
+        }
+        OperationState operation = (OperationState) state;
+        return environment -> fetch(dataFetcher, environment, operation);
+    }
+
+    private Object fetch(DataFetcher<?> dataFetcher, DataFetchingEnvironment environment,
+                         OperationState operation) throws Exception {
+        FieldStats field = operation.fields.computeIfAbsent(environment.getFieldDefinition(),
+            definition -> new FieldStats(fieldTimer(operation.name, environment, definition)));
+
+        // Statements issued by async continuations on other threads are not attributed
+        AtomicInteger statements = new AtomicInteger();
+        AtomicInteger previous = SqlStatementCounter.bind(statements);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = dataFetcher.get(environment);
+        } catch (Exception e) {
+            field.record(start, statements.get());
+            operation.statements.addAndGet(statements.get());
+            throw e;
+        } finally {
+            SqlStatementCounter.restore(previous);
+        }
+
+        operation.statements.addAndGet(statements.get());
+        if (result instanceof CompletionStage<?> stage) {
+            int issued = statements.get();
+            return stage.whenComplete((value, error) -> field.record(start, issued));
+        }
+        field.record(start, statements.get());
+        return result;
+    }
+
+    private void complete(OperationState operation, ExecutionResult result, Throwable error) {
+        String outcome = error == null && (result == null || result.getErrors().isEmpty()) ? "success" : "error";
+        Timer.builder("graphql.operation.duration")
+            .description("GraphQL operation execution time")
+            .tag("operation", operation.name)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(System.nanoTime() - operation.startNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("graphql.operation.sql.statements")
+            .description("SQL statements executed per GraphQL operation")
+            .tag("operation", operation.name)
+            .register(meterRegistry)
+            .record(operation.statements.get());
+
+        int fetches = 0;
+        for (Map.Entry<GraphQLFieldDefinition, FieldStats> entry : operation.fields.entrySet()) {
+            FieldStats field = entry.getValue();
+            fetches += field.invocations.get();
+            if (field.invocationsWithSql.get() > nPlusOneThreshold) {
+                reportNPlusOne(operation, field.timer.getId().getTag("field"),
+                    field.invocationsWithSql.get(), field.invocations.get(), field.statements.get());
+            }
+        }
+        if (operation.singleKeyBatchLoadsWithSql.get() > nPlusOneThreshold) {
+            reportNPlusOne(operation, DATA_LOADER, operation.singleKeyBatchLoadsWithSql.get(),
+                operation.batchLoads.get(), operation.batchStatements.get());
+        }
+        DistributionSummary.builder("graphql.operation.fetches")
+            .description("Non-trivial field fetches per GraphQL operation")
+            .tag("operation", operation.name)
+            .register(meterRegistry)
+            .record(fetches);
+    }
+
+    private void reportNPlusOne(OperationState operation, String coordinate, int withSql, int total, int statements) {
+        log.warn("Possible N+1 in operation {}: field {} ran SQL in {} of {} fetches ({} statements)",
+            operation.name, coordinate, withSql, total, statements);
+        Counter.builder("graphql.n-plus-one")
+            .description("Operations in which a field ran SQL once per parent above the threshold")
+            .tag("operation", operation.name)
+            .tag("field", coordinate)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private Timer fieldTimer(String operationName, DataFetchingEnvironment environment,
+                             GraphQLFieldDefinition definition) {
+        String coordinate = environment.getExecutionStepInfo().getObjectType().getName() + "." + definition.getName();
+        return Timer.builder("graphql.field.duration")
+            .description("GraphQL field resolver latency")
+            .tag("operation", operationName)
+            .tag("field", coordinate)
+            .register(meterRegistry);
+    }
+
+    static final class OperationState implements InstrumentationState {
+
+        private final long startNanos = System.nanoTime();
+
+        private final AtomicInteger statements = new AtomicInteger();
+
+        // Field definitions are per object type, so they identify a schema coordinate
+        private final Map<GraphQLFieldDefinition, FieldStats> fields = new ConcurrentHashMap<>();
+
+        private final AtomicInteger batchLoads = new AtomicInteger();
+
+        private final AtomicInteger singleKeyBatchLoadsWithSql = new AtomicInteger();
+
+        private final AtomicInteger batchStatements = new AtomicInteger();
+
+        private volatile String name = ANONYMOUS;
+
+        private void recordBatchLoad(int keys, int issued) {
+            statements.addAndGet(issued);
+            batchStatements.addAndGet(issued);
+            batchLoads.incrementAndGet();
+            if (keys == 1 && issued > 0) {
+                singleKeyBatchLoadsWithSql.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Runs each DataLoader dispatch with a statement counter bound, so association queries
+     * count towards the operation whose fields enqueued the keys. Spring provides the
+     * {@link GraphQLContext} as the batch loader context. Loaders that continue on another
+     * thread are only counted up to the point they return.
+     */
+    static final class StatementCountingScheduler implements BatchLoaderScheduler {
+
+        @Override
+        public <K, V> CompletionStage<List<V>> scheduleBatchLoader(ScheduledBatchLoaderCall<V> call, List<K> keys,
+                                                                   BatchLoaderEnvironment environment) {
+            return count(environment, keys, call::invoke);
+        }
+
+        @Override
+        public <K, V> CompletionStage<Map<K, V>> scheduleMappedBatchLoader(ScheduledMappedBatchLoaderCall<K, V> call,
+                                                                           List<K> keys,
+                                                                           BatchLoaderEnvironment environment) {
+            return count(environment, keys, call::invoke);
+        }
+
+        private static <T> CompletionStage<T> count(BatchLoaderEnvironment environment, List<?> keys,
+                                                    Supplier<CompletionStage<T>> call) {
+            OperationState operation = environment.getContext() instanceof GraphQLContext context
+                ? context.get(STATE_KEY) : null;
+            if (operation == null) {
+                return call.get();
+            }
+            AtomicInteger statements = new AtomicInteger();
+            AtomicInteger previous = SqlStatementCounter.bind(statements);
+            try {
+                return call.get();
+            } finally {
+                SqlStatementCounter.restore(previous);
+                operation.recordBatchLoad(keys.size(), statements.get());
+            }
+        }
+    }
+
+    private static final class FieldStats {
+
+        private final Timer timer;
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private final AtomicInteger invocationsWithSql = new AtomicInteger();
+
+        private final AtomicInteger statements = new AtomicInteger();
+
+        private FieldStats(Timer timer) {
+            this.timer = timer;
+        }
+
+        private void record(long startNanos, int issued) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            invocations.incrementAndGet();
+            if (issued > 0) {
+                invocationsWithSql.incrementAndGet();
+                statements.addAndGet(issued);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.performance.PerformanceAnalysis;
+import com.cimb.wealth.performance.PerformanceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+
+@Controller
+@RequiredArgsConstructor
+public class PerformanceResolver {
+
+    private final PerformanceService performanceService;
+
+    @QueryMapping
+    @PreAuthorize("@accessControl.canAccessAccount(#accountId, authentication)")
+    public PerformanceAnalysis performanceAnalysis(@Argument("accountId") Long accountId) {
+        return performanceService.analyze(accountId);
+    }
+}
@@ -0,0 +1,222 @@
+package com.cimb.wealth.graphql;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.language.OperationDefinition;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Caches parsed and validated documents by the SHA-256 hash of their text and implements
+ * automatic persisted queries: a client sends only the hash, and the full query once when
+ * the server answers {@code PersistedQueryNotFound}. In strict mode only operations from
+ * the manifest are executed and clients cannot register new ones.
+ */
+@Component
+@Slf4j
+public class PersistedQueryDocumentProvider implements PreparsedDocumentProvider {
+
+    // Message and code that APQ clients look for before resending the full query
+    static final String NOT_FOUND = "PersistedQueryNotFound";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final ObjectMapper objectMapper;
+
+    private final ResourceLoader resourceLoader;
+
+    private final boolean strict;
+
+    private final String manifestLocation;
+
+    private final Cache<String, PreparsedDocumentEntry> documents;
+
+    private final Timer parseValidateTimer;
+
+    private Map<String, String> manifest = Map.of();
+
+    private Set<String> operationNames = Set.of();
+
+    public PersistedQueryDocumentProvider(ObjectMapper objectMapper,
+                                          ResourceLoader resourceLoader,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${cimb.graphql.persisted-queries.strict:false}") boolean strict,
+                                          @Value("${cimb.graphql.persisted-queries.manifest:classpath:graphql/persisted-queries.json}") String manifestLocation,
+                                          @Value("${cimb.graphql.persisted-queries.cache-size:1000}") long cacheSize) {
+        this.objectMapper = objectMapper;
+        this.resourceLoader = resourceLoader;
+        this.strict = strict;
+        this.manifestLocation = manifestLocation;
+        this.documents = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .recordStats()
+            .build();
+        this.parseValidateTimer = Timer.builder("graphql.document.parse-validate")
+            .description("Time spent parsing and validating GraphQL documents on a cache miss")
+            .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, documents, "graphql.documents");
+    }
+
+    @PostConstruct
+    void loadManifest() throws IOException {
+        Resource resource = resourceLoader.getResource(manifestLocation);
+        if (!resource.exists()) {
+            if (strict) {
+                throw new IllegalStateException("Persisted query manifest not found: " + manifestLocation);
+            }
+            return;
+        }
+
+        Map<String, String> loaded;
+        try (InputStream input = resource.getInputStream()) {
+            loaded = objectMapper.readValue(input, new TypeReference<Map<String, String>>() {
+            });
+        }
+
+        Map<String, String> verified = new HashMap<>();
+        loaded.forEach((hash, query) -> {
+            if (hash.equalsIgnoreCase(sha256(query))) {
+                verified.put(hash.toLowerCase(), query);
+            } else {
+                log.warn("Skipping persisted query {}: hash does not match its document", hash);
+            }
+        });
+        manifest = Map.copyOf(verified);
+        operationNames = operationNames(verified.values());
+        log.info("Loaded {} persisted queries from {} (strict: {})", manifest.size(), manifestLocation, strict);
+    }
+
+    /**
+     * Whether {@code operationName} is declared by a manifest document. Only these names are
+     * trusted as metric tag values.
+     */
+    public boolean isRegisteredOperation(String operationName) {
+        return operationNames.contains(operationName);
+    }
+
+    private static Set<String> operationNames(Iterable<String> queries) {
+        Set<String> names = new HashSet<>();
+        for (String query : queries) {
+            try {
+                Parser.parse(query).getDefinitionsOfType(OperationDefinition.class).stream()
+                    .map(OperationDefinition::getName)
+                    .filter(Objects::nonNull)
+                    .forEach(names::add);
+            } catch (InvalidSyntaxException e) {
+                log.warn("Persisted query does not parse: {}", e.getMessage());
+            }
+        }
+        return Set.copyOf(names);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput,
+                                                                      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        return CompletableFuture.completedFuture(getDocument(executionInput, parseAndValidateFunction));
+    }
+
+    // Still the abstract method in graphql-java 21; the engine only calls getDocumentAsync
+    @Override
+    @Deprecated
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String query = executionInput.getQuery();
+        String requestedHash = requestedHash(executionInput);
+        boolean hashOnly = PersistedQueryFilter.HASH_ONLY_QUERY.equals(query);
+
+        if (hashOnly && requestedHash == null) {
+            return error(NOT_FOUND, "PERSISTED_QUERY_NOT_FOUND");
+        }
+
+        String hash = hashOnly ? requestedHash : sha256(query);
+        if (!hashOnly && requestedHash != null && !requestedHash.equals(hash)) {
+            return error("Provided sha256Hash does not match the query", "BAD_USER_INPUT");
+        }
+        if (strict && !manifest.containsKey(hash)) {
+            return error("Only registered operations are allowed", "PERSISTED_QUERY_NOT_ALLOWED");
+        }
+
+        PreparsedDocumentEntry cached = documents.getIfPresent(hash);
+        if (cached != null) {
+            return cached;
+        }
+
+        ExecutionInput input = executionInput;
+        if (hashOnly) {
+            String registered = manifest.get(hash);
+            if (registered == null) {
+                return error(NOT_FOUND, "PERSISTED_QUERY_NOT_FOUND");
+            }
+            input = executionInput.transform(builder -> builder.query(registered));
+        }
+
+        long start = System.nanoTime();
+        PreparsedDocumentEntry entry = parseAndValidateFunction.apply(input);
+        parseValidateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        // Invalid documents are not cached, so a hash can never be pinned to an error
+        if (!entry.hasErrors()) {
+            documents.put(hash, entry);
+        }
+        return entry;
+    }
+
+    private static String requestedHash(ExecutionInput executionInput) {
+        Map<String, Object> extensions = executionInput.getExtensions();
+        if (extensions == null || !(extensions.get("persistedQuery") instanceof Map<?, ?> persistedQuery)) {
+            return null;
+        }
+        Object hash = persistedQuery.get("sha256Hash");
+        return hash instanceof String value ? value.toLowerCase() : null;
+    }
+
+    private static PreparsedDocumentEntry error(String message, String code) {
+        return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError()
+            .message(message)
+            .extensions(Map.of("code", code))
+            .build());
+    }
+
+    static String sha256(String text) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
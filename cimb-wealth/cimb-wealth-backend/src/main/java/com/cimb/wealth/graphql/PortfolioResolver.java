@@ -0,0 +1,99 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.dto.AssetAllocationDto;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.dto.PortfolioSection;
+import com.cimb.wealth.dto.PortfolioSummaryDto;
+import com.cimb.wealth.dto.SectorAllocationDto;
+import com.cimb.wealth.dto.TransactionDto;
+import com.cimb.wealth.service.PortfolioSectionLoader;
+import com.cimb.wealth.service.PortfolioService;
+import com.cimb.wealth.service.PortfolioSummaryCache;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetchingEnvironment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class PortfolioResolver {
+
+    private final PortfolioService portfolioService;
+    private final PortfolioSummaryCache portfolioSummaryCache;
+    private final PortfolioSectionLoader portfolioSectionLoader;
+
+    @QueryMapping
+    @PreAuthorize("@accessControl.canAccessUser(#userId, authentication)")
+    public PortfolioSummaryDto portfolio(@Argument("userId") Long userId) {
+        return portfolioSummaryCache.get(userId, portfolioService::calculateSummary);
+    }
+
+    @SchemaMapping(typeName = "PortfolioSummary")
+    public CompletableFuture<DataFetcherResult<List<AssetAllocationDto>>> assetAllocation(PortfolioSummaryDto summary,
+                                                                                         DataFetchingEnvironment env) {
+        return section(summary, PortfolioSection.ASSET_ALLOCATION, env, () -> notPreloaded(PortfolioSection.ASSET_ALLOCATION));
+    }
+
+    @SchemaMapping(typeName = "PortfolioSummary")
+    public CompletableFuture<DataFetcherResult<List<SectorAllocationDto>>> sectorAllocation(PortfolioSummaryDto summary,
+                                                                                           DataFetchingEnvironment env) {
+        return section(summary, PortfolioSection.SECTOR_ALLOCATION, env, () -> notPreloaded(PortfolioSection.SECTOR_ALLOCATION));
+    }
+
+    @SchemaMapping(typeName = "PortfolioSummary")
+    public CompletableFuture<DataFetcherResult<List<HoldingDto>>> topHoldings(PortfolioSummaryDto summary,
+                                                                              DataFetchingEnvironment env) {
+        return section(summary, PortfolioSection.TOP_HOLDINGS, env, () -> notPreloaded(PortfolioSection.TOP_HOLDINGS));
+    }
+
+    @SchemaMapping(typeName = "PortfolioSummary")
+    public CompletableFuture<DataFetcherResult<List<TransactionDto>>> recentTransactions(PortfolioSummaryDto summary,
+                                                                                         DataFetchingEnvironment env) {
+        return section(summary, PortfolioSection.RECENT_TRANSACTIONS, env,
+            () -> portfolioService.recentTransactions(summary.getUserId()));
+    }
+
+    // Filled from the aggregate by calculateSummary, so these sections never load on their own
+    private static <T> List<T> notPreloaded(PortfolioSection section) {
+        throw new IllegalStateException("Portfolio section " + section + " was not preloaded with the summary");
+    }
+
+    // A failed section resolves to an empty list plus an error, so the other sections and
+    // the totals are still returned
+    private <T> CompletableFuture<DataFetcherResult<List<T>>> section(PortfolioSummaryDto summary, PortfolioSection section,
+                                                                      DataFetchingEnvironment env, Supplier<List<T>> loader) {
+        return portfolioSectionLoader.load(summary, section, loader)
+            .handle((value, failure) -> {
+                if (failure == null) {
+                    return DataFetcherResult.<List<T>>newResult().data(value).build();
+                }
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+                boolean timedOut = cause instanceof TimeoutException;
+                if (!timedOut) {
+                    log.warn("Portfolio section {} failed for user {}", section, summary.getUserId(), cause);
+                }
+                return DataFetcherResult.<List<T>>newResult()
+                    .data(List.of())
+                    .error(GraphqlErrorBuilder.newError(env)
+                        .message(timedOut ? "Portfolio section timed out" : "Portfolio section is unavailable")
+                        .extensions(Map.of("code", timedOut ? "SECTION_TIMEOUT" : "SECTION_UNAVAILABLE"))
+                        .build())
+                    .build();
+            });
+    }
+}
@@ -0,0 +1,40 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.pricing.HoldingRepricer;
+import com.cimb.wealth.pricing.RepricingResult;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Controller
+@RequiredArgsConstructor
+public class PricingResolver {
+
+    private final HoldingRepricer holdingRepricer;
+
+    @MutationMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public RepricingResult repriceHoldings(@Argument("prices") List<PriceInput> prices) {
+        Map<String, BigDecimal> batch = new LinkedHashMap<>(prices.size());
+        for (PriceInput price : prices) {
+            if (batch.put(price.getTicker(), price.getPrice()) != null) {
+                throw new IllegalArgumentException("Duplicate price for " + price.getTicker());
+            }
+        }
+        return holdingRepricer.reprice(batch);
+    }
+
+    @Data
+    public static class PriceInput {
+        private String ticker;
+        private BigDecimal price;
+    }
+}
@@ -0,0 +1,201 @@
+package com.cimb.wealth.graphql;
+
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Computes a static cost and depth for each operation before any field is fetched and
+ * rejects operations over budget. A field costs its weight plus its children's cost times
+ * its list multiplier, which is the {@code first} argument when present. A fragment costs
+ * as much at each place it is spread. The result is reported under the {@code cost}
+ * response extension.
+ *
+ * <p>Runs when the operation starts executing rather than in validation, so operations
+ * whose validated document comes from the preparsed document cache are still checked.
+ */
+@Component
+@Slf4j
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    static final String EXTENSION_KEY = "cost";
+
+    private static final String PAGE_SIZE_ARGUMENT = "first";
+
+    private static final String CONNECTION_SUFFIX = "Connection";
+
+    private final long maxCost;
+
+    private final int maxDepth;
+
+    private final int defaultListSize;
+
+    private final Map<String, Integer> fieldWeights;
+
+    private final DistributionSummary costSummary;
+
+    private final Counter rejectedCounter;
+
+    public QueryCostInstrumentation(MeterRegistry meterRegistry,
+                                    @Value("${cimb.graphql.cost.max-cost:5000}") long maxCost,
+                                    @Value("${cimb.graphql.cost.max-depth:10}") int maxDepth,
+                                    @Value("${cimb.graphql.cost.default-list-size:20}") int defaultListSize,
+                                    @Value("#{${cimb.graphql.cost.field-weights:{:}}}") Map<String, Integer> fieldWeights) {
+        this.maxCost = maxCost;
+        this.maxDepth = maxDepth;
+        this.defaultListSize = defaultListSize;
+        this.fieldWeights = Map.copyOf(fieldWeights);
+        this.costSummary = DistributionSummary.builder("graphql.operation.cost")
+            .description("Static cost of GraphQL operations")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("graphql.operation.cost.rejected")
+            .description("GraphQL operations rejected for exceeding the cost or depth budget")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new CostState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        CostState cost = (CostState) state;
+        analyze(parameters.getExecutionContext(), cost);
+        costSummary.record(cost.cost);
+
+        if (cost.cost > maxCost || cost.depth > maxDepth) {
+            rejectedCounter.increment();
+            log.warn("Rejected GraphQL operation {} with cost {} and depth {}",
+                parameters.getExecutionContext().getOperationDefinition().getName(), cost.cost, cost.depth);
+            throw new AbortExecutionException(cost.cost > maxCost
+                ? "Query cost " + cost.cost + " exceeds the maximum of " + maxCost
+                : "Query depth " + cost.depth + " exceeds the maximum of " + maxDepth);
+        }
+        return SimpleInstrumentationContext.noOp();
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult,
+                                                                        InstrumentationExecutionParameters parameters,
+                                                                        InstrumentationState state) {
+        CostState cost = (CostState) state;
+        if (!cost.analyzed) {
+            return CompletableFuture.completedFuture(executionResult);
+        }
+
+        Map<String, Object> extension = new LinkedHashMap<>();
+        extension.put("requested", cost.cost);
+        extension.put("maximum", maxCost);
+        extension.put("depth", cost.depth);
+        extension.put("maximumDepth", maxDepth);
+        return CompletableFuture.completedFuture(
+            executionResult.transform(builder -> builder.addExtension(EXTENSION_KEY, extension)));
+    }
+
+    private void analyze(ExecutionContext executionContext, CostState state) {
+        // The normalized operation expands every use of a fragment and merges fields that
+        // execute together, so the cost follows what would actually be fetched
+        GraphQLSchema schema = executionContext.getGraphQLSchema();
+        long total = 0;
+        int[] depth = new int[1];
+        for (ExecutableNormalizedField field : executionContext.getNormalizedQueryTree().get().getTopLevelFields()) {
+            total = saturatedAdd(total, cost(field, schema, depth));
+        }
+
+        state.cost = total;
+        state.depth = depth[0];
+        state.analyzed = true;
+    }
+
+    private long cost(ExecutableNormalizedField field, GraphQLSchema schema, int[] depth) {
+        if (isIntrospection(field)) {
+            return 0;
+        }
+        depth[0] = Math.max(depth[0], field.getLevel());
+
+        // Every object type the field is selected on defines it with the same type and arguments
+        GraphQLFieldDefinition definition = field.getFieldDefinitions(schema).get(0);
+        long children = 0;
+        for (ExecutableNormalizedField child : field.getChildren()) {
+            children = saturatedAdd(children, cost(child, schema, depth));
+        }
+        return saturatedAdd(weight(field, definition), saturatedMultiply(children, multiplier(field, definition)));
+    }
+
+    private long weight(ExecutableNormalizedField field, GraphQLFieldDefinition definition) {
+        Integer configured = null;
+        for (String typeName : field.getObjectTypeNames()) {
+            Integer weight = fieldWeights.get(typeName + "." + field.getName());
+            if (weight != null && (configured == null || weight > configured)) {
+                configured = weight;
+            }
+        }
+        if (configured != null) {
+            return configured;
+        }
+        GraphQLType type = GraphQLTypeUtil.unwrapAll(definition.getType());
+        return GraphQLTypeUtil.isLeaf(type) ? 0 : 1;
+    }
+
+    private long multiplier(ExecutableNormalizedField field, GraphQLFieldDefinition definition) {
+        if (definition.getArgument(PAGE_SIZE_ARGUMENT) != null) {
+            Object first = field.getResolvedArguments().get(PAGE_SIZE_ARGUMENT);
+            return first instanceof Number number ? Math.max(1, number.longValue()) : defaultListSize;
+        }
+        GraphQLType type = GraphQLTypeUtil.unwrapNonNull(definition.getType());
+        if (!GraphQLTypeUtil.isList(type)) {
+            return 1;
+        }
+        // The edges of a connection are already counted by the connection's page size
+        return field.getObjectTypeNames().stream().allMatch(name -> name.endsWith(CONNECTION_SUFFIX))
+            ? 1 : defaultListSize;
+    }
+
+    // Introspection is bounded by the schema, not by the data, and tools need its full depth
+    private static boolean isIntrospection(ExecutableNormalizedField field) {
+        return field.getName().startsWith("__");
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        return high != 0 || a * b < 0 ? Long.MAX_VALUE : a * b;
+    }
+
+    static final class CostState implements InstrumentationState {
+
+        private long cost;
+
+        private int depth;
+
+        private boolean analyzed;
+    }
+}
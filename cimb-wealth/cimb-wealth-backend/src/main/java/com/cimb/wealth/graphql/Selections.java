@@ -0,0 +1,24 @@
+package com.cimb.wealth.graphql;
+
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+
+import java.util.HashSet;
+import java.util.Set;
+
+final class Selections {
+
+    private static final String CONNECTION_NODE_FIELDS = "edges/node/*";
+
+    private Selections() {
+    }
+
+    // Names of the fields requested on the nodes of a connection
+    static Set<String> nodeFields(DataFetchingFieldSelectionSet selectionSet) {
+        Set<String> fields = new HashSet<>();
+        for (SelectedField field : selectionSet.getFields(CONNECTION_NODE_FIELDS)) {
+            fields.add(field.getName());
+        }
+        return fields;
+    }
+}
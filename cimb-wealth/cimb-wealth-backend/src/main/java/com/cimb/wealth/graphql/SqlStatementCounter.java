@@ -0,0 +1,115 @@
+package com.cimb.wealth.graphql;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements executed on the current thread while a counter is bound. Every
+ * {@link DataSource} bean is wrapped at the JDBC level, so JPA, {@code JdbcTemplate} and
+ * plain JDBC are all counted. Statements created while no counter is bound are returned
+ * unwrapped, so unmeasured work only pays for the connection proxy.
+ */
+@Component
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Binds {@code counter} to the current thread and returns the previously bound counter,
+     * which must be passed to {@link #restore} when the scope ends.
+     */
+    public static AtomicInteger bind(AtomicInteger counter) {
+        AtomicInteger previous = CURRENT.get();
+        CURRENT.set(counter);
+        return previous;
+    }
+
+    public static void restore(AtomicInteger previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    static Connection counting(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement && CURRENT.get() != null) {
+                return counting(statement, method.getReturnType());
+            }
+            return result;
+        });
+    }
+
+    // Proxies the interface the factory method declares: Statement, PreparedStatement or CallableStatement
+    private static Object counting(Statement statement, Class<?> type) {
+        return proxy(type, statement, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                AtomicInteger counter = CURRENT.get();
+                if (counter != null) {
+                    counter.incrementAndGet();
+                }
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> target.toString();
+                default -> handler.invoke(proxy, method, args);
+            }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(Object proxy, Method method, Object[] args) throws Throwable;
+    }
+
+    static final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(obtainTargetDataSource().getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(obtainTargetDataSource().getConnection(username, password));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.dto.GoalDto;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.dto.TransactionDto;
+import com.cimb.wealth.event.SubscriptionEvent;
+import com.cimb.wealth.event.SubscriptionEventBus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+@Controller
+@RequiredArgsConstructor
+public class SubscriptionResolver {
+
+    private final SubscriptionEventBus eventBus;
+
+    @SubscriptionMapping
+    @PreAuthorize("@accessControl.canAccessAccount(#accountId, authentication)")
+    public Flux<TransactionDto> transactionCreated(@Argument("accountId") Long accountId) {
+        return eventBus.subscribe(SubscriptionEvent.Topic.TRANSACTION_CREATED, accountId, TransactionDto.class);
+    }
+
+    @SubscriptionMapping
+    @PreAuthorize("@accessControl.canAccessAccount(#accountId, authentication)")
+    public Flux<TransactionDto> transactionUpdated(@Argument("accountId") Long accountId) {
+        return eventBus.subscribe(SubscriptionEvent.Topic.TRANSACTION_UPDATED, accountId, TransactionDto.class);
+    }
+
+    @SubscriptionMapping
+    @PreAuthorize("@accessControl.canAccessAccount(#accountId, authentication)")
+    public Flux<HoldingDto> holdingUpdated(@Argument("accountId") Long accountId) {
+        return eventBus.subscribe(SubscriptionEvent.Topic.HOLDING_UPDATED, accountId, HoldingDto.class);
+    }
+
+    @SubscriptionMapping
+    @PreAuthorize("@accessControl.canAccessUser(#userId, authentication)")
+    public Flux<GoalDto> goalProgressUpdated(@Argument("userId") Long userId) {
+        return eventBus.subscribe(SubscriptionEvent.Topic.GOAL_PROGRESS_UPDATED, userId, GoalDto.class);
+    }
+}
@@ -2,32 +2,45 @@ package com.cimb.wealth.graphql;
 
 import com.cimb.wealth.domain.User;
 import com.cimb.wealth.dto.AuthResponseDto;
+import com.cimb.wealth.dto.Connection;
 import com.cimb.wealth.dto.UserDto;
+import com.cimb.wealth.security.LoginRateLimiter;
+import com.cimb.wealth.service.ConnectionQueryService;
 import com.cimb.wealth.service.UserService;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequiredArgsConstructor
 @Slf4j
 public class UserResolver {
 
     private final UserService userService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ConnectionQueryService connectionQueryService;
 
     @MutationMapping
-    public AuthResponseDto login(@Argument("input") LoginInput input) {
+    public CompletableFuture<AuthResponseDto> login(@Argument("input") LoginInput input,
+                                                    @ContextValue(name = ClientAddressInterceptor.CLIENT_ADDRESS, required = false) String clientAddress) {
         log.info("Login attempt for user: {}", input.getEmail());
+        loginRateLimiter.checkLogin(input.getEmail(), clientAddress);
         return userService.login(input.getEmail(), input.getPassword());
     }
 
     @MutationMapping
-    public AuthResponseDto refreshToken(@Argument("refreshToken") String refreshToken) {
+    public AuthResponseDto refreshToken(@Argument("refreshToken") String refreshToken,
+                                        @ContextValue(name = ClientAddressInterceptor.CLIENT_ADDRESS, required = false) String clientAddress) {
+        loginRateLimiter.checkRefresh(clientAddress);
         return userService.refreshToken(refreshToken);
     }
 
@@ -48,7 +61,7 @@ public class UserResolver {
     }
 
     @MutationMapping
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('ADVISOR') and @userService.isAssignedUser(#id, authentication))")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('ADVISOR') and @accessControl.canAccessUser(#id, authentication))")
     public UserDto updateUser(@Argument("id") Long id, @Argument("input") UserUpdateInput input) {
         UserDto userDto = UserDto.builder()
             .firstName(input.getFirstName())
@@ -62,11 +75,20 @@ public class UserResolver {
     }
 
     @QueryMapping
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('ADVISOR') and @userService.isAssignedUser(#id, authentication)) or (hasRole('CUSTOMER') and @userService.isOwnUser(#id, authentication))")
+    @PreAuthorize("@accessControl.canAccessUser(#id, authentication)")
     public UserDto user(@Argument("id") Long id) {
         return userService.getUserById(id);
     }
 
+    @QueryMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'ADVISOR')")
+    public Connection<UserDto> users(@Argument("first") Integer first, @Argument("after") String after, @Argument("filter") UserFilter filter,
+                                     DataFetchingFieldSelectionSet selectionSet) {
+        UserFilter criteria = filter != null ? filter : new UserFilter();
+        return connectionQueryService.users(Selections.nodeFields(selectionSet), first, after,
+            criteria.getRole(), criteria.getRiskProfile(), criteria.getActive());
+    }
+
     @QueryMapping
     public UserDto me(Authentication authentication) {
         String email = authentication.getName();
@@ -129,4 +151,18 @@ public class UserResolver {
         public Boolean getActive() { return active; }
         public void setActive(Boolean active) { this.active = active; }
     }
+
+    public static class UserFilter {
+        private User.Role role;
+        private User.RiskProfile riskProfile;
+        private Boolean active;
+
+        // Getters and setters
+        public User.Role getRole() { return role; }
+        public void setRole(User.Role role) { this.role = role; }
+        public User.RiskProfile getRiskProfile() { return riskProfile; }
+        public void setRiskProfile(User.RiskProfile riskProfile) { this.riskProfile = riskProfile; }
+        public Boolean getActive() { return active; }
+        public void setActive(Boolean active) { this.active = active; }
+    }
 }
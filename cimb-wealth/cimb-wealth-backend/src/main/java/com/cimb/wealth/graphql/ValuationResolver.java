@@ -0,0 +1,46 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.valuation.HoldingValuation;
+import com.cimb.wealth.valuation.ValuationHistory;
+import com.cimb.wealth.valuation.ValuationInterval;
+import com.cimb.wealth.valuation.ValuationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@Controller
+@RequiredArgsConstructor
+public class ValuationResolver {
+
+    private final ValuationService valuationService;
+
+    @QueryMapping
+    @PreAuthorize("@accessControl.canAccessAccount(#accountId, authentication)")
+    public ValuationHistory valuationHistory(@Argument("accountId") Long accountId,
+                                             @Argument("from") String from,
+                                             @Argument("to") String to,
+                                             @Argument("interval") ValuationInterval interval) {
+        return valuationService.history(accountId, date(from), date(to), interval != null ? interval : ValuationInterval.DAY);
+    }
+
+    // Access was checked when the parent history was resolved
+    @SchemaMapping(typeName = "ValuationHistory")
+    public List<HoldingValuation> holdings(ValuationHistory history) {
+        return valuationService.holdings(history);
+    }
+
+    private static LocalDate date(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd: " + value);
+        }
+    }
+}
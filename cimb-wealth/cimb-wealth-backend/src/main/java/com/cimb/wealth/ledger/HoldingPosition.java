@@ -0,0 +1,10 @@
+package com.cimb.wealth.ledger;
+
+import java.math.BigDecimal;
+
+/**
+ * The holdings of one ticker in an account, summed, with their quantity-weighted average
+ * cost.
+ */
+public record HoldingPosition(String ticker, BigDecimal quantity, BigDecimal averageCost) {
+}
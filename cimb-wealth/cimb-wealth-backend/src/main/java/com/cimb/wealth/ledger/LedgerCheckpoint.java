@@ -0,0 +1,14 @@
+package com.cimb.wealth.ledger;
+
+import java.time.LocalDateTime;
+
+/**
+ * The last transaction folded into an account's checkpointed positions, how many were
+ * folded up to it, and when the replay that wrote it started.
+ */
+public record LedgerCheckpoint(long accountId,
+                               LocalDateTime lastCreatedAt,
+                               long lastTransactionId,
+                               long transactionCount,
+                               LocalDateTime checkpointedAt) {
+}
@@ -0,0 +1,20 @@
+package com.cimb.wealth.ledger;
+
+import com.cimb.wealth.domain.Transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A completed transaction as read for replay. Entries are ordered by
+ * {@code (createdAt, id)}, which is also the checkpoint watermark.
+ */
+public record LedgerEntry(long id,
+                          TransactionType type,
+                          String ticker,
+                          BigDecimal quantity,
+                          BigDecimal price,
+                          BigDecimal amount,
+                          BigDecimal totalAmount,
+                          LocalDateTime createdAt) {
+}
@@ -0,0 +1,104 @@
+package com.cimb.wealth.ledger;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The position in one ticker of an account, folded from its transactions with the
+ * average cost method. Cost excludes fees, as {@code holdings.average_cost} does. A sale
+ * removes cost at the average; its proceeds net of fees less that cost are realized.
+ *
+ * <p>A transfer moves {@code quantity} units in at the transaction price, or out at the
+ * average cost when the quantity is negative.
+ */
+public final class LedgerPosition {
+
+    static final int COST_SCALE = 4;
+
+    private final String ticker;
+
+    private BigDecimal quantity;
+
+    private BigDecimal costBasis;
+
+    private BigDecimal realizedGainLoss;
+
+    private BigDecimal income;
+
+    public LedgerPosition(String ticker) {
+        this(ticker, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    public LedgerPosition(String ticker, BigDecimal quantity, BigDecimal costBasis,
+                          BigDecimal realizedGainLoss, BigDecimal income) {
+        this.ticker = ticker;
+        this.quantity = quantity;
+        this.costBasis = costBasis;
+        this.realizedGainLoss = realizedGainLoss;
+        this.income = income;
+    }
+
+    public void apply(LedgerEntry entry) {
+        switch (entry.type()) {
+            case BUY -> add(entry.quantity(), entry.amount());
+            case SELL -> {
+                BigDecimal removed = remove(entry.quantity());
+                realizedGainLoss = realizedGainLoss.add(entry.totalAmount()).subtract(removed);
+            }
+            case DIVIDEND -> income = income.add(entry.totalAmount());
+            case TRANSFER -> {
+                if (entry.quantity().signum() >= 0) {
+                    add(entry.quantity(), entry.quantity().multiply(entry.price()));
+                } else {
+                    remove(entry.quantity().negate());
+                }
+            }
+            default -> {
+                // Cash movements have no position
+            }
+        }
+    }
+
+    private void add(BigDecimal units, BigDecimal cost) {
+        quantity = quantity.add(units);
+        costBasis = costBasis.add(cost);
+    }
+
+    // Selling more than is held leaves a negative quantity, which shows up as drift, and
+    // no cost
+    private BigDecimal remove(BigDecimal units) {
+        BigDecimal removed = quantity.signum() > 0
+            ? costBasis.multiply(units.min(quantity)).divide(quantity, COST_SCALE, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+        quantity = quantity.subtract(units);
+        costBasis = quantity.signum() > 0 ? costBasis.subtract(removed) : BigDecimal.ZERO;
+        return removed;
+    }
+
+    /**
+     * Cost per unit rounded to cents, or null without a long position.
+     */
+    public BigDecimal averageCost() {
+        return quantity.signum() > 0 ? costBasis.divide(quantity, 2, RoundingMode.HALF_UP) : null;
+    }
+
+    public String ticker() {
+        return ticker;
+    }
+
+    public BigDecimal quantity() {
+        return quantity;
+    }
+
+    public BigDecimal costBasis() {
+        return costBasis;
+    }
+
+    public BigDecimal realizedGainLoss() {
+        return realizedGainLoss;
+    }
+
+    public BigDecimal income() {
+        return income;
+    }
+}
@@ -0,0 +1,218 @@
+package com.cimb.wealth.ledger;
+
+import com.cimb.wealth.repository.LedgerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds every account's positions from its transactions and records where they
+ * disagree with the holdings. Accounts are replayed in parallel on a dedicated fork-join
+ * pool, each in its own transaction.
+ *
+ * <p>An account resumes from its checkpoint when the ledger up to the checkpoint is
+ * unchanged, so a nightly run only reads the transactions since the previous one. The
+ * checkpoint is advanced to the last transaction older than the settle window; newer ones
+ * are still folded for the comparison but replayed again next time, as a transaction
+ * still in flight may commit with an earlier timestamp. The weekly full replay ignores
+ * checkpoints altogether.
+ */
+@Component
+@Slf4j
+public class LedgerReconciliationJob {
+
+    // Accounts replayed sequentially by one fork-join leaf
+    private static final int LEAF_SIZE = 8;
+
+    private final LedgerRepository ledgerRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ForkJoinPool pool;
+
+    private final int fetchSize;
+
+    private final Duration settleWindow;
+
+    private final BigDecimal costTolerance;
+
+    private final Timer reconcileTimer;
+
+    private final Counter replayedCounter;
+
+    private final AtomicLong driftedPositions = new AtomicLong();
+
+    public LedgerReconciliationJob(LedgerRepository ledgerRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${cimb.ledger.parallelism:4}") int parallelism,
+                                   @Value("${cimb.ledger.fetch-size:5000}") int fetchSize,
+                                   @Value("${cimb.ledger.settle-window:5m}") Duration settleWindow,
+                                   @Value("${cimb.ledger.cost-tolerance:0.01}") BigDecimal costTolerance) {
+        this.ledgerRepository = ledgerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(parallelism);
+        this.fetchSize = fetchSize;
+        this.settleWindow = settleWindow;
+        this.costTolerance = costTolerance;
+        this.reconcileTimer = Timer.builder("ledger.reconcile.duration")
+            .description("Time to replay the ledger of every account and compare it with holdings")
+            .register(meterRegistry);
+        this.replayedCounter = Counter.builder("ledger.transactions.replayed")
+            .description("Transactions folded by ledger reconciliation, excluding those restored from checkpoints")
+            .register(meterRegistry);
+        Gauge.builder("ledger.drift.positions", driftedPositions, AtomicLong::get)
+            .description("Positions that disagreed with holdings in the last reconciliation")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${cimb.ledger.reconcile-cron:0 0 3 * * *}")
+    public void reconcileIncrementally() {
+        reconcile(false);
+    }
+
+    @Scheduled(cron = "${cimb.ledger.full-replay-cron:0 0 4 * * SUN}")
+    public void reconcileFully() {
+        reconcile(true);
+    }
+
+    /**
+     * Reconciles every account, replaying each from its first transaction when
+     * {@code fullReplay} is set. Runs one at a time.
+     */
+    public synchronized ReconciliationResult reconcile(boolean fullReplay) {
+        long start = System.nanoTime();
+        LocalDateTime settledBefore = ledgerRepository.currentTimestamp().minus(settleWindow);
+        List<Long> accountIds = ledgerRepository.findAccountIds();
+
+        Totals totals = reconcileTimer.record(() ->
+            pool.invoke(new ReconcileTask(accountIds, settledBefore, fullReplay)));
+
+        replayedCounter.increment(totals.transactionsReplayed);
+        driftedPositions.set(totals.driftedPositions);
+        ReconciliationResult result = new ReconciliationResult(accountIds.size(), totals.failedAccounts,
+            totals.fullReplays, totals.transactionsReplayed, totals.driftedPositions,
+            (System.nanoTime() - start) / 1_000_000);
+        log.info("Reconciled the ledger of {} accounts in {} ms: {} transactions replayed, {} full replays, "
+                + "{} drifted positions, {} accounts failed", result.accounts(), result.elapsedMs(),
+            result.transactionsReplayed(), result.fullReplays(), result.driftedPositions(), result.failedAccounts());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Totals reconcileAccount(long accountId, LocalDateTime settledBefore, boolean fullReplay) {
+        return transactionTemplate.execute(status -> {
+            Totals totals = new Totals();
+            Optional<LedgerCheckpoint> checkpoint = fullReplay
+                ? Optional.empty()
+                : ledgerRepository.findCheckpoint(accountId).filter(ledgerRepository::isCurrent);
+            LedgerReplay replay = checkpoint
+                .map(current -> new LedgerReplay(current, ledgerRepository.findCheckpointPositions(accountId)))
+                .orElseGet(LedgerReplay::new);
+            if (checkpoint.isEmpty()) {
+                totals.fullReplays = 1;
+            }
+            long restored = replay.transactionCount();
+
+            stream(accountId, replay, settledBefore);
+            if (replay.transactionCount() > 0) {
+                ledgerRepository.saveCheckpoint(new LedgerCheckpoint(accountId, replay.lastCreatedAt(),
+                    replay.lastTransactionId(), replay.transactionCount(), settledBefore), replay.positions());
+            } else {
+                ledgerRepository.deleteCheckpoint(accountId);
+            }
+            stream(accountId, replay, null);
+
+            List<PositionDrift> drift = replay.drift(ledgerRepository.findHoldings(accountId), costTolerance);
+            ledgerRepository.replaceDrift(accountId, drift);
+            totals.transactionsReplayed = replay.transactionCount() - restored;
+            totals.driftedPositions = drift.size();
+            if (!drift.isEmpty()) {
+                log.debug("Account {} has {} positions drifted from its ledger", accountId, drift.size());
+            }
+            return totals;
+        });
+    }
+
+    private void stream(long accountId, LedgerReplay replay, LocalDateTime createdBefore) {
+        ledgerRepository.streamEntries(accountId, replay.lastCreatedAt(), replay.lastTransactionId(),
+            createdBefore, fetchSize, replay::apply);
+    }
+
+    private static final class Totals {
+
+        private int failedAccounts;
+
+        private int fullReplays;
+
+        private long transactionsReplayed;
+
+        private long driftedPositions;
+
+        private Totals add(Totals other) {
+            failedAccounts += other.failedAccounts;
+            fullReplays += other.fullReplays;
+            transactionsReplayed += other.transactionsReplayed;
+            driftedPositions += other.driftedPositions;
+            return this;
+        }
+    }
+
+    private final class ReconcileTask extends RecursiveTask<Totals> {
+
+        private final List<Long> accountIds;
+
+        private final LocalDateTime settledBefore;
+
+        private final boolean fullReplay;
+
+        private ReconcileTask(List<Long> accountIds, LocalDateTime settledBefore, boolean fullReplay) {
+            this.accountIds = accountIds;
+            this.settledBefore = settledBefore;
+            this.fullReplay = fullReplay;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (accountIds.size() > LEAF_SIZE) {
+                int middle = accountIds.size() / 2;
+                ReconcileTask left = new ReconcileTask(accountIds.subList(0, middle), settledBefore, fullReplay);
+                ReconcileTask right = new ReconcileTask(accountIds.subList(middle, accountIds.size()), settledBefore, fullReplay);
+                left.fork();
+                return right.compute().add(left.join());
+            }
+
+            Totals totals = new Totals();
+            for (Long accountId : accountIds) {
+                try {
+                    totals.add(reconcileAccount(accountId, settledBefore, fullReplay));
+                } catch (RuntimeException e) {
+                    log.warn("Ledger reconciliation of account {} failed", accountId, e);
+                    totals.failedAccounts++;
+                }
+            }
+            return totals;
+        }
+    }
+}
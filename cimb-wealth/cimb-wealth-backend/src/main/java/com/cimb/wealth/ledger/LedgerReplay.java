@@ -0,0 +1,98 @@
+package com.cimb.wealth.ledger;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The positions of one account folded from its ledger, starting empty or from a
+ * checkpoint. Entries must arrive in {@code (createdAt, id)} order.
+ */
+public final class LedgerReplay {
+
+    private final Map<String, LedgerPosition> positions = new HashMap<>();
+
+    private LocalDateTime lastCreatedAt;
+
+    private long lastTransactionId;
+
+    private long transactionCount;
+
+    public LedgerReplay() {
+    }
+
+    public LedgerReplay(LedgerCheckpoint checkpoint, Collection<LedgerPosition> checkpointed) {
+        this.lastCreatedAt = checkpoint.lastCreatedAt();
+        this.lastTransactionId = checkpoint.lastTransactionId();
+        this.transactionCount = checkpoint.transactionCount();
+        for (LedgerPosition position : checkpointed) {
+            positions.put(position.ticker(), position);
+        }
+    }
+
+    public void apply(LedgerEntry entry) {
+        positions.computeIfAbsent(entry.ticker(), LedgerPosition::new).apply(entry);
+        lastCreatedAt = entry.createdAt();
+        lastTransactionId = entry.id();
+        transactionCount++;
+    }
+
+    /**
+     * Compares the replayed positions with the account's holdings. Average costs within
+     * {@code costTolerance} of each other match.
+     */
+    public List<PositionDrift> drift(Map<String, HoldingPosition> holdings, BigDecimal costTolerance) {
+        Set<String> tickers = new HashSet<>(holdings.keySet());
+        tickers.addAll(positions.keySet());
+
+        List<PositionDrift> drift = new ArrayList<>();
+        for (String ticker : tickers) {
+            LedgerPosition ledger = positions.get(ticker);
+            HoldingPosition holding = holdings.get(ticker);
+            BigDecimal ledgerQuantity = ledger != null ? ledger.quantity() : BigDecimal.ZERO;
+            BigDecimal holdingQuantity = holding != null ? holding.quantity() : BigDecimal.ZERO;
+            BigDecimal ledgerCost = ledger != null ? ledger.averageCost() : null;
+            BigDecimal holdingCost = holding != null ? holding.averageCost() : null;
+
+            PositionDrift.Kind kind = null;
+            if (holdingQuantity.signum() == 0 && ledgerQuantity.signum() != 0) {
+                kind = PositionDrift.Kind.MISSING_HOLDING;
+            } else if (ledgerQuantity.signum() == 0 && holdingQuantity.signum() != 0) {
+                kind = PositionDrift.Kind.UNBACKED_HOLDING;
+            } else if (ledgerQuantity.compareTo(holdingQuantity) != 0) {
+                kind = PositionDrift.Kind.QUANTITY;
+            } else if (ledgerCost != null && holdingCost != null
+                && ledgerCost.subtract(holdingCost).abs().compareTo(costTolerance) > 0) {
+                kind = PositionDrift.Kind.AVERAGE_COST;
+            }
+            if (kind != null) {
+                drift.add(new PositionDrift(ticker, kind, ledgerQuantity, holdingQuantity, ledgerCost, holdingCost));
+            }
+        }
+        drift.sort(Comparator.comparing(PositionDrift::ticker));
+        return drift;
+    }
+
+    public Collection<LedgerPosition> positions() {
+        return positions.values();
+    }
+
+    public LocalDateTime lastCreatedAt() {
+        return lastCreatedAt;
+    }
+
+    public long lastTransactionId() {
+        return lastTransactionId;
+    }
+
+    public long transactionCount() {
+        return transactionCount;
+    }
+}
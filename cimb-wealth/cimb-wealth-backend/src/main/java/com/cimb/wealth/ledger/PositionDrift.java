@@ -0,0 +1,24 @@
+package com.cimb.wealth.ledger;
+
+import java.math.BigDecimal;
+
+/**
+ * A difference between the position replayed from the ledger and the holdings of one
+ * ticker in an account.
+ */
+public record PositionDrift(String ticker,
+                            Kind kind,
+                            BigDecimal ledgerQuantity,
+                            BigDecimal holdingQuantity,
+                            BigDecimal ledgerAverageCost,
+                            BigDecimal holdingAverageCost) {
+
+    public enum Kind {
+        // The ledger has units the holdings do not
+        MISSING_HOLDING,
+        // A holding has units that no transaction accounts for
+        UNBACKED_HOLDING,
+        QUANTITY,
+        AVERAGE_COST
+    }
+}
@@ -0,0 +1,13 @@
+package com.cimb.wealth.ledger;
+
+/**
+ * Outcome of one reconciliation run. Full replays are accounts without a usable
+ * checkpoint; failed accounts are retried on the next run.
+ */
+public record ReconciliationResult(int accounts,
+                                   int failedAccounts,
+                                   int fullReplays,
+                                   long transactionsReplayed,
+                                   long driftedPositions,
+                                   long elapsedMs) {
+}
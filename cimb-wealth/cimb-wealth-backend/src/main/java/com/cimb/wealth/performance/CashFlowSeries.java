@@ -0,0 +1,130 @@
+package com.cimb.wealth.performance;
+
+import com.cimb.wealth.domain.Money;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * External cash flows netted per day in hundredths, from the investor's side: money paid
+ * in is negative.
+ * The internal rate of return is defined on dates, so netting a day's flows loses nothing
+ * and the series grows with the number of days that have flows, not with transactions.
+ */
+final class CashFlowSeries {
+
+    private static final double DAYS_PER_YEAR = 365.0;
+
+    private static final int MAX_NEWTON_ITERATIONS = 50;
+
+    private static final int MAX_BISECTIONS = 200;
+
+    private static final double RATE_TOLERANCE = 1e-10;
+
+    private long[] days = new long[16];
+
+    private long[] amounts = new long[16];
+
+    private int size;
+
+    /**
+     * Adds a flow; dates must not decrease.
+     */
+    void add(LocalDate date, Money amount) {
+        long day = date.toEpochDay();
+        if (size > 0 && days[size - 1] == day) {
+            amounts[size - 1] = Math.addExact(amounts[size - 1], amount.units());
+            return;
+        }
+        if (size > 0 && day < days[size - 1]) {
+            throw new IllegalArgumentException("Cash flows must be added in date order");
+        }
+        if (size == days.length) {
+            days = Arrays.copyOf(days, size * 2);
+            amounts = Arrays.copyOf(amounts, size * 2);
+        }
+        days[size] = day;
+        amounts[size] = amount.units();
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The annual rate at which the flows have a net present value of zero, or null when
+     * there is none: all flows on one day or all of one sign.
+     */
+    Double internalRateOfReturn() {
+        if (size < 2 || days[size - 1] == days[0] || !hasBothSigns()) {
+            return null;
+        }
+
+        double rate = 0.1;
+        for (int i = 0; i < MAX_NEWTON_ITERATIONS; i++) {
+            double npv = 0;
+            double derivative = 0;
+            for (int j = 0; j < size; j++) {
+                double years = (days[j] - days[0]) / DAYS_PER_YEAR;
+                double discounted = amounts[j] * Math.pow(1 + rate, -years);
+                npv += discounted;
+                derivative -= years * discounted / (1 + rate);
+            }
+            if (derivative == 0 || !Double.isFinite(npv)) {
+                break;
+            }
+            double next = rate - npv / derivative;
+            // Newton can step below -100%; halve the distance to it instead
+            if (!(next > -1)) {
+                next = (rate - 1) / 2;
+            }
+            if (Math.abs(next - rate) < RATE_TOLERANCE) {
+                return next;
+            }
+            rate = next;
+        }
+        return bisect();
+    }
+
+    private Double bisect() {
+        double low = -0.999999;
+        double high = 1;
+        double lowValue = npv(low);
+        while (Math.signum(npv(high)) == Math.signum(lowValue)) {
+            high *= 2;
+            if (high > 1e6) {
+                return null;
+            }
+        }
+        for (int i = 0; i < MAX_BISECTIONS && high - low > RATE_TOLERANCE; i++) {
+            double mid = (low + high) / 2;
+            double midValue = npv(mid);
+            if (Math.signum(midValue) == Math.signum(lowValue)) {
+                low = mid;
+                lowValue = midValue;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    private double npv(double rate) {
+        double npv = 0;
+        for (int j = 0; j < size; j++) {
+            npv += amounts[j] * Math.pow(1 + rate, -(days[j] - days[0]) / DAYS_PER_YEAR);
+        }
+        return npv;
+    }
+
+    private boolean hasBothSigns() {
+        boolean positive = false;
+        boolean negative = false;
+        for (int j = 0; j < size; j++) {
+            positive |= amounts[j] > 0;
+            negative |= amounts[j] < 0;
+        }
+        return positive && negative;
+    }
+}
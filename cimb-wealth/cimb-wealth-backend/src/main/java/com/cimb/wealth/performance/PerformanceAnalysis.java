@@ -0,0 +1,23 @@
+package com.cimb.wealth.performance;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Returns of one account as of a date, in percent. A return is null when the account had
+ * no positive value to measure it against; the annualized return also needs a year of
+ * history.
+ */
+public record PerformanceAnalysis(Long accountId,
+                                  LocalDate asOf,
+                                  LocalDate inceptionDate,
+                                  BigDecimal marketValue,
+                                  BigDecimal netContributions,
+                                  long transactionCount,
+                                  BigDecimal timeWeightedReturn,
+                                  BigDecimal annualizedReturn,
+                                  BigDecimal moneyWeightedReturn,
+                                  BigDecimal monthToDate,
+                                  BigDecimal quarterToDate,
+                                  BigDecimal yearToDate) {
+}
@@ -0,0 +1,296 @@
+package com.cimb.wealth.performance;
+
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.domain.Quantity;
+import com.cimb.wealth.domain.Transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the returns of one account in a single pass over its transactions in time
+ * order. Positions are marked at the last traded price of their ticker, and the account
+ * is valued at every external flow to chain the sub-period returns into a time-weighted
+ * index. Memory grows with the number of tickers and of days with external flows, not
+ * with the number of transactions.
+ *
+ * <p>Cash, positions and contributions are kept exact in {@link Money}; only the return
+ * ratios are computed in {@code double}.
+ *
+ * <p>Month, quarter and year to date returns start from the positions held when the
+ * period began, valued at the closing prices of the day before. They are null when a
+ * held ticker has no closing price by then.
+ *
+ * <p>Deposits and withdrawals are external flows; a transfer moves {@code quantity} units
+ * of its ticker into the account at {@code price}, or out of it when negative. Trades,
+ * fees, dividends and interest stay inside the account and count towards its return.
+ */
+public final class PerformanceCalculator {
+
+    private static final int MONTH = 0;
+
+    private static final int QUARTER = 1;
+
+    private static final int YEAR = 2;
+
+    private final Long accountId;
+
+    private final LocalDate asOf;
+
+    private final LocalDate[] periodStarts;
+
+    // State of the account when each period began; null until the stream reaches it
+    private final PeriodStart[] periodOpenings = new PeriodStart[3];
+
+    private final Map<String, Position> positions = new HashMap<>();
+
+    private final CashFlowSeries cashFlows = new CashFlowSeries();
+
+    private Money cash = Money.ZERO;
+
+    private Money positionsValue = Money.ZERO;
+
+    // Chained growth up to the last external flow, and the value right after it
+    private double growth = 1;
+
+    private Money base = Money.ZERO;
+
+    private boolean valued;
+
+    private Money netContributions = Money.ZERO;
+
+    private LocalDate inceptionDate;
+
+    private LocalDate lastDate;
+
+    private long transactionCount;
+
+    public PerformanceCalculator(Long accountId, LocalDate asOf) {
+        this.accountId = accountId;
+        this.asOf = asOf;
+        this.periodStarts = new LocalDate[]{
+            asOf.withDayOfMonth(1),
+            asOf.with(IsoFields.DAY_OF_QUARTER, 1),
+            asOf.withDayOfYear(1)
+        };
+    }
+
+    public LocalDate asOf() {
+        return asOf;
+    }
+
+    /**
+     * Every ticker traded so far, which covers the holdings at each period opening.
+     */
+    public Set<String> tickers() {
+        return Set.copyOf(positions.keySet());
+    }
+
+    /**
+     * Applies one completed transaction. Dates must not decrease.
+     */
+    public void accept(LocalDate date, TransactionType type, String ticker,
+                       Quantity quantity, Money price, Money totalAmount) {
+        if (lastDate != null && date.isBefore(lastDate)) {
+            throw new IllegalArgumentException("Transactions must be in time order");
+        }
+        if (inceptionDate == null) {
+            inceptionDate = date;
+        }
+        lastDate = date;
+        transactionCount++;
+        startPeriods(date);
+
+        switch (type) {
+            case BUY -> {
+                trade(mark(ticker, price), quantity);
+                cash = cash.minus(totalAmount);
+            }
+            case SELL -> {
+                trade(mark(ticker, price), quantity.negate());
+                cash = cash.plus(totalAmount);
+            }
+            case DIVIDEND, INTEREST -> cash = cash.plus(totalAmount);
+            case DEPOSIT -> {
+                growth = index();
+                cash = cash.plus(totalAmount);
+                contributed(date, totalAmount);
+            }
+            case WITHDRAWAL -> {
+                growth = index();
+                cash = cash.minus(totalAmount);
+                contributed(date, totalAmount.negate());
+            }
+            case TRANSFER -> {
+                Position position = mark(ticker, price);
+                growth = index();
+                trade(position, quantity);
+                contributed(date, quantity.times(price, RoundingMode.HALF_UP));
+            }
+        }
+    }
+
+    /**
+     * Revalues the positions at {@code currentPrices}, keyed by ticker, and returns the
+     * result as of the calculator's date. Tickers without a current price keep their last
+     * traded price; period openings are valued at {@code closingPrices}.
+     */
+    public PerformanceAnalysis finish(Map<String, Money> currentPrices, ClosingPrices closingPrices) {
+        // Periods the stream never reached began with the positions held now
+        startPeriods(asOf);
+
+        for (Map.Entry<String, Position> entry : positions.entrySet()) {
+            Money current = currentPrices.get(entry.getKey());
+            if (current != null) {
+                revalue(entry.getValue(), current);
+            }
+        }
+
+        Money marketValue = value();
+        double index = index();
+        if (cashFlows.size() > 0) {
+            cashFlows.add(asOf, marketValue);
+        }
+
+        Double timeWeighted = valued ? index - 1 : null;
+        Double annualized = null;
+        if (timeWeighted != null && ChronoUnit.DAYS.between(inceptionDate, asOf) >= 365) {
+            double years = ChronoUnit.DAYS.between(inceptionDate, asOf) / 365.0;
+            annualized = Math.pow(1 + timeWeighted, 1 / years) - 1;
+        }
+
+        return new PerformanceAnalysis(accountId, asOf, inceptionDate,
+            marketValue.toBigDecimal(), netContributions.toBigDecimal(), transactionCount,
+            percent(timeWeighted), percent(annualized), percent(cashFlows.internalRateOfReturn()),
+            percent(periodReturn(MONTH, index, closingPrices)),
+            percent(periodReturn(QUARTER, index, closingPrices)),
+            percent(periodReturn(YEAR, index, closingPrices)));
+    }
+
+    private void startPeriods(LocalDate date) {
+        for (int period = 0; period < periodStarts.length; period++) {
+            if (periodOpenings[period] == null && !date.isBefore(periodStarts[period])) {
+                periodOpenings[period] = new PeriodStart(this, periodStarts[period].minusDays(1));
+            }
+        }
+    }
+
+    private Double periodReturn(int period, double index, ClosingPrices closingPrices) {
+        if (!valued) {
+            return null;
+        }
+        Double start = periodOpenings[period].index(closingPrices);
+        return start != null && start > 0 ? index / start - 1 : null;
+    }
+
+    private Position mark(String ticker, Money price) {
+        Position position = positions.computeIfAbsent(ticker, key -> new Position());
+        revalue(position, price);
+        return position;
+    }
+
+    private void trade(Position position, Quantity quantity) {
+        position.quantity = position.quantity.plus(quantity);
+        revalue(position, position.price);
+    }
+
+    // Each position's value is rounded once and swapped into the total, so nothing drifts
+    private void revalue(Position position, Money price) {
+        Money value = position.quantity.times(price, RoundingMode.HALF_UP);
+        positionsValue = positionsValue.minus(position.value).plus(value);
+        position.price = price;
+        position.value = value;
+    }
+
+    private void contributed(LocalDate date, Money amount) {
+        netContributions = netContributions.plus(amount);
+        cashFlows.add(date, amount.negate());
+        base = value();
+        valued |= base.signum() > 0;
+    }
+
+    private Money value() {
+        return cash.plus(positionsValue);
+    }
+
+    // The index only moves while there is a positive value to measure growth against
+    private double index() {
+        return index(growth, value(), base);
+    }
+
+    private static double index(double growth, Money value, Money base) {
+        return base.signum() > 0 ? growth * value.units() / base.units() : growth;
+    }
+
+    private static BigDecimal percent(Double ratio) {
+        if (ratio == null || !Double.isFinite(ratio)) {
+            return null;
+        }
+        return BigDecimal.valueOf(ratio * 100).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * The closing price of a ticker on or before a date, or null when none is known.
+     */
+    @FunctionalInterface
+    public interface ClosingPrices {
+        Money on(String ticker, LocalDate date);
+    }
+
+    private static final class Position {
+
+        private Quantity quantity = Quantity.ZERO;
+
+        private Money price = Money.ZERO;
+
+        private Money value = Money.ZERO;
+    }
+
+    /**
+     * What the account held when a period began. No external flow happens between the
+     * period start and the point it is taken, so the index there follows from the held
+     * quantities once they are valued.
+     */
+    private static final class PeriodStart {
+
+        private final LocalDate closingDate;
+
+        private final double growth;
+
+        private final Money base;
+
+        private final Money cash;
+
+        private final Map<String, Quantity> quantities = new HashMap<>();
+
+        private PeriodStart(PerformanceCalculator calculator, LocalDate closingDate) {
+            this.closingDate = closingDate;
+            this.growth = calculator.growth;
+            this.base = calculator.base;
+            this.cash = calculator.cash;
+            calculator.positions.forEach((ticker, position) -> {
+                if (position.quantity.signum() != 0) {
+                    quantities.put(ticker, position.quantity);
+                }
+            });
+        }
+
+        private Double index(ClosingPrices closingPrices) {
+            Money value = cash;
+            for (Map.Entry<String, Quantity> holding : quantities.entrySet()) {
+                Money price = closingPrices.on(holding.getKey(), closingDate);
+                if (price == null) {
+                    return null;
+                }
+                value = value.plus(holding.getValue().times(price, RoundingMode.HALF_UP));
+            }
+            return PerformanceCalculator.index(growth, value, base);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.cimb.wealth.performance;
+
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.domain.Quantity;
+import com.cimb.wealth.domain.Transaction.TransactionType;
+import com.cimb.wealth.event.PortfolioChangedEvent;
+import com.cimb.wealth.repository.ValuationRepository;
+import com.cimb.wealth.valuation.ValuationBlock;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Serves the performance analysis of an account. The account's completed transactions are
+ * read through a forward-only cursor in fetch-size batches and fed to a
+ * {@link PerformanceCalculator}, so neither the rows nor entities are held in memory. The
+ * closing valuation uses the current prices of the account's holdings, and period openings
+ * the daily closing prices recorded in {@code price_blocks}.
+ *
+ * <p>Results are cached per account and invalidated after commit of any write to the
+ * account. Bulk repricing bypasses entity listeners and invalidates the accounts it
+ * repriced itself; the TTL bounds how long any other write outside JPA can go unseen.
+ * The stream runs on the caller's thread outside the cache's locks, so an invalidation
+ * never waits for it; a result invalidated while it was computed is returned to its
+ * callers but not kept.
+ */
+@Service
+@Slf4j
+public class PerformanceService {
+
+    private static final String TRANSACTIONS_SQL = """
+        SELECT transaction_type, ticker, quantity, price, total_amount, created_at
+        FROM transactions
+        WHERE account_id = ? AND status = 'COMPLETED'
+        ORDER BY created_at, id
+        """;
+
+    private static final String PRICES_SQL = "SELECT ticker, current_price FROM holdings WHERE account_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ValuationRepository valuationRepository;
+
+    private final TransactionTemplate readOnly;
+
+    private final int fetchSize;
+
+    private final AsyncCache<Long, PerformanceAnalysis> analyses;
+
+    private final Timer analysisTimer;
+
+    public PerformanceService(JdbcTemplate jdbcTemplate,
+                              ValuationRepository valuationRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${cimb.performance.fetch-size:5000}") int fetchSize,
+                              @Value("${cimb.performance.cache.max-size:10000}") long maxSize,
+                              @Value("${cimb.performance.cache.ttl:15m}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.valuationRepository = valuationRepository;
+        // The PostgreSQL driver only streams with a fetch size inside a transaction
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.analyses = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync();
+        this.analysisTimer = Timer.builder("performance.analysis.duration")
+            .description("Time to stream an account's transactions and compute its returns")
+            .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, analyses, "performance.analysis");
+    }
+
+    public PerformanceAnalysis analyze(Long accountId) {
+        CompletableFuture<PerformanceAnalysis> computing = new CompletableFuture<>();
+        CompletableFuture<PerformanceAnalysis> analysis = analyses.get(accountId, (id, executor) -> computing);
+        if (analysis == computing) {
+            try {
+                computing.complete(compute(accountId));
+            } catch (RuntimeException | Error e) {
+                // A failed future is dropped from the cache, so the next call retries
+                computing.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return analysis.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (event.accountId() != null) {
+            analyses.synchronous().invalidate(event.accountId());
+        }
+    }
+
+    public void invalidate(Collection<Long> accountIds) {
+        analyses.synchronous().invalidateAll(accountIds);
+    }
+
+    private PerformanceAnalysis compute(Long accountId) {
+        return analysisTimer.record(() -> readOnly.execute(status -> {
+            PerformanceCalculator calculator = new PerformanceCalculator(accountId, LocalDate.now());
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(TRANSACTIONS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, accountId);
+                return statement;
+            }, (RowCallbackHandler) rs -> calculator.accept(
+                rs.getTimestamp(6).toLocalDateTime().toLocalDate(),
+                TransactionType.valueOf(rs.getString(1)),
+                rs.getString(2),
+                Quantity.of(rs.getBigDecimal(3)),
+                Money.of(rs.getBigDecimal(4)),
+                Money.of(rs.getBigDecimal(5))));
+
+            Map<String, Money> prices = new HashMap<>();
+            jdbcTemplate.query(PRICES_SQL, (RowCallbackHandler) rs ->
+                prices.put(rs.getString("ticker"), Money.of(rs.getBigDecimal("current_price"))), accountId);
+
+            PerformanceAnalysis analysis = calculator.finish(prices, closingPrices(calculator));
+            log.debug("Computed performance of account {} from {} transactions", accountId, analysis.transactionCount());
+            return analysis;
+        }));
+    }
+
+    // The year opening is the earliest, valued on the last day of the previous year
+    private PerformanceCalculator.ClosingPrices closingPrices(PerformanceCalculator calculator) {
+        LocalDate asOf = calculator.asOf();
+        Map<String, List<ValuationBlock>> blocks = valuationRepository.findPriceBlocks(calculator.tickers(),
+            asOf.withDayOfYear(1).minusDays(1), asOf);
+        return (ticker, date) -> {
+            List<ValuationBlock> series = blocks.getOrDefault(ticker, List.of());
+            for (int b = series.size() - 1; b >= 0; b--) {
+                ValuationBlock block = series.get(b);
+                for (int i = block.size() - 1; i >= 0; i--) {
+                    if (!block.date(i).isAfter(date)) {
+                        return Money.ofUnits(block.units(i));
+                    }
+                }
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.cimb.wealth.pricing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Replays recorded ticks from a file, either CSV lines of {@code ticker,price,timestamp}
+ * (an optional header is skipped) or NDJSON objects with the same fields, chosen by the
+ * file extension. Timestamps are ISO-8601 instants. With a positive speed the gaps between
+ * timestamps are replayed, divided by the speed; with 0 the file is read as fast as possible.
+ */
+@Component
+@ConditionalOnProperty(name = "cimb.pricing.ingestion.source", havingValue = "file")
+@Slf4j
+public class FilePriceTickSource implements PriceTickSource {
+
+    private final ObjectMapper objectMapper;
+
+    private final Path path;
+
+    private final double speed;
+
+    public FilePriceTickSource(ObjectMapper objectMapper,
+                               @Value("${cimb.pricing.ingestion.file.path}") Path path,
+                               @Value("${cimb.pricing.ingestion.file.speed:0}") double speed) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+        this.speed = speed;
+    }
+
+    @Override
+    public void stream(Consumer<PriceTick> sink) throws IOException, InterruptedException {
+        boolean ndjson = path.getFileName().toString().endsWith(".ndjson");
+        Instant previous = null;
+        long lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (!ndjson && lineNumber == 1 && line.startsWith("ticker"))) {
+                    continue;
+                }
+                PriceTick tick;
+                try {
+                    tick = ndjson ? parseJson(line) : parseCsv(line);
+                } catch (RuntimeException e) {
+                    log.warn("Skipping malformed tick at {}:{}: {}", path, lineNumber, e.getMessage());
+                    continue;
+                }
+                if (speed > 0 && previous != null && tick.timestamp().isAfter(previous)) {
+                    long gapNanos = (long) (TimeUnit.MILLISECONDS.toNanos(tick.timestamp().toEpochMilli() - previous.toEpochMilli()) / speed);
+                    TimeUnit.NANOSECONDS.sleep(gapNanos);
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                previous = tick.timestamp();
+                sink.accept(tick);
+            }
+        }
+        log.info("Replayed {} lines from {}", lineNumber, path);
+    }
+
+    private static PriceTick parseCsv(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("expected ticker,price,timestamp");
+        }
+        return tick(fields[0].trim(), fields[1].trim(), fields[2].trim());
+    }
+
+    private PriceTick parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("invalid JSON", e);
+        }
+        return tick(node.path("ticker").asText(), node.path("price").asText(), node.path("timestamp").asText());
+    }
+
+    private static PriceTick tick(String ticker, String price, String timestamp) {
+        if (ticker.isEmpty()) {
+            throw new IllegalArgumentException("missing ticker");
+        }
+        return new PriceTick(ticker, new BigDecimal(price), Instant.parse(timestamp));
+    }
+}
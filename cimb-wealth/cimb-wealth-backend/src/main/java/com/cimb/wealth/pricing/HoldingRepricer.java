@@ -0,0 +1,237 @@
+package com.cimb.wealth.pricing;
+
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.event.SubscriptionEvent;
+import com.cimb.wealth.event.SubscriptionEventBus;
+import com.cimb.wealth.performance.PerformanceService;
+import com.cimb.wealth.service.PortfolioSnapshotRebuildJob;
+import com.cimb.wealth.service.PortfolioSummaryCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marks holdings to market for a batch of ticker prices with set-based SQL. Each statement
+ * joins {@code holdings} to the unnested price arrays through the ticker index and
+ * recomputes the derived columns exactly as {@code Holding.calculateValues} does, with
+ * market value and cost rounded to cents half-up before the gain is taken, so no entity
+ * is loaded. Prices are rounded to cents half-up before they are bound, as {@link Money}
+ * rounds them, so the stored price and the values derived from it agree. The whole batch
+ * commits atomically.
+ *
+ * <p>Entity listeners do not see these writes, so after the commit the cached summaries
+ * of the affected users and the performance analyses of the affected accounts are
+ * invalidated, and the users' snapshots rebuilt or queued for the next coalesced rebuild.
+ * While anyone subscribes to {@code holdingUpdated}, the updated rows are returned in full
+ * and published to the subscription bus after the commit; otherwise only per-account
+ * counts come back. Only rows of accounts with a subscriber are kept for publishing, one
+ * event per holding, so the buffer is bounded by what subscribers watch rather than by
+ * the size of the batch.
+ */
+@Service
+@Slf4j
+public class HoldingRepricer {
+
+    // Rows whose price is unchanged are skipped, so repeating a batch writes nothing
+    private static final String REPRICE_CTE = """
+        WITH updated AS (
+            UPDATE holdings h SET
+                current_price = p.price,
+                market_value = ROUND(h.quantity * p.price, 2),
+                unrealized_gain_loss = ROUND(h.quantity * p.price, 2) - ROUND(h.quantity * h.average_cost, 2),
+                unrealized_gain_loss_percentage = CASE
+                    WHEN ROUND(h.quantity * h.average_cost, 2) > 0
+                        THEN ROUND((ROUND(h.quantity * p.price, 2) - ROUND(h.quantity * h.average_cost, 2))
+                                   / ROUND(h.quantity * h.average_cost, 2), 4) * 100
+                    ELSE h.unrealized_gain_loss_percentage END,
+                updated_at = CURRENT_TIMESTAMP
+            FROM unnest(?::varchar[], ?::numeric[]) AS p(ticker, price)
+            WHERE h.ticker = p.ticker AND h.current_price <> p.price
+            RETURNING h.*
+        )
+        """;
+
+    private static final String REPRICE_SQL = REPRICE_CTE + """
+        SELECT a.user_id, u.account_id, COUNT(*) AS holdings
+        FROM updated u
+        JOIN accounts a ON a.id = u.account_id
+        GROUP BY a.user_id, u.account_id
+        """;
+
+    // One row per holding, for holdingUpdated subscribers
+    private static final String REPRICE_ROWS_SQL = REPRICE_CTE + """
+        SELECT a.user_id, u.*
+        FROM updated u
+        JOIN accounts a ON a.id = u.account_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final PortfolioSummaryCache portfolioSummaryCache;
+
+    private final PerformanceService performanceService;
+
+    private final PortfolioSnapshotRebuildJob snapshotRebuildJob;
+
+    private final SubscriptionEventBus subscriptionEventBus;
+
+    private final int chunkSize;
+
+    private final Timer repriceTimer;
+
+    private final Counter holdingsCounter;
+
+    public HoldingRepricer(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           PortfolioSummaryCache portfolioSummaryCache,
+                           PerformanceService performanceService,
+                           PortfolioSnapshotRebuildJob snapshotRebuildJob,
+                           SubscriptionEventBus subscriptionEventBus,
+                           MeterRegistry meterRegistry,
+                           @Value("${cimb.pricing.reprice-chunk-size:5000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.portfolioSummaryCache = portfolioSummaryCache;
+        this.performanceService = performanceService;
+        this.snapshotRebuildJob = snapshotRebuildJob;
+        this.subscriptionEventBus = subscriptionEventBus;
+        this.chunkSize = chunkSize;
+        this.repriceTimer = Timer.builder("pricing.reprice.duration")
+            .description("Duration of bulk holding repricing, excluding the snapshot refresh")
+            .register(meterRegistry);
+        this.holdingsCounter = Counter.builder("pricing.reprice.holdings")
+            .description("Holdings whose price was changed by bulk repricing")
+            .register(meterRegistry);
+    }
+
+    public RepricingResult reprice(Map<String, BigDecimal> prices) {
+        return reprice(prices, true);
+    }
+
+    /**
+     * @param rebuildSnapshots whether the affected users' snapshots are rebuilt before
+     *                         returning; otherwise they are queued for the coalesced rebuild
+     */
+    public RepricingResult reprice(Map<String, BigDecimal> prices, boolean rebuildSnapshots) {
+        List<String> tickers = new ArrayList<>(prices.size());
+        List<BigDecimal> values = new ArrayList<>(prices.size());
+        prices.forEach((ticker, price) -> {
+            if (ticker == null || ticker.isBlank()) {
+                throw new IllegalArgumentException("Ticker must not be blank");
+            }
+            if (price == null || price.signum() < 0) {
+                throw new IllegalArgumentException("Price of " + ticker + " must not be negative");
+            }
+            tickers.add(ticker);
+            values.add(Money.of(price, RoundingMode.HALF_UP).toBigDecimal());
+        });
+
+        long start = System.nanoTime();
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> accountIds = new HashSet<>();
+        Map<Long, SubscriptionEvent> events = subscriptionEventBus.hasSubscribers(SubscriptionEvent.Topic.HOLDING_UPDATED)
+            ? new LinkedHashMap<>() : null;
+        Long updated = transactionTemplate.execute(status -> {
+            long rows = 0;
+            for (int from = 0; from < tickers.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, tickers.size());
+                rows += repriceChunk(tickers.subList(from, to), values.subList(from, to), userIds, accountIds, events);
+            }
+            return rows;
+        });
+        long elapsed = System.nanoTime() - start;
+        long holdings = updated != null ? updated : 0;
+        repriceTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        holdingsCounter.increment(holdings);
+
+        userIds.forEach(portfolioSummaryCache::invalidate);
+        performanceService.invalidate(accountIds);
+        if (events != null) {
+            events.values().forEach(subscriptionEventBus::publish);
+        }
+        if (rebuildSnapshots) {
+            snapshotRebuildJob.rebuildUsers(userIds);
+        } else {
+            snapshotRebuildJob.scheduleUsers(userIds);
+        }
+
+        RepricingResult result = new RepricingResult(tickers.size(), holdings, userIds.size(),
+            TimeUnit.NANOSECONDS.toMillis(elapsed));
+        log.info("Repriced {} holdings of {} users for {} tickers in {} ms",
+            result.holdingsUpdated(), result.usersAffected(), result.tickers(), result.elapsedMs());
+        return result;
+    }
+
+    private long repriceChunk(List<String> tickers, List<BigDecimal> prices, Set<Long> userIds, Set<Long> accountIds,
+                              Map<Long, SubscriptionEvent> events) {
+        long[] rows = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(events != null ? REPRICE_ROWS_SQL : REPRICE_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", tickers.toArray()));
+            statement.setArray(2, connection.createArrayOf("numeric", prices.toArray()));
+            return statement;
+        }, rs -> {
+            userIds.add(rs.getLong("user_id"));
+            accountIds.add(rs.getLong("account_id"));
+            if (events == null) {
+                rows[0] += rs.getLong("holdings");
+                return;
+            }
+            rows[0]++;
+            if (subscriptionEventBus.hasSubscribers(SubscriptionEvent.Topic.HOLDING_UPDATED, rs.getLong("account_id"))) {
+                HoldingDto holding = toHoldingDto(rs);
+                events.put(holding.getId(), new SubscriptionEvent(SubscriptionEvent.Topic.HOLDING_UPDATED,
+                    holding.getAccountId(), holding.getId(), holding));
+            }
+        });
+        return rows[0];
+    }
+
+    private static HoldingDto toHoldingDto(ResultSet rs) throws SQLException {
+        return HoldingDto.builder()
+            .id(rs.getLong("id"))
+            .ticker(rs.getString("ticker"))
+            .assetName(rs.getString("asset_name"))
+            .assetType(Holding.AssetType.valueOf(rs.getString("asset_type")))
+            .sector(rs.getString("sector"))
+            .quantity(rs.getBigDecimal("quantity"))
+            .currentPrice(rs.getBigDecimal("current_price"))
+            .averageCost(rs.getBigDecimal("average_cost"))
+            .marketValue(rs.getBigDecimal("market_value"))
+            .unrealizedGainLoss(rs.getBigDecimal("unrealized_gain_loss"))
+            .unrealizedGainLossPercentage(rs.getBigDecimal("unrealized_gain_loss_percentage"))
+            .createdAt(localDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(localDateTime(rs.getTimestamp("updated_at")))
+            .accountId(rs.getLong("account_id"))
+            .build();
+    }
+
+    private static LocalDateTime localDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,87 @@
+package com.cimb.wealth.pricing;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Latest price per ticker, written by the feed and drained by the flusher. A ticker's slot
+ * is created once; after that a tick is a compare-and-set on the slot, so writers never
+ * block each other or the flusher. Ticks older than the stored one are ignored.
+ *
+ * <p>Ticks between two drains coalesce: a ticker is queued for flushing only on its first
+ * change since the last drain, and the drain reads whatever price is newest by then.
+ */
+public class LatestPriceTable {
+
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+    private final Queue<Slot> dirty = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Stores the tick unless a newer one is already held. Returns whether it was stored.
+     */
+    public boolean update(PriceTick tick) {
+        Slot slot = slots.computeIfAbsent(tick.ticker(), ticker -> new Slot());
+        PriceTick current;
+        do {
+            current = slot.latest.get();
+            if (current != null && tick.timestamp().isBefore(current.timestamp())) {
+                return false;
+            }
+        } while (!slot.latest.compareAndSet(current, tick));
+
+        if (slot.dirty.compareAndSet(false, true)) {
+            slot.dirtySince = System.nanoTime();
+            pending.incrementAndGet();
+            dirty.offer(slot);
+        }
+        return true;
+    }
+
+    public PriceTick get(String ticker) {
+        Slot slot = slots.get(ticker);
+        return slot != null ? slot.latest.get() : null;
+    }
+
+    /**
+     * Moves the latest tick of every ticker changed since the previous drain into
+     * {@code batch}, at most {@code limit} of them, and returns the {@link System#nanoTime()}
+     * of the oldest change drained, or {@code Long.MAX_VALUE} when nothing was.
+     */
+    public long drainTo(List<PriceTick> batch, int limit) {
+        long oldest = Long.MAX_VALUE;
+        Slot slot;
+        for (int drained = 0; drained < limit && (slot = dirty.poll()) != null; drained++) {
+            pending.decrementAndGet();
+            oldest = Math.min(oldest, slot.dirtySince);
+            // Cleared before reading, so a tick that lands after the read queues the slot again
+            slot.dirty.set(false);
+            batch.add(slot.latest.get());
+        }
+        return oldest;
+    }
+
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    private static final class Slot {
+
+        private final AtomicReference<PriceTick> latest = new AtomicReference<>();
+
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        private volatile long dirtySince;
+    }
+}
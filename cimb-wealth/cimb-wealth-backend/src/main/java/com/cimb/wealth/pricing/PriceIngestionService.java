@@ -0,0 +1,250 @@
+package com.cimb.wealth.pricing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds ticks from the configured {@link PriceTickSource} into a {@link LatestPriceTable}
+ * on one thread and, on another, flushes the tickers changed since the last flush to
+ * {@code holdings} through {@link HoldingRepricer} at a fixed cadence. However many ticks a
+ * ticker receives between flushes, it is written once, at its latest price.
+ *
+ * <p>Invalid ticks are dropped as they arrive. A flush failing on a transient database
+ * error is offered again on the next cycle; any other failure would recur on every retry,
+ * so the batch is split until the ticks causing it are isolated and dropped, and the rest
+ * are written. Snapshots of the repriced users are rebuilt once per coalescing window.
+ */
+@Component
+@Slf4j
+public class PriceIngestionService implements SmartLifecycle {
+
+    private final ObjectProvider<PriceTickSource> sourceProvider;
+
+    private final HoldingRepricer holdingRepricer;
+
+    private final LatestPriceTable table = new LatestPriceTable();
+
+    private final boolean enabled;
+
+    private final Duration flushInterval;
+
+    private final int maxBatch;
+
+    private final Counter receivedCounter;
+
+    private final Counter staleCounter;
+
+    private final Counter invalidCounter;
+
+    private final Counter rejectedCounter;
+
+    private final Counter failedFlushCounter;
+
+    private final Timer flushLatency;
+
+    private volatile boolean running;
+
+    private Thread feedThread;
+
+    private ScheduledExecutorService flusher;
+
+    public PriceIngestionService(ObjectProvider<PriceTickSource> sourceProvider,
+                                 HoldingRepricer holdingRepricer,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${cimb.pricing.ingestion.enabled:false}") boolean enabled,
+                                 @Value("${cimb.pricing.ingestion.flush-interval:5s}") Duration flushInterval,
+                                 @Value("${cimb.pricing.ingestion.max-batch:10000}") int maxBatch) {
+        this.sourceProvider = sourceProvider;
+        this.holdingRepricer = holdingRepricer;
+        this.enabled = enabled;
+        this.flushInterval = flushInterval;
+        this.maxBatch = maxBatch;
+        this.receivedCounter = Counter.builder("pricing.ticks.received")
+            .description("Price ticks read from the feed")
+            .register(meterRegistry);
+        this.staleCounter = Counter.builder("pricing.ticks.stale")
+            .description("Price ticks ignored because a newer price was already held")
+            .register(meterRegistry);
+        this.invalidCounter = Counter.builder("pricing.ticks.invalid")
+            .description("Price ticks dropped on arrival for a missing ticker or time or an unstorable price")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("pricing.ticks.rejected")
+            .description("Price ticks dropped because the database rejected their repricing")
+            .register(meterRegistry);
+        this.failedFlushCounter = Counter.builder("pricing.flush.failed")
+            .description("Price flushes that failed on a transient error and were retried on the next cycle")
+            .register(meterRegistry);
+        this.flushLatency = Timer.builder("pricing.flush.latency")
+            .description("Time from the oldest unflushed price change to its flush committing")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+
+        Gauge.builder("pricing.ticks.pending", table, LatestPriceTable::pendingCount)
+            .description("Tickers changed since the last flush")
+            .register(meterRegistry);
+        Gauge.builder("pricing.tickers", table, LatestPriceTable::size)
+            .description("Tickers with a price in memory")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public void start() {
+        PriceTickSource source = sourceProvider.getIfAvailable();
+        if (source == null) {
+            log.warn("Price ingestion is enabled but no price tick source is configured");
+            return;
+        }
+        running = true;
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushInterval.toMillis(), flushInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+
+        feedThread = new Thread(() -> feed(source), "price-feed");
+        feedThread.setDaemon(true);
+        feedThread.start();
+        log.info("Price ingestion started from {}, flushing every {}", source.getClass().getSimpleName(), flushInterval);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        feedThread.interrupt();
+        flusher.shutdown();
+        try {
+            feedThread.join(TimeUnit.SECONDS.toMillis(5));
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever arrived after the last cycle is still written before shutdown
+        flushSafely();
+        log.info("Price ingestion stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public PriceTick latest(String ticker) {
+        return table.get(ticker);
+    }
+
+    private void feed(PriceTickSource source) {
+        try {
+            source.stream(tick -> {
+                receivedCounter.increment();
+                if (!tick.isValid()) {
+                    invalidCounter.increment();
+                    log.debug("Dropping invalid price tick {}", tick);
+                } else if (!table.update(tick)) {
+                    staleCounter.increment();
+                }
+            });
+            log.info("Price feed ended");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Price feed failed", e);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            // A full batch means more changes are waiting
+            int flushed;
+            do {
+                flushed = flush();
+            } while (flushed == maxBatch);
+        } catch (RuntimeException e) {
+            failedFlushCounter.increment();
+            log.error("Price flush failed, retrying on the next cycle", e);
+        }
+    }
+
+    private int flush() {
+        List<PriceTick> batch = new ArrayList<>(Math.min(maxBatch, table.pendingCount()));
+        long oldestChange = table.drainTo(batch, maxBatch);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            repriceIsolating(batch);
+        } catch (RuntimeException e) {
+            // Re-offering marks the tickers changed again unless a newer tick has arrived;
+            // parts already written are unchanged by the retry, so it writes nothing twice
+            batch.forEach(table::update);
+            throw e;
+        }
+        flushLatency.record(System.nanoTime() - oldestChange, TimeUnit.NANOSECONDS);
+        return batch.size();
+    }
+
+    /**
+     * Reprices the batch, halving it on a permanent failure until the failing ticks are
+     * alone, which are then dropped. Transient failures are rethrown.
+     */
+    private void repriceIsolating(List<PriceTick> batch) {
+        Map<String, BigDecimal> prices = new LinkedHashMap<>(batch.size());
+        for (PriceTick tick : batch) {
+            prices.put(tick.ticker(), tick.price());
+        }
+        try {
+            holdingRepricer.reprice(prices, false);
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            if (batch.size() == 1) {
+                rejectedCounter.increment();
+                log.error("Dropping price tick {} rejected by the database", batch.get(0), e);
+                return;
+            }
+            int middle = batch.size() / 2;
+            repriceIsolating(batch.subList(0, middle));
+            repriceIsolating(batch.subList(middle, batch.size()));
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+            || e instanceof RecoverableDataAccessException
+            || e instanceof DataAccessResourceFailureException
+            || e instanceof CannotCreateTransactionException;
+    }
+}
@@ -0,0 +1,23 @@
+package com.cimb.wealth.pricing;
+
+import com.cimb.wealth.domain.Money;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One observed price of a ticker at {@code timestamp}, the time the price was quoted.
+ */
+public record PriceTick(String ticker, BigDecimal price, Instant timestamp) {
+
+    private static final BigDecimal MAX_PRICE = Money.ofUnits(Long.MAX_VALUE).toBigDecimal();
+
+    /**
+     * Whether the tick can be stored: a ticker, a time and a non-negative price that fits
+     * {@link Money} once rounded to cents.
+     */
+    public boolean isValid() {
+        return ticker != null && !ticker.isBlank() && timestamp != null
+            && price != null && price.signum() >= 0 && price.compareTo(MAX_PRICE) <= 0;
+    }
+}
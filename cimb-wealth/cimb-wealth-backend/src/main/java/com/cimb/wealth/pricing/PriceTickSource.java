@@ -0,0 +1,16 @@
+package com.cimb.wealth.pricing;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * A feed of price ticks, such as a market data connection or a recorded file.
+ */
+public interface PriceTickSource {
+
+    /**
+     * Passes every tick to {@code sink} on the calling thread, in feed order, until the
+     * feed ends or the thread is interrupted.
+     */
+    void stream(Consumer<PriceTick> sink) throws IOException, InterruptedException;
+}
@@ -0,0 +1,7 @@
+package com.cimb.wealth.pricing;
+
+/**
+ * Outcome of one bulk repricing. Holdings whose price did not change are not counted.
+ */
+public record RepricingResult(int tickers, long holdingsUpdated, int usersAffected, long elapsedMs) {
+}
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,5 +29,13 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT SUM(a.balance) FROM Account a WHERE a.user = :user AND a.active = true")
     Double getTotalBalanceByUser(@Param("user") User user);
     
+    @Query("SELECT a FROM Account a WHERE a.user.id IN :userIds AND a.active = true ORDER BY a.id")
+    List<Account> findActiveByUserIdIn(@Param("userIds") Collection<Long> userIds);
+    
+    @Query("SELECT a.id FROM Account a WHERE a.user.id = :userId AND a.active = true")
+    List<Long> findActiveIdsByUserId(@Param("userId") Long userId);
+    
     boolean existsByAccountNumber(String accountNumber);
+    
+    boolean existsByIdAndUserId(Long id, Long userId);
 }
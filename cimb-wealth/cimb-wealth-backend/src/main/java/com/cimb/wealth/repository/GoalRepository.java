@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,6 +19,9 @@ public interface GoalRepository extends JpaRepository<Goal, Long> {
     @Query("SELECT g FROM Goal g WHERE g.user = :user ORDER BY g.priority DESC, g.targetDate ASC")
     List<Goal> findByUserOrderByPriorityAndTargetDate(@Param("user") User user);
     
+    @Query("SELECT g FROM Goal g WHERE g.user.id IN :userIds ORDER BY g.priority DESC, g.targetDate ASC")
+    List<Goal> findByUserIdIn(@Param("userIds") Collection<Long> userIds);
+    
     @Query("SELECT g FROM Goal g WHERE g.user = :user")
     Page<Goal> findByUser(@Param("user") User user, Pageable pageable);
     
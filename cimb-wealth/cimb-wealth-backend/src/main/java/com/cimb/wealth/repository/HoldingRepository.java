@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,9 @@ public interface HoldingRepository extends JpaRepository<Holding, Long> {
     @Query("SELECT h FROM Holding h WHERE h.account = :account")
     Page<Holding> findByAccount(@Param("account") Account account, Pageable pageable);
     
+    @Query("SELECT h FROM Holding h WHERE h.account.id IN :accountIds ORDER BY h.marketValue DESC")
+    List<Holding> findByAccountIdIn(@Param("accountIds") Collection<Long> accountIds);
+    
     @Query("SELECT h FROM Holding h WHERE h.ticker = :ticker")
     List<Holding> findByTicker(@Param("ticker") String ticker);
     
@@ -35,6 +39,40 @@ public interface HoldingRepository extends JpaRepository<Holding, Long> {
     @Query("SELECT h FROM Holding h WHERE h.ticker LIKE %:searchTerm% OR h.assetName LIKE %:searchTerm%")
     Page<Holding> findByTickerOrAssetNameContaining(@Param("searchTerm") String searchTerm, Pageable pageable);
     
+    /**
+     * Totals, allocation by asset type and by sector, and the largest holdings of a user's
+     * active accounts, from a single scan of their holdings.
+     */
+    @Query(value = """
+        WITH user_holdings AS (
+            SELECT h.id, h.account_id, h.ticker, h.asset_name, h.asset_type, h.sector, h.quantity,
+                   h.current_price, h.average_cost, h.market_value, ROUND(h.quantity * h.average_cost, 2) AS cost_basis,
+                   h.unrealized_gain_loss, h.unrealized_gain_loss_percentage, h.created_at, h.updated_at
+            FROM holdings h
+            JOIN accounts a ON a.id = h.account_id
+            WHERE a.user_id = :userId AND a.active = true
+        )
+        SELECT CASE WHEN GROUPING(asset_type) = 0 THEN 'ASSET_TYPE'
+                    WHEN GROUPING(sector) = 0 THEN 'SECTOR'
+                    ELSE 'TOTAL' END AS "kind",
+               asset_type AS "assetType", sector AS "sector",
+               SUM(market_value) AS "marketValue", SUM(cost_basis) AS "costBasis", COUNT(*) AS "holdingCount",
+               CAST(NULL AS bigint) AS "id", CAST(NULL AS bigint) AS "accountId",
+               CAST(NULL AS varchar) AS "ticker", CAST(NULL AS varchar) AS "assetName",
+               CAST(NULL AS numeric) AS "quantity", CAST(NULL AS numeric) AS "currentPrice",
+               CAST(NULL AS numeric) AS "averageCost", CAST(NULL AS numeric) AS "unrealizedGainLoss",
+               CAST(NULL AS numeric) AS "unrealizedGainLossPercentage",
+               CAST(NULL AS timestamp) AS "createdAt", CAST(NULL AS timestamp) AS "updatedAt"
+        FROM user_holdings
+        GROUP BY GROUPING SETS ((), (asset_type), (sector))
+        UNION ALL
+        SELECT 'TOP', asset_type, sector, market_value, cost_basis, 1,
+               id, account_id, ticker, asset_name, quantity, current_price, average_cost,
+               unrealized_gain_loss, unrealized_gain_loss_percentage, created_at, updated_at
+        FROM (SELECT * FROM user_holdings ORDER BY market_value DESC, id LIMIT :topN) top_holdings
+        """, nativeQuery = true)
+    List<PortfolioAggregateRow> aggregateByUserId(@Param("userId") Long userId, @Param("topN") int topN);
+    
     @Query("SELECT SUM(h.marketValue) FROM Holding h WHERE h.account = :account")
     Double getTotalMarketValueByAccount(@Param("account") Account account);
     
@@ -0,0 +1,85 @@
+package com.cimb.wealth.repository;
+
+import com.cimb.wealth.dto.EntityProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Keyset pages read straight into DTOs. Only the columns of the requested fields are
+ * selected and no entity is instantiated or tracked by the persistence context.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class KeysetQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rows ordered by {@code (createdAt, id)} descending that sort after the given position.
+     */
+    public <D> List<D> findPage(EntityProjection<D> projection, Collection<String> fields, QueryFilter filter,
+                                LocalDateTime createdAt, long id, int limit) {
+        List<EntityProjection.Column<D>> columns = projection.columnsFor(fields);
+
+        StringJoiner select = new StringJoiner(", ", "select ", " from " + projection.getEntityName() + " e");
+        for (EntityProjection.Column<D> column : columns) {
+            select.add("e." + column.path());
+        }
+
+        StringJoiner where = new StringJoiner(" and ", " where ", "");
+        filter.getConditions().forEach(where::add);
+        where.add("(e.createdAt, e.id) < (:cursorCreatedAt, :cursorId)");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                select.toString() + where + " order by e.createdAt desc, e.id desc", Object[].class)
+            .setParameter("cursorCreatedAt", createdAt)
+            .setParameter("cursorId", id)
+            .setMaxResults(limit);
+        filter.getParameters().forEach(query::setParameter);
+
+        List<Object[]> rows = query.getResultList();
+        List<D> page = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            page.add(projection.map(columns, row));
+        }
+        return page;
+    }
+
+    /**
+     * Whether any row sorts before the given position, that is whether a page exists before
+     * one that starts after it. One seek on the same index as {@link #findPage}.
+     */
+    public boolean existsBefore(EntityProjection<?> projection, QueryFilter filter, LocalDateTime createdAt, long id) {
+        StringJoiner where = new StringJoiner(" and ", " where ", "");
+        filter.getConditions().forEach(where::add);
+        where.add("(e.createdAt, e.id) > (:cursorCreatedAt, :cursorId)");
+
+        TypedQuery<Long> query = entityManager.createQuery(
+                "select e.id from " + projection.getEntityName() + " e" + where, Long.class)
+            .setParameter("cursorCreatedAt", createdAt)
+            .setParameter("cursorId", id)
+            .setMaxResults(1);
+        filter.getParameters().forEach(query::setParameter);
+        return !query.getResultList().isEmpty();
+    }
+
+    public long count(EntityProjection<?> projection, QueryFilter filter) {
+        StringJoiner where = new StringJoiner(" and ", " where ", "").setEmptyValue("");
+        filter.getConditions().forEach(where::add);
+
+        TypedQuery<Long> query = entityManager.createQuery(
+            "select count(e) from " + projection.getEntityName() + " e" + where, Long.class);
+        filter.getParameters().forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+}
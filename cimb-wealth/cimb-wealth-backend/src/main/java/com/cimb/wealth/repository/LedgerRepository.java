@@ -0,0 +1,211 @@
+package com.cimb.wealth.repository;
+
+import com.cimb.wealth.domain.Transaction.TransactionType;
+import com.cimb.wealth.ledger.HoldingPosition;
+import com.cimb.wealth.ledger.LedgerCheckpoint;
+import com.cimb.wealth.ledger.LedgerEntry;
+import com.cimb.wealth.ledger.LedgerPosition;
+import com.cimb.wealth.ledger.PositionDrift;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Reads the transaction ledger for replay and stores what replay produces: per-account
+ * checkpoints of folded positions and the drift between those positions and holdings.
+ * Only completed buys, sells, dividends and transfers affect positions.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LedgerRepository {
+
+    private static final String POSITION_TYPES = "('BUY', 'SELL', 'DIVIDEND', 'TRANSFER')";
+
+    private static final String ENTRIES_SQL = """
+        SELECT id, transaction_type, ticker, quantity, price, amount, total_amount, created_at
+        FROM transactions
+        WHERE account_id = ? AND status = 'COMPLETED' AND transaction_type IN %s
+        """.formatted(POSITION_TYPES);
+
+    // Any status change, including away from COMPLETED, touches updated_at
+    private static final String CHECKPOINT_STATE_SQL = """
+        SELECT COUNT(*) FILTER (WHERE status = 'COMPLETED' AND transaction_type IN %s) AS folded,
+               MAX(updated_at) AS last_updated_at
+        FROM transactions
+        WHERE account_id = ? AND (created_at, id) <= (?, ?)
+        """.formatted(POSITION_TYPES);
+
+    private static final String UPSERT_CHECKPOINT_SQL = """
+        INSERT INTO ledger_checkpoints (account_id, last_created_at, last_transaction_id, transaction_count, checkpointed_at)
+        VALUES (?, ?, ?, ?, ?)
+        ON CONFLICT (account_id) DO UPDATE SET
+            last_created_at = EXCLUDED.last_created_at,
+            last_transaction_id = EXCLUDED.last_transaction_id,
+            transaction_count = EXCLUDED.transaction_count,
+            checkpointed_at = EXCLUDED.checkpointed_at
+        """;
+
+    private static final String HOLDINGS_SQL = """
+        SELECT ticker, SUM(quantity) AS quantity,
+               ROUND(SUM(quantity * average_cost) / NULLIF(SUM(quantity), 0), 2) AS average_cost
+        FROM holdings
+        WHERE account_id = ?
+        GROUP BY ticker
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Long> findAccountIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM accounts ORDER BY id", Long.class);
+    }
+
+    /**
+     * The database clock, which stamps {@code updated_at}, so checkpoint validity does not
+     * depend on the application server's clock.
+     */
+    public LocalDateTime currentTimestamp() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", Timestamp.class).toLocalDateTime();
+    }
+
+    public Optional<LedgerCheckpoint> findCheckpoint(long accountId) {
+        return jdbcTemplate.query("SELECT * FROM ledger_checkpoints WHERE account_id = ?", (rs, rowNum) ->
+            new LedgerCheckpoint(
+                rs.getLong("account_id"),
+                rs.getTimestamp("last_created_at").toLocalDateTime(),
+                rs.getLong("last_transaction_id"),
+                rs.getLong("transaction_count"),
+                rs.getTimestamp("checkpointed_at").toLocalDateTime()), accountId).stream().findFirst();
+    }
+
+    public List<LedgerPosition> findCheckpointPositions(long accountId) {
+        return jdbcTemplate.query("SELECT * FROM position_checkpoints WHERE account_id = ?", (rs, rowNum) ->
+            new LedgerPosition(
+                rs.getString("ticker"),
+                rs.getBigDecimal("quantity"),
+                rs.getBigDecimal("cost_basis"),
+                rs.getBigDecimal("realized_gain_loss"),
+                rs.getBigDecimal("income")), accountId);
+    }
+
+    /**
+     * Whether the ledger up to the checkpoint's watermark is still what was folded into it:
+     * the same number of position transactions, none of them inserted or modified since.
+     */
+    public boolean isCurrent(LedgerCheckpoint checkpoint) {
+        return Boolean.TRUE.equals(jdbcTemplate.query(CHECKPOINT_STATE_SQL, rs -> {
+            rs.next();
+            Timestamp lastUpdatedAt = rs.getTimestamp("last_updated_at");
+            return rs.getLong("folded") == checkpoint.transactionCount()
+                && (lastUpdatedAt == null || !lastUpdatedAt.toLocalDateTime().isAfter(checkpoint.checkpointedAt()));
+        }, checkpoint.accountId(), Timestamp.valueOf(checkpoint.lastCreatedAt()), checkpoint.lastTransactionId()));
+    }
+
+    /**
+     * Streams the account's position transactions in {@code (createdAt, id)} order through
+     * a forward-only cursor. Starts after the given watermark when {@code afterCreatedAt} is
+     * not null, and stops before {@code createdBefore} when that is not null. Must run
+     * inside a transaction for the driver to honour the fetch size.
+     */
+    public void streamEntries(long accountId, LocalDateTime afterCreatedAt, long afterId,
+                              LocalDateTime createdBefore, int fetchSize, Consumer<LedgerEntry> consumer) {
+        StringBuilder sql = new StringBuilder(ENTRIES_SQL);
+        List<Object> parameters = new ArrayList<>(List.of(accountId));
+        if (afterCreatedAt != null) {
+            sql.append("  AND (created_at, id) > (?, ?)\n");
+            parameters.add(Timestamp.valueOf(afterCreatedAt));
+            parameters.add(afterId);
+        }
+        if (createdBefore != null) {
+            sql.append("  AND created_at < ?\n");
+            parameters.add(Timestamp.valueOf(createdBefore));
+        }
+        sql.append("ORDER BY created_at, id");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(new LedgerEntry(
+            rs.getLong(1),
+            TransactionType.valueOf(rs.getString(2)),
+            rs.getString(3),
+            rs.getBigDecimal(4),
+            rs.getBigDecimal(5),
+            rs.getBigDecimal(6),
+            rs.getBigDecimal(7),
+            rs.getTimestamp(8).toLocalDateTime())));
+    }
+
+    public void saveCheckpoint(LedgerCheckpoint checkpoint, Collection<LedgerPosition> positions) {
+        jdbcTemplate.update(UPSERT_CHECKPOINT_SQL,
+            checkpoint.accountId(),
+            Timestamp.valueOf(checkpoint.lastCreatedAt()),
+            checkpoint.lastTransactionId(),
+            checkpoint.transactionCount(),
+            Timestamp.valueOf(checkpoint.checkpointedAt()));
+        jdbcTemplate.update("DELETE FROM position_checkpoints WHERE account_id = ?", checkpoint.accountId());
+        if (positions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO position_checkpoints (account_id, ticker, quantity, cost_basis, realized_gain_loss, income)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, positions, positions.size(), (statement, position) -> {
+                statement.setLong(1, checkpoint.accountId());
+                statement.setString(2, position.ticker());
+                statement.setBigDecimal(3, position.quantity());
+                statement.setBigDecimal(4, position.costBasis());
+                statement.setBigDecimal(5, position.realizedGainLoss());
+                statement.setBigDecimal(6, position.income());
+            });
+    }
+
+    public void deleteCheckpoint(long accountId) {
+        jdbcTemplate.update("DELETE FROM ledger_checkpoints WHERE account_id = ?", accountId);
+    }
+
+    public Map<String, HoldingPosition> findHoldings(long accountId) {
+        Map<String, HoldingPosition> holdings = new HashMap<>();
+        jdbcTemplate.query(HOLDINGS_SQL, (RowCallbackHandler) rs -> holdings.put(rs.getString("ticker"),
+            new HoldingPosition(rs.getString("ticker"), rs.getBigDecimal("quantity"), rs.getBigDecimal("average_cost"))),
+            accountId);
+        return holdings;
+    }
+
+    public void replaceDrift(long accountId, List<PositionDrift> drift) {
+        jdbcTemplate.update("DELETE FROM position_drift WHERE account_id = ?", accountId);
+        if (drift.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO position_drift (account_id, ticker, kind, ledger_quantity, holding_quantity,
+                                            ledger_average_cost, holding_average_cost)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """, drift, drift.size(), (statement, row) -> {
+                statement.setLong(1, accountId);
+                statement.setString(2, row.ticker());
+                statement.setString(3, row.kind().name());
+                statement.setBigDecimal(4, row.ledgerQuantity());
+                statement.setBigDecimal(5, row.holdingQuantity());
+                statement.setBigDecimal(6, row.ledgerAverageCost());
+                statement.setBigDecimal(7, row.holdingAverageCost());
+            });
+    }
+}
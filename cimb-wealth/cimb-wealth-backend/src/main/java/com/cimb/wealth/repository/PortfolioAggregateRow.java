@@ -0,0 +1,46 @@
+package com.cimb.wealth.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of {@link HoldingRepository#aggregateByUserId}. {@code kind} is {@code TOTAL},
+ * {@code ASSET_TYPE} or {@code SECTOR} for aggregate rows, and {@code TOP} for a top
+ * holding, whose holding columns are then set.
+ */
+public interface PortfolioAggregateRow {
+
+    String getKind();
+
+    String getAssetType();
+
+    String getSector();
+
+    BigDecimal getMarketValue();
+
+    BigDecimal getCostBasis();
+
+    Long getHoldingCount();
+
+    Long getId();
+
+    Long getAccountId();
+
+    String getTicker();
+
+    String getAssetName();
+
+    BigDecimal getQuantity();
+
+    BigDecimal getCurrentPrice();
+
+    BigDecimal getAverageCost();
+
+    BigDecimal getUnrealizedGainLoss();
+
+    BigDecimal getUnrealizedGainLossPercentage();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,213 @@
+package com.cimb.wealth.repository;
+
+import com.cimb.wealth.domain.User;
+import com.cimb.wealth.dto.ClientPortfolioDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes {@code portfolio_snapshots}. Account rows are recomputed from their
+ * holdings and transactions; user rows are summed from the rows of their active accounts,
+ * so refreshing a user never rescans holdings. Cost basis sums each holding's cost rounded
+ * to cents, as {@code Holding.calculateValues} does. Upserts skip rows whose values are
+ * unchanged and return the number of rows actually written.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PortfolioSnapshotRepository {
+
+    private static final String REFRESH_ACCOUNTS_SQL = """
+        INSERT INTO portfolio_snapshots (user_id, account_id, total_value, cost_basis, holding_count,
+                                         asset_allocation, sector_allocation, last_transaction_at, updated_at)
+        SELECT a.user_id, a.id,
+               COALESCE(h.total_value, 0), COALESCE(h.cost_basis, 0), COALESCE(h.holding_count, 0),
+               COALESCE((SELECT jsonb_object_agg(asset_type, value)
+                         FROM (SELECT asset_type, SUM(market_value) AS value FROM holdings
+                               WHERE account_id = a.id GROUP BY asset_type) allocation), '{}'),
+               COALESCE((SELECT jsonb_object_agg(sector, value)
+                         FROM (SELECT sector, SUM(market_value) AS value FROM holdings
+                               WHERE account_id = a.id GROUP BY sector) allocation), '{}'),
+               (SELECT MAX(created_at) FROM transactions WHERE account_id = a.id),
+               CURRENT_TIMESTAMP
+        FROM accounts a
+        LEFT JOIN LATERAL (
+            SELECT SUM(market_value) AS total_value, SUM(ROUND(quantity * average_cost, 2)) AS cost_basis,
+                   COUNT(*) AS holding_count
+            FROM holdings WHERE account_id = a.id
+        ) h ON true
+        WHERE a.id IN (:accountIds)
+        ON CONFLICT (account_id) WHERE account_id IS NOT NULL DO UPDATE SET
+            user_id = EXCLUDED.user_id,
+            total_value = EXCLUDED.total_value,
+            cost_basis = EXCLUDED.cost_basis,
+            holding_count = EXCLUDED.holding_count,
+            asset_allocation = EXCLUDED.asset_allocation,
+            sector_allocation = EXCLUDED.sector_allocation,
+            last_transaction_at = EXCLUDED.last_transaction_at,
+            updated_at = EXCLUDED.updated_at
+        WHERE (portfolio_snapshots.user_id, portfolio_snapshots.total_value, portfolio_snapshots.cost_basis,
+               portfolio_snapshots.holding_count, portfolio_snapshots.asset_allocation,
+               portfolio_snapshots.sector_allocation, portfolio_snapshots.last_transaction_at)
+              IS DISTINCT FROM
+              (EXCLUDED.user_id, EXCLUDED.total_value, EXCLUDED.cost_basis, EXCLUDED.holding_count,
+               EXCLUDED.asset_allocation, EXCLUDED.sector_allocation, EXCLUDED.last_transaction_at)
+        """;
+
+    private static final String REFRESH_USERS_SQL = """
+        INSERT INTO portfolio_snapshots (user_id, account_id, total_value, cost_basis, holding_count,
+                                         asset_allocation, sector_allocation, last_transaction_at, updated_at)
+        SELECT u.id, NULL,
+               COALESCE(SUM(s.total_value), 0), COALESCE(SUM(s.cost_basis), 0), COALESCE(SUM(s.holding_count), 0),
+               COALESCE((SELECT jsonb_object_agg(key, value)
+                         FROM (SELECT e.key, SUM(e.value::numeric) AS value
+                               FROM portfolio_snapshots s2
+                               JOIN accounts a2 ON a2.id = s2.account_id AND a2.active = true
+                               CROSS JOIN LATERAL jsonb_each_text(s2.asset_allocation) e
+                               WHERE a2.user_id = u.id GROUP BY e.key) allocation), '{}'),
+               COALESCE((SELECT jsonb_object_agg(key, value)
+                         FROM (SELECT e.key, SUM(e.value::numeric) AS value
+                               FROM portfolio_snapshots s2
+                               JOIN accounts a2 ON a2.id = s2.account_id AND a2.active = true
+                               CROSS JOIN LATERAL jsonb_each_text(s2.sector_allocation) e
+                               WHERE a2.user_id = u.id GROUP BY e.key) allocation), '{}'),
+               MAX(s.last_transaction_at),
+               CURRENT_TIMESTAMP
+        FROM users u
+        LEFT JOIN accounts a ON a.user_id = u.id AND a.active = true
+        LEFT JOIN portfolio_snapshots s ON s.account_id = a.id
+        WHERE u.id IN (:userIds)
+        GROUP BY u.id
+        ON CONFLICT (user_id) WHERE account_id IS NULL DO UPDATE SET
+            total_value = EXCLUDED.total_value,
+            cost_basis = EXCLUDED.cost_basis,
+            holding_count = EXCLUDED.holding_count,
+            asset_allocation = EXCLUDED.asset_allocation,
+            sector_allocation = EXCLUDED.sector_allocation,
+            last_transaction_at = EXCLUDED.last_transaction_at,
+            updated_at = EXCLUDED.updated_at
+        WHERE (portfolio_snapshots.total_value, portfolio_snapshots.cost_basis, portfolio_snapshots.holding_count,
+               portfolio_snapshots.asset_allocation, portfolio_snapshots.sector_allocation,
+               portfolio_snapshots.last_transaction_at)
+              IS DISTINCT FROM
+              (EXCLUDED.total_value, EXCLUDED.cost_basis, EXCLUDED.holding_count,
+               EXCLUDED.asset_allocation, EXCLUDED.sector_allocation, EXCLUDED.last_transaction_at)
+        """;
+
+    private static final String CLIENT_PAGE_SQL = """
+        SELECT u.id, u.email, u.first_name, u.last_name, u.risk_profile, u.created_at,
+               COALESCE(s.total_value, 0) AS total_value,
+               ROUND(COALESCE(s.total_value - s.cost_basis, 0), 2) AS gain_loss,
+               CASE WHEN COALESCE(s.cost_basis, 0) = 0 THEN 0
+                    ELSE ROUND((s.total_value - s.cost_basis) * 100 / s.cost_basis, 2) END AS gain_loss_percentage,
+               COALESCE(s.holding_count, 0) AS holding_count,
+               s.last_transaction_at, s.updated_at AS snapshot_at
+        FROM users u
+        LEFT JOIN portfolio_snapshots s ON s.user_id = u.id AND s.account_id IS NULL
+        WHERE u.role = 'CUSTOMER' AND u.active = true
+          AND (u.created_at, u.id) < (:cursorCreatedAt, :cursorId)
+        ORDER BY u.created_at DESC, u.id DESC
+        LIMIT :limit
+        """;
+
+    private static final String CLIENT_BEFORE_SQL = """
+        SELECT u.id FROM users u
+        WHERE u.role = 'CUSTOMER' AND u.active = true
+          AND (u.created_at, u.id) > (:cursorCreatedAt, :cursorId)
+        LIMIT 1
+        """;
+
+    private static final RowMapper<ClientPortfolioDto> CLIENT_PORTFOLIO = (rs, rowNum) -> ClientPortfolioDto.builder()
+        .userId(rs.getLong("id"))
+        .email(rs.getString("email"))
+        .firstName(rs.getString("first_name"))
+        .lastName(rs.getString("last_name"))
+        .riskProfile(User.RiskProfile.valueOf(rs.getString("risk_profile")))
+        .totalValue(rs.getBigDecimal("total_value"))
+        .totalGainLoss(rs.getBigDecimal("gain_loss"))
+        .totalGainLossPercentage(rs.getBigDecimal("gain_loss_percentage"))
+        .holdingCount(rs.getInt("holding_count"))
+        .lastTransactionAt(localDateTime(rs.getTimestamp("last_transaction_at")))
+        .snapshotAt(localDateTime(rs.getTimestamp("snapshot_at")))
+        .createdAt(localDateTime(rs.getTimestamp("created_at")))
+        .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<Long> findUserIdsByAccountIds(Collection<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM accounts WHERE id IN (:accountIds)",
+            Map.of("accountIds", accountIds), Long.class);
+    }
+
+    public List<Long> findAccountIdsByUserIds(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList("SELECT id FROM accounts WHERE user_id IN (:userIds)",
+            Map.of("userIds", userIds), Long.class);
+    }
+
+    public List<Long> findUserIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE id > :afterId ORDER BY id LIMIT :limit",
+            new MapSqlParameterSource("afterId", afterId).addValue("limit", limit), Long.class);
+    }
+
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM portfolio_snapshots)", Map.of(), Boolean.class));
+    }
+
+    /**
+     * Locks the given users until the end of the transaction, in id order so concurrent
+     * writers cannot deadlock. A refresh that follows the lock sees every change committed
+     * by the previous holder. Foreign key checks take a weaker lock and are not blocked.
+     */
+    public void lockUsers(Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            jdbcTemplate.queryForList("SELECT id FROM users WHERE id IN (:userIds) ORDER BY id FOR NO KEY UPDATE",
+                Map.of("userIds", userIds), Long.class);
+        }
+    }
+
+    public int refreshAccounts(Collection<Long> accountIds) {
+        return accountIds.isEmpty() ? 0 : jdbcTemplate.update(REFRESH_ACCOUNTS_SQL, Map.of("accountIds", accountIds));
+    }
+
+    public int refreshUsers(Collection<Long> userIds) {
+        return userIds.isEmpty() ? 0 : jdbcTemplate.update(REFRESH_USERS_SQL, Map.of("userIds", userIds));
+    }
+
+    public List<ClientPortfolioDto> findClientPage(LocalDateTime createdAt, long id, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("cursorCreatedAt", createdAt)
+            .addValue("cursorId", id)
+            .addValue("limit", limit);
+        return jdbcTemplate.query(CLIENT_PAGE_SQL, parameters, CLIENT_PORTFOLIO);
+    }
+
+    public boolean existsClientBefore(LocalDateTime createdAt, long id) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("cursorCreatedAt", createdAt)
+            .addValue("cursorId", id);
+        return !jdbcTemplate.queryForList(CLIENT_BEFORE_SQL, parameters, Long.class).isEmpty();
+    }
+
+    public long countClients() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE role = 'CUSTOMER' AND active = true",
+            Map.of(), Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static LocalDateTime localDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cimb.wealth.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conjunction of optional conditions on the entity aliased {@code e}. A condition with a
+ * null value is left out, so unused filters never reach the SQL.
+ */
+public final class QueryFilter {
+
+    private final List<String> conditions = new ArrayList<>();
+
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    public static QueryFilter where() {
+        return new QueryFilter();
+    }
+
+    public QueryFilter eq(String path, Object value) {
+        return add(path, "=", value);
+    }
+
+    public QueryFilter greaterOrEqual(String path, Object value) {
+        return add(path, ">=", value);
+    }
+
+    public QueryFilter lessThan(String path, Object value) {
+        return add(path, "<", value);
+    }
+
+    private QueryFilter add(String path, String operator, Object value) {
+        if (value != null) {
+            String name = "p" + parameters.size();
+            conditions.add("e." + path + " " + operator + " :" + name);
+            parameters.put(name, value);
+        }
+        return this;
+    }
+
+    List<String> getConditions() {
+        return Collections.unmodifiableList(conditions);
+    }
+
+    Map<String, Object> getParameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+}
@@ -0,0 +1,37 @@
+package com.cimb.wealth.repository;
+
+import com.cimb.wealth.domain.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenId(String tokenId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true, t.replacedBy = :replacedBy WHERE t.tokenId = :tokenId AND t.revoked = false")
+    int markRotated(@Param("tokenId") String tokenId, @Param("replacedBy") String replacedBy);
+
+    @Query("SELECT t.tokenId FROM RefreshToken t WHERE t.familyId = :familyId AND t.revoked = false")
+    List<String> findActiveTokenIdsByFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = :familyId AND t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.userId = :userId AND t.revoked = false")
+    int revokeAllByUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
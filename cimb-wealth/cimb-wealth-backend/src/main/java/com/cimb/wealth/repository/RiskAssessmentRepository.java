@@ -0,0 +1,101 @@
+package com.cimb.wealth.repository;
+
+import com.cimb.wealth.domain.User.RiskProfile;
+import com.cimb.wealth.risk.RiskAssessment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads the inputs of risk scoring and writes {@code risk_assessments}, which keeps the
+ * latest assessment of each user.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RiskAssessmentRepository {
+
+    private static final String EXPOSURES_SQL = """
+        SELECT h.ticker, SUM(h.market_value) AS market_value
+        FROM holdings h
+        JOIN accounts a ON a.id = h.account_id
+        WHERE a.user_id = :userId AND a.active = true
+        GROUP BY h.ticker
+        ORDER BY h.ticker
+        """;
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO risk_assessments (user_id, risk_profile, as_of, portfolio_value, covered_value, value_at_risk,
+                                      expected_shortfall, value_at_risk_percentage, limit_percentage, exceeds_profile,
+                                      insufficient_history, confidence, horizon_days, paths, observations, assessed_at)
+        VALUES (:userId, :riskProfile, :asOf, :portfolioValue, :coveredValue, :valueAtRisk,
+                :expectedShortfall, :valueAtRiskPercentage, :limitPercentage, :exceedsProfile,
+                :insufficientHistory, :confidence, :horizonDays, :paths, :observations, CURRENT_TIMESTAMP)
+        ON CONFLICT (user_id) DO UPDATE SET
+            risk_profile = EXCLUDED.risk_profile,
+            as_of = EXCLUDED.as_of,
+            portfolio_value = EXCLUDED.portfolio_value,
+            covered_value = EXCLUDED.covered_value,
+            value_at_risk = EXCLUDED.value_at_risk,
+            expected_shortfall = EXCLUDED.expected_shortfall,
+            value_at_risk_percentage = EXCLUDED.value_at_risk_percentage,
+            limit_percentage = EXCLUDED.limit_percentage,
+            exceeds_profile = EXCLUDED.exceeds_profile,
+            insufficient_history = EXCLUDED.insufficient_history,
+            confidence = EXCLUDED.confidence,
+            horizon_days = EXCLUDED.horizon_days,
+            paths = EXCLUDED.paths,
+            observations = EXCLUDED.observations,
+            assessed_at = EXCLUDED.assessed_at
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Active users after {@code afterId} in id order, with their risk profiles.
+     */
+    public Map<Long, RiskProfile> findActiveUsersAfter(long afterId, int limit) {
+        Map<Long, RiskProfile> users = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, risk_profile FROM users WHERE active = true AND id > :afterId ORDER BY id LIMIT :limit",
+            new MapSqlParameterSource("afterId", afterId).addValue("limit", limit), (RowCallbackHandler) rs ->
+                users.put(rs.getLong("id"), RiskProfile.valueOf(rs.getString("risk_profile"))));
+        return users;
+    }
+
+    /**
+     * Market value by ticker across the user's active accounts, in ticker order.
+     */
+    public Map<String, BigDecimal> findExposures(long userId) {
+        Map<String, BigDecimal> exposures = new LinkedHashMap<>();
+        jdbcTemplate.query(EXPOSURES_SQL, Map.of("userId", userId), (RowCallbackHandler) rs ->
+            exposures.put(rs.getString("ticker"), rs.getBigDecimal("market_value")));
+        return exposures;
+    }
+
+    public void save(RiskAssessment assessment) {
+        jdbcTemplate.update(UPSERT_SQL, new MapSqlParameterSource("userId", assessment.userId())
+            .addValue("riskProfile", assessment.riskProfile().name())
+            .addValue("asOf", assessment.asOf())
+            .addValue("portfolioValue", assessment.portfolioValue())
+            .addValue("coveredValue", assessment.coveredValue())
+            .addValue("valueAtRisk", assessment.valueAtRisk())
+            .addValue("expectedShortfall", assessment.expectedShortfall())
+            .addValue("valueAtRiskPercentage", assessment.valueAtRiskPercentage())
+            .addValue("limitPercentage", assessment.limitPercentage())
+            .addValue("exceedsProfile", assessment.exceedsProfile())
+            .addValue("insufficientHistory", assessment.insufficientHistory())
+            .addValue("confidence", assessment.confidence())
+            .addValue("horizonDays", assessment.horizonDays())
+            .addValue("paths", assessment.paths())
+            .addValue("observations", assessment.observations()));
+    }
+
+    public void delete(long userId) {
+        jdbcTemplate.update("DELETE FROM risk_assessments WHERE user_id = :userId", Map.of("userId", userId));
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,5 +45,24 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     Double getTotalAmountByAccountAndType(@Param("account") Account account, 
                                          @Param("transactionType") Transaction.TransactionType transactionType);
     
+    // One index range scan per account on (account_id, created_at DESC, id DESC)
+    @Query(value = """
+        SELECT t.* FROM accounts a
+        CROSS JOIN LATERAL (
+            SELECT * FROM transactions tx
+            WHERE tx.account_id = a.id
+            ORDER BY tx.created_at DESC, tx.id DESC
+            LIMIT :perAccount
+        ) t
+        WHERE a.id IN (:accountIds)
+        ORDER BY t.account_id, t.created_at DESC, t.id DESC
+        """, nativeQuery = true)
+    List<Transaction> findLatestByAccountIdIn(@Param("accountIds") Collection<Long> accountIds,
+                                              @Param("perAccount") int perAccount);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.account.user.id = :userId AND t.account.active = true "
+        + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findRecentByUserId(@Param("userId") Long userId, Pageable pageable);
+    
     boolean existsByTransactionId(String transactionId);
 }
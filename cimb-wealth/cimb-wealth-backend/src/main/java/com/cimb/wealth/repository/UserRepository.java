@@ -4,9 +4,11 @@ import com.cimb.wealth.domain.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -21,6 +23,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     boolean existsByPhoneNumber(String phoneNumber);
     
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.email = :email")
+    Optional<Integer> findTokenVersionByEmail(@Param("email") String email);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+    
     @Query("SELECT u FROM User u WHERE u.active = true")
     Page<User> findAllActive(Pageable pageable);
     
@@ -0,0 +1,190 @@
+package com.cimb.wealth.repository;
+
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.valuation.ValuationBlock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes {@code valuation_blocks} and {@code price_blocks}. Valuation series are
+ * keyed by ticker, with {@link #ACCOUNT_SERIES} holding the account total; price series
+ * hold one closing price per ticker and day.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ValuationRepository {
+
+    public static final String ACCOUNT_SERIES = "";
+
+    private static final String MARKET_VALUES_SQL = """
+        SELECT account_id, ticker, SUM(market_value) AS market_value
+        FROM holdings
+        WHERE account_id IN (:accountIds)
+        GROUP BY account_id, ticker
+        """;
+
+    private static final String UPSERT_BLOCK_SQL = """
+        INSERT INTO valuation_blocks (account_id, ticker, block_start, point_count, last_date, payload, updated_at)
+        VALUES (:accountId, :ticker, :blockStart, :pointCount, :lastDate, :payload, CURRENT_TIMESTAMP)
+        ON CONFLICT (account_id, ticker, block_start) DO UPDATE SET
+            point_count = EXCLUDED.point_count,
+            last_date = EXCLUDED.last_date,
+            payload = EXCLUDED.payload,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private static final String SERIES_BLOCKS_SQL = """
+        SELECT ticker, block_start, payload
+        FROM valuation_blocks
+        WHERE account_id = :accountId AND %s AND block_start BETWEEN :fromBlock AND :toBlock
+        ORDER BY ticker, block_start
+        """;
+
+    private static final String UPSERT_PRICE_BLOCK_SQL = """
+        INSERT INTO price_blocks (ticker, block_start, point_count, last_date, payload, updated_at)
+        VALUES (:ticker, :blockStart, :pointCount, :lastDate, :payload, CURRENT_TIMESTAMP)
+        ON CONFLICT (ticker, block_start) DO UPDATE SET
+            point_count = EXCLUDED.point_count,
+            last_date = EXCLUDED.last_date,
+            payload = EXCLUDED.payload,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<Long> findAccountIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM accounts WHERE id > :afterId ORDER BY id LIMIT :limit",
+            new MapSqlParameterSource("afterId", afterId).addValue("limit", limit), Long.class);
+    }
+
+    /**
+     * Current market value in hundredths by ticker, for each account with holdings.
+     */
+    public Map<Long, Map<String, Long>> findMarketValues(Collection<Long> accountIds) {
+        Map<Long, Map<String, Long>> values = new HashMap<>();
+        jdbcTemplate.query(MARKET_VALUES_SQL, Map.of("accountIds", accountIds), (RowCallbackHandler) rs ->
+            values.computeIfAbsent(rs.getLong("account_id"), id -> new HashMap<>())
+                .put(rs.getString("ticker"), Money.of(rs.getBigDecimal("market_value")).units()));
+        return values;
+    }
+
+    /**
+     * Every series block of the given accounts starting on {@code blockStart}, by account
+     * and ticker.
+     */
+    public Map<Long, Map<String, ValuationBlock>> findBlocks(Collection<Long> accountIds, LocalDate blockStart) {
+        Map<Long, Map<String, ValuationBlock>> blocks = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT account_id, ticker, payload FROM valuation_blocks
+                WHERE account_id IN (:accountIds) AND block_start = :blockStart
+                """,
+            new MapSqlParameterSource("accountIds", accountIds).addValue("blockStart", blockStart),
+            (RowCallbackHandler) rs -> blocks.computeIfAbsent(rs.getLong("account_id"), id -> new HashMap<>())
+                .put(rs.getString("ticker"), ValuationBlock.decode(blockStart, rs.getBytes("payload"))));
+        return blocks;
+    }
+
+    public int saveBlocks(Map<Long, Map<String, ValuationBlock>> blocks) {
+        List<SqlParameterSource> rows = new ArrayList<>();
+        blocks.forEach((accountId, series) -> series.forEach((ticker, block) -> rows.add(
+            new MapSqlParameterSource("accountId", accountId)
+                .addValue("ticker", ticker)
+                .addValue("blockStart", block.start())
+                .addValue("pointCount", block.size())
+                .addValue("lastDate", block.lastDate())
+                .addValue("payload", block.encode()))));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_BLOCK_SQL, rows.toArray(SqlParameterSource[]::new));
+        }
+        return rows.size();
+    }
+
+    /**
+     * The account total's blocks covering {@code from} to {@code to}, in date order.
+     */
+    public List<ValuationBlock> findAccountBlocks(long accountId, LocalDate from, LocalDate to) {
+        return findSeriesBlocks(accountId, "ticker = ''", from, to).getOrDefault(ACCOUNT_SERIES, List.of());
+    }
+
+    /**
+     * Each holding's blocks covering {@code from} to {@code to}, by ticker in ticker order.
+     */
+    public Map<String, List<ValuationBlock>> findHoldingBlocks(long accountId, LocalDate from, LocalDate to) {
+        return findSeriesBlocks(accountId, "ticker <> ''", from, to);
+    }
+
+    private Map<String, List<ValuationBlock>> findSeriesBlocks(long accountId, String seriesCondition,
+                                                               LocalDate from, LocalDate to) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("accountId", accountId)
+            .addValue("fromBlock", ValuationBlock.startOf(from))
+            .addValue("toBlock", ValuationBlock.startOf(to));
+        Map<String, List<ValuationBlock>> blocks = new LinkedHashMap<>();
+        jdbcTemplate.query(SERIES_BLOCKS_SQL.formatted(seriesCondition), parameters, (RowCallbackHandler) rs -> {
+            LocalDate blockStart = rs.getObject("block_start", LocalDate.class);
+            blocks.computeIfAbsent(rs.getString("ticker"), ticker -> new ArrayList<>())
+                .add(ValuationBlock.decode(blockStart, rs.getBytes("payload")));
+        });
+        return blocks;
+    }
+
+    /**
+     * The current price in hundredths of every held ticker. Repricing updates all holdings
+     * of a ticker together, so their prices agree.
+     */
+    public Map<String, Long> findCurrentPrices() {
+        Map<String, Long> prices = new HashMap<>();
+        jdbcTemplate.query("SELECT ticker, MAX(current_price) AS price FROM holdings GROUP BY ticker", Map.of(),
+            (RowCallbackHandler) rs -> prices.put(rs.getString("ticker"), Money.of(rs.getBigDecimal("price")).units()));
+        return prices;
+    }
+
+    /**
+     * The price blocks of the given tickers whose years overlap {@code from} to {@code to},
+     * by ticker, each in date order.
+     */
+    public Map<String, List<ValuationBlock>> findPriceBlocks(Collection<String> tickers, LocalDate from, LocalDate to) {
+        Map<String, List<ValuationBlock>> blocks = new HashMap<>();
+        if (tickers.isEmpty()) {
+            return blocks;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("tickers", tickers)
+            .addValue("fromBlock", ValuationBlock.startOf(from))
+            .addValue("toBlock", ValuationBlock.startOf(to));
+        jdbcTemplate.query("""
+                SELECT ticker, block_start, payload FROM price_blocks
+                WHERE ticker IN (:tickers) AND block_start BETWEEN :fromBlock AND :toBlock
+                ORDER BY ticker, block_start
+                """, parameters, (RowCallbackHandler) rs -> {
+            LocalDate blockStart = rs.getObject("block_start", LocalDate.class);
+            blocks.computeIfAbsent(rs.getString("ticker"), ticker -> new ArrayList<>())
+                .add(ValuationBlock.decode(blockStart, rs.getBytes("payload")));
+        });
+        return blocks;
+    }
+
+    public int savePriceBlocks(Collection<Map.Entry<String, ValuationBlock>> blocks) {
+        SqlParameterSource[] rows = blocks.stream()
+            .map(entry -> new MapSqlParameterSource("ticker", entry.getKey())
+                .addValue("blockStart", entry.getValue().start())
+                .addValue("pointCount", entry.getValue().size())
+                .addValue("lastDate", entry.getValue().lastDate())
+                .addValue("payload", entry.getValue().encode()))
+            .toArray(SqlParameterSource[]::new);
+        if (rows.length > 0) {
+            jdbcTemplate.batchUpdate(UPSERT_PRICE_BLOCK_SQL, rows);
+        }
+        return rows.length;
+    }
+}
@@ -0,0 +1,104 @@
+package com.cimb.wealth.risk;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulates the loss of a portfolio over a horizon by historical bootstrap: each path
+ * draws one historical day per horizon day, the same day for every asset, and compounds
+ * the assets' log returns. Paths are split across a fork-join pool in fixed halves, and
+ * each half takes a generator split from its parent's before it is forked, so a given seed
+ * produces the same losses whatever the parallelism or scheduling.
+ */
+public final class MonteCarloSimulator {
+
+    private final ForkJoinPool pool;
+
+    private final int leafPaths;
+
+    /**
+     * @param leafPaths paths simulated sequentially by one task; part of what the seed
+     *                  reproduces, so changing it changes the results
+     */
+    public MonteCarloSimulator(ForkJoinPool pool, int leafPaths) {
+        this.pool = pool;
+        this.leafPaths = leafPaths;
+    }
+
+    /**
+     * @param exposures market value of each asset, in the matrix's column order
+     */
+    public SimulatedLosses simulate(double[] exposures, ReturnMatrix matrix, int horizonDays, int paths, long seed) {
+        if (exposures.length != matrix.assets()) {
+            throw new IllegalArgumentException("Expected " + matrix.assets() + " exposures, got " + exposures.length);
+        }
+        double[] losses = new double[paths];
+        if (matrix.assets() > 0) {
+            pool.invoke(new PathTask(exposures, matrix.returns(), matrix.days(), horizonDays, losses,
+                0, paths, new SplittableRandom(seed)));
+        }
+        Arrays.sort(losses);
+        return new SimulatedLosses(losses);
+    }
+
+    private final class PathTask extends RecursiveAction {
+
+        private final double[] exposures;
+
+        private final double[] returns;
+
+        private final int days;
+
+        private final int horizonDays;
+
+        private final double[] losses;
+
+        private final int from;
+
+        private final int to;
+
+        private final SplittableRandom random;
+
+        private PathTask(double[] exposures, double[] returns, int days, int horizonDays, double[] losses,
+                         int from, int to, SplittableRandom random) {
+            this.exposures = exposures;
+            this.returns = returns;
+            this.days = days;
+            this.horizonDays = horizonDays;
+            this.losses = losses;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > leafPaths) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                    new PathTask(exposures, returns, days, horizonDays, losses, from, middle, random.split()),
+                    new PathTask(exposures, returns, days, horizonDays, losses, middle, to, random));
+                return;
+            }
+
+            int assets = exposures.length;
+            double[] cumulative = new double[assets];
+            for (int path = from; path < to; path++) {
+                Arrays.fill(cumulative, 0);
+                for (int step = 0; step < horizonDays; step++) {
+                    int row = random.nextInt(days) * assets;
+                    for (int asset = 0; asset < assets; asset++) {
+                        cumulative[asset] += returns[row + asset];
+                    }
+                }
+                double profit = 0;
+                for (int asset = 0; asset < assets; asset++) {
+                    profit += exposures[asset] * Math.expm1(cumulative[asset]);
+                }
+                losses[path] = -profit;
+            }
+        }
+    }
+}
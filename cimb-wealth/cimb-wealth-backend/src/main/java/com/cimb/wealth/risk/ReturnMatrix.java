@@ -0,0 +1,120 @@
+package com.cimb.wealth.risk;
+
+import com.cimb.wealth.valuation.ValuationBlock;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily log returns of a set of tickers over the days on which all of them were priced,
+ * stored by day so one simulated day reads a contiguous row. Tickers with fewer than the
+ * required number of prices in the window are left out as uncovered; the rest are aligned
+ * on the dates they share, which keeps their co-movement on each day intact.
+ */
+public final class ReturnMatrix {
+
+    private final List<String> tickers;
+
+    private final List<String> uncovered;
+
+    // returns[day * assets + asset]
+    private final double[] returns;
+
+    private final int days;
+
+    private ReturnMatrix(List<String> tickers, List<String> uncovered, double[] returns, int days) {
+        this.tickers = tickers;
+        this.uncovered = uncovered;
+        this.returns = returns;
+        this.days = days;
+    }
+
+    /**
+     * Builds the matrix of {@code tickers} from their price blocks, using prices from
+     * {@code from} to {@code to} inclusive. Fewer than {@code minObservations} shared
+     * returns leave every ticker uncovered.
+     */
+    public static ReturnMatrix of(List<String> tickers, Map<String, List<ValuationBlock>> priceBlocks,
+                                  LocalDate from, LocalDate to, int minObservations) {
+        if (minObservations < 1) {
+            throw new IllegalArgumentException("At least one observation is required");
+        }
+        List<String> covered = new ArrayList<>();
+        List<String> uncovered = new ArrayList<>();
+        List<int[]> coveredDays = new ArrayList<>();
+        List<long[]> coveredPrices = new ArrayList<>();
+        for (String ticker : tickers) {
+            int[] days = new int[0];
+            long[] prices = new long[0];
+            int count = 0;
+            for (ValuationBlock block : priceBlocks.getOrDefault(ticker, List.of())) {
+                days = Arrays.copyOf(days, count + block.size());
+                prices = Arrays.copyOf(prices, count + block.size());
+                for (int i = 0; i < block.size(); i++) {
+                    LocalDate date = block.date(i);
+                    if (!date.isBefore(from) && !date.isAfter(to) && block.units(i) > 0) {
+                        days[count] = (int) date.toEpochDay();
+                        prices[count++] = block.units(i);
+                    }
+                }
+            }
+            if (count > minObservations) {
+                covered.add(ticker);
+                coveredDays.add(Arrays.copyOf(days, count));
+                coveredPrices.add(Arrays.copyOf(prices, count));
+            } else {
+                uncovered.add(ticker);
+            }
+        }
+
+        int[] shared = covered.isEmpty() ? new int[0] : coveredDays.get(0);
+        for (int[] days : coveredDays) {
+            shared = Arrays.stream(shared).filter(day -> Arrays.binarySearch(days, day) >= 0).toArray();
+        }
+        if (shared.length <= minObservations) {
+            uncovered.addAll(covered);
+            return new ReturnMatrix(List.of(), List.copyOf(uncovered), new double[0], 0);
+        }
+
+        int assets = covered.size();
+        int days = shared.length - 1;
+        double[] returns = new double[days * assets];
+        for (int asset = 0; asset < assets; asset++) {
+            int[] assetDays = coveredDays.get(asset);
+            long[] assetPrices = coveredPrices.get(asset);
+            double previous = assetPrices[Arrays.binarySearch(assetDays, shared[0])];
+            for (int day = 0; day < days; day++) {
+                double price = assetPrices[Arrays.binarySearch(assetDays, shared[day + 1])];
+                returns[day * assets + asset] = Math.log(price / previous);
+                previous = price;
+            }
+        }
+        return new ReturnMatrix(List.copyOf(covered), List.copyOf(uncovered), returns, days);
+    }
+
+    /**
+     * Covered tickers, in column order.
+     */
+    public List<String> tickers() {
+        return tickers;
+    }
+
+    public List<String> uncovered() {
+        return uncovered;
+    }
+
+    public int assets() {
+        return tickers.size();
+    }
+
+    public int days() {
+        return days;
+    }
+
+    double[] returns() {
+        return returns;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cimb.wealth.risk;
+
+import com.cimb.wealth.domain.User.RiskProfile;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The simulated risk of a user's portfolio against the limit of their risk profile.
+ * Value at risk and expected shortfall are losses over the horizon at the confidence
+ * level; holdings without enough price history are valued but carry no simulated risk,
+ * and {@code coveredValue} is the part that does. The percentage is of the covered value.
+ * With too little of the portfolio covered the figures are null and
+ * {@code insufficientHistory} is set.
+ */
+public record RiskAssessment(Long userId,
+                             RiskProfile riskProfile,
+                             LocalDate asOf,
+                             BigDecimal portfolioValue,
+                             BigDecimal coveredValue,
+                             BigDecimal valueAtRisk,
+                             BigDecimal expectedShortfall,
+                             BigDecimal valueAtRiskPercentage,
+                             BigDecimal limitPercentage,
+                             boolean exceedsProfile,
+                             boolean insufficientHistory,
+                             double confidence,
+                             int horizonDays,
+                             int paths,
+                             int observations) {
+}
@@ -0,0 +1,138 @@
+package com.cimb.wealth.risk;
+
+import com.cimb.wealth.domain.User.RiskProfile;
+import com.cimb.wealth.repository.RiskAssessmentRepository;
+import com.cimb.wealth.repository.ValuationRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Assesses a user's portfolio by simulating its loss over the horizon from the daily
+ * price history of its tickers. Each user's paths are seeded from the configured seed and
+ * the user id, so an assessment can be reproduced from the same holdings and prices.
+ *
+ * <p>Only holdings with enough price history are simulated, and value at risk is taken as
+ * a share of their value. When they make up less than the configured share of the
+ * portfolio, no figure is produced and the assessment records insufficient history.
+ */
+@Service
+public class RiskEngine {
+
+    private static final long SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final RiskAssessmentRepository riskRepository;
+
+    private final ValuationRepository valuationRepository;
+
+    private final ForkJoinPool pool;
+
+    private final MonteCarloSimulator simulator;
+
+    private final int paths;
+
+    private final int horizonDays;
+
+    private final double confidence;
+
+    private final int lookbackDays;
+
+    private final int minObservations;
+
+    private final BigDecimal minCoverage;
+
+    private final long seed;
+
+    private final Map<RiskProfile, BigDecimal> limits = new EnumMap<>(RiskProfile.class);
+
+    public RiskEngine(RiskAssessmentRepository riskRepository,
+                      ValuationRepository valuationRepository,
+                      @Value("${cimb.risk.parallelism:4}") int parallelism,
+                      @Value("${cimb.risk.leaf-paths:2048}") int leafPaths,
+                      @Value("${cimb.risk.paths:100000}") int paths,
+                      @Value("${cimb.risk.horizon-days:10}") int horizonDays,
+                      @Value("${cimb.risk.confidence:0.99}") double confidence,
+                      @Value("${cimb.risk.lookback-days:730}") int lookbackDays,
+                      @Value("${cimb.risk.min-observations:60}") int minObservations,
+                      @Value("${cimb.risk.min-coverage:0.8}") double minCoverage,
+                      @Value("${cimb.risk.seed:20240101}") long seed,
+                      @Value("#{${cimb.risk.limits:{'CONSERVATIVE': 5.0, 'MODERATE': 10.0, 'AGGRESSIVE': 20.0}}}")
+                      Map<String, Double> limits) {
+        this.riskRepository = riskRepository;
+        this.valuationRepository = valuationRepository;
+        this.pool = new ForkJoinPool(parallelism);
+        this.simulator = new MonteCarloSimulator(pool, leafPaths);
+        this.paths = paths;
+        this.horizonDays = horizonDays;
+        this.confidence = confidence;
+        this.lookbackDays = lookbackDays;
+        this.minObservations = minObservations;
+        this.minCoverage = BigDecimal.valueOf(minCoverage);
+        this.seed = seed;
+        for (RiskProfile profile : RiskProfile.values()) {
+            Double limit = limits.get(profile.name());
+            if (limit == null) {
+                throw new IllegalStateException("No value at risk limit configured for risk profile " + profile);
+            }
+            this.limits.put(profile, BigDecimal.valueOf(limit));
+        }
+    }
+
+    /**
+     * Assesses the user's holdings as of {@code asOf}, or returns empty if they hold
+     * nothing.
+     */
+    public Optional<RiskAssessment> assess(long userId, RiskProfile profile, LocalDate asOf) {
+        Map<String, BigDecimal> exposures = riskRepository.findExposures(userId);
+        if (exposures.isEmpty()) {
+            return Optional.empty();
+        }
+        List<String> tickers = List.copyOf(exposures.keySet());
+        LocalDate from = asOf.minusDays(lookbackDays);
+        ReturnMatrix matrix = ReturnMatrix.of(tickers, valuationRepository.findPriceBlocks(tickers, from, asOf),
+            from, asOf, minObservations);
+
+        double[] values = new double[matrix.assets()];
+        BigDecimal coveredValue = BigDecimal.ZERO;
+        for (int asset = 0; asset < values.length; asset++) {
+            BigDecimal exposure = exposures.get(matrix.tickers().get(asset));
+            values[asset] = exposure.doubleValue();
+            coveredValue = coveredValue.add(exposure);
+        }
+        BigDecimal portfolioValue = exposures.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal limit = limits.get(profile);
+
+        if (coveredValue.signum() <= 0 || coveredValue.compareTo(portfolioValue.multiply(minCoverage)) < 0) {
+            return Optional.of(new RiskAssessment(userId, profile, asOf, portfolioValue, coveredValue,
+                null, null, null, limit, false, true, confidence, horizonDays, 0, matrix.days()));
+        }
+
+        SimulatedLosses losses = simulator.simulate(values, matrix, horizonDays, paths, seed ^ userId * SEED_MULTIPLIER);
+        BigDecimal valueAtRisk = amount(losses.valueAtRisk(confidence));
+        BigDecimal expectedShortfall = amount(losses.expectedShortfall(confidence));
+        BigDecimal percentage = valueAtRisk.multiply(BigDecimal.valueOf(100))
+            .divide(coveredValue, 2, RoundingMode.HALF_UP);
+
+        return Optional.of(new RiskAssessment(userId, profile, asOf, portfolioValue, coveredValue,
+            valueAtRisk, expectedShortfall, percentage, limit, percentage.compareTo(limit) > 0, false,
+            confidence, horizonDays, losses.paths(), matrix.days()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static BigDecimal amount(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,97 @@
+package com.cimb.wealth.risk;
+
+import com.cimb.wealth.domain.User.RiskProfile;
+import com.cimb.wealth.repository.RiskAssessmentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scores every active user overnight and flags the portfolios whose value at risk exceeds
+ * the limit of the user's risk profile. Users are assessed one after another, each using
+ * all of the engine's threads. A user who no longer holds anything loses their assessment.
+ */
+@Component
+@Slf4j
+public class RiskScoringJob {
+
+    private final RiskEngine riskEngine;
+
+    private final RiskAssessmentRepository riskRepository;
+
+    private final int batchSize;
+
+    private final Timer scoringTimer;
+
+    private final AtomicLong flaggedPortfolios = new AtomicLong();
+
+    public RiskScoringJob(RiskEngine riskEngine,
+                          RiskAssessmentRepository riskRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${cimb.risk.batch-size:500}") int batchSize) {
+        this.riskEngine = riskEngine;
+        this.riskRepository = riskRepository;
+        this.batchSize = batchSize;
+        this.scoringTimer = Timer.builder("risk.scoring.duration")
+            .description("Time to simulate and store the value at risk of every active user")
+            .register(meterRegistry);
+        Gauge.builder("risk.portfolios.flagged", flaggedPortfolios, AtomicLong::get)
+            .description("Portfolios over their risk profile's limit in the last scoring run")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${cimb.risk.scoring-cron:0 30 4 * * *}")
+    public void scoreToday() {
+        score(LocalDate.now());
+    }
+
+    public synchronized void score(LocalDate asOf) {
+        long start = System.nanoTime();
+        long scored = 0;
+        long flagged = 0;
+        long insufficient = 0;
+        long failed = 0;
+        long lastUserId = 0;
+        Map<Long, RiskProfile> users;
+        do {
+            users = riskRepository.findActiveUsersAfter(lastUserId, batchSize);
+            for (Map.Entry<Long, RiskProfile> user : users.entrySet()) {
+                lastUserId = user.getKey();
+                try {
+                    Optional<RiskAssessment> assessment = riskEngine.assess(user.getKey(), user.getValue(), asOf);
+                    if (assessment.isPresent()) {
+                        riskRepository.save(assessment.get());
+                        scored++;
+                        if (assessment.get().exceedsProfile()) {
+                            flagged++;
+                        } else if (assessment.get().insufficientHistory()) {
+                            insufficient++;
+                        }
+                    } else {
+                        riskRepository.delete(user.getKey());
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Risk scoring of user {} failed", user.getKey(), e);
+                    failed++;
+                }
+            }
+        } while (users.size() == batchSize);
+
+        long elapsed = System.nanoTime() - start;
+        scoringTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        flaggedPortfolios.set(flagged);
+        log.info("Scored the risk of {} portfolios as of {} in {} ms: {} over their risk profile, "
+            + "{} with insufficient price history, {} failed", scored, asOf, elapsed / 1_000_000, flagged,
+            insufficient, failed);
+    }
+}
@@ -0,0 +1,46 @@
+package com.cimb.wealth.risk;
+
+/**
+ * The simulated losses of a portfolio in ascending order; gains are negative losses.
+ */
+public final class SimulatedLosses {
+
+    private final double[] sorted;
+
+    SimulatedLosses(double[] sorted) {
+        this.sorted = sorted;
+    }
+
+    public int paths() {
+        return sorted.length;
+    }
+
+    /**
+     * The loss not exceeded with probability {@code confidence}, or zero for a gain.
+     */
+    public double valueAtRisk(double confidence) {
+        return sorted.length == 0 ? 0 : Math.max(0, sorted[tailStart(confidence)]);
+    }
+
+    /**
+     * The mean loss in the tail from the value at risk, or zero for a gain.
+     */
+    public double expectedShortfall(double confidence) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int start = tailStart(confidence);
+        double sum = 0;
+        for (int i = start; i < sorted.length; i++) {
+            sum += sorted[i];
+        }
+        return Math.max(0, sum / (sorted.length - start));
+    }
+
+    private int tailStart(double confidence) {
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Confidence must be between 0 and 1: " + confidence);
+        }
+        return Math.min(sorted.length - 1, (int) Math.ceil(confidence * sorted.length) - 1);
+    }
+}
@@ -0,0 +1,54 @@
+package com.cimb.wealth.security;
+
+import com.cimb.wealth.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ownership checks for {@code @PreAuthorize} expressions. Staff roles can read any customer;
+ * customers only their own user and accounts.
+ */
+@Component("accessControl")
+@RequiredArgsConstructor
+public class AccessControl {
+
+    private final AccountRepository accountRepository;
+
+    public boolean canAccessUser(Long userId, Authentication authentication) {
+        if (isStaff(authentication)) {
+            return true;
+        }
+        Long current = userId(authentication);
+        return current != null && current.equals(userId);
+    }
+
+    public boolean canAccessAccount(Long accountId, Authentication authentication) {
+        if (isStaff(authentication)) {
+            return true;
+        }
+        Long current = userId(authentication);
+        return current != null && accountId != null && accountRepository.existsByIdAndUserId(accountId, current);
+    }
+
+    public static Long userId(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getUserId();
+        }
+        return null;
+    }
+
+    private static boolean isStaff(Authentication authentication) {
+        if (authentication == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if ("ROLE_ADMIN".equals(name) || "ROLE_ADVISOR".equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.cimb.wealth.security;
+
+import com.cimb.wealth.domain.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Security principal that also carries the database id of the user, so resolvers and
+ * access checks can use it without another lookup.
+ */
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+    private final Long userId;
+
+    public AuthenticatedUser(Long userId, String email, String password, boolean enabled,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(email, password != null ? password : "", enabled, true, true, true, authorities);
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public static List<GrantedAuthority> authoritiesFor(String role) {
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    public static List<GrantedAuthority> authoritiesFor(User.Role role) {
+        return authoritiesFor(role.name());
+    }
+}
@@ -0,0 +1,44 @@
+package com.cimb.wealth.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Resolves the caller's address once per request and exposes it as a request attribute,
+ * which the GraphQL layer copies into the execution context.
+ */
+@Component
+public class ClientAddressFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ADDRESS_ATTRIBUTE = "com.cimb.wealth.clientAddress";
+
+    // Only honour X-Forwarded-For when running behind a proxy that overwrites it
+    @Value("${spring.security.rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        request.setAttribute(CLIENT_ADDRESS_ATTRIBUTE, resolveClientAddress(request));
+        filterChain.doFilter(request, response);
+    }
+
+    private String resolveClientAddress(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwardedFor)) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma >= 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,115 @@
+package com.cimb.wealth.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hash checks on a dedicated, bounded pool so BCrypt work never runs on
+ * request threads or inside a database transaction. When the queue is full new logins are
+ * shed immediately instead of piling up behind the ones already waiting.
+ */
+@Component
+@Slf4j
+public class CredentialVerifier implements DisposableBean {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer hashTimer;
+
+    private final Counter rejectedCounter;
+
+    // Compared against when the email is unknown so both cases take the same time
+    private final String dummyHash;
+
+    public CredentialVerifier(PasswordEncoder passwordEncoder,
+                              MeterRegistry meterRegistry,
+                              @Value("${spring.security.login.hash-threads:0}") int hashThreads,
+                              @Value("${spring.security.login.hash-queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new HashThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("login.hash.duration")
+            .description("Time spent verifying and upgrading password hashes")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("login.hash.rejected")
+            .description("Logins shed because the hashing queue was full")
+            .register(meterRegistry);
+        Gauge.builder("login.hash.queue.depth", executor, e -> e.getQueue().size())
+            .description("Logins waiting for a hashing thread")
+            .register(meterRegistry);
+        Gauge.builder("login.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Hashing threads currently busy")
+            .register(meterRegistry);
+
+        this.dummyHash = passwordEncoder.encode("dummy-password-for-unknown-users");
+    }
+
+    public String dummyHash() {
+        return dummyHash;
+    }
+
+    /**
+     * Checks {@code rawPassword} against {@code encodedPassword} on the hashing pool. If it
+     * matches and the stored hash was made with an outdated cost, a re-encoded hash is
+     * returned as well so the caller can persist it.
+     */
+    public CompletableFuture<Verification> verify(String rawPassword, String encodedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashTimer.record(() -> {
+                if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+                    return new Verification(false, null);
+                }
+                String upgradedHash = passwordEncoder.upgradeEncoding(encodedPassword)
+                    ? passwordEncoder.encode(rawPassword)
+                    : null;
+                return new Verification(true, upgradedHash);
+            }), executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Login shed, hashing queue is full ({} waiting)", executor.getQueue().size());
+            return CompletableFuture.failedFuture(
+                new AuthenticationServiceException("Login is temporarily unavailable, please retry"));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    public record Verification(boolean matched, String upgradedHash) {
+    }
+
+    private static class HashThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "login-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,16 +1,18 @@
 package com.cimb.wealth.security;
 
-import com.cimb.wealth.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -25,30 +27,87 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @Value("${spring.security.jwt.stateless:true}")
+    private boolean stateless;
 
     @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                   FilterChain filterChain) throws ServletException, IOException {
-        
+
         String jwt = getJwtFromRequest(request);
-        
-        if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-            String username = jwtTokenProvider.getUsernameFromToken(jwt);
-            
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            
-            if (userDetails != null) {
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+
+        if (StringUtils.hasText(jwt)) {
+            String cacheKey = verifiedTokenCache.keyFor(jwt);
+            UsernamePasswordAuthenticationToken authentication = verifiedTokenCache.get(cacheKey);
+
+            if (authentication == null) {
+                Claims claims = jwtTokenProvider.parseClaims(jwt);
+                authentication = claims != null ? authenticate(claims) : null;
+
+                if (authentication != null) {
+                    verifiedTokenCache.put(cacheKey, authentication, claims.getExpiration());
+                }
+            }
+
+            if (authentication != null) {
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
+
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
-        
+
         filterChain.doFilter(request, response);
     }
 
+    private UsernamePasswordAuthenticationToken authenticate(Claims claims) {
+        if (jwtTokenProvider.isRefreshToken(claims)) {
+            return null;
+        }
+        if (stateless && jwtTokenProvider.hasStatelessClaims(claims)) {
+            return authenticateFromClaims(claims);
+        }
+
+        // Tokens issued without the stateless claims still go through the user lookup
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        } catch (UsernameNotFoundException e) {
+            log.warn("Token subject no longer exists: {}", claims.getSubject());
+            return null;
+        }
+
+        if (!userDetails.isEnabled()) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(Claims claims) {
+        String email = claims.getSubject();
+
+        if (!Boolean.TRUE.equals(claims.get(JwtTokenProvider.CLAIM_ACTIVE, Boolean.class))) {
+            return null;
+        }
+
+        Integer tokenVersion = claims.get(JwtTokenProvider.CLAIM_TOKEN_VERSION, Integer.class);
+        if (!tokenVersionRegistry.isCurrent(email, tokenVersion)) {
+            log.debug("Rejecting token for {} with stale version {}", email, tokenVersion);
+            return null;
+        }
+
+        AuthenticatedUser principal = new AuthenticatedUser(
+            claims.get(JwtTokenProvider.CLAIM_USER_ID, Long.class),
+            email,
+            "",
+            true,
+            AuthenticatedUser.authoritiesFor(claims.get(JwtTokenProvider.CLAIM_ROLE, String.class))
+        );
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
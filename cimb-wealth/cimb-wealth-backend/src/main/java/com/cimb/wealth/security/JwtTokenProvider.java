@@ -1,7 +1,9 @@
 package com.cimb.wealth.security;
 
+import com.cimb.wealth.domain.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -15,6 +17,14 @@ import java.util.Date;
 @Slf4j
 public class JwtTokenProvider {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ACTIVE = "active";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_FAMILY = "fam";
+    public static final String CLAIM_TYPE = "typ";
+    public static final String TYPE_REFRESH = "refresh";
+
     @Value("${spring.security.jwt.secret}")
     private String jwtSecret;
 
@@ -24,8 +34,17 @@ public class JwtTokenProvider {
     @Value("${spring.security.jwt.refresh-expiration}")
     private int refreshExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // The key and parser are immutable and thread-safe, so build them once instead of per token
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -33,59 +52,91 @@ public class JwtTokenProvider {
         return generateTokenFromUsername(userPrincipal.getUsername());
     }
 
+    public String generateToken(User user) {
+        Date now = new Date();
+        return Jwts.builder()
+            .setSubject(user.getEmail())
+            .claim(CLAIM_USER_ID, user.getId())
+            .claim(CLAIM_ROLE, user.getRole().name())
+            .claim(CLAIM_ACTIVE, user.getActive())
+            .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
+            .setIssuedAt(now)
+            .setExpiration(new Date(now.getTime() + jwtExpirationMs))
+            .signWith(signingKey, SignatureAlgorithm.HS256)
+            .compact();
+    }
+
     public String generateTokenFromUsername(String username) {
         return Jwts.builder()
             .setSubject(username)
             .setIssuedAt(new Date())
             .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-            .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .signWith(signingKey, SignatureAlgorithm.HS256)
             .compact();
     }
 
-    public String generateRefreshToken(String username) {
+    public String generateRefreshToken(User user, String tokenId, String familyId, Date expiration) {
         return Jwts.builder()
-            .setSubject(username)
+            .setSubject(user.getEmail())
+            .setId(tokenId)
+            .claim(CLAIM_USER_ID, user.getId())
+            .claim(CLAIM_FAMILY, familyId)
+            .claim(CLAIM_TYPE, TYPE_REFRESH)
             .setIssuedAt(new Date())
-            .setExpiration(new Date((new Date()).getTime() + refreshExpirationMs))
-            .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .setExpiration(expiration)
+            .signWith(signingKey, SignatureAlgorithm.HS256)
             .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(getSigningKey())
-            .build()
-            .parseClaimsJws(token)
-            .getBody()
-            .getSubject();
+    public long getRefreshExpirationMs() {
+        return refreshExpirationMs;
     }
 
-    public boolean validateToken(String authToken) {
+    public boolean isRefreshToken(Claims claims) {
+        return TYPE_REFRESH.equals(claims.get(CLAIM_TYPE, String.class));
+    }
+
+    /**
+     * Verifies the signature and expiry of a token and returns its claims in a single parse,
+     * or {@code null} if the token is not valid.
+     */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             log.error("JWT token is expired: {}", e.getMessage());
+        } catch (MalformedJwtException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             log.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (JwtException e) {
+            log.error("JWT token rejected: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    public boolean hasStatelessClaims(Claims claims) {
+        return claims.get(CLAIM_USER_ID) != null
+            && claims.get(CLAIM_ROLE) != null
+            && claims.get(CLAIM_ACTIVE) != null
+            && claims.get(CLAIM_TOKEN_VERSION) != null;
+    }
+
+    public String getUsernameFromToken(String token) {
+        return jwtParser.parseClaimsJws(token)
+            .getBody()
+            .getSubject();
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
     }
 
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
             return claims.getExpiration().before(new Date());
         } catch (Exception e) {
             return true;
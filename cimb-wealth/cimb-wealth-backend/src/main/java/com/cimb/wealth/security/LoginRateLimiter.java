@@ -0,0 +1,187 @@
+package com.cimb.wealth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process throttle for the unauthenticated login and refreshToken mutations, keyed per
+ * email and per client address. Each key gets a lock-free token bucket; idle buckets are
+ * evicted and the number of tracked keys is capped so a flood of distinct keys cannot grow
+ * memory without bound. Rejections are logged as a periodic summary without the key, so a
+ * flood neither fills the log nor writes the attempted emails to it.
+ */
+@Component
+@Slf4j
+public class LoginRateLimiter {
+
+    private static final String UNKNOWN_ADDRESS = "unknown";
+
+    private static final long REJECTION_WARNING_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final boolean enabled;
+
+    private final Ticker ticker;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final Limit loginPerEmail;
+    private final Limit loginPerAddress;
+    private final Limit refreshPerAddress;
+
+    private final Counter loginEmailRejections;
+    private final Counter loginAddressRejections;
+    private final Counter refreshAddressRejections;
+
+    private final AtomicLong unreportedRejections = new AtomicLong();
+
+    private final AtomicLong lastRejectionWarning;
+
+    @Autowired
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${spring.security.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${spring.security.rate-limit.max-keys:100000}") long maxKeys,
+                            @Value("${spring.security.rate-limit.idle-timeout:15m}") Duration idleTimeout,
+                            @Value("${spring.security.rate-limit.login.email.capacity:5}") int loginEmailCapacity,
+                            @Value("${spring.security.rate-limit.login.email.per-minute:5}") int loginEmailPerMinute,
+                            @Value("${spring.security.rate-limit.login.address.capacity:20}") int loginAddressCapacity,
+                            @Value("${spring.security.rate-limit.login.address.per-minute:60}") int loginAddressPerMinute,
+                            @Value("${spring.security.rate-limit.refresh.address.capacity:30}") int refreshAddressCapacity,
+                            @Value("${spring.security.rate-limit.refresh.address.per-minute:60}") int refreshAddressPerMinute) {
+        this(meterRegistry, enabled, maxKeys, idleTimeout, loginEmailCapacity, loginEmailPerMinute,
+            loginAddressCapacity, loginAddressPerMinute, refreshAddressCapacity, refreshAddressPerMinute,
+            Ticker.systemTicker());
+    }
+
+    LoginRateLimiter(MeterRegistry meterRegistry, boolean enabled, long maxKeys, Duration idleTimeout,
+                     int loginEmailCapacity, int loginEmailPerMinute,
+                     int loginAddressCapacity, int loginAddressPerMinute,
+                     int refreshAddressCapacity, int refreshAddressPerMinute,
+                     Ticker ticker) {
+        this.enabled = enabled;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(idleTimeout)
+            .ticker(ticker)
+            .build();
+        this.lastRejectionWarning = new AtomicLong(ticker.read() - REJECTION_WARNING_INTERVAL_NANOS);
+
+        this.loginPerEmail = new Limit(loginEmailCapacity, loginEmailPerMinute);
+        this.loginPerAddress = new Limit(loginAddressCapacity, loginAddressPerMinute);
+        this.refreshPerAddress = new Limit(refreshAddressCapacity, refreshAddressPerMinute);
+
+        this.loginEmailRejections = rejectionCounter(meterRegistry, "login", "email");
+        this.loginAddressRejections = rejectionCounter(meterRegistry, "login", "address");
+        this.refreshAddressRejections = rejectionCounter(meterRegistry, "refreshToken", "address");
+
+        Gauge.builder("auth.rate-limit.keys", buckets, Cache::estimatedSize)
+            .description("Rate limit buckets currently tracked")
+            .register(meterRegistry);
+    }
+
+    public void checkLogin(String email, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        // The address is checked first so a stuffing run across many emails is cut off early
+        acquire("login:address:" + addressKey(clientAddress), loginPerAddress, loginAddressRejections);
+        if (email != null) {
+            acquire("login:email:" + email.trim().toLowerCase(Locale.ROOT), loginPerEmail, loginEmailRejections);
+        }
+    }
+
+    public void checkRefresh(String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        acquire("refresh:address:" + addressKey(clientAddress), refreshPerAddress, refreshAddressRejections);
+    }
+
+    private void acquire(String key, Limit limit, Counter rejections) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket());
+        long now = ticker.read();
+        long waitNanos = bucket.tryAcquire(now, limit);
+        if (waitNanos > 0) {
+            rejections.increment();
+            reportRejection(now);
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos));
+            throw new RateLimitExceededException("Too many attempts, please retry later", retryAfterSeconds);
+        }
+    }
+
+    // At most one warning a minute; the per-scope counts are in auth.rate-limit.rejected
+    private void reportRejection(long now) {
+        unreportedRejections.incrementAndGet();
+        long last = lastRejectionWarning.get();
+        if (now - last >= REJECTION_WARNING_INTERVAL_NANOS && lastRejectionWarning.compareAndSet(last, now)) {
+            log.warn("Rate limit rejected {} login or refresh requests since the last warning",
+                unreportedRejections.getAndSet(0));
+        }
+    }
+
+    long trackedKeys() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private static String addressKey(String clientAddress) {
+        return clientAddress != null ? clientAddress : UNKNOWN_ADDRESS;
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String operation, String scope) {
+        return Counter.builder("auth.rate-limit.rejected")
+            .description("Requests rejected by the login rate limiter")
+            .tag("operation", operation)
+            .tag("scope", scope)
+            .register(meterRegistry);
+    }
+
+    private record Limit(long emissionIntervalNanos, long burstNanos) {
+
+        Limit(int capacity, int perMinute) {
+            this(TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute),
+                TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute) * Math.max(1, capacity));
+        }
+    }
+
+    /**
+     * Token bucket expressed as a generic cell rate algorithm: the only state is the
+     * theoretical arrival time of the next request, updated with a single CAS.
+     */
+    static final class TokenBucket {
+
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * Returns 0 if a token was taken, otherwise the nanoseconds until one is available.
+         */
+        long tryAcquire(long now, Limit limit) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long base = current == Long.MIN_VALUE ? now : Math.max(current, now);
+                long next = base + limit.emissionIntervalNanos();
+
+                long excess = next - now - limit.burstNanos();
+                if (excess > 0) {
+                    return excess;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
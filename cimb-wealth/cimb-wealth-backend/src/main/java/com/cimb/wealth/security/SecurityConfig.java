@@ -1,6 +1,7 @@
 package com.cimb.wealth.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -33,9 +34,12 @@ public class SecurityConfig {
     private final JwtRequestFilter jwtRequestFilter;
     private final UserDetailsService userDetailsService;
 
+    @Value("${spring.security.login.bcrypt-strength:12}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -58,6 +62,7 @@ public class SecurityConfig {
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/graphql", "/graphiql", "/playground").permitAll()
                 .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                .requestMatchers("/actuator/argumentlogging", "/actuator/argumentlogging/**").hasRole("ADMIN")
                 .requestMatchers("/auth/login", "/auth/refresh").permitAll()
                 .requestMatchers("/users/register").permitAll()
                 .anyRequest().authenticated()
@@ -0,0 +1,78 @@
+package com.cimb.wealth.security;
+
+import com.cimb.wealth.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * In-memory view of each user's current token version. Versions only ever increase, so a
+ * token carrying an older version can be rejected without touching the database; the
+ * database is only consulted for users not seen yet or when a token is newer than what
+ * this node knows about.
+ *
+ * <p>A revocation updates only the node that made it. Other nodes learn the new version
+ * when their entry expires after {@code ttl}, which bounds how long they keep accepting
+ * revoked tokens; {@link VerifiedTokenCache} entries are capped at the same age.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+
+    private final Cache<String, Integer> versions;
+
+    @Autowired
+    public TokenVersionRegistry(UserRepository userRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${spring.security.jwt.token-versions.max-size:100000}") long maxSize,
+                                @Value("${spring.security.jwt.token-versions.ttl:60s}") Duration ttl) {
+        this(userRepository, meterRegistry, maxSize, ttl, Ticker.systemTicker());
+    }
+
+    TokenVersionRegistry(UserRepository userRepository, MeterRegistry meterRegistry, long maxSize, Duration ttl,
+                         Ticker ticker) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .ticker(ticker)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "jwt.token-versions");
+    }
+
+    public boolean isCurrent(String email, int tokenVersion) {
+        Integer known = versions.getIfPresent(email);
+        if (known != null) {
+            if (tokenVersion < known) {
+                return false;
+            }
+            if (tokenVersion == known) {
+                return true;
+            }
+        }
+
+        Optional<Integer> current = userRepository.findTokenVersionByEmail(email);
+        if (current.isEmpty()) {
+            versions.invalidate(email);
+            return false;
+        }
+
+        versions.put(email, current.get());
+        return current.get() == tokenVersion;
+    }
+
+    public void update(String email, int version) {
+        versions.asMap().merge(email, version, Math::max);
+    }
+}
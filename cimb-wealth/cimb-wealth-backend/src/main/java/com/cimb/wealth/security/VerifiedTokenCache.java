@@ -0,0 +1,185 @@
+package com.cimb.wealth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already verified bearer tokens, keyed by a SHA-256 hash of the token so
+ * raw tokens are never kept in memory. Entries live until the token's own expiry, and no
+ * longer than {@code maxAge} so tokens revoked on another node stop being served once that
+ * node's {@link TokenVersionRegistry} entry expires too. The keys of each user's entries
+ * are indexed so a revocation evicts them without scanning the cache.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final boolean enabled;
+
+    private final Clock clock;
+
+    private final Cache<String, Entry> cache;
+
+    // Emptied as entries are evicted or expire, so it holds only users with cached tokens
+    private final ConcurrentMap<String, Set<String>> keysByUser = new ConcurrentHashMap<>();
+
+    @Autowired
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${spring.security.jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${spring.security.jwt.cache.max-size:10000}") long maxSize,
+                              @Value("${spring.security.jwt.token-versions.ttl:60s}") Duration maxAge) {
+        this(meterRegistry, enabled, maxSize, maxAge, Clock.systemUTC(), ForkJoinPool.commonPool());
+    }
+
+    VerifiedTokenCache(MeterRegistry meterRegistry, boolean enabled, long maxSize, Duration maxAge, Clock clock,
+                       Executor executor) {
+        this.enabled = enabled;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new TokenExpiry(clock, maxAge.toMillis()))
+            .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+            .executor(executor)
+            .<String, Entry>removalListener((key, entry, cause) -> {
+                if (cause.wasEvicted() && entry != null) {
+                    unindex(entry.username(), key);
+                }
+            })
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    public String keyFor(String token) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Returns a fresh authentication for a cached token, or {@code null} on a miss. A new
+     * token object is handed out each time because callers attach per-request details.
+     */
+    public UsernamePasswordAuthenticationToken get(String key) {
+        if (!enabled) {
+            return null;
+        }
+
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || entry.expiresAtMillis() <= clock.millis()) {
+            return null;
+        }
+
+        Authentication authentication = entry.authentication();
+        return new UsernamePasswordAuthenticationToken(
+            authentication.getPrincipal(), null, authentication.getAuthorities());
+    }
+
+    public void put(String key, Authentication authentication, Date expiration) {
+        if (!enabled || expiration == null) {
+            return;
+        }
+        String username = authentication.getName();
+        Set<String> keys = keysByUser.computeIfAbsent(username, user -> ConcurrentHashMap.newKeySet());
+        keys.add(key);
+        cache.put(key, new Entry(authentication, username, expiration.getTime()));
+
+        // An invalidation that took the index entry meanwhile may have missed this put
+        if (keysByUser.get(username) != keys) {
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidateUser(String email) {
+        Set<String> keys = keysByUser.remove(email);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+            log.debug("Evicted {} cached tokens for user: {}", keys.size(), email);
+        }
+    }
+
+    public void invalidateAll() {
+        keysByUser.clear();
+        cache.invalidateAll();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    int indexedUsers() {
+        cache.cleanUp();
+        return keysByUser.size();
+    }
+
+    private void unindex(String username, String key) {
+        keysByUser.computeIfPresent(username, (user, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private record Entry(Authentication authentication, String username, long expiresAtMillis) {
+    }
+
+    private static class TokenExpiry implements Expiry<String, Entry> {
+
+        private final Clock clock;
+
+        private final long maxAgeMillis;
+
+        TokenExpiry(Clock clock, long maxAgeMillis) {
+            this.clock = clock;
+            this.maxAgeMillis = maxAgeMillis;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            long remainingMillis = Math.min(entry.expiresAtMillis() - clock.millis(), maxAgeMillis);
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
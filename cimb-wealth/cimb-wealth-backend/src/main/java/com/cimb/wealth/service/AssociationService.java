@@ -0,0 +1,93 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.dto.AccountDto;
+import com.cimb.wealth.dto.DtoMapper;
+import com.cimb.wealth.dto.GoalDto;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.dto.TransactionDto;
+import com.cimb.wealth.dto.UserDto;
+import com.cimb.wealth.repository.AccountRepository;
+import com.cimb.wealth.repository.GoalRepository;
+import com.cimb.wealth.repository.HoldingRepository;
+import com.cimb.wealth.repository.TransactionRepository;
+import com.cimb.wealth.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the associations of many parents with one query per association, for GraphQL
+ * batch mappings. Results are keyed by parent id; parents without children are absent.
+ * Transactions are capped per account at the list size the query cost model assumes.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AssociationService {
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final HoldingRepository holdingRepository;
+    private final TransactionRepository transactionRepository;
+    private final GoalRepository goalRepository;
+    private final int transactionsPerAccount;
+
+    public AssociationService(UserRepository userRepository,
+                              AccountRepository accountRepository,
+                              HoldingRepository holdingRepository,
+                              TransactionRepository transactionRepository,
+                              GoalRepository goalRepository,
+                              @Value("${cimb.graphql.cost.default-list-size:20}") int transactionsPerAccount) {
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.holdingRepository = holdingRepository;
+        this.transactionRepository = transactionRepository;
+        this.goalRepository = goalRepository;
+        this.transactionsPerAccount = transactionsPerAccount;
+    }
+
+    public Map<Long, List<AccountDto>> accountsByUserIds(Collection<Long> userIds) {
+        return accountRepository.findActiveByUserIdIn(userIds).stream()
+            .map(DtoMapper::toAccountDto)
+            .collect(Collectors.groupingBy(AccountDto::getUserId));
+    }
+
+    public Map<Long, List<GoalDto>> goalsByUserIds(Collection<Long> userIds) {
+        return goalRepository.findByUserIdIn(userIds).stream()
+            .map(DtoMapper::toGoalDto)
+            .collect(Collectors.groupingBy(GoalDto::getUserId));
+    }
+
+    public Map<Long, List<HoldingDto>> holdingsByAccountIds(Collection<Long> accountIds) {
+        return holdingRepository.findByAccountIdIn(accountIds).stream()
+            .map(DtoMapper::toHoldingDto)
+            .collect(Collectors.groupingBy(HoldingDto::getAccountId));
+    }
+
+    /**
+     * The most recent transactions of each account, newest first. Older ones are only
+     * reachable through the paginated {@code transactions} query.
+     */
+    public Map<Long, List<TransactionDto>> transactionsByAccountIds(Collection<Long> accountIds) {
+        return transactionRepository.findLatestByAccountIdIn(accountIds, transactionsPerAccount).stream()
+            .map(DtoMapper::toTransactionDto)
+            .collect(Collectors.groupingBy(TransactionDto::getAccountId));
+    }
+
+    public Map<Long, AccountDto> accountsByIds(Collection<Long> accountIds) {
+        return accountRepository.findAllById(accountIds).stream()
+            .map(DtoMapper::toAccountDto)
+            .collect(Collectors.toMap(AccountDto::getId, Function.identity()));
+    }
+
+    public Map<Long, UserDto> usersByIds(Collection<Long> userIds) {
+        return userRepository.findAllById(userIds).stream()
+            .map(DtoMapper::toUserDto)
+            .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+    }
+}
@@ -0,0 +1,146 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.domain.Transaction;
+import com.cimb.wealth.domain.User;
+import com.cimb.wealth.dto.AccountDto;
+import com.cimb.wealth.dto.ClientPortfolioDto;
+import com.cimb.wealth.dto.Connection;
+import com.cimb.wealth.dto.DtoProjections;
+import com.cimb.wealth.dto.EntityProjection;
+import com.cimb.wealth.dto.GoalDto;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.dto.TransactionDto;
+import com.cimb.wealth.dto.UserDto;
+import com.cimb.wealth.repository.KeysetQueryRepository;
+import com.cimb.wealth.repository.PortfolioSnapshotRepository;
+import com.cimb.wealth.repository.QueryFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Relay connections over keyset pagination. Every page, including the first, is one seek
+ * on {@code (created_at, id)} with a limit of {@code first + 1}, so the cost of a page does
+ * not grow with its depth. Only the columns of the requested node fields are read.
+ * {@code hasPreviousPage} is true only when a row sorts before the {@code after} cursor,
+ * checked with a second seek limited to one row.
+ * {@code totalCount} runs a separate count only when selected, after this transaction has
+ * ended, in the repository's own read-only transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ConnectionQueryService {
+
+    private final KeysetQueryRepository keysetQueryRepository;
+    private final PortfolioSnapshotRepository portfolioSnapshotRepository;
+
+    @Value("${cimb.graphql.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${cimb.graphql.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    public Connection<UserDto> users(Collection<String> fields, Integer first, String after, User.Role role,
+                                     User.RiskProfile riskProfile, Boolean active) {
+        QueryFilter filter = QueryFilter.where()
+            .eq("role", role)
+            .eq("riskProfile", riskProfile)
+            .eq("active", active);
+        return page(DtoProjections.USER, fields, filter, first, after,
+            user -> KeysetCursor.encode(user.getCreatedAt(), user.getId()));
+    }
+
+    public Connection<AccountDto> accounts(Collection<String> fields, Integer first, String after) {
+        QueryFilter filter = QueryFilter.where()
+            .eq("active", true);
+        return page(DtoProjections.ACCOUNT, fields, filter, first, after,
+            account -> KeysetCursor.encode(account.getCreatedAt(), account.getId()));
+    }
+
+    public Connection<AccountDto> accountsByUser(Collection<String> fields, Long userId, Integer first, String after) {
+        QueryFilter filter = QueryFilter.where()
+            .eq("user.id", userId)
+            .eq("active", true);
+        return page(DtoProjections.ACCOUNT, fields, filter, first, after,
+            account -> KeysetCursor.encode(account.getCreatedAt(), account.getId()));
+    }
+
+    public Connection<HoldingDto> holdings(Collection<String> fields, Long accountId, Integer first, String after,
+                                           String ticker, Holding.AssetType assetType, String sector) {
+        QueryFilter filter = QueryFilter.where()
+            .eq("account.id", accountId)
+            .eq("ticker", ticker)
+            .eq("assetType", assetType)
+            .eq("sector", sector);
+        return page(DtoProjections.HOLDING, fields, filter, first, after,
+            holding -> KeysetCursor.encode(holding.getCreatedAt(), holding.getId()));
+    }
+
+    public Connection<TransactionDto> transactions(Collection<String> fields, Long accountId, Integer first, String after,
+                                                   Transaction.TransactionType transactionType, String ticker,
+                                                   Transaction.TransactionStatus status,
+                                                   LocalDate startDate, LocalDate endDate) {
+        // The end date is inclusive, so the range ends at the start of the following day
+        QueryFilter filter = QueryFilter.where()
+            .eq("account.id", accountId)
+            .eq("transactionType", transactionType)
+            .eq("ticker", ticker)
+            .eq("status", status)
+            .greaterOrEqual("createdAt", startDate != null ? startDate.atStartOfDay() : null)
+            .lessThan("createdAt", endDate != null ? endDate.plusDays(1).atStartOfDay() : null);
+        return page(DtoProjections.TRANSACTION, fields, filter, first, after,
+            transaction -> KeysetCursor.encode(transaction.getCreatedAt(), transaction.getId()));
+    }
+
+    public Connection<GoalDto> goals(Collection<String> fields, Long userId, Integer first, String after) {
+        QueryFilter filter = QueryFilter.where()
+            .eq("user.id", userId);
+        return page(DtoProjections.GOAL, fields, filter, first, after,
+            goal -> KeysetCursor.encode(goal.getCreatedAt(), goal.getId()));
+    }
+
+    /**
+     * Active customers with the totals of their portfolio snapshot, one row each, so the
+     * page never touches holdings.
+     */
+    public Connection<ClientPortfolioDto> clientPortfolios(Integer first, String after) {
+        int size = pageSize(first);
+        KeysetCursor position = KeysetCursor.decode(after);
+        List<ClientPortfolioDto> rows = portfolioSnapshotRepository.findClientPage(position.createdAt(), position.id(), size + 1);
+        boolean hasPreviousPage = after != null
+            && portfolioSnapshotRepository.existsClientBefore(position.createdAt(), position.id());
+        return Connection.of(rows, size, hasPreviousPage, Function.identity(),
+            client -> KeysetCursor.encode(client.getCreatedAt(), client.getUserId()),
+            portfolioSnapshotRepository::countClients);
+    }
+
+    private <D> Connection<D> page(EntityProjection<D> projection, Collection<String> fields, QueryFilter filter,
+                                   Integer first, String after, Function<D, String> cursor) {
+        int size = pageSize(first);
+        KeysetCursor position = KeysetCursor.decode(after);
+        List<D> rows = keysetQueryRepository.findPage(projection, fields, filter,
+            position.createdAt(), position.id(), size + 1);
+        boolean hasPreviousPage = after != null
+            && keysetQueryRepository.existsBefore(projection, filter, position.createdAt(), position.id());
+        return Connection.of(rows, size, hasPreviousPage, Function.identity(), cursor,
+            () -> keysetQueryRepository.count(projection, filter));
+    }
+
+    private int pageSize(Integer first) {
+        if (first == null) {
+            return defaultPageSize;
+        }
+        if (first < 0) {
+            throw new IllegalArgumentException("first must not be negative");
+        }
+        return Math.min(first, maxPageSize);
+    }
+}
@@ -0,0 +1,41 @@
+package com.cimb.wealth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a result ordered by {@code (created_at DESC, id DESC)}. Encoded as an opaque
+ * base64url string so clients cannot depend on its contents.
+ */
+public record KeysetCursor(LocalDateTime createdAt, long id) {
+
+    // Sorts after every real row, so the first page uses the same seek query as later pages
+    public static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        return ENCODER.encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        return new KeysetCursor(createdAt, id).encode();
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)),
+                Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
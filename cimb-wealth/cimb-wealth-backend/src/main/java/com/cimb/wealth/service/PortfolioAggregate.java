@@ -0,0 +1,23 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.dto.HoldingDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Aggregates of one user's holdings. Amounts are exact; percentages are rounded to two
+ * decimal places. Allocations are ordered by market value, largest first.
+ */
+public record PortfolioAggregate(BigDecimal totalValue,
+                                 BigDecimal costBasis,
+                                 BigDecimal gainLoss,
+                                 BigDecimal gainLossPercentage,
+                                 long holdingCount,
+                                 List<Allocation> byAssetType,
+                                 List<Allocation> bySector,
+                                 List<HoldingDto> topHoldings) {
+
+    public record Allocation(String key, BigDecimal marketValue, BigDecimal costBasis, BigDecimal percentage) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.repository.HoldingRepository;
+import com.cimb.wealth.repository.PortfolioAggregateRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Computes all portfolio aggregates of a user with one set-based query instead of a query
+ * per account and measure.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class PortfolioAggregationService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private static final Comparator<PortfolioAggregate.Allocation> LARGEST_FIRST =
+        Comparator.comparing(PortfolioAggregate.Allocation::marketValue).reversed()
+            .thenComparing(PortfolioAggregate.Allocation::key);
+
+    private final HoldingRepository holdingRepository;
+
+    @Value("${cimb.portfolio.top-holdings:5}")
+    private int topHoldingsLimit;
+
+    public PortfolioAggregate aggregate(Long userId) {
+        List<PortfolioAggregateRow> rows = holdingRepository.aggregateByUserId(userId, topHoldingsLimit);
+
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal costBasis = BigDecimal.ZERO;
+        long holdingCount = 0;
+        List<PortfolioAggregateRow> assetTypeRows = new ArrayList<>();
+        List<PortfolioAggregateRow> sectorRows = new ArrayList<>();
+        List<HoldingDto> topHoldings = new ArrayList<>(topHoldingsLimit);
+
+        for (PortfolioAggregateRow row : rows) {
+            switch (row.getKind()) {
+                case "TOTAL" -> {
+                    totalValue = orZero(row.getMarketValue());
+                    costBasis = orZero(row.getCostBasis());
+                    holdingCount = row.getHoldingCount();
+                }
+                case "ASSET_TYPE" -> assetTypeRows.add(row);
+                case "SECTOR" -> sectorRows.add(row);
+                case "TOP" -> topHoldings.add(toHoldingDto(row));
+                default -> throw new IllegalStateException("Unknown aggregate row kind: " + row.getKind());
+            }
+        }
+        // The query orders top holdings before the limit, but UNION ALL does not keep it
+        topHoldings.sort(Comparator.comparing(HoldingDto::getMarketValue).reversed().thenComparing(HoldingDto::getId));
+
+        BigDecimal gainLoss = totalValue.subtract(costBasis);
+        return new PortfolioAggregate(totalValue, costBasis, gainLoss, percentage(gainLoss, costBasis), holdingCount,
+            allocations(assetTypeRows, true, totalValue), allocations(sectorRows, false, totalValue), topHoldings);
+    }
+
+    private static List<PortfolioAggregate.Allocation> allocations(List<PortfolioAggregateRow> rows, boolean byAssetType,
+                                                                   BigDecimal totalValue) {
+        List<PortfolioAggregate.Allocation> allocations = new ArrayList<>(rows.size());
+        for (PortfolioAggregateRow row : rows) {
+            BigDecimal value = orZero(row.getMarketValue());
+            allocations.add(new PortfolioAggregate.Allocation(
+                byAssetType ? row.getAssetType() : row.getSector(),
+                value, orZero(row.getCostBasis()), percentage(value, totalValue)));
+        }
+        allocations.sort(LARGEST_FIRST);
+        return allocations;
+    }
+
+    private static HoldingDto toHoldingDto(PortfolioAggregateRow row) {
+        return HoldingDto.builder()
+            .id(row.getId())
+            .ticker(row.getTicker())
+            .assetName(row.getAssetName())
+            .assetType(Holding.AssetType.valueOf(row.getAssetType()))
+            .sector(row.getSector())
+            .quantity(row.getQuantity())
+            .currentPrice(row.getCurrentPrice())
+            .averageCost(row.getAverageCost())
+            .marketValue(row.getMarketValue())
+            .unrealizedGainLoss(row.getUnrealizedGainLoss())
+            .unrealizedGainLossPercentage(row.getUnrealizedGainLossPercentage())
+            .createdAt(row.getCreatedAt())
+            .updatedAt(row.getUpdatedAt())
+            .accountId(row.getAccountId())
+            .build();
+    }
+
+    static BigDecimal percentage(BigDecimal part, BigDecimal whole) {
+        if (whole.signum() == 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return part.multiply(HUNDRED).divide(whole, 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
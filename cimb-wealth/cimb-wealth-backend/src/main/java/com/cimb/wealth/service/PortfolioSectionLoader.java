@@ -0,0 +1,114 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.dto.PortfolioSection;
+import com.cimb.wealth.dto.PortfolioSummaryDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Loads portfolio sections concurrently on a bounded pool. The caller's security context
+ * is carried to the pool thread. Each request waits at most the section timeout; a section
+ * that is still running keeps going and is stored on its summary, so a later request can
+ * use it.
+ */
+@Component
+@Slf4j
+public class PortfolioSectionLoader implements DisposableBean {
+
+    private final ThreadPoolExecutor pool;
+
+    private final Executor executor;
+
+    private final Duration timeout;
+
+    private final Map<PortfolioSection, Timer> sectionTimers = new EnumMap<>(PortfolioSection.class);
+
+    private final Map<PortfolioSection, Counter> failureCounters = new EnumMap<>(PortfolioSection.class);
+
+    public PortfolioSectionLoader(MeterRegistry meterRegistry,
+                                  @Value("${cimb.portfolio.sections.threads:8}") int threads,
+                                  @Value("${cimb.portfolio.sections.queue-capacity:256}") int queueCapacity,
+                                  @Value("${cimb.portfolio.sections.timeout:2s}") Duration timeout) {
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new SectionThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.executor = new DelegatingSecurityContextExecutor(pool);
+        this.timeout = timeout;
+
+        for (PortfolioSection section : PortfolioSection.values()) {
+            String tag = section.name().toLowerCase();
+            sectionTimers.put(section, Timer.builder("portfolio.section.duration")
+                .description("Time spent loading a portfolio section")
+                .tag("section", tag)
+                .register(meterRegistry));
+            failureCounters.put(section, Counter.builder("portfolio.section.failures")
+                .description("Portfolio sections that failed, timed out or were rejected")
+                .tag("section", tag)
+                .register(meterRegistry));
+        }
+        Gauge.builder("portfolio.section.queue.depth", pool, p -> p.getQueue().size())
+            .description("Portfolio sections waiting for a thread")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The section of {@code summary}, loaded with {@code loader} unless it is already loaded
+     * or in flight. Completes exceptionally if it takes longer than the section timeout.
+     */
+    public <T> CompletableFuture<T> load(PortfolioSummaryDto summary, PortfolioSection section, Supplier<T> loader) {
+        Timer timer = sectionTimers.get(section);
+        return summary.section(section, () -> submit(section, () -> timer.record(loader)))
+            .copy()
+            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((value, failure) -> {
+                if (failure != null) {
+                    failureCounters.get(section).increment();
+                }
+            });
+    }
+
+    private <T> CompletableFuture<T> submit(PortfolioSection section, Supplier<T> loader) {
+        try {
+            return CompletableFuture.supplyAsync(loader, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Portfolio section {} rejected, queue is full ({} waiting)", section, pool.getQueue().size());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private static class SectionThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "portfolio-section-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
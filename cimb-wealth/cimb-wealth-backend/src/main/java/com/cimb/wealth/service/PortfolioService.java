@@ -0,0 +1,78 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.dto.AssetAllocationDto;
+import com.cimb.wealth.dto.DtoMapper;
+import com.cimb.wealth.dto.PortfolioSection;
+import com.cimb.wealth.dto.PortfolioSummaryDto;
+import com.cimb.wealth.dto.SectorAllocationDto;
+import com.cimb.wealth.dto.TransactionDto;
+import com.cimb.wealth.repository.AccountRepository;
+import com.cimb.wealth.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Portfolio totals and sections. The summary is computed from one aggregate query that
+ * also yields the allocation and top holding sections, which are stored on the summary;
+ * the remaining sections are separate reads that can be loaded concurrently.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class PortfolioService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final PortfolioAggregationService portfolioAggregationService;
+    private final PortfolioSummaryCache portfolioSummaryCache;
+
+    @Value("${cimb.portfolio.recent-transactions:10}")
+    private int recentTransactionsLimit;
+
+    public PortfolioSummaryDto calculateSummary(Long userId) {
+        portfolioSummaryCache.trackAccounts(userId, accountRepository.findActiveIdsByUserId(userId));
+
+        PortfolioAggregate aggregate = portfolioAggregationService.aggregate(userId);
+        PortfolioSummaryDto summary = PortfolioSummaryDto.builder()
+            .userId(userId)
+            .totalValue(aggregate.totalValue())
+            .totalGainLoss(aggregate.gainLoss())
+            .totalGainLossPercentage(aggregate.gainLossPercentage())
+            .build();
+        summary.preload(PortfolioSection.ASSET_ALLOCATION, assetAllocation(aggregate));
+        summary.preload(PortfolioSection.SECTOR_ALLOCATION, sectorAllocation(aggregate));
+        summary.preload(PortfolioSection.TOP_HOLDINGS, aggregate.topHoldings());
+        return summary;
+    }
+
+    public List<TransactionDto> recentTransactions(Long userId) {
+        return transactionRepository.findRecentByUserId(userId, PageRequest.of(0, recentTransactionsLimit)).stream()
+            .map(DtoMapper::toTransactionDto)
+            .toList();
+    }
+
+    private static List<AssetAllocationDto> assetAllocation(PortfolioAggregate aggregate) {
+        return aggregate.byAssetType().stream()
+            .map(allocation -> AssetAllocationDto.builder()
+                .assetType(allocation.key())
+                .value(allocation.marketValue())
+                .percentage(allocation.percentage())
+                .build())
+            .toList();
+    }
+
+    private static List<SectorAllocationDto> sectorAllocation(PortfolioAggregate aggregate) {
+        return aggregate.bySector().stream()
+            .map(allocation -> SectorAllocationDto.builder()
+                .sector(allocation.key())
+                .value(allocation.marketValue())
+                .percentage(allocation.percentage())
+                .build())
+            .toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.repository.PortfolioSnapshotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recomputes every portfolio snapshot from the source tables. Catches changes that bypass
+ * JPA, such as bulk SQL or cascading deletes, and fills the table on first start. Users are
+ * rebuilt in batches, each in its own transaction holding the same locks as the writer.
+ *
+ * <p>Frequent bulk writers such as price ingestion queue their users instead, and the
+ * queue is rebuilt once per coalescing window however many writes touched a user.
+ */
+@Component
+@Slf4j
+public class PortfolioSnapshotRebuildJob {
+
+    private final PortfolioSnapshotRepository snapshotRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final Counter correctedCounter;
+
+    private final Set<Long> pendingUsers = ConcurrentHashMap.newKeySet();
+
+    public PortfolioSnapshotRebuildJob(PortfolioSnapshotRepository snapshotRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${cimb.portfolio.snapshots.rebuild-batch-size:500}") int batchSize) {
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.correctedCounter = Counter.builder("portfolio.snapshot.corrected")
+            .description("Portfolio snapshot rows written by the rebuild job because they were missing or stale")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void populate() {
+        if (snapshotRepository.isEmpty()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${cimb.portfolio.snapshots.rebuild-cron:0 30 2 * * *}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        long corrected = 0;
+        long lastUserId = 0;
+        List<Long> userIds;
+        do {
+            userIds = snapshotRepository.findUserIdsAfter(lastUserId, batchSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            corrected += rebuildBatch(userIds);
+            lastUserId = userIds.get(userIds.size() - 1);
+        } while (userIds.size() == batchSize);
+
+        correctedCounter.increment(corrected);
+        log.info("Rebuilt portfolio snapshots in {} ms, {} rows corrected",
+            (System.nanoTime() - start) / 1_000_000, corrected);
+    }
+
+    /**
+     * Rebuilds the snapshots of the given users only, for writes that bypass the entity
+     * listeners. Returns the number of rows written.
+     */
+    public long rebuildUsers(Collection<Long> userIds) {
+        List<Long> sorted = userIds.stream().sorted().toList();
+        long written = 0;
+        for (int from = 0; from < sorted.size(); from += batchSize) {
+            written += rebuildBatch(sorted.subList(from, Math.min(from + batchSize, sorted.size())));
+        }
+        return written;
+    }
+
+    /**
+     * Queues the users for the next coalesced rebuild. Call after the writes have committed.
+     */
+    public void scheduleUsers(Collection<Long> userIds) {
+        pendingUsers.addAll(userIds);
+    }
+
+    @Scheduled(fixedDelayString = "${cimb.portfolio.snapshots.coalesce-window:10s}")
+    public void rebuildPending() {
+        if (pendingUsers.isEmpty()) {
+            return;
+        }
+        // A user queued again after the copy was committed before the rebuild reads it
+        List<Long> userIds = new ArrayList<>(pendingUsers);
+        pendingUsers.removeAll(userIds);
+        try {
+            rebuildUsers(userIds);
+        } catch (RuntimeException e) {
+            log.error("Coalesced snapshot rebuild of {} users failed; the nightly rebuild corrects them",
+                userIds.size(), e);
+        }
+    }
+
+    private int rebuildBatch(List<Long> userIds) {
+        Integer written = transactionTemplate.execute(status -> {
+            snapshotRepository.lockUsers(userIds);
+            return snapshotRepository.refreshAccounts(snapshotRepository.findAccountIdsByUserIds(userIds))
+                + snapshotRepository.refreshUsers(userIds);
+        });
+        return written != null ? written : 0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.event.PortfolioChangedEvent;
+import com.cimb.wealth.repository.PortfolioSnapshotRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps {@code portfolio_snapshots} in step with account, holding and transaction writes.
+ * Changed accounts are collected for the whole transaction and their snapshots, and those
+ * of their owners, are refreshed once just before it commits, so the read model commits or
+ * rolls back together with the write. A failed refresh fails the commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PortfolioSnapshotWriter {
+
+    private final PortfolioSnapshotRepository snapshotRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @EventListener
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Changes changes = new Changes();
+            changes.add(event);
+            refresh(changes);
+            return;
+        }
+
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Changes pending = new Changes();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PortfolioSnapshotWriter.this);
+                }
+            });
+            // Runs after the session's final flush, which is where updates and deletes reach
+            // the entity listener, and before the connection commits
+            entityManager.unwrap(SessionImplementor.class).getActionQueue()
+                .registerProcess((BeforeTransactionCompletionProcess) session -> refresh(pending));
+            changes = pending;
+        }
+        changes.add(event);
+    }
+
+    private void refresh(Changes changes) {
+        Set<Long> userIds = new HashSet<>(changes.userIds);
+        userIds.addAll(snapshotRepository.findUserIdsByAccountIds(changes.accountIds));
+
+        snapshotRepository.lockUsers(userIds);
+        int accounts = snapshotRepository.refreshAccounts(changes.accountIds);
+        int users = snapshotRepository.refreshUsers(userIds);
+        log.debug("Refreshed {} account and {} user portfolio snapshots", accounts, users);
+    }
+
+    private static final class Changes {
+
+        private final Set<Long> accountIds = new HashSet<>();
+
+        private final Set<Long> userIds = new HashSet<>();
+
+        private void add(PortfolioChangedEvent event) {
+            if (event.accountId() != null) {
+                accountIds.add(event.accountId());
+            }
+            if (event.userId() != null) {
+                userIds.add(event.userId());
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.dto.PortfolioSummaryDto;
+import com.cimb.wealth.event.PortfolioChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Per-user portfolio summaries, invalidated after commit of any account, holding or
+ * transaction write for that user. A hit is a single lookup and opens no transaction.
+ *
+ * <p>Holding and transaction changes only carry an account id, so the owners of accounts
+ * seen while computing a summary are remembered. An account that was never part of a
+ * cached summary cannot make one stale. The owners are bounded too; when one is evicted
+ * its user's summary is dropped with it, so a cached summary never outlives the accounts
+ * that can invalidate it. Invalidating a user whose summary is still being
+ * computed waits for that computation and then discards it, so a summary read before a
+ * commit is never kept after it.
+ */
+@Component
+@Slf4j
+public class PortfolioSummaryCache {
+
+    private final Cache<Long, PortfolioSummaryDto> summaries;
+
+    private final Cache<Long, Long> accountOwners;
+
+    private final Counter invalidations;
+
+    @Autowired
+    public PortfolioSummaryCache(MeterRegistry meterRegistry,
+                                 @Value("${cimb.portfolio.cache.max-size:10000}") long maxSize,
+                                 @Value("${cimb.portfolio.cache.max-accounts:40000}") long maxAccounts,
+                                 @Value("${cimb.portfolio.cache.ttl:5m}") Duration ttl) {
+        this(meterRegistry, maxSize, maxAccounts, ttl, ForkJoinPool.commonPool());
+    }
+
+    PortfolioSummaryCache(MeterRegistry meterRegistry, long maxSize, long maxAccounts, Duration ttl,
+                          Executor executor) {
+        this.summaries = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .executor(executor)
+            .recordStats()
+            .build();
+        // Runs on the executor, never inside a summary load that tracked the evicting account
+        this.accountOwners = Caffeine.newBuilder()
+            .maximumSize(maxAccounts)
+            .expireAfterWrite(ttl)
+            .executor(executor)
+            .<Long, Long>removalListener((accountId, userId, cause) -> {
+                if (cause.wasEvicted() && userId != null) {
+                    summaries.invalidate(userId);
+                }
+            })
+            .build();
+        this.invalidations = Counter.builder("portfolio.summary.invalidations")
+            .description("Cached portfolio summaries invalidated by a committed write")
+            .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, "portfolio.summary");
+    }
+
+    public PortfolioSummaryDto get(Long userId, Function<Long, PortfolioSummaryDto> loader) {
+        return summaries.get(userId, loader);
+    }
+
+    public void trackAccounts(Long userId, Collection<Long> accountIds) {
+        for (Long accountId : accountIds) {
+            accountOwners.put(accountId, userId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        Long userId = event.userId();
+        if (userId == null) {
+            userId = accountOwners.getIfPresent(event.accountId());
+        } else if (event.accountId() != null) {
+            accountOwners.put(event.accountId(), userId);
+        }
+        if (userId != null) {
+            invalidate(userId);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        if (summaries.asMap().remove(userId) != null) {
+            invalidations.increment();
+            log.debug("Invalidated portfolio summary for user {}", userId);
+        }
+    }
+}
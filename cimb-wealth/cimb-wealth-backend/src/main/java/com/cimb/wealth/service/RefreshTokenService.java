@@ -0,0 +1,114 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.domain.RefreshToken;
+import com.cimb.wealth.domain.User;
+import com.cimb.wealth.repository.RefreshTokenRepository;
+import com.cimb.wealth.repository.UserRepository;
+import com.cimb.wealth.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens. Every login starts a token family; each refresh
+ * retires the presented token and issues its successor in the same family. Presenting a
+ * retired token again means it leaked, so the whole family is revoked.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+
+    public String issue(User user) {
+        return store(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Retires {@code refreshToken} and returns its successor. The conditional update on the
+     * unique token id is the revocation check: it retires the token and detects reuse in one
+     * indexed statement, so no lookup precedes it. Runs in its own transaction and commits
+     * family revocation even when the rotation itself is refused.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String refreshToken) {
+        Claims claims = parseRefreshClaims(refreshToken);
+        String tokenId = claims.getId();
+        String familyId = claims.get(JwtTokenProvider.CLAIM_FAMILY, String.class);
+
+        User user = userRepository.findById(claims.get(JwtTokenProvider.CLAIM_USER_ID, Long.class))
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        if (!Boolean.TRUE.equals(user.getActive())) {
+            throw new DisabledException("User account is disabled");
+        }
+
+        String successorId = UUID.randomUUID().toString();
+        // Matches nothing for a retired, revoked or unknown token, and for the loser of a
+        // concurrent refresh with the same token
+        if (refreshTokenRepository.markRotated(tokenId, successorId) == 0) {
+            revokeFamilyOnReuse(familyId, user);
+        }
+
+        return new Rotation(user, storeWithId(user, familyId, successorId));
+    }
+
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllByUser(userId);
+    }
+
+    public int deleteExpired() {
+        return refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private Claims parseRefreshClaims(String refreshToken) {
+        Claims claims = jwtTokenProvider.parseClaims(refreshToken);
+        if (claims == null || !jwtTokenProvider.isRefreshToken(claims)
+            || claims.getId() == null || claims.get(JwtTokenProvider.CLAIM_FAMILY) == null
+            || claims.get(JwtTokenProvider.CLAIM_USER_ID) == null) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        return claims;
+    }
+
+    private void revokeFamilyOnReuse(String familyId, User user) {
+        log.warn("Refresh token reuse detected for user {}, revoking family {}", user.getEmail(), familyId);
+
+        refreshTokenRepository.revokeFamily(familyId);
+
+        throw new BadCredentialsException("Refresh token has already been used");
+    }
+
+    private String store(User user, String familyId) {
+        return storeWithId(user, familyId, UUID.randomUUID().toString());
+    }
+
+    private String storeWithId(User user, String familyId, String tokenId) {
+        Date expiration = new Date(System.currentTimeMillis() + jwtTokenProvider.getRefreshExpirationMs());
+
+        refreshTokenRepository.save(RefreshToken.builder()
+            .tokenId(tokenId)
+            .familyId(familyId)
+            .userId(user.getId())
+            .expiresAt(LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault()))
+            .build());
+
+        return jwtTokenProvider.generateRefreshToken(user, tokenId, familyId, expiration);
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
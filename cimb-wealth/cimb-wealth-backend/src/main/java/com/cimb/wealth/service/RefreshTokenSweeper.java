@@ -0,0 +1,24 @@
+package com.cimb.wealth.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenSweeper {
+
+    private final RefreshTokenService refreshTokenService;
+
+    // Expired rows can never be presented again, so they are dropped to keep the table small
+    @Scheduled(fixedDelayString = "${spring.security.jwt.refresh-sweep-interval-ms:3600000}",
+               initialDelayString = "${spring.security.jwt.refresh-sweep-interval-ms:3600000}")
+    public void sweep() {
+        int deleted = refreshTokenService.deleteExpired();
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+}
@@ -2,70 +2,109 @@ package com.cimb.wealth.service;
 
 import com.cimb.wealth.domain.User;
 import com.cimb.wealth.dto.AuthResponseDto;
+import com.cimb.wealth.dto.DtoMapper;
 import com.cimb.wealth.dto.UserDto;
 import com.cimb.wealth.repository.UserRepository;
+import com.cimb.wealth.security.CredentialVerifier;
 import com.cimb.wealth.security.JwtTokenProvider;
-import lombok.RequiredArgsConstructor;
+import com.cimb.wealth.security.TokenVersionRegistry;
+import com.cimb.wealth.security.VerifiedTokenCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final CredentialVerifier credentialVerifier;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthResponseDto login(String email, String password) {
+    // Finishes logins off the hashing pool, which is sized for BCrypt work only
+    private final Executor loginExecutor;
+
+    public UserService(UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       CredentialVerifier credentialVerifier,
+                       JwtTokenProvider jwtTokenProvider,
+                       TokenVersionRegistry tokenVersionRegistry,
+                       VerifiedTokenCache verifiedTokenCache,
+                       RefreshTokenService refreshTokenService,
+                       @Qualifier("applicationTaskExecutor") Executor loginExecutor) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.credentialVerifier = credentialVerifier;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.refreshTokenService = refreshTokenService;
+        this.loginExecutor = loginExecutor;
+    }
+
+    // Not transactional: the user row is read in its own short transaction so no pooled
+    // connection is held while the password hash is checked on the hashing pool. The hash
+    // upgrade, refresh token insert and JWT signing then run on the login executor.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<AuthResponseDto> login(String email, String password) {
         log.info("Attempting login for user: {}", email);
         
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(email, password)
-        );
+        Optional<User> found = userRepository.findByEmail(email);
+        String encodedPassword = found.map(User::getPassword).orElse(credentialVerifier.dummyHash());
         
-        String token = jwtTokenProvider.generateToken(authentication);
-        String refreshToken = jwtTokenProvider.generateRefreshToken(email);
-        
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        
-        return AuthResponseDto.builder()
-            .token(token)
-            .refreshToken(refreshToken)
-            .user(mapToDto(user))
-            .build();
+        return credentialVerifier.verify(password, encodedPassword)
+            .thenApplyAsync(verification -> {
+                User user = found.filter(u -> verification.matched())
+                    .orElseThrow(() -> new BadCredentialsException("Bad credentials"));
+                
+                if (!Boolean.TRUE.equals(user.getActive())) {
+                    throw new DisabledException("User account is disabled");
+                }
+                
+                if (verification.upgradedHash() != null) {
+                    userRepository.updatePassword(user.getId(), verification.upgradedHash());
+                    log.info("Upgraded password hash for user: {}", email);
+                }
+                
+                String token = jwtTokenProvider.generateToken(user);
+                String refreshToken = refreshTokenService.issue(user);
+                
+                return AuthResponseDto.builder()
+                    .token(token)
+                    .refreshToken(refreshToken)
+                    .user(mapToDto(user))
+                    .build();
+            }, loginExecutor);
     }
 
+    // Rotation commits in its own transaction so a detected reuse stays revoked
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponseDto refreshToken(String refreshToken) {
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
-            throw new RuntimeException("Invalid refresh token");
-        }
-        
-        String email = jwtTokenProvider.getUsernameFromToken(refreshToken);
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        
-        String newToken = jwtTokenProvider.generateTokenFromUsername(email);
-        String newRefreshToken = jwtTokenProvider.generateRefreshToken(email);
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = rotation.user();
         
         return AuthResponseDto.builder()
-            .token(newToken)
-            .refreshToken(newRefreshToken)
+            .token(jwtTokenProvider.generateToken(user))
+            .refreshToken(rotation.refreshToken())
             .user(mapToDto(user))
             .build();
     }
@@ -110,8 +149,13 @@ public class UserService {
         if (userDto.getRiskProfile() != null) {
             user.setRiskProfile(userDto.getRiskProfile());
         }
-        if (userDto.getActive() != null) {
+        if (userDto.getRole() != null && userDto.getRole() != user.getRole()) {
+            user.setRole(userDto.getRole());
+            revokeIssuedTokens(user);
+        }
+        if (userDto.getActive() != null && !userDto.getActive().equals(user.getActive())) {
             user.setActive(userDto.getActive());
+            revokeIssuedTokens(user);
         }
         
         User savedUser = userRepository.save(user);
@@ -125,6 +169,7 @@ public class UserService {
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         user.setActive(false);
+        revokeIssuedTokens(user);
         userRepository.save(user);
     }
 
@@ -156,18 +201,20 @@ public class UserService {
             .collect(Collectors.toList());
     }
 
+    private void revokeIssuedTokens(User user) {
+        int version = user.getTokenVersion() + 1;
+        user.setTokenVersion(version);
+        
+        refreshTokenService.revokeAllForUser(user.getId());
+        
+        String email = user.getEmail();
+        AfterCommit.run(() -> {
+            tokenVersionRegistry.update(email, version);
+            verifiedTokenCache.invalidateUser(email);
+        });
+    }
+
     private UserDto mapToDto(User user) {
-        return UserDto.builder()
-            .id(user.getId())
-            .email(user.getEmail())
-            .firstName(user.getFirstName())
-            .lastName(user.getLastName())
-            .phoneNumber(user.getPhoneNumber())
-            .role(user.getRole())
-            .riskProfile(user.getRiskProfile())
-            .active(user.getActive())
-            .createdAt(user.getCreatedAt())
-            .updatedAt(user.getUpdatedAt())
-            .build();
+        return DtoMapper.toUserDto(user);
     }
 }
@@ -0,0 +1,9 @@
+package com.cimb.wealth.valuation;
+
+import java.util.List;
+
+/**
+ * The market value history of one ticker within an account.
+ */
+public record HoldingValuation(String ticker, List<ValuationPoint> points) {
+}
@@ -0,0 +1,190 @@
+package com.cimb.wealth.valuation;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One calendar year of daily values of a series, in hundredths. Stored as two columns,
+ * the day of year and the value, each delta-encoded as variable-length integers and
+ * deflated together. Consecutive days encode to a run of ones and a steady value to a
+ * run of zeros, so a year of points typically takes a few hundred bytes.
+ *
+ * <p>Layout: a version byte, the uncompressed length, then the deflated point count,
+ * day deltas and zigzag value deltas.
+ */
+public final class ValuationBlock {
+
+    private static final byte VERSION = 1;
+
+    private final LocalDate start;
+
+    private int[] days;
+
+    private long[] units;
+
+    private int size;
+
+    public ValuationBlock(LocalDate start) {
+        this(start, new int[16], new long[16], 0);
+    }
+
+    private ValuationBlock(LocalDate start, int[] days, long[] units, int size) {
+        if (start.getDayOfYear() != 1) {
+            throw new IllegalArgumentException("A block starts on the first day of a year: " + start);
+        }
+        this.start = start;
+        this.days = days;
+        this.units = units;
+        this.size = size;
+    }
+
+    public static LocalDate startOf(LocalDate date) {
+        return date.withDayOfYear(1);
+    }
+
+    /**
+     * Records the value on {@code date}, replacing the last point if it is on the same day.
+     * Points must be recorded in date order.
+     */
+    public void put(LocalDate date, long value) {
+        if (!startOf(date).equals(start)) {
+            throw new IllegalArgumentException(date + " is outside the block starting " + start);
+        }
+        int day = date.getDayOfYear() - 1;
+        if (size > 0 && day <= days[size - 1]) {
+            if (day < days[size - 1]) {
+                throw new IllegalArgumentException(date + " is before the last point " + lastDate());
+            }
+            units[size - 1] = value;
+            return;
+        }
+        if (size == days.length) {
+            days = Arrays.copyOf(days, size * 2);
+            units = Arrays.copyOf(units, size * 2);
+        }
+        days[size] = day;
+        units[size] = value;
+        size++;
+    }
+
+    public LocalDate start() {
+        return start;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public LocalDate date(int index) {
+        return start.plusDays(days[index]);
+    }
+
+    public long units(int index) {
+        return units[index];
+    }
+
+    public LocalDate lastDate() {
+        return size > 0 ? date(size - 1) : null;
+    }
+
+    public byte[] encode() {
+        // At most 5 bytes per day delta and 10 per value delta
+        byte[] raw = new byte[5 + size * 15];
+        int position = writeVarLong(raw, 0, size);
+        int previousDay = 0;
+        for (int i = 0; i < size; i++) {
+            position = writeVarLong(raw, position, days[i] - previousDay);
+            previousDay = days[i];
+        }
+        long previousUnits = 0;
+        for (int i = 0; i < size; i++) {
+            position = writeVarLong(raw, position, zigzag(units[i] - previousUnits));
+            previousUnits = units[i];
+        }
+
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(raw, 0, position);
+            deflater.finish();
+            byte[] encoded = new byte[1 + 5 + position + 64];
+            encoded[0] = VERSION;
+            int offset = writeVarLong(encoded, 1, position);
+            while (!deflater.finished()) {
+                if (offset == encoded.length) {
+                    encoded = Arrays.copyOf(encoded, encoded.length * 2);
+                }
+                offset += deflater.deflate(encoded, offset, encoded.length - offset);
+            }
+            return Arrays.copyOf(encoded, offset);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static ValuationBlock decode(LocalDate start, byte[] encoded) {
+        if (encoded.length == 0 || encoded[0] != VERSION) {
+            throw new IllegalStateException("Unsupported valuation block version for " + start);
+        }
+        int[] cursor = {1};
+        byte[] raw = new byte[Math.toIntExact(readVarLong(encoded, cursor))];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(encoded, cursor[0], encoded.length - cursor[0]);
+            if (inflater.inflate(raw) != raw.length) {
+                throw new IllegalStateException("Truncated valuation block for " + start);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt valuation block for " + start, e);
+        } finally {
+            inflater.end();
+        }
+
+        cursor[0] = 0;
+        int size = Math.toIntExact(readVarLong(raw, cursor));
+        int[] days = new int[Math.max(size, 16)];
+        long[] units = new long[days.length];
+        int day = 0;
+        for (int i = 0; i < size; i++) {
+            day += (int) readVarLong(raw, cursor);
+            days[i] = day;
+        }
+        long value = 0;
+        for (int i = 0; i < size; i++) {
+            value += unzigzag(readVarLong(raw, cursor));
+            units[i] = value;
+        }
+        return new ValuationBlock(start, days, units, size);
+    }
+
+    private static int writeVarLong(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static long readVarLong(byte[] buffer, int[] cursor) {
+        long value = 0;
+        int shift = 0;
+        byte next;
+        do {
+            next = buffer[cursor[0]++];
+            value |= (long) (next & 0x7F) << shift;
+            shift += 7;
+        } while (next < 0);
+        return value;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,15 @@
+package com.cimb.wealth.valuation;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The total value of an account's holdings over a date range, one point per interval.
+ * The per-holding series are loaded separately, only when requested.
+ */
+public record ValuationHistory(Long accountId,
+                               LocalDate from,
+                               LocalDate to,
+                               ValuationInterval interval,
+                               List<ValuationPoint> points) {
+}
@@ -0,0 +1,63 @@
+package com.cimb.wealth.valuation;
+
+import com.cimb.wealth.domain.Money;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spacing of the points returned for a valuation range. Each interval is represented by
+ * its closing value, the last recorded point within it.
+ */
+public enum ValuationInterval {
+
+    DAY,
+    WEEK,
+    MONTH,
+    QUARTER,
+    YEAR;
+
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case QUARTER -> date.with(IsoFields.DAY_OF_QUARTER, 1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * The closing point of every interval between {@code from} and {@code to} inclusive
+     * that has one. Blocks must be in date order.
+     */
+    public List<ValuationPoint> sample(List<ValuationBlock> blocks, LocalDate from, LocalDate to) {
+        List<ValuationPoint> points = new ArrayList<>();
+        LocalDate period = null;
+        LocalDate closingDate = null;
+        long closingUnits = 0;
+        for (ValuationBlock block : blocks) {
+            for (int i = 0; i < block.size(); i++) {
+                LocalDate date = block.date(i);
+                if (date.isBefore(from) || date.isAfter(to)) {
+                    continue;
+                }
+                LocalDate pointPeriod = periodStart(date);
+                if (closingDate != null && !pointPeriod.equals(period)) {
+                    points.add(new ValuationPoint(closingDate, Money.ofUnits(closingUnits).toBigDecimal()));
+                }
+                period = pointPeriod;
+                closingDate = date;
+                closingUnits = block.units(i);
+            }
+        }
+        if (closingDate != null) {
+            points.add(new ValuationPoint(closingDate, Money.ofUnits(closingUnits).toBigDecimal()));
+        }
+        return points;
+    }
+}
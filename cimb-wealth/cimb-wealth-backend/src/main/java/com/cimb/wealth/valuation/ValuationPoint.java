@@ -0,0 +1,7 @@
+package com.cimb.wealth.valuation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record ValuationPoint(LocalDate date, BigDecimal value) {
+}
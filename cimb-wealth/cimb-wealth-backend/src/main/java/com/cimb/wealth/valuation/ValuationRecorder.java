@@ -0,0 +1,120 @@
+package com.cimb.wealth.valuation;
+
+import com.cimb.wealth.repository.ValuationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends today's market value of every account and holding to its valuation series,
+ * and today's price of every held ticker to its price series. Accounts are processed in
+ * batches, each reading and rewriting its accounts' blocks for the current year in one
+ * transaction. Running again on the same day replaces the day's point, so a late
+ * repricing can be captured by a second run.
+ */
+@Component
+@Slf4j
+public class ValuationRecorder {
+
+    private final ValuationRepository valuationRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final Timer captureTimer;
+
+    public ValuationRecorder(ValuationRepository valuationRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${cimb.valuation.batch-size:500}") int batchSize) {
+        this.valuationRepository = valuationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.captureTimer = Timer.builder("valuation.capture.duration")
+            .description("Time to append the day's valuation point to every series")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${cimb.valuation.capture-cron:0 0 23 * * *}")
+    public void captureToday() {
+        capture(LocalDate.now());
+    }
+
+    /**
+     * Records the current market values as the points for {@code date}, which must not be
+     * before the last point of any series.
+     */
+    public void capture(LocalDate date) {
+        long start = System.nanoTime();
+        long written = 0;
+        long lastAccountId = 0;
+        List<Long> accountIds;
+        do {
+            accountIds = valuationRepository.findAccountIdsAfter(lastAccountId, batchSize);
+            if (accountIds.isEmpty()) {
+                break;
+            }
+            written += captureBatch(accountIds, date);
+            lastAccountId = accountIds.get(accountIds.size() - 1);
+        } while (accountIds.size() == batchSize);
+        written += capturePrices(date);
+
+        long elapsed = System.nanoTime() - start;
+        captureTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Captured valuations for {} in {} ms, {} series blocks written", date, elapsed / 1_000_000, written);
+    }
+
+    private int captureBatch(List<Long> accountIds, LocalDate date) {
+        Integer written = transactionTemplate.execute(status -> {
+            LocalDate blockStart = ValuationBlock.startOf(date);
+            Map<Long, Map<String, Long>> marketValues = valuationRepository.findMarketValues(accountIds);
+            Map<Long, Map<String, ValuationBlock>> blocks = valuationRepository.findBlocks(accountIds, blockStart);
+
+            for (Long accountId : accountIds) {
+                Map<String, ValuationBlock> series = blocks.computeIfAbsent(accountId, id -> new HashMap<>());
+                long total = 0;
+                for (Map.Entry<String, Long> holding : marketValues.getOrDefault(accountId, Map.of()).entrySet()) {
+                    series.computeIfAbsent(holding.getKey(), ticker -> new ValuationBlock(blockStart))
+                        .put(date, holding.getValue());
+                    total = Math.addExact(total, holding.getValue());
+                }
+                series.computeIfAbsent(ValuationRepository.ACCOUNT_SERIES, ticker -> new ValuationBlock(blockStart))
+                    .put(date, total);
+                // Series of tickers no longer held end here and are not rewritten
+                series.values().removeIf(block -> !date.equals(block.lastDate()));
+            }
+            return valuationRepository.saveBlocks(blocks);
+        });
+        return written != null ? written : 0;
+    }
+
+    private int capturePrices(LocalDate date) {
+        Integer written = transactionTemplate.execute(status -> {
+            LocalDate blockStart = ValuationBlock.startOf(date);
+            Map<String, Long> prices = valuationRepository.findCurrentPrices();
+            Map<String, List<ValuationBlock>> stored = valuationRepository.findPriceBlocks(prices.keySet(), date, date);
+
+            Map<String, ValuationBlock> blocks = new HashMap<>();
+            prices.forEach((ticker, price) -> {
+                List<ValuationBlock> existing = stored.get(ticker);
+                ValuationBlock block = existing != null ? existing.get(0) : new ValuationBlock(blockStart);
+                block.put(date, price);
+                blocks.put(ticker, block);
+            });
+            return valuationRepository.savePriceBlocks(blocks.entrySet());
+        });
+        return written != null ? written : 0;
+    }
+}
@@ -0,0 +1,44 @@
+package com.cimb.wealth.valuation;
+
+import com.cimb.wealth.repository.ValuationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves valuation history from the stored series blocks. A range reads one block per
+ * series and calendar year it spans, whatever the interval.
+ */
+@Service
+@RequiredArgsConstructor
+public class ValuationService {
+
+    private final ValuationRepository valuationRepository;
+
+    public ValuationHistory history(Long accountId, LocalDate from, LocalDate to, ValuationInterval interval) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        List<ValuationBlock> blocks = valuationRepository.findAccountBlocks(accountId, from, to);
+        return new ValuationHistory(accountId, from, to, interval, interval.sample(blocks, from, to));
+    }
+
+    /**
+     * The series of each ticker held at some point in the history's range.
+     */
+    public List<HoldingValuation> holdings(ValuationHistory history) {
+        List<HoldingValuation> holdings = new ArrayList<>();
+        for (Map.Entry<String, List<ValuationBlock>> series
+                : valuationRepository.findHoldingBlocks(history.accountId(), history.from(), history.to()).entrySet()) {
+            List<ValuationPoint> points = history.interval().sample(series.getValue(), history.from(), history.to());
+            if (!points.isEmpty()) {
+                holdings.add(new HoldingValuation(series.getKey(), points));
+            }
+        }
+        return holdings;
+    }
+}
@@ -0,0 +1,38 @@
+-- V10__create_risk_assessments.sql
+-- Daily closing prices per ticker, in the same compressed yearly blocks as valuations,
+-- and the latest simulated value at risk of each user's portfolio. Portfolios with too
+-- little price history are recorded without risk figures instead of with a value at risk
+-- of zero
+
+CREATE TABLE price_blocks (
+    ticker VARCHAR(20) NOT NULL,
+    block_start DATE NOT NULL,
+    point_count INT NOT NULL,
+    last_date DATE NOT NULL,
+    payload BYTEA NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (ticker, block_start)
+);
+
+ALTER TABLE price_blocks ALTER COLUMN payload SET STORAGE EXTERNAL;
+
+CREATE TABLE risk_assessments (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    risk_profile VARCHAR(20) NOT NULL,
+    as_of DATE NOT NULL,
+    portfolio_value DECIMAL(19,2) NOT NULL,
+    covered_value DECIMAL(19,2) NOT NULL,
+    value_at_risk DECIMAL(19,2),
+    expected_shortfall DECIMAL(19,2),
+    value_at_risk_percentage DECIMAL(7,2),
+    limit_percentage DECIMAL(7,2) NOT NULL,
+    exceeds_profile BOOLEAN NOT NULL,
+    insufficient_history BOOLEAN NOT NULL DEFAULT FALSE,
+    confidence DECIMAL(5,4) NOT NULL,
+    horizon_days INT NOT NULL,
+    paths INT NOT NULL,
+    observations INT NOT NULL,
+    assessed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_risk_assessments_exceeds_profile ON risk_assessments(user_id) WHERE exceeds_profile;
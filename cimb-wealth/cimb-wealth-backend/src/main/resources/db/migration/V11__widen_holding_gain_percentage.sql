@@ -0,0 +1,5 @@
+-- V11__widen_holding_gain_percentage.sql
+-- DECIMAL(5,2) overflowed above 999.99%, which a holding bought far below its current
+-- price reaches, and the failing row aborted the whole repricing batch
+
+ALTER TABLE holdings ALTER COLUMN unrealized_gain_loss_percentage TYPE DECIMAL(19,2);
@@ -0,0 +1,4 @@
+-- V3__add_user_token_version.sql
+-- Per-user token version carried in access tokens; bumping it revokes every token issued before
+
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- V5__create_audit_events.sql
+-- Append-only security audit trail written in batches by the audit event writer
+
+CREATE TABLE audit_events (
+    id BIGSERIAL PRIMARY KEY,
+    occurred_at TIMESTAMP NOT NULL,
+    event_type VARCHAR(30) NOT NULL CHECK (event_type IN ('OPERATION', 'EVENTS_DROPPED')),
+    principal VARCHAR(255) NOT NULL,
+    operation VARCHAR(255) NOT NULL,
+    detail VARCHAR(500),
+    recorded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_audit_events_occurred_at ON audit_events(occurred_at);
+CREATE INDEX idx_audit_events_principal ON audit_events(principal, occurred_at);
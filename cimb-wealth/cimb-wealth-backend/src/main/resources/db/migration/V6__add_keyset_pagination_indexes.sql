@@ -0,0 +1,15 @@
+-- V6__add_keyset_pagination_indexes.sql
+-- Composite indexes matching the (created_at, id) seek order of every connection query
+
+CREATE INDEX idx_users_created_at_id ON users(created_at DESC, id DESC);
+CREATE INDEX idx_accounts_created_at_id ON accounts(created_at DESC, id DESC);
+CREATE INDEX idx_accounts_user_created_at_id ON accounts(user_id, created_at DESC, id DESC);
+CREATE INDEX idx_holdings_account_created_at_id ON holdings(account_id, created_at DESC, id DESC);
+CREATE INDEX idx_transactions_account_created_at_id ON transactions(account_id, created_at DESC, id DESC);
+CREATE INDEX idx_goals_user_created_at_id ON goals(user_id, created_at DESC, id DESC);
+
+-- Superseded by the composite indexes above, which serve the same lookups
+DROP INDEX IF EXISTS idx_accounts_user_id;
+DROP INDEX IF EXISTS idx_holdings_account_id;
+DROP INDEX IF EXISTS idx_transactions_account_id;
+DROP INDEX IF EXISTS idx_goals_user_id;
@@ -0,0 +1,20 @@
+-- V7__create_portfolio_snapshots.sql
+-- Read model of portfolio totals and allocations: one row per account and one per user
+-- (account_id NULL). Kept current in the writing transaction and rebuilt on a schedule
+
+CREATE TABLE portfolio_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    account_id BIGINT REFERENCES accounts(id) ON DELETE CASCADE,
+    total_value DECIMAL(19,2) NOT NULL DEFAULT 0.00,
+    cost_basis DECIMAL(19,2) NOT NULL DEFAULT 0.00,
+    holding_count INTEGER NOT NULL DEFAULT 0,
+    asset_allocation JSONB NOT NULL DEFAULT '{}',
+    sector_allocation JSONB NOT NULL DEFAULT '{}',
+    last_transaction_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX uq_portfolio_snapshots_user ON portfolio_snapshots(user_id) WHERE account_id IS NULL;
+CREATE UNIQUE INDEX uq_portfolio_snapshots_account ON portfolio_snapshots(account_id) WHERE account_id IS NOT NULL;
+CREATE INDEX idx_portfolio_snapshots_user_id ON portfolio_snapshots(user_id);
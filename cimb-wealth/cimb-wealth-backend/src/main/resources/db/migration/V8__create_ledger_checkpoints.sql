@@ -0,0 +1,35 @@
+-- V8__create_ledger_checkpoints.sql
+-- Positions folded from the transaction ledger up to a watermark, so reconciliation only
+-- replays newer transactions, and the drift between those positions and holdings
+
+CREATE TABLE ledger_checkpoints (
+    account_id BIGINT PRIMARY KEY REFERENCES accounts(id) ON DELETE CASCADE,
+    last_created_at TIMESTAMP NOT NULL,
+    last_transaction_id BIGINT NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    checkpointed_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE position_checkpoints (
+    account_id BIGINT NOT NULL REFERENCES ledger_checkpoints(account_id) ON DELETE CASCADE,
+    ticker VARCHAR(20) NOT NULL,
+    quantity DECIMAL(19,2) NOT NULL,
+    cost_basis DECIMAL(19,4) NOT NULL,
+    realized_gain_loss DECIMAL(19,4) NOT NULL,
+    income DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (account_id, ticker)
+);
+
+CREATE TABLE position_drift (
+    account_id BIGINT NOT NULL REFERENCES accounts(id) ON DELETE CASCADE,
+    ticker VARCHAR(20) NOT NULL,
+    kind VARCHAR(20) NOT NULL CHECK (kind IN ('MISSING_HOLDING', 'UNBACKED_HOLDING', 'QUANTITY', 'AVERAGE_COST')),
+    ledger_quantity DECIMAL(19,2),
+    holding_quantity DECIMAL(19,2),
+    ledger_average_cost DECIMAL(19,2),
+    holding_average_cost DECIMAL(19,2),
+    detected_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (account_id, ticker)
+);
+
+CREATE INDEX idx_position_drift_kind ON position_drift(kind);
@@ -0,0 +1,17 @@
+-- V9__create_valuation_blocks.sql
+-- Daily valuation series, one compressed block per account, series and calendar year.
+-- The account total is the series with an empty ticker.
+
+CREATE TABLE valuation_blocks (
+    account_id BIGINT NOT NULL REFERENCES accounts(id) ON DELETE CASCADE,
+    ticker VARCHAR(20) NOT NULL,
+    block_start DATE NOT NULL,
+    point_count INT NOT NULL,
+    last_date DATE NOT NULL,
+    payload BYTEA NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (account_id, ticker, block_start)
+);
+
+-- Payloads are already deflated; skip TOAST compression
+ALTER TABLE valuation_blocks ALTER COLUMN payload SET STORAGE EXTERNAL;
@@ -0,0 +1,76 @@
+package com.cimb.wealth;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Base of tests that run the application against a migrated PostgreSQL container. The
+ * container is started once and shared by every subclass, as is the cached context, so
+ * tests seed their own users and tickers rather than relying on an empty database.
+ */
+@SpringBootTest
+public abstract class PostgresIntegrationTest {
+
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    protected Long insertUser(String riskProfile) {
+        return jdbcTemplate.queryForObject("""
+            INSERT INTO users (email, password, first_name, last_name, role, risk_profile)
+            VALUES (?, 'encoded-password', 'Test', 'User', 'CUSTOMER', ?)
+            RETURNING id
+            """, Long.class, unique("user") + "@cimb.com", riskProfile);
+    }
+
+    protected Long insertAccount(Long userId) {
+        return jdbcTemplate.queryForObject("""
+            INSERT INTO accounts (account_number, account_name, account_type, balance, user_id)
+            VALUES (?, 'Test Account', 'INVESTMENT', 1000.00, ?)
+            RETURNING id
+            """, Long.class, unique("ACC"), userId);
+    }
+
+    /**
+     * Inserts a holding with its derived columns computed as {@code Holding.calculateValues}
+     * would for whole-cent values.
+     */
+    protected Long insertHolding(Long accountId, String ticker, String assetType, String sector,
+                                 String quantity, String price, String averageCost) {
+        BigDecimal marketValue = new BigDecimal(quantity).multiply(new BigDecimal(price));
+        BigDecimal cost = new BigDecimal(quantity).multiply(new BigDecimal(averageCost));
+        return jdbcTemplate.queryForObject("""
+            INSERT INTO holdings (ticker, asset_name, asset_type, sector, quantity, current_price, average_cost,
+                                  market_value, unrealized_gain_loss, unrealized_gain_loss_percentage, account_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ROUND(?, 2), ROUND(?, 2) - ROUND(?, 2), 0, ?)
+            RETURNING id
+            """, Long.class, ticker, ticker + " Asset", assetType, sector, new BigDecimal(quantity),
+            new BigDecimal(price), new BigDecimal(averageCost), marketValue, marketValue, cost, accountId);
+    }
+
+    /**
+     * A value not used by any other test sharing the container, at most 20 characters.
+     */
+    protected static String unique(String prefix) {
+        return prefix + UUID.randomUUID().toString().replace("-", "").substring(0, 20 - prefix.length());
+    }
+}
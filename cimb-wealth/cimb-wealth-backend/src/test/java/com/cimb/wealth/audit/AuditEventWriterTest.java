@@ -0,0 +1,112 @@
+package com.cimb.wealth.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuditEventWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<Integer> writtenBatches = new ArrayList<>();
+
+    private AuditTrail auditTrail;
+
+    private AuditEventWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        auditTrail = new AuditTrail(meterRegistry, 2048);
+        writer = new AuditEventWriter(auditTrail, jdbcTemplate, meterRegistry, 500, Duration.ofMillis(10),
+            Duration.ofSeconds(5), 3, Duration.ofMillis(1));
+    }
+
+    @Test
+    void pendingEvents_ShouldBeWrittenInBatchesOfTheConfiguredSize() {
+        // Given
+        failFirst(0);
+        publish(1200);
+
+        // When
+        writer.start();
+        writer.stop();
+
+        // Then
+        assertEquals(List.of(500, 500, 200), writtenBatches);
+        assertTrue(auditTrail.isEmpty());
+    }
+
+    @Test
+    void failedBatch_ShouldBeRetriedUntilItIsWritten() {
+        // Given
+        failFirst(2);
+        publish(10);
+
+        // When
+        writer.start();
+        writer.stop();
+
+        // Then
+        assertEquals(List.of(10), writtenBatches);
+        assertEquals(2, meterRegistry.counter("audit.events.retried").count());
+        assertEquals(0, meterRegistry.counter("audit.events.failed").count());
+    }
+
+    @Test
+    void failedBatch_ShouldBeDroppedAndCounted_WhenEveryRetryFails() {
+        // Given
+        failFirst(Integer.MAX_VALUE);
+        publish(10);
+
+        // When
+        writer.start();
+        writer.stop();
+
+        // Then
+        assertTrue(writtenBatches.isEmpty());
+        assertEquals(3, meterRegistry.counter("audit.events.retried").count());
+        assertEquals(10, meterRegistry.counter("audit.events.failed").count());
+        verify(jdbcTemplate, times(4)).batchUpdate(anyString(), anyCollection(), anyInt(), anySetter());
+    }
+
+    private static ParameterizedPreparedStatementSetter<AuditEvent> anySetter() {
+        return ArgumentMatchers.<ParameterizedPreparedStatementSetter<AuditEvent>>any();
+    }
+
+    private void publish(int events) {
+        for (int i = 0; i < events; i++) {
+            auditTrail.publish(AuditEvent.operation("user-" + i, "query"));
+        }
+    }
+
+    private void failFirst(int failures) {
+        AtomicInteger calls = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), anySetter()))
+            .thenAnswer(invocation -> {
+                if (calls.incrementAndGet() <= failures) {
+                    throw new DataAccessResourceFailureException("connection refused");
+                }
+                Collection<?> batch = invocation.getArgument(1);
+                writtenBatches.add(batch.size());
+                return new int[0][];
+            });
+    }
+}
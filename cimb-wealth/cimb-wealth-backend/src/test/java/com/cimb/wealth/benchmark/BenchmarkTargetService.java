@@ -0,0 +1,12 @@
+package com.cimb.wealth.benchmark;
+
+/**
+ * Minimal target for the aspect benchmark. Not a Spring bean, so component scanning in
+ * tests never picks it up; the benchmark proxies it by hand.
+ */
+public class BenchmarkTargetService {
+
+    public long lookup(Long id, String email) {
+        return id + email.length();
+    }
+}
@@ -0,0 +1,86 @@
+package com.cimb.wealth.benchmark;
+
+import com.cimb.wealth.aop.ArgumentLogging;
+import com.cimb.wealth.aop.MethodMetricsAspect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.aspectj.MethodInvocationProceedingJoinPoint;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-call cost of {@link MethodMetricsAspect} against an unproxied call.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.cimb.wealth.benchmark.MethodMetricsAspectBenchmark}; the GC
+ * profiler reports allocation per call. The target lives outside the service pointcut, so
+ * the advice is applied directly through a proxy interceptor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodMetricsAspectBenchmark {
+
+    private BenchmarkTargetService direct;
+
+    private BenchmarkTargetService timed;
+
+    private BenchmarkTargetService fullyLogged;
+
+    @Setup
+    public void setUp() {
+        direct = new BenchmarkTargetService();
+        timed = proxy(new ArgumentLogging(0, List.of()));
+        fullyLogged = proxy(new ArgumentLogging(0, List.of("com.cimb.wealth.benchmark")));
+    }
+
+    @Benchmark
+    public long baseline() {
+        return direct.lookup(42L, "test@cimb.com");
+    }
+
+    @Benchmark
+    public long timed() {
+        return timed.lookup(42L, "test@cimb.com");
+    }
+
+    @Benchmark
+    public long fullArgumentLogging() {
+        return fullyLogged.lookup(42L, "test@cimb.com");
+    }
+
+    private static BenchmarkTargetService proxy(ArgumentLogging argumentLogging) {
+        MethodMetricsAspect aspect = new MethodMetricsAspect(new SimpleMeterRegistry(), argumentLogging);
+        ProxyFactory factory = new ProxyFactory(new BenchmarkTargetService());
+        factory.setProxyTargetClass(true);
+        factory.addAdvice((MethodInterceptor) invocation -> aspect.timeMethodExecution(
+            new MethodInvocationProceedingJoinPoint((ProxyMethodInvocation) invocation)));
+        return (BenchmarkTargetService) factory.getProxy();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(MethodMetricsAspectBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
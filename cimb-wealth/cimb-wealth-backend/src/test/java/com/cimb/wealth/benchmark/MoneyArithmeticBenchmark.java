@@ -0,0 +1,112 @@
+package com.cimb.wealth.benchmark;
+
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.domain.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Values {@value #HOLDINGS} holdings the way {@code Holding.calculateValues} does, with
+ * {@link BigDecimal} as before and with {@link Money} and {@link Quantity}. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.cimb.wealth.benchmark.MoneyArithmeticBenchmark}; the GC profiler
+ * reports allocation per valuation pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyArithmeticBenchmark {
+
+    private static final int HOLDINGS = 10_000;
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private BigDecimal[] decimalQuantities;
+
+    private BigDecimal[] decimalPrices;
+
+    private BigDecimal[] decimalCosts;
+
+    private Quantity[] quantities;
+
+    private Money[] prices;
+
+    private Money[] costs;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        decimalQuantities = new BigDecimal[HOLDINGS];
+        decimalPrices = new BigDecimal[HOLDINGS];
+        decimalCosts = new BigDecimal[HOLDINGS];
+        quantities = new Quantity[HOLDINGS];
+        prices = new Money[HOLDINGS];
+        costs = new Money[HOLDINGS];
+        for (int i = 0; i < HOLDINGS; i++) {
+            decimalQuantities[i] = BigDecimal.valueOf(random.nextLong(1, 1_000_000), 2);
+            decimalPrices[i] = BigDecimal.valueOf(random.nextLong(100, 100_000), 2);
+            decimalCosts[i] = BigDecimal.valueOf(random.nextLong(100, 100_000), 2);
+            quantities[i] = Quantity.of(decimalQuantities[i]);
+            prices[i] = Money.of(decimalPrices[i]);
+            costs[i] = Money.of(decimalCosts[i]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < HOLDINGS; i++) {
+            BigDecimal marketValue = decimalQuantities[i].multiply(decimalPrices[i]).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal cost = decimalQuantities[i].multiply(decimalCosts[i]).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal gain = marketValue.subtract(cost);
+            if (cost.signum() > 0) {
+                total = total.add(gain.divide(cost, 4, RoundingMode.HALF_UP).multiply(HUNDRED));
+            }
+            total = total.add(marketValue);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal fixedPoint() {
+        Money total = Money.ZERO;
+        BigDecimal percentages = BigDecimal.ZERO;
+        for (int i = 0; i < HOLDINGS; i++) {
+            Money marketValue = quantities[i].times(prices[i], RoundingMode.HALF_UP);
+            Money cost = quantities[i].times(costs[i], RoundingMode.HALF_UP);
+            Money gain = marketValue.minus(cost);
+            if (cost.signum() > 0) {
+                percentages = percentages.add(gain.percentOf(cost, RoundingMode.HALF_UP));
+            }
+            total = total.plus(marketValue);
+        }
+        return total.toBigDecimal().add(percentages);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(MoneyArithmeticBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,113 @@
+package com.cimb.wealth.benchmark;
+
+import com.cimb.wealth.risk.MonteCarloSimulator;
+import com.cimb.wealth.risk.ReturnMatrix;
+import com.cimb.wealth.risk.SimulatedLosses;
+import com.cimb.wealth.valuation.ValuationBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated paths per second of {@link MonteCarloSimulator} for a portfolio of
+ * {@code assets} tickers with two years of daily prices, over a 10-day horizon. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.cimb.wealth.benchmark.MonteCarloVarBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonteCarloVarBenchmark {
+
+    private static final int PATHS = 100_000;
+
+    private static final int HORIZON_DAYS = 10;
+
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @Param({"10", "50"})
+    private int assets;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    private MonteCarloSimulator simulator;
+
+    private ReturnMatrix matrix;
+
+    private double[] exposures;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<String> tickers = new ArrayList<>();
+        Map<String, List<ValuationBlock>> prices = new HashMap<>();
+        exposures = new double[assets];
+        for (int asset = 0; asset < assets; asset++) {
+            String ticker = "T" + asset;
+            tickers.add(ticker);
+            List<ValuationBlock> blocks = new ArrayList<>();
+            double price = random.nextDouble(1_000, 50_000);
+            for (LocalDate date = START; !date.isAfter(END); date = date.plusDays(1)) {
+                if (date.getDayOfYear() == 1) {
+                    blocks.add(new ValuationBlock(date));
+                }
+                price *= Math.exp(random.nextGaussian() * 0.015);
+                blocks.get(blocks.size() - 1).put(date, Math.round(price));
+            }
+            prices.put(ticker, blocks);
+            exposures[asset] = random.nextDouble(1_000, 100_000);
+        }
+        matrix = ReturnMatrix.of(tickers, prices, START, END, 60);
+        pool = new ForkJoinPool(parallelism);
+        simulator = new MonteCarloSimulator(pool, 2048);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATHS)
+    public double simulate() {
+        SimulatedLosses losses = simulator.simulate(exposures, matrix, HORIZON_DAYS, PATHS, 20240101);
+        return losses.valueAtRisk(0.99) + losses.expectedShortfall(0.99);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(MonteCarloVarBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,165 @@
+package com.cimb.wealth.benchmark;
+
+import com.cimb.wealth.CimbWealthApplication;
+import com.cimb.wealth.domain.Account;
+import com.cimb.wealth.domain.User;
+import com.cimb.wealth.repository.AccountRepository;
+import com.cimb.wealth.repository.HoldingRepository;
+import com.cimb.wealth.repository.UserRepository;
+import com.cimb.wealth.service.PortfolioAggregate;
+import com.cimb.wealth.service.PortfolioAggregationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single aggregate query of {@link PortfolioAggregationService} with the
+ * per-account queries it replaces, for one user with {@value #ACCOUNTS} accounts of
+ * {@value #HOLDINGS_PER_ACCOUNT} holdings. Needs Docker for the database. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.cimb.wealth.benchmark.PortfolioAggregationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PortfolioAggregationBenchmark {
+
+    private static final int ACCOUNTS = 20;
+
+    private static final int HOLDINGS_PER_ACCOUNT = 25;
+
+    private static final String[] SECTORS = {"Technology", "Financials", "Healthcare", "Energy", "Utilities"};
+
+    private static final String[] ASSET_TYPES = {"STOCK", "BOND", "ETF", "MUTUAL_FUND", "REIT"};
+
+    private PostgreSQLContainer<?> postgres;
+
+    private ConfigurableApplicationContext context;
+
+    private PortfolioAggregationService aggregationService;
+
+    private AccountRepository accountRepository;
+
+    private HoldingRepository holdingRepository;
+
+    private TransactionTemplate readOnly;
+
+    private User user;
+
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        context = new SpringApplicationBuilder(CimbWealthApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=" + postgres.getJdbcUrl(),
+                "spring.datasource.username=" + postgres.getUsername(),
+                "spring.datasource.password=" + postgres.getPassword())
+            .run();
+
+        aggregationService = context.getBean(PortfolioAggregationService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+        holdingRepository = context.getBean(HoldingRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        userId = seed(context.getBean(JdbcTemplate.class));
+        user = context.getBean(UserRepository.class).findById(userId).orElseThrow();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public PortfolioAggregate singlePass() {
+        return aggregationService.aggregate(userId);
+    }
+
+    @Benchmark
+    public Map<String, Double> perAccountQueries() {
+        return readOnly.execute(status -> {
+            Map<String, Double> sectors = new HashMap<>();
+            double totalValue = 0;
+            for (Account account : accountRepository.findByUserAndActiveTrue(user)) {
+                Double accountValue = holdingRepository.getTotalMarketValueByAccount(account);
+                totalValue += accountValue != null ? accountValue : 0;
+                for (Object[] row : holdingRepository.getSectorAllocationByAccount(account)) {
+                    sectors.merge((String) row[0], ((Number) row[1]).doubleValue(), Double::sum);
+                }
+            }
+            sectors.put("total", totalValue);
+            sectors.put("balance", accountRepository.getTotalBalanceByUser(user));
+            return sectors;
+        });
+    }
+
+    private static Long seed(JdbcTemplate jdbc) {
+        Long userId = jdbc.queryForObject("""
+            INSERT INTO users (email, password, first_name, last_name, role, risk_profile)
+            VALUES ('bench@cimb.com', 'encoded-password', 'Bench', 'User', 'CUSTOMER', 'MODERATE')
+            RETURNING id
+            """, Long.class);
+
+        List<Object[]> holdings = new ArrayList<>(ACCOUNTS * HOLDINGS_PER_ACCOUNT);
+        for (int a = 0; a < ACCOUNTS; a++) {
+            Long accountId = jdbc.queryForObject("""
+                INSERT INTO accounts (account_number, account_name, account_type, balance, user_id)
+                VALUES (?, ?, 'INVESTMENT', 10000.00, ?)
+                RETURNING id
+                """, Long.class, "BENCH" + a, "Bench Account " + a, userId);
+            for (int h = 0; h < HOLDINGS_PER_ACCOUNT; h++) {
+                int price = 10 + (a * HOLDINGS_PER_ACCOUNT + h) % 490;
+                holdings.add(new Object[]{"T" + a + "_" + h, "Asset " + h, ASSET_TYPES[h % ASSET_TYPES.length],
+                    SECTORS[(a + h) % SECTORS.length], 100, price, price - 5, price * 100, 500, 2.5, accountId});
+            }
+        }
+        jdbc.batchUpdate("""
+            INSERT INTO holdings (ticker, asset_name, asset_type, sector, quantity, current_price, average_cost,
+                                  market_value, unrealized_gain_loss, unrealized_gain_loss_percentage, account_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """, holdings);
+        jdbc.execute("ANALYZE");
+        return userId;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(PortfolioAggregationBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.cimb.wealth.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void times_ShouldRoundToCentsWithTheGivenMode() {
+        // Given
+        Quantity quantity = Quantity.of("3.33");
+        Money price = Money.of("10.15");
+
+        // When / Then: 3.33 * 10.15 = 33.7995
+        assertEquals(Money.of("33.80"), quantity.times(price, RoundingMode.HALF_UP));
+        assertEquals(Money.of("33.79"), quantity.times(price, RoundingMode.DOWN));
+        assertEquals(Money.of("-33.80"), Quantity.of("-3.33").times(price, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    void times_ShouldMatchBigDecimal_WhenTheProductOverflowsALong() {
+        // Given
+        Quantity quantity = Quantity.of("9000000000.55");
+        Money price = Money.of("123456.78");
+
+        // When
+        Money value = quantity.times(price, RoundingMode.HALF_EVEN);
+
+        // Then
+        BigDecimal expected = quantity.toBigDecimal().multiply(price.toBigDecimal()).setScale(2, RoundingMode.HALF_EVEN);
+        assertEquals(expected, value.toBigDecimal());
+    }
+
+    @Test
+    void of_ShouldRejectSubCentAmounts_UnlessARoundingModeIsGiven() {
+        assertThrows(ArithmeticException.class, () -> Money.of("1.005"));
+        assertEquals(Money.of("1.01"), Money.of(new BigDecimal("1.005"), RoundingMode.HALF_UP));
+        assertEquals("1.00", Money.of("1").toString());
+    }
+
+    @Test
+    void plus_ShouldThrow_OnOverflow() {
+        Money max = Money.ofUnits(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofUnits(1)));
+    }
+
+    @Test
+    void calculateValues_ShouldRoundValueAndCostBeforeTheGain() {
+        // Given
+        Holding holding = Holding.builder()
+            .quantity(Quantity.of("3.33"))
+            .currentPrice(Money.of("10.15"))
+            .averageCost(Money.of("9.99"))
+            .build();
+
+        // When
+        holding.calculateValues();
+
+        // Then: value 33.80, cost 33.27 (33.2667)
+        assertEquals(Money.of("33.80"), holding.getMarketValue());
+        assertEquals(Money.of("0.53"), holding.getUnrealizedGainLoss());
+        assertEquals(new BigDecimal("1.59"), holding.getUnrealizedGainLossPercentage());
+    }
+}
@@ -0,0 +1,64 @@
+package com.cimb.wealth.dto;
+
+import com.cimb.wealth.domain.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityProjectionTest {
+
+    @Test
+    void columnsFor_ShouldSelectOnlyRequestedFieldsAndTheCursorKey() {
+        // When
+        List<EntityProjection.Column<HoldingDto>> columns = DtoProjections.HOLDING.columnsFor(List.of("ticker", "marketValue"));
+
+        // Then
+        assertEquals(List.of("id", "createdAt", "ticker", "marketValue"), paths(columns));
+    }
+
+    @Test
+    void columnsFor_ShouldSelectTheForeignKey_ForAnAssociation() {
+        // When
+        List<EntityProjection.Column<HoldingDto>> columns = DtoProjections.HOLDING.columnsFor(List.of("account", "__typename"));
+
+        // Then
+        assertEquals(List.of("id", "createdAt", "account.id"), paths(columns));
+    }
+
+    @Test
+    void columnsFor_ShouldSelectNothingExtra_ForCollectionAssociations() {
+        // When
+        List<EntityProjection.Column<AccountDto>> columns = DtoProjections.ACCOUNT.columnsFor(
+            List.of("accountNumber", "holdings", "transactions"));
+
+        // Then: the batch mappings key on the account id, which is always selected
+        assertEquals(List.of("id", "createdAt", "accountNumber"), paths(columns));
+    }
+
+    @Test
+    void map_ShouldFillOnlyTheSelectedFields() {
+        // Given
+        List<EntityProjection.Column<HoldingDto>> columns = DtoProjections.HOLDING.columnsFor(List.of("ticker", "marketValue"));
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 2, 9, 30);
+
+        // When
+        HoldingDto holding = DtoProjections.HOLDING.map(columns, new Object[]{7L, createdAt, "AAPL", Money.of("1900.50")});
+
+        // Then
+        assertEquals(7L, holding.getId());
+        assertEquals(createdAt, holding.getCreatedAt());
+        assertEquals("AAPL", holding.getTicker());
+        assertEquals(new BigDecimal("1900.50"), holding.getMarketValue());
+        assertNull(holding.getAssetName());
+        assertNull(holding.getCurrentPrice());
+        assertNull(holding.getAccountId());
+    }
+
+    private static List<String> paths(List<? extends EntityProjection.Column<?>> columns) {
+        return columns.stream().map(EntityProjection.Column::path).toList();
+    }
+}
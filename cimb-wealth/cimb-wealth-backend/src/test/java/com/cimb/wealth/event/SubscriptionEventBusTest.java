@@ -0,0 +1,131 @@
+package com.cimb.wealth.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionEventBusTest {
+
+    private static final Duration COALESCE_WINDOW = Duration.ofMillis(200);
+
+    private SubscriptionEventBus bus;
+
+    private final List<String> received = new CopyOnWriteArrayList<>();
+
+    private Disposable subscription;
+
+    @BeforeEach
+    void setUp() {
+        bus = new SubscriptionEventBus(new SimpleMeterRegistry(), 256, COALESCE_WINDOW, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        bus.shutdown();
+    }
+
+    @Test
+    void holdingUpdates_ShouldBeCoalescedPerHolding() throws InterruptedException {
+        // Given
+        subscribe(SubscriptionEvent.Topic.HOLDING_UPDATED, 1L);
+
+        // When: a burst inside one window
+        publish(SubscriptionEvent.Topic.HOLDING_UPDATED, 1L, 10L, "10@100");
+        publish(SubscriptionEvent.Topic.HOLDING_UPDATED, 1L, 11L, "11@50");
+        publish(SubscriptionEvent.Topic.HOLDING_UPDATED, 1L, 10L, "10@101");
+        publish(SubscriptionEvent.Topic.HOLDING_UPDATED, 1L, 10L, "10@102");
+        awaitReceived(2);
+        Thread.sleep(COALESCE_WINDOW.toMillis() * 2);
+
+        // Then: each holding once, with its latest value, in the order of those values
+        assertEquals(List.of("11@50", "10@102"), received);
+    }
+
+    @Test
+    void transactionEvents_ShouldNotBeCoalesced() throws InterruptedException {
+        // Given
+        subscribe(SubscriptionEvent.Topic.TRANSACTION_UPDATED, 1L);
+
+        // When
+        publish(SubscriptionEvent.Topic.TRANSACTION_UPDATED, 1L, 20L, "PENDING");
+        publish(SubscriptionEvent.Topic.TRANSACTION_UPDATED, 1L, 20L, "COMPLETED");
+        awaitReceived(2);
+
+        // Then
+        assertEquals(List.of("PENDING", "COMPLETED"), received);
+    }
+
+    @Test
+    void subscriber_ShouldOnlyReceiveItsOwnKey() throws InterruptedException {
+        // Given
+        subscribe(SubscriptionEvent.Topic.TRANSACTION_CREATED, 1L);
+
+        // When
+        publish(SubscriptionEvent.Topic.TRANSACTION_CREATED, 2L, 30L, "other account");
+        publish(SubscriptionEvent.Topic.TRANSACTION_CREATED, 1L, 31L, "own account");
+        awaitReceived(1);
+        Thread.sleep(50);
+
+        // Then
+        assertEquals(List.of("own account"), received);
+    }
+
+    @Test
+    void hasSubscribers_ShouldFollowActiveSubscriptions() {
+        // Given
+        assertFalse(bus.hasSubscribers(SubscriptionEvent.Topic.HOLDING_UPDATED));
+
+        // When
+        subscribe(SubscriptionEvent.Topic.HOLDING_UPDATED, 1L);
+
+        // Then
+        assertTrue(bus.hasSubscribers(SubscriptionEvent.Topic.HOLDING_UPDATED));
+        assertFalse(bus.hasSubscribers(SubscriptionEvent.Topic.GOAL_PROGRESS_UPDATED));
+        subscription.dispose();
+        assertFalse(bus.hasSubscribers(SubscriptionEvent.Topic.HOLDING_UPDATED));
+    }
+
+    @Test
+    void hasSubscribersForKey_ShouldCountEverySubscriberOfTheKey() {
+        // Given: two subscribers on account 1
+        subscribe(SubscriptionEvent.Topic.HOLDING_UPDATED, 1L);
+        Disposable first = subscription;
+        subscribe(SubscriptionEvent.Topic.HOLDING_UPDATED, 1L);
+
+        // When
+        first.dispose();
+
+        // Then
+        assertTrue(bus.hasSubscribers(SubscriptionEvent.Topic.HOLDING_UPDATED, 1L));
+        assertFalse(bus.hasSubscribers(SubscriptionEvent.Topic.HOLDING_UPDATED, 2L));
+        assertFalse(bus.hasSubscribers(SubscriptionEvent.Topic.TRANSACTION_CREATED, 1L));
+        subscription.dispose();
+        assertFalse(bus.hasSubscribers(SubscriptionEvent.Topic.HOLDING_UPDATED, 1L));
+    }
+
+    private void subscribe(SubscriptionEvent.Topic topic, Long key) {
+        subscription = bus.subscribe(topic, key, String.class).subscribe(received::add);
+    }
+
+    private void publish(SubscriptionEvent.Topic topic, Long key, Long entityId, String payload) {
+        bus.publish(new SubscriptionEvent(topic, key, entityId, payload));
+    }
+
+    private void awaitReceived(int events) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (received.size() < events && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.PostgresIntegrationTest;
+import com.cimb.wealth.dto.AccountDto;
+import com.cimb.wealth.dto.DtoMapper;
+import com.cimb.wealth.dto.DtoProjections;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.repository.AccountRepository;
+import com.cimb.wealth.repository.HoldingRepository;
+import com.cimb.wealth.repository.KeysetQueryRepository;
+import com.cimb.wealth.repository.QueryFilter;
+import com.cimb.wealth.security.AuthenticatedUser;
+import com.cimb.wealth.service.KeysetCursor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs connection queries through the GraphQL engine and checks that nodes built from the
+ * selected columns match the entity mapping, that unselected columns are not read, and that
+ * associations cost a query only when they are selected.
+ */
+class ConnectionResolverTest extends PostgresIntegrationTest {
+
+    private static final String HOLDING_FIELDS = "id ticker assetName assetType sector quantity currentPrice "
+        + "averageCost marketValue unrealizedGainLoss unrealizedGainLossPercentage createdAt updatedAt";
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private KeysetQueryRepository keysetQueryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private GraphQlTester tester;
+
+    private Long userId;
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        tester = ExecutionGraphQlServiceTester.create(graphQlService);
+        userId = insertUser("MODERATE");
+        accountId = insertAccount(userId);
+        insertHolding(accountId, unique("PJ"), "STOCK", "Technology", "12.50", "40.10", "38.25");
+        insertHolding(accountId, unique("PJ"), "ETF", "Diversified", "3", "99.99", "101.00");
+        authenticate(insertUser("MODERATE"), "ADVISOR");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void holdings_ShouldMatchTheEntityMapping() {
+        // When
+        List<Map<String, Object>> nodes = nodes("query HoldingsProjection($accountId: ID!) {"
+            + " holdings(accountId: $accountId) { edges { node { " + HOLDING_FIELDS + " } } } }", "holdings");
+
+        // Then
+        assertEquals(2, nodes.size());
+        for (Map<String, Object> node : nodes) {
+            HoldingDto expected = inTransaction(() -> DtoMapper.toHoldingDto(
+                holdingRepository.findById(Long.valueOf((String) node.get("id"))).orElseThrow()));
+            assertEquals(holdingFields(expected), node);
+        }
+    }
+
+    @Test
+    void findPage_ShouldReadOnlyTheSelectedColumns() {
+        // When
+        List<HoldingDto> page = keysetQueryRepository.findPage(DtoProjections.HOLDING, List.of("ticker", "account"),
+            QueryFilter.where().eq("account.id", accountId), KeysetCursor.FIRST.createdAt(), KeysetCursor.FIRST.id(), 10);
+
+        // Then
+        assertEquals(2, page.size());
+        for (HoldingDto holding : page) {
+            assertNotNull(holding.getId());
+            assertNotNull(holding.getCreatedAt());
+            assertNotNull(holding.getTicker());
+            assertEquals(accountId, holding.getAccountId());
+            assertNull(holding.getAssetName());
+            assertNull(holding.getQuantity());
+            assertNull(holding.getMarketValue());
+            assertNull(holding.getUpdatedAt());
+        }
+    }
+
+    @Test
+    void holdings_ShouldNotLoadTheAccount_WhenItIsNotSelected() {
+        // When
+        double statements = operationStatements(() -> nodes("query HoldingsWithoutAccount($accountId: ID!) {"
+            + " holdings(accountId: $accountId) { edges { node { id ticker } } } }", "holdings"));
+
+        // Then: the page query only
+        assertEquals(1.0, statements);
+    }
+
+    @Test
+    void holdings_ShouldBatchLoadTheAccount_WhenItIsSelected() {
+        // When
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        double statements = operationStatements(() -> nodes.addAll(nodes("query HoldingsWithAccount($accountId: ID!) {"
+            + " holdings(accountId: $accountId) { edges { node { id account { accountNumber } } } } }", "holdings")));
+
+        // Then: the page query and one batch load for both holdings
+        assertEquals(2.0, statements);
+        String accountNumber = inTransaction(() -> accountRepository.findById(accountId).orElseThrow().getAccountNumber());
+        nodes.forEach(node -> assertEquals(Map.of("accountNumber", accountNumber), node.get("account")));
+    }
+
+    @Test
+    void accountsByUser_ShouldMatchTheEntityMapping() {
+        // When
+        List<Map<String, Object>> nodes = nodes("query AccountsProjection($userId: ID!) {"
+            + " accountsByUser(userId: $userId) { edges { node { id accountNumber accountName accountType balance"
+            + " active createdAt updatedAt } } } }", "accountsByUser");
+
+        // Then
+        AccountDto expected = inTransaction(() -> DtoMapper.toAccountDto(accountRepository.findById(accountId).orElseThrow()));
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("id", String.valueOf(expected.getId()));
+        fields.put("accountNumber", expected.getAccountNumber());
+        fields.put("accountName", expected.getAccountName());
+        fields.put("accountType", expected.getAccountType().name());
+        fields.put("balance", expected.getBalance().toPlainString());
+        fields.put("active", expected.getActive());
+        fields.put("createdAt", String.valueOf(expected.getCreatedAt()));
+        fields.put("updatedAt", String.valueOf(expected.getUpdatedAt()));
+        assertEquals(List.of(fields), nodes);
+    }
+
+    private List<Map<String, Object>> nodes(String document, String connection) {
+        return tester.document(document)
+            .variable("accountId", accountId)
+            .variable("userId", userId)
+            .execute()
+            .path(connection + ".edges[*].node")
+            .entity(new ParameterizedTypeReference<List<Map<String, Object>>>() {
+            })
+            .get();
+    }
+
+    private static Map<String, Object> holdingFields(HoldingDto holding) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("id", String.valueOf(holding.getId()));
+        fields.put("ticker", holding.getTicker());
+        fields.put("assetName", holding.getAssetName());
+        fields.put("assetType", holding.getAssetType().name());
+        fields.put("sector", holding.getSector());
+        fields.put("quantity", plain(holding.getQuantity()));
+        fields.put("currentPrice", plain(holding.getCurrentPrice()));
+        fields.put("averageCost", plain(holding.getAverageCost()));
+        fields.put("marketValue", plain(holding.getMarketValue()));
+        fields.put("unrealizedGainLoss", plain(holding.getUnrealizedGainLoss()));
+        fields.put("unrealizedGainLossPercentage", plain(holding.getUnrealizedGainLossPercentage()));
+        fields.put("createdAt", String.valueOf(holding.getCreatedAt()));
+        fields.put("updatedAt", String.valueOf(holding.getUpdatedAt()));
+        return fields;
+    }
+
+    private static String plain(BigDecimal value) {
+        return value.toPlainString();
+    }
+
+    // Operations outside the persisted query manifest share the unregistered tag
+    private double operationStatements(Runnable query) {
+        double before = statementTotal();
+        query.run();
+        return statementTotal() - before;
+    }
+
+    private double statementTotal() {
+        DistributionSummary summary = meterRegistry.find("graphql.operation.sql.statements")
+            .tag("operation", OperationMetricsInstrumentation.UNREGISTERED)
+            .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private static void authenticate(Long userId, String role) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "advisor@cimb.com", null, true,
+            AuthenticatedUser.authoritiesFor(role));
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
@@ -0,0 +1,150 @@
+package com.cimb.wealth.graphql;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dataloader.BatchLoaderWithContext;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs documents through graphql-java with a DataLoader wired the way Spring wires
+ * {@code @BatchMapping} loaders, and checks what the operation meters record.
+ */
+class OperationMetricsInstrumentationTest {
+
+    private static final String SCHEMA = """
+        type Query { users: [User] }
+        type User { id: ID account: Account }
+        type Account { id: ID }
+        """;
+
+    private static final String USERS_WITH_ACCOUNTS = "query UsersWithAccounts { users { id account { id } } }";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PersistedQueryDocumentProvider documentProvider = mock(PersistedQueryDocumentProvider.class);
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        dataSource = (DataSource) new SqlStatementCounter().postProcessAfterInitialization(target, "dataSource");
+        when(documentProvider.isRegisteredOperation("UsersWithAccounts")).thenReturn(true);
+    }
+
+    @Test
+    void batchLoads_ShouldCountTowardsTheOperation() {
+        // When
+        ExecutionResult result = execute(USERS_WITH_ACCOUNTS, 10, DataLoaderOptions.newOptions());
+
+        // Then: the users fetcher and one batch load for all three accounts
+        assertTrue(result.getErrors().isEmpty(), () -> result.getErrors().toString());
+        assertEquals(2.0, statements("UsersWithAccounts").totalAmount());
+        assertNull(meterRegistry.find("graphql.n-plus-one").counter());
+    }
+
+    @Test
+    void singleKeyBatchLoads_ShouldBeReportedAsNPlusOne() {
+        // When: a loader that dispatches every key on its own
+        execute(USERS_WITH_ACCOUNTS, 2, DataLoaderOptions.newOptions().setMaxBatchSize(1));
+
+        // Then
+        assertEquals(4.0, statements("UsersWithAccounts").totalAmount());
+        assertEquals(1.0, meterRegistry.get("graphql.n-plus-one")
+            .tag("operation", "UsersWithAccounts")
+            .tag("field", OperationMetricsInstrumentation.DATA_LOADER)
+            .counter().count());
+    }
+
+    @Test
+    void unregisteredOperationName_ShouldNotBecomeATag() {
+        // When
+        execute("query Probe123 { users { id } }", 10, DataLoaderOptions.newOptions());
+
+        // Then
+        assertEquals(1.0, statements(OperationMetricsInstrumentation.UNREGISTERED).totalAmount());
+        assertTrue(meterRegistry.find("graphql.operation.duration").tag("operation", "Probe123").timers().isEmpty());
+        assertTrue(meterRegistry.find("graphql.field.duration").tag("operation", "Probe123").timers().isEmpty());
+    }
+
+    @Test
+    void unnamedOperation_ShouldBeRecordedAsAnonymous() {
+        // When
+        execute("{ users { id } }", 10, DataLoaderOptions.newOptions());
+
+        // Then
+        assertEquals(1.0, statements(OperationMetricsInstrumentation.ANONYMOUS).count());
+    }
+
+    private ExecutionResult execute(String query, int nPlusOneThreshold, DataLoaderOptions options) {
+        AtomicReference<ExecutionInput> input = new AtomicReference<>();
+        // Spring registers loaders with the GraphQLContext as their context and our scheduler
+        options.setBatchLoaderContextProvider(() -> input.get().getGraphQLContext())
+            .setBatchLoaderScheduler(new OperationMetricsInstrumentation.StatementCountingScheduler());
+        BatchLoaderWithContext<String, Map<String, Object>> accounts = (keys, environment) -> {
+            runSql();
+            return CompletableFuture.completedFuture(keys.stream().map(key -> Map.<String, Object>of("id", key)).toList());
+        };
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        registry.register("accounts", DataLoaderFactory.newDataLoader(accounts, options));
+
+        input.set(ExecutionInput.newExecutionInput().query(query).dataLoaderRegistry(registry).build());
+        return GraphQL.newGraphQL(schema())
+            .instrumentation(new OperationMetricsInstrumentation(meterRegistry, documentProvider, nPlusOneThreshold))
+            .build()
+            .execute(input.get());
+    }
+
+    private GraphQLSchema schema() {
+        DataFetcher<?> users = environment -> {
+            runSql();
+            return List.of(Map.of("id", "1"), Map.of("id", "2"), Map.of("id", "3"));
+        };
+        DataFetcher<?> account = environment -> environment.getDataLoader("accounts")
+            .load(((Map<?, ?>) environment.getSource()).get("id"));
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+            .type("Query", type -> type.dataFetcher("users", users))
+            .type("User", type -> type.dataFetcher("account", account))
+            .build();
+        return new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), wiring);
+    }
+
+    private void runSql() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("SELECT 1");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private DistributionSummary statements(String operation) {
+        return meterRegistry.get("graphql.operation.sql.statements").tag("operation", operation).summary();
+    }
+}
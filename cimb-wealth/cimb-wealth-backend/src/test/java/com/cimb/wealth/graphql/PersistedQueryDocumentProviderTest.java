@@ -0,0 +1,151 @@
+package com.cimb.wealth.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.parser.Parser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistedQueryDocumentProviderTest {
+
+    private static final String REGISTERED = "query Me { me { id email } }";
+
+    private static final String UNREGISTERED = "query Users { users { id } }";
+
+    @TempDir
+    Path manifestDir;
+
+    private final List<String> parsed = new ArrayList<>();
+
+    private final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate = input -> {
+        parsed.add(input.getQuery());
+        return new PreparsedDocumentEntry(Parser.parse(input.getQuery()));
+    };
+
+    @Test
+    void hashOnlyRequest_ShouldRunTheRegisteredDocument() throws IOException {
+        // Given
+        PersistedQueryDocumentProvider provider = provider(false);
+
+        // When
+        PreparsedDocumentEntry entry = document(provider, hashOnly(sha256(REGISTERED)));
+
+        // Then
+        assertFalse(entry.hasErrors());
+        assertEquals(List.of(REGISTERED), parsed);
+    }
+
+    @Test
+    void hashOnlyRequest_ShouldBeNotFound_WhenTheHashIsUnknown() throws IOException {
+        // Given
+        PersistedQueryDocumentProvider provider = provider(false);
+
+        // When
+        PreparsedDocumentEntry entry = document(provider, hashOnly(sha256(UNREGISTERED)));
+
+        // Then
+        assertEquals("PERSISTED_QUERY_NOT_FOUND", code(entry));
+        assertTrue(parsed.isEmpty());
+    }
+
+    @Test
+    void queryWithHash_ShouldRegisterItForLaterHashOnlyRequests() throws IOException {
+        // Given
+        PersistedQueryDocumentProvider provider = provider(false);
+        String hash = sha256(UNREGISTERED);
+        document(provider, withQuery(UNREGISTERED, hash));
+
+        // When
+        PreparsedDocumentEntry entry = document(provider, hashOnly(hash));
+
+        // Then
+        assertFalse(entry.hasErrors());
+        assertEquals(1, parsed.size());
+    }
+
+    @Test
+    void queryWithHash_ShouldBeRejected_WhenTheHashDoesNotMatch() throws IOException {
+        // Given
+        PersistedQueryDocumentProvider provider = provider(false);
+
+        // When
+        PreparsedDocumentEntry entry = document(provider, withQuery(UNREGISTERED, sha256(REGISTERED)));
+
+        // Then
+        assertEquals("BAD_USER_INPUT", code(entry));
+    }
+
+    @Test
+    void strictMode_ShouldRejectUnregisteredQueries() throws IOException {
+        // Given
+        PersistedQueryDocumentProvider provider = provider(true);
+
+        // When
+        PreparsedDocumentEntry rejected = document(provider, withQuery(UNREGISTERED, sha256(UNREGISTERED)));
+        PreparsedDocumentEntry allowed = document(provider, withQuery(REGISTERED, null));
+
+        // Then
+        assertEquals("PERSISTED_QUERY_NOT_ALLOWED", code(rejected));
+        assertFalse(allowed.hasErrors());
+        assertEquals(List.of(REGISTERED), parsed);
+    }
+
+    @Test
+    void registeredOperations_ShouldBeTheManifestOperationNames() throws IOException {
+        // Given
+        PersistedQueryDocumentProvider provider = provider(false);
+        document(provider, withQuery(UNREGISTERED, null));
+
+        // When / Then: clients registering documents does not add names
+        assertTrue(provider.isRegisteredOperation("Me"));
+        assertFalse(provider.isRegisteredOperation("Users"));
+    }
+
+    private PersistedQueryDocumentProvider provider(boolean strict) throws IOException {
+        Path manifest = manifestDir.resolve("persisted-queries.json");
+        Files.writeString(manifest, new ObjectMapper().writeValueAsString(Map.of(sha256(REGISTERED), REGISTERED)));
+        PersistedQueryDocumentProvider provider = new PersistedQueryDocumentProvider(new ObjectMapper(),
+            new DefaultResourceLoader(), new SimpleMeterRegistry(), strict, manifest.toUri().toString(), 100);
+        provider.loadManifest();
+        return provider;
+    }
+
+    // getDocumentAsync is what the engine calls; getDocument is deprecated in graphql-java
+    private PreparsedDocumentEntry document(PersistedQueryDocumentProvider provider, ExecutionInput input) {
+        return provider.getDocumentAsync(input, parseAndValidate).join();
+    }
+
+    private static ExecutionInput hashOnly(String hash) {
+        return withQuery(PersistedQueryFilter.HASH_ONLY_QUERY, hash);
+    }
+
+    private static ExecutionInput withQuery(String query, String hash) {
+        ExecutionInput.Builder builder = ExecutionInput.newExecutionInput().query(query);
+        if (hash != null) {
+            builder.extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)));
+        }
+        return builder.build();
+    }
+
+    private static String sha256(String query) {
+        return PersistedQueryDocumentProvider.sha256(query);
+    }
+
+    private static Object code(PreparsedDocumentEntry entry) {
+        assertTrue(entry.hasErrors());
+        return entry.getErrors().get(0).getExtensions().get("code");
+    }
+}
@@ -0,0 +1,98 @@
+package com.cimb.wealth.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistedQueryFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final PersistedQueryFilter filter = new PersistedQueryFilter(objectMapper);
+
+    @Test
+    void hashOnlyRequest_ShouldGetThePlaceholderQuery() throws Exception {
+        // Given
+        String body = "{\"extensions\":{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"abc\"}}}";
+
+        // When
+        HttpServletRequest filtered = filter(body);
+
+        // Then
+        Map<?, ?> document = objectMapper.readValue(filtered.getInputStream(), Map.class);
+        assertEquals(PersistedQueryFilter.HASH_ONLY_QUERY, document.get("query"));
+        assertEquals(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", "abc")), document.get("extensions"));
+    }
+
+    @Test
+    void ordinaryRequest_ShouldPassThroughUnchanged() throws Exception {
+        // Given
+        String body = "{\"query\":\"{ me { id } }\"}";
+
+        // When
+        HttpServletRequest filtered = filter(body);
+
+        // Then
+        assertEquals(body, StreamUtils.copyToString(filtered.getInputStream(), StandardCharsets.UTF_8));
+        assertEquals(body, filtered.getReader().readLine());
+        assertEquals(body.length(), filtered.getContentLength());
+    }
+
+    @Test
+    void readListener_ShouldBeToldTheWholeBodyIsAvailable() throws Exception {
+        // Given
+        String body = "{\"query\":\"{ me { id } }\"}";
+        ServletInputStream input = filter(body).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allRead = new boolean[1];
+
+        // When
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[8];
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(buffer, 0, input.read(buffer));
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+        });
+
+        // Then
+        assertTrue(allRead[0]);
+        assertEquals(body, read.toString(StandardCharsets.UTF_8));
+    }
+
+    private HttpServletRequest filter(String body) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setServletPath("/graphql");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return (HttpServletRequest) chain.getRequest();
+    }
+}
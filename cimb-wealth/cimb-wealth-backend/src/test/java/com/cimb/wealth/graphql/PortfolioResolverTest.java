@@ -0,0 +1,136 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.dto.PortfolioSummaryDto;
+import com.cimb.wealth.dto.TransactionDto;
+import com.cimb.wealth.service.PortfolioSectionLoader;
+import com.cimb.wealth.service.PortfolioService;
+import com.cimb.wealth.service.PortfolioSummaryCache;
+import graphql.GraphQLError;
+import graphql.execution.DataFetcherResult;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.ResultPath;
+import graphql.language.Field;
+import graphql.schema.DataFetchingEnvironment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class PortfolioResolverTest {
+
+    private final PortfolioService portfolioService = mock(PortfolioService.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private PortfolioSectionLoader loader;
+
+    private PortfolioResolver resolver;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        loader.destroy();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void recentTransactions_ShouldBeUnavailable_WhenThePoolRejectsTheSection() throws Exception {
+        // Given: one thread busy and one queued section fill the pool
+        start(1, 1, Duration.ofSeconds(5));
+        when(portfolioService.recentTransactions(anyLong())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+        resolver.recentTransactions(summary(1L), environment());
+        resolver.recentTransactions(summary(2L), environment());
+
+        // When
+        DataFetcherResult<List<TransactionDto>> result = resolver.recentTransactions(summary(3L), environment())
+            .get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(List.of(), result.getData());
+        assertEquals("SECTION_UNAVAILABLE", code(result));
+        assertEquals(1, meterRegistry.counter("portfolio.section.failures", "section", "recent_transactions").count());
+    }
+
+    @Test
+    void recentTransactions_ShouldTimeOut_WhenTheSectionIsTooSlow() throws Exception {
+        // Given
+        start(1, 1, Duration.ofMillis(50));
+        when(portfolioService.recentTransactions(1L)).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+
+        // When
+        DataFetcherResult<List<TransactionDto>> result = resolver.recentTransactions(summary(1L), environment())
+            .get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(List.of(), result.getData());
+        assertEquals("SECTION_TIMEOUT", code(result));
+    }
+
+    @Test
+    void recentTransactions_ShouldRunWithTheCallersSecurityContext() throws Exception {
+        // Given
+        start(2, 8, Duration.ofSeconds(5));
+        Authentication caller = new TestingAuthenticationToken("customer@cimb.com", null, "ROLE_CUSTOMER");
+        SecurityContextHolder.getContext().setAuthentication(caller);
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(portfolioService.recentTransactions(1L)).thenAnswer(invocation -> {
+            seen.set(SecurityContextHolder.getContext().getAuthentication());
+            thread.set(Thread.currentThread().getName());
+            return List.of();
+        });
+
+        // When
+        DataFetcherResult<List<TransactionDto>> result = resolver.recentTransactions(summary(1L), environment())
+            .get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(result.hasErrors());
+        assertSame(caller, seen.get());
+        assertTrue(thread.get().startsWith("portfolio-section-"));
+    }
+
+    private void start(int threads, int queueCapacity, Duration timeout) {
+        loader = new PortfolioSectionLoader(meterRegistry, threads, queueCapacity, timeout);
+        resolver = new PortfolioResolver(portfolioService, mock(PortfolioSummaryCache.class), loader);
+    }
+
+    private static PortfolioSummaryDto summary(Long userId) {
+        return PortfolioSummaryDto.builder().userId(userId).build();
+    }
+
+    private static DataFetchingEnvironment environment() {
+        ExecutionStepInfo stepInfo = mock(ExecutionStepInfo.class);
+        when(stepInfo.getPath()).thenReturn(ResultPath.rootPath().segment("portfolio").segment("recentTransactions"));
+        DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
+        when(environment.getField()).thenReturn(Field.newField("recentTransactions").build());
+        when(environment.getExecutionStepInfo()).thenReturn(stepInfo);
+        return environment;
+    }
+
+    private static String code(DataFetcherResult<?> result) {
+        assertEquals(1, result.getErrors().size());
+        GraphQLError error = result.getErrors().get(0);
+        return (String) error.getExtensions().get("code");
+    }
+}
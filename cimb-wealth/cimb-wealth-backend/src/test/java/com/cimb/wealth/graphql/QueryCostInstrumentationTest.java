@@ -0,0 +1,235 @@
+package com.cimb.wealth.graphql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs documents through graphql-java and checks the cost and depth computed for them.
+ * Object fields weigh 1 and leaves 0 unless configured, leaves count towards the depth,
+ * and lists count
+ * {@value #DEFAULT_LIST_SIZE} items when no {@code first} argument bounds them.
+ */
+class QueryCostInstrumentationTest {
+
+    private static final int DEFAULT_LIST_SIZE = 20;
+
+    private static final String SCHEMA = """
+        type Query {
+          users: [User]
+          user(id: ID): User
+          accounts(first: Int): AccountConnection
+        }
+        type User { id: ID friend: User accounts(first: Int): AccountConnection }
+        type AccountConnection { edges: [AccountEdge] pageInfo: PageInfo }
+        type AccountEdge { cursor: String node: Account }
+        type PageInfo { hasNextPage: Boolean }
+        type Account { id: ID holdings: [Holding] }
+        type Holding { ticker: String }
+        """;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @Test
+    void unboundedList_ShouldMultiplyItsChildrenByTheDefaultListSize() {
+        // When
+        Map<String, Object> cost = cost(execute(graphQL(5000, 10), "{ users { id friend { id } } }"));
+
+        // Then: users 1 + friend 1 x 20, with leaves counted in the depth
+        assertEquals(1L + DEFAULT_LIST_SIZE, cost.get("requested"));
+        assertEquals(3, cost.get("depth"));
+    }
+
+    @Test
+    void firstArgument_ShouldBeTheMultiplier_AndConnectionEdgesCountedOnce() {
+        // Given
+        GraphQL graphQL = graphQL(5000, 10);
+
+        // When
+        Object literal = cost(execute(graphQL, "{ accounts(first: 5) { edges { node { id } } } }")).get("requested");
+        Object variable = cost(execute(graphQL, ExecutionInput.newExecutionInput()
+            .query("query Page($first: Int) { accounts(first: $first) { edges { node { id } } } }")
+            .variables(Map.of("first", 5))
+            .build())).get("requested");
+        Object unbounded = cost(execute(graphQL, "{ accounts { edges { node { id } } } }")).get("requested");
+
+        // Then: accounts 1 + (edges 1 + node 1) x first, edges not multiplied again
+        assertEquals(11L, literal);
+        assertEquals(11L, variable);
+        assertEquals(1L + 2L * DEFAULT_LIST_SIZE, unbounded);
+    }
+
+    @Test
+    void listsInsideConnectionNodes_ShouldStillBeMultiplied() {
+        // When
+        Object cost = cost(execute(graphQL(5000, 10),
+            "{ accounts(first: 5) { edges { node { holdings { ticker } } } } }")).get("requested");
+
+        // Then: holdings 1, node 1 + 1, edges 1 + 2, accounts 1 + 3 x 5
+        assertEquals(16L, cost);
+    }
+
+    @Test
+    void fragmentsAndAliases_ShouldBeCostedAtEachUse() {
+        // Given
+        String query = """
+            {
+              small: accounts(first: 2) { ...Page }
+              large: accounts(first: 3) { ...Page }
+              again: accounts(first: 3) { ...Page }
+            }
+            fragment Page on AccountConnection { edges { node { id } } }
+            """;
+
+        // When
+        Object cost = cost(execute(graphQL(5000, 10), query)).get("requested");
+
+        // Then: (1 + 2 x 2) + (1 + 2 x 3) + (1 + 2 x 3)
+        assertEquals(19L, cost);
+    }
+
+    @Test
+    void configuredWeight_ShouldReplaceTheDefault() {
+        // Given
+        GraphQL graphQL = graphQL(5000, 10, Map.of("Query.user", 50));
+
+        // When
+        Object cost = cost(execute(graphQL, "{ user(id: 1) { id friend { id } } }")).get("requested");
+
+        // Then
+        assertEquals(51L, cost);
+    }
+
+    @Test
+    void introspection_ShouldNotCountTowardsCostOrDepth() {
+        // Given: deeper than the depth budget
+        String query = "{ __schema { types { name fields { name type { name ofType { name ofType { name } } } } } } }";
+
+        // When
+        ExecutionResult result = execute(graphQL(5000, 3), query);
+        ExecutionResult typename = execute(graphQL(5000, 3), "{ users { __typename id } }");
+
+        // Then
+        assertTrue(result.getErrors().isEmpty(), () -> result.getErrors().toString());
+        assertEquals(0L, cost(result).get("requested"));
+        assertEquals(0, cost(result).get("depth"));
+        assertEquals(1L, cost(typename).get("requested"));
+    }
+
+    @Test
+    void operationOverTheDepthBudget_ShouldBeRejectedBeforeAnyFetch() {
+        // When
+        ExecutionResult result = execute(graphQL(5000, 3), "{ users { friend { friend { id } } } }");
+
+        // Then
+        assertEquals(1, result.getErrors().size());
+        assertEquals("Query depth 4 exceeds the maximum of 3", result.getErrors().get(0).getMessage());
+        assertNull(result.getData());
+        assertEquals(0, fetches.get());
+        assertEquals(1.0, meterRegistry.get("graphql.operation.cost.rejected").counter().count());
+    }
+
+    @Test
+    void operationOverTheCostBudget_ShouldBeRejectedBeforeAnyFetch() {
+        // Given: users 1 + (friend 1 + friend 1) x 20
+        String query = "{ users { friend { friend { id } } } }";
+
+        // When
+        ExecutionResult rejected = execute(graphQL(40, 10), query);
+        ExecutionResult allowed = execute(graphQL(41, 10), query);
+
+        // Then
+        assertEquals("Query cost 41 exceeds the maximum of 40", rejected.getErrors().get(0).getMessage());
+        assertTrue(allowed.getErrors().isEmpty(), () -> allowed.getErrors().toString());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void costExtension_ShouldReportTheCostAndTheBudget() {
+        // When
+        ExecutionResult result = execute(graphQL(5000, 10), "{ users { id } }");
+
+        // Then
+        assertEquals(Map.of("requested", 1L, "maximum", 5000L, "depth", 2, "maximumDepth", 10), cost(result));
+        assertEquals(1.0, meterRegistry.get("graphql.operation.cost").summary().totalAmount());
+    }
+
+    @Test
+    void cachedDocument_ShouldStillBeChecked() throws IOException {
+        // Given: documents are parsed and validated once, then served from the cache
+        PersistedQueryDocumentProvider documentProvider = new PersistedQueryDocumentProvider(new ObjectMapper(),
+            new DefaultResourceLoader(), meterRegistry, false, "classpath:graphql/no-such-manifest.json", 100);
+        documentProvider.loadManifest();
+        GraphQL graphQL = GraphQL.newGraphQL(schema())
+            .instrumentation(instrumentation(5000, 3, Map.of()))
+            .preparsedDocumentProvider(documentProvider)
+            .build();
+        String query = "{ users { friend { friend { id } } } }";
+
+        // When
+        ExecutionResult first = execute(graphQL, query);
+        ExecutionResult cached = execute(graphQL, query);
+
+        // Then
+        assertEquals(1L, meterRegistry.get("graphql.document.parse-validate").timer().count());
+        assertFalse(first.getErrors().isEmpty());
+        assertEquals(first.getErrors().get(0).getMessage(), cached.getErrors().get(0).getMessage());
+        assertEquals(2.0, meterRegistry.get("graphql.operation.cost.rejected").counter().count());
+        assertEquals(0, fetches.get());
+    }
+
+    private GraphQL graphQL(long maxCost, int maxDepth) {
+        return graphQL(maxCost, maxDepth, Map.of());
+    }
+
+    private GraphQL graphQL(long maxCost, int maxDepth, Map<String, Integer> fieldWeights) {
+        return GraphQL.newGraphQL(schema()).instrumentation(instrumentation(maxCost, maxDepth, fieldWeights)).build();
+    }
+
+    private QueryCostInstrumentation instrumentation(long maxCost, int maxDepth, Map<String, Integer> fieldWeights) {
+        return new QueryCostInstrumentation(meterRegistry, maxCost, maxDepth, DEFAULT_LIST_SIZE, fieldWeights);
+    }
+
+    private GraphQLSchema schema() {
+        DataFetcher<?> users = environment -> {
+            fetches.incrementAndGet();
+            return List.of();
+        };
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+            .type("Query", type -> type.dataFetcher("users", users))
+            .build();
+        return new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), wiring);
+    }
+
+    private static ExecutionResult execute(GraphQL graphQL, String query) {
+        return execute(graphQL, ExecutionInput.newExecutionInput().query(query).build());
+    }
+
+    private static ExecutionResult execute(GraphQL graphQL, ExecutionInput input) {
+        return graphQL.execute(input);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cost(ExecutionResult result) {
+        assertNotNull(result.getExtensions(), () -> "no extensions: " + result.getErrors());
+        return (Map<String, Object>) result.getExtensions().get(QueryCostInstrumentation.EXTENSION_KEY);
+    }
+}
@@ -0,0 +1,117 @@
+package com.cimb.wealth.graphql;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SqlStatementCounterTest {
+
+    private final Connection connection = mock(Connection.class);
+
+    private final PreparedStatement preparedStatement = mock(PreparedStatement.class);
+
+    private final Statement statement = mock(Statement.class);
+
+    private DataSource dataSource;
+
+    private final AtomicInteger statements = new AtomicInteger();
+
+    private AtomicInteger previous;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(connection.createStatement()).thenReturn(statement);
+        when(preparedStatement.executeBatch()).thenReturn(new int[]{1, 1});
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.supportsBatchUpdates()).thenReturn(true);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(preparedStatement.getConnection()).thenReturn(connection);
+        dataSource = (DataSource) new SqlStatementCounter().postProcessAfterInitialization(target, "dataSource");
+        previous = SqlStatementCounter.bind(statements);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCounter.restore(previous);
+    }
+
+    @Test
+    void jdbcTemplate_ShouldBeCounted() {
+        // Given
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // When
+        jdbcTemplate.update("UPDATE holdings SET current_price = ? WHERE ticker = ?", 10, "AAPL");
+        jdbcTemplate.batchUpdate("UPDATE holdings SET current_price = ? WHERE ticker = ?",
+            List.of(new Object[]{10, "AAPL"}, new Object[]{20, "MSFT"}));
+        jdbcTemplate.execute("ANALYZE holdings");
+
+        // Then: one per round trip, a batch counts once
+        assertEquals(3, statements.get());
+    }
+
+    @Test
+    void statementsCreatedWhileUnbound_ShouldNotBeWrapped() throws SQLException {
+        // Given
+        SqlStatementCounter.restore(null);
+
+        // When
+        PreparedStatement unbound;
+        try (Connection counted = dataSource.getConnection()) {
+            unbound = counted.prepareStatement("SELECT 1");
+        }
+
+        // Then
+        assertSame(preparedStatement, unbound);
+    }
+
+    @Test
+    void nestedScope_ShouldCountIntoItsOwnCounter() throws SQLException {
+        // Given
+        AtomicInteger inner = new AtomicInteger();
+
+        // When
+        try (Connection counted = dataSource.getConnection()) {
+            counted.prepareStatement("SELECT 1").executeQuery();
+            AtomicInteger outer = SqlStatementCounter.bind(inner);
+            try {
+                counted.prepareStatement("SELECT 2").executeQuery();
+                counted.prepareStatement("SELECT 3").executeQuery();
+            } finally {
+                SqlStatementCounter.restore(outer);
+            }
+        }
+
+        // Then
+        assertEquals(1, statements.get());
+        assertEquals(2, inner.get());
+    }
+
+    @Test
+    void postProcess_ShouldLeaveOtherBeansAndWrappedDataSourcesAlone() {
+        // Given
+        SqlStatementCounter counter = new SqlStatementCounter();
+        Object other = new Object();
+
+        // When / Then
+        assertSame(other, counter.postProcessAfterInitialization(other, "other"));
+        assertSame(dataSource, counter.postProcessAfterInitialization(dataSource, "dataSource"));
+    }
+}
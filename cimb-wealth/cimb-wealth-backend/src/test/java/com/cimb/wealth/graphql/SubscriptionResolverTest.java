@@ -0,0 +1,150 @@
+package com.cimb.wealth.graphql;
+
+import com.cimb.wealth.PostgresIntegrationTest;
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.pricing.HoldingRepricer;
+import com.cimb.wealth.repository.HoldingRepository;
+import com.cimb.wealth.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionResolverTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SubscriptionResolver subscriptionResolver;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private HoldingRepricer repricer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<HoldingDto> received = new CopyOnWriteArrayList<>();
+
+    private Disposable subscription;
+
+    private Long userId;
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        userId = insertUser("MODERATE");
+        accountId = insertAccount(userId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void holdingUpdated_ShouldBeDeniedForAnotherCustomersAccount() {
+        // Given
+        authenticate(insertUser("MODERATE"), "CUSTOMER");
+
+        // When / Then
+        assertThrows(AccessDeniedException.class, () -> subscriptionResolver.holdingUpdated(accountId));
+    }
+
+    @Test
+    void holdingUpdated_ShouldBeAllowedForTheOwnerAndStaff() {
+        // Given
+        authenticate(userId, "CUSTOMER");
+
+        // When / Then
+        assertNotNull(subscriptionResolver.holdingUpdated(accountId));
+        authenticate(insertUser("MODERATE"), "ADVISOR");
+        assertNotNull(subscriptionResolver.holdingUpdated(accountId));
+    }
+
+    @Test
+    void holdingUpdated_ShouldOnlyDeliverCommittedChanges() throws InterruptedException {
+        // Given
+        Long holdingId = insertHolding(accountId, unique("SB"), "STOCK", "Technology", "10", "5.00", "5.00");
+        subscribe();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            reprice(holdingId, "6.00");
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> reprice(holdingId, "7.00"));
+        awaitReceived(1);
+        Thread.sleep(500);
+
+        // Then
+        assertEquals(1, received.size());
+        assertEquals(0, new BigDecimal("70.00").compareTo(received.get(0).getMarketValue()));
+    }
+
+    @Test
+    void holdingUpdated_ShouldDeliverBulkRepricing() throws InterruptedException {
+        // Given
+        String ticker = unique("SB");
+        Long holdingId = insertHolding(accountId, ticker, "STOCK", "Technology", "10", "5.00", "4.00");
+        subscribe();
+
+        // When
+        repricer.reprice(Map.of(ticker, new BigDecimal("5.50")));
+        awaitReceived(1);
+
+        // Then
+        HoldingDto holding = received.get(0);
+        assertEquals(holdingId, holding.getId());
+        assertEquals(accountId, holding.getAccountId());
+        assertEquals(0, new BigDecimal("5.50").compareTo(holding.getCurrentPrice()));
+        assertEquals(0, new BigDecimal("55.00").compareTo(holding.getMarketValue()));
+        assertEquals(0, new BigDecimal("15.00").compareTo(holding.getUnrealizedGainLoss()));
+    }
+
+    private void subscribe() {
+        authenticate(userId, "CUSTOMER");
+        subscription = subscriptionResolver.holdingUpdated(accountId).subscribe(received::add);
+    }
+
+    private void reprice(Long holdingId, String price) {
+        Holding holding = holdingRepository.findById(holdingId).orElseThrow();
+        holding.setCurrentPrice(Money.of(price));
+        holdingRepository.flush();
+    }
+
+    private static void authenticate(Long userId, String role) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "subscriber@cimb.com", null, true,
+            AuthenticatedUser.authoritiesFor(role));
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private void awaitReceived(int events) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (received.size() < events && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.cimb.wealth.ledger;
+
+import com.cimb.wealth.domain.Transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.cimb.wealth.domain.Transaction.TransactionType.BUY;
+import static com.cimb.wealth.domain.Transaction.TransactionType.DEPOSIT;
+import static com.cimb.wealth.domain.Transaction.TransactionType.DIVIDEND;
+import static com.cimb.wealth.domain.Transaction.TransactionType.SELL;
+import static com.cimb.wealth.domain.Transaction.TransactionType.TRANSFER;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerReplayTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private static final BigDecimal TOLERANCE = new BigDecimal("0.01");
+
+    @Test
+    void buysAndSells_ShouldFoldToAverageCostAndRealizedGain() {
+        // Given
+        LedgerReplay replay = new LedgerReplay();
+        replay.apply(entry(1, BUY, "CIMB", "100", "5.00", "10.00"));
+        replay.apply(entry(2, BUY, "CIMB", "100", "7.00", "10.00"));
+        replay.apply(entry(3, SELL, "CIMB", "50", "8.00", "10.00"));
+        replay.apply(entry(4, DIVIDEND, "CIMB", "0", "0", "0"));
+        replay.apply(entry(5, DEPOSIT, "CASH", "0", "0", "0"));
+
+        // When
+        LedgerPosition position = replay.positions().stream()
+            .filter(p -> p.ticker().equals("CIMB")).findFirst().orElseThrow();
+
+        // Then: 50 units sold at a 6.00 average cost for 390.00 net of fees
+        assertEquals(0, new BigDecimal("150").compareTo(position.quantity()));
+        assertEquals(new BigDecimal("6.00"), position.averageCost());
+        assertEquals(0, new BigDecimal("90").compareTo(position.realizedGainLoss()));
+        assertEquals(5, replay.transactionCount());
+        assertEquals(5, replay.lastTransactionId());
+    }
+
+    @Test
+    void replayFromCheckpoint_ShouldMatchFullReplay() {
+        // Given
+        List<LedgerEntry> entries = List.of(
+            entry(1, BUY, "CIMB", "100", "5.00", "10.00"),
+            entry(2, TRANSFER, "MAYBANK", "40", "9.50", "0"),
+            entry(3, SELL, "CIMB", "30", "6.00", "5.00"),
+            entry(4, TRANSFER, "MAYBANK", "-10", "9.80", "0"));
+        LedgerReplay full = new LedgerReplay();
+        entries.forEach(full::apply);
+
+        LedgerReplay head = new LedgerReplay();
+        entries.subList(0, 2).forEach(head::apply);
+        LedgerCheckpoint checkpoint = new LedgerCheckpoint(1L, head.lastCreatedAt(), head.lastTransactionId(),
+            head.transactionCount(), START);
+
+        // When
+        LedgerReplay resumed = new LedgerReplay(checkpoint, head.positions());
+        entries.subList(2, 4).forEach(resumed::apply);
+
+        // Then
+        Map<String, HoldingPosition> holdings = Map.of(
+            "CIMB", new HoldingPosition("CIMB", new BigDecimal("70.00"), new BigDecimal("5.00")),
+            "MAYBANK", new HoldingPosition("MAYBANK", new BigDecimal("30.00"), new BigDecimal("9.50")));
+        assertEquals(List.of(), full.drift(holdings, TOLERANCE));
+        assertEquals(List.of(), resumed.drift(holdings, TOLERANCE));
+        assertEquals(full.transactionCount(), resumed.transactionCount());
+    }
+
+    @Test
+    void drift_ShouldClassifyEachMismatch() {
+        // Given
+        LedgerReplay replay = new LedgerReplay();
+        replay.apply(entry(1, BUY, "AAA", "10", "1.00", "0"));
+        replay.apply(entry(2, BUY, "BBB", "10", "1.00", "0"));
+        replay.apply(entry(3, BUY, "CCC", "10", "1.00", "0"));
+        Map<String, HoldingPosition> holdings = Map.of(
+            "BBB", new HoldingPosition("BBB", new BigDecimal("12.00"), new BigDecimal("1.00")),
+            "CCC", new HoldingPosition("CCC", new BigDecimal("10.00"), new BigDecimal("1.50")),
+            "DDD", new HoldingPosition("DDD", new BigDecimal("5.00"), new BigDecimal("2.00")));
+
+        // When
+        List<PositionDrift> drift = replay.drift(holdings, TOLERANCE);
+
+        // Then
+        assertEquals(List.of(PositionDrift.Kind.MISSING_HOLDING, PositionDrift.Kind.QUANTITY,
+                PositionDrift.Kind.AVERAGE_COST, PositionDrift.Kind.UNBACKED_HOLDING),
+            drift.stream().map(PositionDrift::kind).toList());
+    }
+
+    private static LedgerEntry entry(long id, TransactionType type, String ticker,
+                                     String quantity, String price, String fees) {
+        BigDecimal amount = new BigDecimal(quantity).abs().multiply(new BigDecimal(price));
+        BigDecimal totalAmount = switch (type) {
+            case BUY -> amount.add(new BigDecimal(fees));
+            case SELL -> amount.subtract(new BigDecimal(fees));
+            default -> new BigDecimal("25.00");
+        };
+        return new LedgerEntry(id, type, ticker, new BigDecimal(quantity), new BigDecimal(price),
+            amount, totalAmount, START.plusHours(id));
+    }
+}
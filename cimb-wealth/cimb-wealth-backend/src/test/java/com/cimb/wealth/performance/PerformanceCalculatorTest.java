@@ -0,0 +1,126 @@
+package com.cimb.wealth.performance;
+
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.domain.Quantity;
+import com.cimb.wealth.domain.Transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static com.cimb.wealth.domain.Transaction.TransactionType.BUY;
+import static com.cimb.wealth.domain.Transaction.TransactionType.DEPOSIT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerformanceCalculatorTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private static final PerformanceCalculator.ClosingPrices NO_HISTORY = (ticker, date) -> null;
+
+    @Test
+    void singleDeposit_ShouldHaveEqualTimeAndMoneyWeightedReturns() {
+        // Given
+        PerformanceCalculator calculator = new PerformanceCalculator(1L, START.plusDays(365));
+        accept(calculator, START, DEPOSIT, "CASH", "0", "0", "1000");
+        accept(calculator, START, BUY, "CIMB", "10", "100", "1000");
+
+        // When
+        PerformanceAnalysis analysis = calculator.finish(Map.of("CIMB", Money.of("110")), NO_HISTORY);
+
+        // Then
+        assertEquals(new BigDecimal("1100.00"), analysis.marketValue());
+        assertEquals(new BigDecimal("10.00"), analysis.timeWeightedReturn());
+        assertEquals(new BigDecimal("10.00"), analysis.moneyWeightedReturn());
+        assertEquals(new BigDecimal("10.00"), analysis.yearToDate());
+        assertEquals(2, analysis.transactionCount());
+    }
+
+    @Test
+    void depositAfterGain_ShouldNotChangeTheTimeWeightedReturn() {
+        // Given: the position doubles, then ten times the capital is added
+        PerformanceCalculator calculator = new PerformanceCalculator(1L, START.plusDays(200));
+        accept(calculator, START, DEPOSIT, "CASH", "0", "0", "1000");
+        accept(calculator, START, BUY, "CIMB", "10", "100", "1000");
+        accept(calculator, START.plusDays(100), BUY, "CIMB", "1", "200", "200");
+        accept(calculator, START.plusDays(100), DEPOSIT, "CASH", "0", "0", "10000");
+
+        // When
+        PerformanceAnalysis analysis = calculator.finish(Map.of("CIMB", Money.of("200")), NO_HISTORY);
+
+        // Then
+        assertEquals(new BigDecimal("100.00"), analysis.timeWeightedReturn());
+        assertEquals(new BigDecimal("11000.00"), analysis.netContributions());
+        assertTrue(analysis.moneyWeightedReturn().compareTo(analysis.timeWeightedReturn()) < 0);
+        assertNull(analysis.annualizedReturn());
+    }
+
+    @Test
+    void accountWithoutTransactions_ShouldHaveNoReturns() {
+        // When
+        PerformanceAnalysis analysis = new PerformanceCalculator(1L, START).finish(Map.of(), NO_HISTORY);
+
+        // Then
+        assertEquals(0, analysis.transactionCount());
+        assertNull(analysis.timeWeightedReturn());
+        assertNull(analysis.moneyWeightedReturn());
+    }
+
+    @Test
+    void amounts_ShouldStayExact_BeyondTheRangeOfDouble() {
+        // Given: 2^53 + 1 hundredths has no double representation
+        PerformanceCalculator calculator = new PerformanceCalculator(1L, START.plusDays(10));
+        accept(calculator, START, DEPOSIT, "CASH", "0", "0", "90071992547409.93");
+        accept(calculator, START.plusDays(1), DEPOSIT, "CASH", "0", "0", "0.01");
+        accept(calculator, START.plusDays(2), BUY, "CIMB", "3", "0.33", "0.99");
+
+        // When
+        PerformanceAnalysis analysis = calculator.finish(Map.of("CIMB", Money.of("0.34")), NO_HISTORY);
+
+        // Then
+        assertEquals(new BigDecimal("90071992547409.94"), analysis.netContributions());
+        assertEquals(new BigDecimal("90071992547409.97"), analysis.marketValue());
+    }
+
+    @Test
+    void periodsWithoutTrades_ShouldStartAtTheClosingPricesBeforeThem() {
+        // Given: bought in January and left alone until mid June
+        PerformanceCalculator calculator = new PerformanceCalculator(1L, LocalDate.of(2024, 6, 15));
+        accept(calculator, LocalDate.of(2024, 1, 2), DEPOSIT, "CASH", "0", "0", "1000");
+        accept(calculator, LocalDate.of(2024, 1, 2), BUY, "CIMB", "10", "100", "1000");
+        Map<LocalDate, Money> closes = Map.of(
+            LocalDate.of(2024, 3, 31), Money.of("120"),
+            LocalDate.of(2024, 5, 31), Money.of("150"));
+
+        // When
+        PerformanceAnalysis analysis = calculator.finish(Map.of("CIMB", Money.of("165")),
+            (ticker, date) -> closes.get(date));
+
+        // Then: measured from each opening, not from the January trade
+        assertEquals(new BigDecimal("10.00"), analysis.monthToDate());
+        assertEquals(new BigDecimal("37.50"), analysis.quarterToDate());
+        assertEquals(new BigDecimal("65.00"), analysis.yearToDate());
+    }
+
+    @Test
+    void periodReturn_ShouldBeNull_WhenAHeldTickerHasNoClosingPrice() {
+        // Given
+        PerformanceCalculator calculator = new PerformanceCalculator(1L, LocalDate.of(2024, 6, 15));
+        accept(calculator, LocalDate.of(2024, 1, 2), DEPOSIT, "CASH", "0", "0", "1000");
+        accept(calculator, LocalDate.of(2024, 1, 2), BUY, "CIMB", "10", "100", "1000");
+
+        // When
+        PerformanceAnalysis analysis = calculator.finish(Map.of("CIMB", Money.of("165")), NO_HISTORY);
+
+        // Then
+        assertNull(analysis.monthToDate());
+        assertNull(analysis.quarterToDate());
+        assertEquals(new BigDecimal("65.00"), analysis.timeWeightedReturn());
+    }
+
+    private static void accept(PerformanceCalculator calculator, LocalDate date, TransactionType type, String ticker,
+                               String quantity, String price, String totalAmount) {
+        calculator.accept(date, type, ticker, Quantity.of(quantity), Money.of(price), Money.of(totalAmount));
+    }
+}
@@ -0,0 +1,94 @@
+package com.cimb.wealth.performance;
+
+import com.cimb.wealth.repository.ValuationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PerformanceServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final AtomicInteger streams = new AtomicInteger();
+
+    private PerformanceService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PerformanceService(jdbcTemplate, mock(ValuationRepository.class),
+            mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 100, 100, Duration.ofMinutes(15));
+        doAnswer(invocation -> {
+            if (streams.incrementAndGet() == 1) {
+                started.countDown();
+                release.await();
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void invalidate_ShouldNotWaitForARunningAnalysis() throws Exception {
+        // Given
+        CompletableFuture<PerformanceAnalysis> running = CompletableFuture.supplyAsync(() -> service.analyze(1L));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        // When / Then
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> service.invalidate(List.of(1L)));
+        release.countDown();
+        assertEquals(1L, running.get(1, TimeUnit.SECONDS).accountId());
+    }
+
+    @Test
+    void analysisInvalidatedWhileRunning_ShouldNotBeCached() throws Exception {
+        // Given
+        CompletableFuture<PerformanceAnalysis> running = CompletableFuture.supplyAsync(() -> service.analyze(1L));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        service.invalidate(List.of(1L));
+        release.countDown();
+        running.get(1, TimeUnit.SECONDS);
+
+        // When
+        service.analyze(1L);
+
+        // Then
+        assertEquals(2, streams.get());
+    }
+
+    @Test
+    void analysis_ShouldBeCached_UntilInvalidated() {
+        // Given
+        release.countDown();
+        service.analyze(1L);
+
+        // When
+        service.analyze(1L);
+
+        // Then
+        assertEquals(1, streams.get());
+    }
+}
@@ -0,0 +1,142 @@
+package com.cimb.wealth.pricing;
+
+import com.cimb.wealth.PostgresIntegrationTest;
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.event.SubscriptionEvent;
+import com.cimb.wealth.event.SubscriptionEventBus;
+import com.cimb.wealth.performance.PerformanceService;
+import com.cimb.wealth.repository.HoldingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.Disposable;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldingRepricerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private HoldingRepricer repricer;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private PerformanceService performanceService;
+
+    @Autowired
+    private SubscriptionEventBus subscriptionEventBus;
+
+    @Test
+    void reprice_ShouldStoreTheSameValuesAsTheEntity() {
+        // Given
+        String ticker = unique("RP");
+        Long holdingId = insertHolding(insertAccount(insertUser("MODERATE")), ticker, "STOCK", "Technology",
+            "3.33", "10.00", "9.87");
+
+        // When
+        repricer.reprice(Map.of(ticker, new BigDecimal("12.3456")));
+
+        // Then
+        Holding stored = holdingRepository.findById(holdingId).orElseThrow();
+        assertEquals(Money.of("12.35"), stored.getCurrentPrice());
+        Holding expected = Holding.builder()
+            .quantity(stored.getQuantity())
+            .currentPrice(stored.getCurrentPrice())
+            .averageCost(stored.getAverageCost())
+            .build();
+        expected.calculateValues();
+        assertEquals(expected.getMarketValue(), stored.getMarketValue());
+        assertEquals(expected.getUnrealizedGainLoss(), stored.getUnrealizedGainLoss());
+        assertEquals(0, expected.getUnrealizedGainLossPercentage().compareTo(stored.getUnrealizedGainLossPercentage()));
+    }
+
+    @Test
+    void reprice_ShouldUpdateNothing_WhenTheBatchIsRepeated() {
+        // Given
+        String ticker = unique("RP");
+        insertHolding(insertAccount(insertUser("MODERATE")), ticker, "STOCK", "Technology", "5", "20.00", "18.00");
+        Map<String, BigDecimal> prices = Map.of(ticker, new BigDecimal("21.005"));
+
+        // When
+        RepricingResult first = repricer.reprice(prices);
+        RepricingResult second = repricer.reprice(prices);
+
+        // Then
+        assertEquals(1, first.holdingsUpdated());
+        assertEquals(0, second.holdingsUpdated());
+        assertEquals(0, second.usersAffected());
+    }
+
+    @Test
+    void reprice_ShouldInvalidateThePerformanceOfRepricedAccounts() {
+        // Given
+        String ticker = unique("RP");
+        Long accountId = insertAccount(insertUser("MODERATE"));
+        insertHolding(accountId, ticker, "STOCK", "Technology", "5", "20.00", "20.00");
+        jdbcTemplate.update("""
+            INSERT INTO transactions (transaction_id, transaction_type, ticker, asset_name, quantity, price, amount,
+                                      total_amount, status, account_id, created_at)
+            VALUES (?, 'BUY', ?, 'Repriced Asset', 5, 20.00, 100.00, 100.00, 'COMPLETED', ?, CURRENT_DATE - 30)
+            """, unique("TX"), ticker, accountId);
+        assertEquals(0, new BigDecimal("100.00").compareTo(performanceService.analyze(accountId).marketValue()));
+
+        // When
+        repricer.reprice(Map.of(ticker, new BigDecimal("30.00")));
+
+        // Then
+        assertEquals(0, new BigDecimal("150.00").compareTo(performanceService.analyze(accountId).marketValue()));
+    }
+
+    @Test
+    void reprice_ShouldStoreGainsAboveOneThousandPercent() {
+        // Given: bought at a cent
+        String ticker = unique("RP");
+        Long holdingId = insertHolding(insertAccount(insertUser("MODERATE")), ticker, "STOCK", "Technology",
+            "10", "0.01", "0.01");
+
+        // When
+        RepricingResult result = repricer.reprice(Map.of(ticker, new BigDecimal("100.00")));
+
+        // Then
+        assertEquals(1, result.holdingsUpdated());
+        assertEquals(0, new BigDecimal("999900.00").compareTo(
+            holdingRepository.findById(holdingId).orElseThrow().getUnrealizedGainLossPercentage()));
+    }
+
+    @Test
+    void reprice_ShouldPublishOnlyTheHoldingsOfSubscribedAccounts() throws InterruptedException {
+        // Given
+        String ticker = unique("RP");
+        Long watched = insertAccount(insertUser("MODERATE"));
+        Long unwatched = insertAccount(insertUser("MODERATE"));
+        Long watchedHolding = insertHolding(watched, ticker, "STOCK", "Technology", "1", "10.00", "10.00");
+        insertHolding(unwatched, ticker, "STOCK", "Technology", "1", "10.00", "10.00");
+        List<HoldingDto> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = subscriptionEventBus
+            .subscribe(SubscriptionEvent.Topic.HOLDING_UPDATED, watched, HoldingDto.class)
+            .subscribe(received::add);
+
+        try {
+            // When
+            RepricingResult result = repricer.reprice(Map.of(ticker, new BigDecimal("11.00")));
+
+            // Then
+            assertEquals(2, result.holdingsUpdated());
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (received.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(List.of(watchedHolding), received.stream().map(HoldingDto::getId).toList());
+        } finally {
+            subscription.dispose();
+        }
+    }
+}
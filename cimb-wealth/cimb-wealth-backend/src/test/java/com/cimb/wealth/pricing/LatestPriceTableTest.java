@@ -0,0 +1,91 @@
+package com.cimb.wealth.pricing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatestPriceTableTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-02T14:30:00Z");
+
+    private LatestPriceTable table;
+
+    @BeforeEach
+    void setUp() {
+        table = new LatestPriceTable();
+    }
+
+    @Test
+    void ticksBetweenDrains_ShouldCoalesceToTheLatestPrice() {
+        // Given
+        table.update(tick("AAPL", "190.00", 0));
+        table.update(tick("AAPL", "190.50", 1));
+        table.update(tick("MSFT", "370.00", 1));
+        table.update(tick("AAPL", "191.00", 2));
+
+        // When
+        List<PriceTick> batch = new ArrayList<>();
+        table.drainTo(batch, 100);
+
+        // Then
+        assertEquals(2, batch.size());
+        assertEquals(new BigDecimal("191.00"), batch.stream()
+            .filter(tick -> tick.ticker().equals("AAPL")).findFirst().orElseThrow().price());
+        assertEquals(0, table.pendingCount());
+    }
+
+    @Test
+    void olderTick_ShouldBeIgnored() {
+        // Given
+        table.update(tick("AAPL", "191.00", 5));
+
+        // When
+        boolean stored = table.update(tick("AAPL", "189.00", 3));
+
+        // Then
+        assertFalse(stored);
+        assertEquals(new BigDecimal("191.00"), table.get("AAPL").price());
+    }
+
+    @Test
+    void tickAfterDrain_ShouldBeFlushedAgain() {
+        // Given
+        table.update(tick("AAPL", "190.00", 0));
+        table.drainTo(new ArrayList<>(), 100);
+
+        // When
+        table.update(tick("AAPL", "192.00", 1));
+        List<PriceTick> batch = new ArrayList<>();
+        table.drainTo(batch, 100);
+
+        // Then
+        assertEquals(1, batch.size());
+        assertEquals(new BigDecimal("192.00"), batch.get(0).price());
+    }
+
+    @Test
+    void drain_ShouldStopAtTheLimit() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            table.update(tick("T" + i, "10.00", 0));
+        }
+
+        // When
+        List<PriceTick> batch = new ArrayList<>();
+        table.drainTo(batch, 3);
+
+        // Then
+        assertEquals(3, batch.size());
+        assertEquals(2, table.pendingCount());
+    }
+
+    private static PriceTick tick(String ticker, String price, int seconds) {
+        return new PriceTick(ticker, new BigDecimal(price), T0.plusSeconds(seconds));
+    }
+}
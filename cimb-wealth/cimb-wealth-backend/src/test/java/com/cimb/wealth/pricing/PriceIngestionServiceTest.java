@@ -0,0 +1,128 @@
+package com.cimb.wealth.pricing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PriceIngestionServiceTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-02T14:30:00Z");
+
+    private final HoldingRepricer repricer = mock(HoldingRepricer.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Set<String> written = ConcurrentHashMap.newKeySet();
+
+    private PriceIngestionService service;
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void invalidTicks_ShouldBeDroppedOnArrival() throws InterruptedException {
+        // Given
+        recordWrites();
+
+        // When
+        start(List.of(tick("AAPL", "190.00"), tick("NEG", "-1.00"), tick(" ", "10.00"), tick("MSFT", "370.00")));
+        awaitWritten(2);
+
+        // Then
+        assertEquals(Set.of("AAPL", "MSFT"), written);
+        assertEquals(2, meterRegistry.counter("pricing.ticks.invalid").count());
+    }
+
+    @Test
+    void permanentFailure_ShouldDropOnlyTheFailingTick() throws InterruptedException {
+        // Given
+        when(repricer.reprice(anyMap(), eq(false))).thenAnswer(invocation -> {
+            Map<String, BigDecimal> prices = invocation.getArgument(0);
+            if (prices.containsKey("BAD")) {
+                throw new DataIntegrityViolationException("numeric field overflow");
+            }
+            written.addAll(prices.keySet());
+            return new RepricingResult(prices.size(), 0, 0, 0);
+        });
+
+        // When
+        start(List.of(tick("A", "1.00"), tick("B", "2.00"), tick("BAD", "3.00"), tick("C", "4.00"),
+            tick("D", "5.00")));
+        awaitWritten(4);
+
+        // Then
+        assertEquals(Set.of("A", "B", "C", "D"), written);
+        assertEquals(1, meterRegistry.counter("pricing.ticks.rejected").count());
+        assertEquals(0, meterRegistry.counter("pricing.flush.failed").count());
+    }
+
+    @Test
+    void transientFailure_ShouldBeRetriedOnTheNextCycle() throws InterruptedException {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+        when(repricer.reprice(anyMap(), eq(false))).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new QueryTimeoutException("canceling statement due to statement timeout");
+            }
+            Map<String, BigDecimal> prices = invocation.getArgument(0);
+            written.addAll(prices.keySet());
+            return new RepricingResult(prices.size(), 0, 0, 0);
+        });
+
+        // When
+        start(List.of(tick("AAPL", "190.00")));
+        awaitWritten(1);
+
+        // Then
+        assertEquals(Set.of("AAPL"), written);
+        assertEquals(1, meterRegistry.counter("pricing.flush.failed").count());
+        assertEquals(0, meterRegistry.counter("pricing.ticks.rejected").count());
+    }
+
+    private void recordWrites() {
+        when(repricer.reprice(anyMap(), eq(false))).thenAnswer(invocation -> {
+            Map<String, BigDecimal> prices = invocation.getArgument(0);
+            written.addAll(prices.keySet());
+            return new RepricingResult(prices.size(), 0, 0, 0);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void start(List<PriceTick> ticks) {
+        ObjectProvider<PriceTickSource> sourceProvider = mock(ObjectProvider.class);
+        when(sourceProvider.getIfAvailable()).thenReturn(sink -> ticks.forEach(sink));
+        service = new PriceIngestionService(sourceProvider, repricer, meterRegistry, true,
+            Duration.ofMillis(20), 100);
+        service.start();
+    }
+
+    private void awaitWritten(int tickers) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (written.size() < tickers && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static PriceTick tick(String ticker, String price) {
+        return new PriceTick(ticker, new BigDecimal(price), T0);
+    }
+}
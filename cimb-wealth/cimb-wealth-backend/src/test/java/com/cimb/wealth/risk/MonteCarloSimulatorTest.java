@@ -0,0 +1,89 @@
+package com.cimb.wealth.risk;
+
+import com.cimb.wealth.valuation.ValuationBlock;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloSimulatorTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @Test
+    void simulate_ShouldBeReproducibleWhateverTheParallelism() {
+        // Given
+        ReturnMatrix matrix = ReturnMatrix.of(List.of("AAA", "BBB"),
+            Map.of("AAA", List.of(randomWalk(1)), "BBB", List.of(randomWalk(2))), START, END, 60);
+        double[] exposures = {60_000, 40_000};
+
+        // When
+        SimulatedLosses sequential = new MonteCarloSimulator(new ForkJoinPool(1), 256)
+            .simulate(exposures, matrix, 10, 20_000, 7);
+        SimulatedLosses parallel = new MonteCarloSimulator(new ForkJoinPool(4), 256)
+            .simulate(exposures, matrix, 10, 20_000, 7);
+
+        // Then
+        assertEquals(sequential.valueAtRisk(0.99), parallel.valueAtRisk(0.99));
+        assertEquals(sequential.expectedShortfall(0.99), parallel.expectedShortfall(0.99));
+        assertTrue(sequential.valueAtRisk(0.99) > 0);
+        assertTrue(sequential.expectedShortfall(0.99) >= sequential.valueAtRisk(0.99));
+    }
+
+    @Test
+    void simulate_ShouldCompoundAConstantDailyLoss() {
+        // Given: the price falls 1% every day
+        ValuationBlock prices = new ValuationBlock(START);
+        double price = 1_000_000;
+        for (int day = 0; day < 100; day++) {
+            prices.put(START.plusDays(day), Math.round(price));
+            price *= 0.99;
+        }
+        ReturnMatrix matrix = ReturnMatrix.of(List.of("AAA"), Map.of("AAA", List.of(prices)), START, END, 60);
+
+        // When
+        SimulatedLosses losses = new MonteCarloSimulator(new ForkJoinPool(2), 64)
+            .simulate(new double[]{1000}, matrix, 10, 1000, 1);
+
+        // Then: rounding of the stored prices moves each daily return slightly
+        double expected = 1000 * (1 - Math.pow(0.99, 10));
+        assertEquals(expected, losses.valueAtRisk(0.95), 0.05);
+        assertEquals(expected, losses.expectedShortfall(0.95), 0.05);
+    }
+
+    @Test
+    void returnMatrix_ShouldLeaveShortHistoriesUncovered() {
+        // Given
+        ValuationBlock recent = new ValuationBlock(START);
+        for (int day = 0; day < 10; day++) {
+            recent.put(END.minusDays(10 - day), 500);
+        }
+
+        // When
+        ReturnMatrix matrix = ReturnMatrix.of(List.of("AAA", "NEW"),
+            Map.of("AAA", List.of(randomWalk(1)), "NEW", List.of(recent)), START, END, 60);
+
+        // Then
+        assertEquals(List.of("AAA"), matrix.tickers());
+        assertEquals(List.of("NEW"), matrix.uncovered());
+        assertEquals(365, matrix.days());
+    }
+
+    private static ValuationBlock randomWalk(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ValuationBlock block = new ValuationBlock(START);
+        double price = 10_000;
+        for (LocalDate date = START; !date.isAfter(END); date = date.plusDays(1)) {
+            price *= Math.exp(random.nextGaussian() * 0.02);
+            block.put(date, Math.round(price));
+        }
+        return block;
+    }
+}
@@ -0,0 +1,115 @@
+package com.cimb.wealth.risk;
+
+import com.cimb.wealth.domain.User.RiskProfile;
+import com.cimb.wealth.repository.RiskAssessmentRepository;
+import com.cimb.wealth.repository.ValuationRepository;
+import com.cimb.wealth.valuation.ValuationBlock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class RiskEngineTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2024, 12, 31);
+
+    private final RiskAssessmentRepository riskRepository = mock(RiskAssessmentRepository.class);
+
+    private final ValuationRepository valuationRepository = mock(ValuationRepository.class);
+
+    private RiskEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new RiskEngine(riskRepository, valuationRepository, 2, 256, 2_000, 10, 0.99, 365, 60, 0.8,
+            20240101, Map.of("CONSERVATIVE", 5.0, "MODERATE", 10.0, "AGGRESSIVE", 20.0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void assess_ShouldRecordInsufficientHistory_WhenNoTickerIsCovered() {
+        // Given
+        when(riskRepository.findExposures(1L)).thenReturn(exposures("NEW", "50000.00"));
+        when(valuationRepository.findPriceBlocks(anyCollection(), any(), any())).thenReturn(Map.of());
+
+        // When
+        RiskAssessment assessment = engine.assess(1L, RiskProfile.CONSERVATIVE, AS_OF).orElseThrow();
+
+        // Then
+        assertTrue(assessment.insufficientHistory());
+        assertFalse(assessment.exceedsProfile());
+        assertNull(assessment.valueAtRisk());
+        assertNull(assessment.valueAtRiskPercentage());
+        assertEquals(0, BigDecimal.ZERO.compareTo(assessment.coveredValue()));
+    }
+
+    @Test
+    void assess_ShouldRecordInsufficientHistory_WhenTooLittleOfThePortfolioIsCovered() {
+        // Given: 70% covered against a minimum of 80%
+        Map<String, BigDecimal> exposures = exposures("OLD", "70000.00");
+        exposures.put("NEW", new BigDecimal("30000.00"));
+        when(riskRepository.findExposures(1L)).thenReturn(exposures);
+        when(valuationRepository.findPriceBlocks(anyCollection(), any(), any()))
+            .thenReturn(Map.of("OLD", List.of(decliningPrices())));
+
+        // When
+        RiskAssessment assessment = engine.assess(1L, RiskProfile.MODERATE, AS_OF).orElseThrow();
+
+        // Then
+        assertTrue(assessment.insufficientHistory());
+        assertEquals(0, new BigDecimal("70000.00").compareTo(assessment.coveredValue()));
+    }
+
+    @Test
+    void assess_ShouldMeasureValueAtRiskAgainstTheCoveredValue() {
+        // Given: 90% covered
+        Map<String, BigDecimal> exposures = exposures("OLD", "90000.00");
+        exposures.put("NEW", new BigDecimal("10000.00"));
+        when(riskRepository.findExposures(1L)).thenReturn(exposures);
+        when(valuationRepository.findPriceBlocks(anyCollection(), any(), any()))
+            .thenReturn(Map.of("OLD", List.of(decliningPrices())));
+
+        // When
+        RiskAssessment assessment = engine.assess(1L, RiskProfile.AGGRESSIVE, AS_OF).orElseThrow();
+
+        // Then
+        assertFalse(assessment.insufficientHistory());
+        BigDecimal expected = assessment.valueAtRisk().multiply(BigDecimal.valueOf(100))
+            .divide(new BigDecimal("90000.00"), 2, RoundingMode.HALF_UP);
+        assertEquals(expected, assessment.valueAtRiskPercentage());
+        // A 1% daily fall over 10 days loses about 9.56% of the covered value
+        assertEquals(9.56, assessment.valueAtRiskPercentage().doubleValue(), 0.05);
+        assertFalse(assessment.exceedsProfile());
+    }
+
+    private static Map<String, BigDecimal> exposures(String ticker, String value) {
+        Map<String, BigDecimal> exposures = new LinkedHashMap<>();
+        exposures.put(ticker, new BigDecimal(value));
+        return exposures;
+    }
+
+    private static ValuationBlock decliningPrices() {
+        ValuationBlock block = new ValuationBlock(LocalDate.of(2024, 1, 1));
+        double price = 1_000_000;
+        for (int day = 0; day < 200; day++) {
+            block.put(LocalDate.of(2024, 1, 1).plusDays(day), Math.round(price));
+            price *= 0.99;
+        }
+        return block;
+    }
+}
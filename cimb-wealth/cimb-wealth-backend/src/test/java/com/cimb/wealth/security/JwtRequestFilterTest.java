@@ -0,0 +1,199 @@
+package com.cimb.wealth.security;
+
+import com.cimb.wealth.domain.User;
+import com.cimb.wealth.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtRequestFilterTest {
+
+    private static final String EMAIL = "user@cimb.com";
+
+    private static final Duration TTL = Duration.ofSeconds(60);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+
+    private final MutableClock clock = new MutableClock(Instant.now());
+
+    private final TokenVersionRegistry tokenVersionRegistry = new TokenVersionRegistry(userRepository,
+        new SimpleMeterRegistry(), 100, TTL, clock::nanos);
+
+    private final VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(new SimpleMeterRegistry(), true, 100,
+        TTL, clock, Runnable::run);
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private JwtRequestFilter filter;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", "test-secret-that-is-long-enough-for-hmac-sha-256");
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 60_000);
+        ReflectionTestUtils.setField(provider, "refreshExpirationMs", 600_000);
+        provider.init();
+        jwtTokenProvider = spy(provider);
+
+        filter = new JwtRequestFilter(userDetailsService, jwtTokenProvider, tokenVersionRegistry, verifiedTokenCache);
+        ReflectionTestUtils.setField(filter, "stateless", true);
+
+        user = User.builder()
+            .id(1L)
+            .email(EMAIL)
+            .role(User.Role.CUSTOMER)
+            .active(true)
+            .build();
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessToken_ShouldAuthenticateFromItsClaims_WithoutLoadingTheUser() throws Exception {
+        // Given
+        String token = jwtTokenProvider.generateToken(user);
+
+        // When
+        Authentication authentication = filter(token);
+
+        // Then
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, authentication.getPrincipal());
+        assertEquals(1L, principal.getUserId());
+        assertEquals(EMAIL, principal.getUsername());
+        assertEquals(Set.of("ROLE_CUSTOMER"), AuthorityUtils.authorityListToSet(authentication.getAuthorities()));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(userRepository, times(1)).findTokenVersionByEmail(EMAIL);
+    }
+
+    @Test
+    void tokenWithoutStatelessClaims_ShouldLoadTheUser() throws Exception {
+        // Given
+        String token = jwtTokenProvider.generateTokenFromUsername(EMAIL);
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(
+            new AuthenticatedUser(1L, EMAIL, "", true, AuthenticatedUser.authoritiesFor("CUSTOMER")));
+
+        // When
+        Authentication authentication = filter(token);
+
+        // Then
+        assertEquals(EMAIL, authentication.getName());
+        verify(userDetailsService, times(1)).loadUserByUsername(EMAIL);
+        verify(userRepository, never()).findTokenVersionByEmail(anyString());
+    }
+
+    @Test
+    void staleTokenVersion_ShouldBeRejected_AndRememberedWithoutAnotherRead() throws Exception {
+        // Given: the user's tokens were revoked before this token was presented
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(1));
+        String token = jwtTokenProvider.generateToken(user);
+
+        // When
+        Authentication first = filter(token);
+        Authentication second = filter(token);
+
+        // Then
+        assertNull(first);
+        assertNull(second);
+        assertEquals(0, verifiedTokenCache.size());
+        verify(userRepository, times(1)).findTokenVersionByEmail(EMAIL);
+    }
+
+    @Test
+    void revocationOnAnotherNode_ShouldBeSeenOnceTheTtlExpires() throws Exception {
+        // Given: a cached token, then a revocation committed by another node
+        String token = jwtTokenProvider.generateToken(user);
+        filter(token);
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(1));
+
+        // When / Then: accepted until this node's entries expire, rejected after
+        clock.advance(TTL.toMillis() - 1);
+        assertNotNull(filter(token));
+        clock.advance(1);
+        assertNull(filter(token));
+        verify(userRepository, times(2)).findTokenVersionByEmail(EMAIL);
+    }
+
+    @Test
+    void repeatedToken_ShouldBeServedFromTheCache() throws Exception {
+        // Given
+        String token = jwtTokenProvider.generateToken(user);
+        filter(token);
+
+        // When
+        Authentication authentication = filter(token);
+
+        // Then: verified once, then neither parsed nor checked again
+        assertEquals(EMAIL, authentication.getName());
+        assertNotNull(authentication.getDetails());
+        verify(jwtTokenProvider, times(1)).parseClaims(token);
+        verify(userRepository, times(1)).findTokenVersionByEmail(EMAIL);
+    }
+
+    @Test
+    void revokedTokens_ShouldNotBeServedFromTheCache() throws Exception {
+        // Given: a cached token, then a revocation or role change as UserService commits it
+        String token = jwtTokenProvider.generateToken(user);
+        filter(token);
+
+        // When
+        tokenVersionRegistry.update(EMAIL, 1);
+        verifiedTokenCache.invalidateUser(EMAIL);
+
+        // Then
+        assertNull(filter(token));
+        verify(jwtTokenProvider, times(2)).parseClaims(token);
+    }
+
+    @Test
+    void refreshToken_ShouldNeverAuthenticateNorBeCached() throws Exception {
+        // Given
+        String refreshToken = jwtTokenProvider.generateRefreshToken(user, "token-id", "family-id",
+            new Date(System.currentTimeMillis() + 600_000));
+
+        // When
+        Authentication first = filter(refreshToken);
+        Authentication second = filter(refreshToken);
+
+        // Then
+        assertNull(first);
+        assertNull(second);
+        assertEquals(0, verifiedTokenCache.size());
+        verify(jwtTokenProvider, times(2)).parseClaims(refreshToken);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    private Authentication filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,137 @@
+package com.cimb.wealth.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private static final String ADDRESS = "10.0.0.1";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void emailBucket_ShouldAllowTheBurst_ThenReject() {
+        // Given: 5 per minute with a burst of 5
+        LoginRateLimiter limiter = limiter(true, 100, Duration.ofMinutes(15), 5, 5);
+        for (int i = 0; i < 5; i++) {
+            limiter.checkLogin("user@cimb.com", ADDRESS);
+        }
+
+        // When
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class,
+            () -> limiter.checkLogin("user@cimb.com", ADDRESS));
+
+        // Then: the next token is one emission interval away
+        assertEquals(12, exception.getRetryAfterSeconds());
+        assertEquals(1.0, rejections("login", "email"));
+    }
+
+    @Test
+    void emailBucket_ShouldRefillOneTokenPerEmissionInterval() {
+        // Given
+        LoginRateLimiter limiter = limiter(true, 100, Duration.ofMinutes(15), 5, 5);
+        for (int i = 0; i < 5; i++) {
+            limiter.checkLogin("user@cimb.com", ADDRESS);
+        }
+
+        // When
+        advance(Duration.ofSeconds(12));
+
+        // Then
+        assertDoesNotThrow(() -> limiter.checkLogin("user@cimb.com", ADDRESS));
+        assertThrows(RateLimitExceededException.class, () -> limiter.checkLogin("user@cimb.com", ADDRESS));
+    }
+
+    @Test
+    void emailKey_ShouldIgnoreCaseAndSurroundingSpaces_AndNotAffectOtherEmails() {
+        // Given
+        LoginRateLimiter limiter = limiter(true, 100, Duration.ofMinutes(15), 1, 1);
+        limiter.checkLogin("user@cimb.com", ADDRESS);
+
+        // When / Then
+        assertThrows(RateLimitExceededException.class, () -> limiter.checkLogin(" USER@cimb.com ", ADDRESS));
+        assertDoesNotThrow(() -> limiter.checkLogin("other@cimb.com", ADDRESS));
+    }
+
+    @Test
+    void addressBucket_ShouldRejectARunAcrossManyEmails() {
+        // Given: the address allows a burst of 20
+        LoginRateLimiter limiter = limiter(true, 100, Duration.ofMinutes(15), 5, 5);
+        for (int i = 0; i < 20; i++) {
+            limiter.checkLogin("user" + i + "@cimb.com", ADDRESS);
+        }
+
+        // When / Then
+        assertThrows(RateLimitExceededException.class, () -> limiter.checkLogin("user20@cimb.com", ADDRESS));
+        assertDoesNotThrow(() -> limiter.checkLogin("user20@cimb.com", "10.0.0.2"));
+        assertEquals(1.0, rejections("login", "address"));
+        assertEquals(0.0, rejections("login", "email"));
+    }
+
+    @Test
+    void idleBucket_ShouldBeEvicted() {
+        // Given: one attempt a minute, buckets dropped after 15 idle seconds
+        LoginRateLimiter limiter = limiter(true, 100, Duration.ofSeconds(15), 1, 1);
+        limiter.checkLogin("user@cimb.com", ADDRESS);
+        advance(Duration.ofSeconds(10));
+        assertThrows(RateLimitExceededException.class, () -> limiter.checkLogin("user@cimb.com", ADDRESS));
+
+        // When: long before the bucket would refill
+        advance(Duration.ofSeconds(16));
+
+        // Then
+        assertDoesNotThrow(() -> limiter.checkLogin("user@cimb.com", ADDRESS));
+    }
+
+    @Test
+    void trackedKeys_ShouldBeCapped() {
+        // Given
+        LoginRateLimiter limiter = limiter(true, 2, Duration.ofMinutes(15), 5, 5);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.checkRefresh("10.0.1." + i);
+        }
+
+        // Then
+        assertTrue(limiter.trackedKeys() <= 2);
+    }
+
+    @Test
+    void disabledLimiter_ShouldNotTrackOrReject() {
+        // Given
+        LoginRateLimiter limiter = limiter(false, 100, Duration.ofMinutes(15), 1, 1);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.checkLogin("user@cimb.com", ADDRESS);
+        }
+
+        // Then
+        assertEquals(0, limiter.trackedKeys());
+    }
+
+    private LoginRateLimiter limiter(boolean enabled, long maxKeys, Duration idleTimeout,
+                                     int emailCapacity, int emailPerMinute) {
+        return new LoginRateLimiter(meterRegistry, enabled, maxKeys, idleTimeout,
+            emailCapacity, emailPerMinute, 20, 60, 30, 60, nanos::get);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private double rejections(String operation, String scope) {
+        return meterRegistry.get("auth.rate-limit.rejected")
+            .tag("operation", operation)
+            .tag("scope", scope)
+            .counter().count();
+    }
+}
@@ -0,0 +1,144 @@
+package com.cimb.wealth.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+    @Test
+    void hit_ShouldReturnAFreshAuthenticationForTheSamePrincipal() {
+        // Given
+        VerifiedTokenCache cache = cache(true, 100);
+        Authentication authentication = authentication("user@cimb.com");
+        cache.put("token", authentication, expiresIn(60_000));
+
+        // When
+        UsernamePasswordAuthenticationToken first = cache.get("token");
+        UsernamePasswordAuthenticationToken second = cache.get("token");
+
+        // Then
+        assertEquals("user@cimb.com", first.getName());
+        assertEquals(authentication.getAuthorities(), first.getAuthorities());
+        assertNull(first.getCredentials());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void entry_ShouldExpireAtTheTokenExpiry() {
+        // Given
+        VerifiedTokenCache cache = cache(true, 100);
+        cache.put("token", authentication("user@cimb.com"), expiresIn(60_000));
+
+        // When / Then
+        clock.advance(59_999);
+        assertNotNull(cache.get("token"));
+        clock.advance(1);
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.indexedUsers());
+    }
+
+    @Test
+    void entry_ShouldExpireAtTheMaxAge_WhenTheTokenOutlivesIt() {
+        // Given: a token valid for an hour
+        VerifiedTokenCache cache = cache(true, 100);
+        cache.put("token", authentication("user@cimb.com"), expiresIn(3_600_000));
+
+        // When / Then: dropped after the five minute max age
+        clock.advance(299_999);
+        assertNotNull(cache.get("token"));
+        clock.advance(1);
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void invalidateUser_ShouldEvictEveryTokenOfThatUserOnly() {
+        // Given: two sessions of one user and one of another
+        VerifiedTokenCache cache = cache(true, 100);
+        cache.put("phone", authentication("user@cimb.com"), expiresIn(60_000));
+        cache.put("laptop", authentication("user@cimb.com"), expiresIn(60_000));
+        cache.put("other", authentication("other@cimb.com"), expiresIn(60_000));
+
+        // When: a revocation or role change
+        cache.invalidateUser("user@cimb.com");
+
+        // Then
+        assertNull(cache.get("phone"));
+        assertNull(cache.get("laptop"));
+        assertNotNull(cache.get("other"));
+        assertEquals(1, cache.indexedUsers());
+    }
+
+    @Test
+    void sizeEviction_ShouldDropTheEvictedKeysFromTheUserIndex() {
+        // Given
+        VerifiedTokenCache cache = cache(true, 1);
+
+        // When
+        cache.put("first", authentication("first@cimb.com"), expiresIn(60_000));
+        cache.put("second", authentication("second@cimb.com"), expiresIn(60_000));
+
+        // Then
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.indexedUsers());
+    }
+
+    @Test
+    void alreadyExpiredToken_ShouldNotBeServed() {
+        // Given
+        VerifiedTokenCache cache = cache(true, 100);
+
+        // When
+        cache.put("token", authentication("user@cimb.com"), expiresIn(0));
+
+        // Then
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void disabledCache_ShouldNeverHit() {
+        // Given
+        VerifiedTokenCache cache = cache(false, 100);
+
+        // When
+        cache.put("token", authentication("user@cimb.com"), expiresIn(60_000));
+
+        // Then
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void keyFor_ShouldNotContainTheToken() {
+        // When
+        String key = cache(true, 100).keyFor("header.payload.signature");
+
+        // Then
+        assertFalse(key.contains("payload"));
+        assertEquals(key, cache(true, 100).keyFor("header.payload.signature"));
+    }
+
+    private VerifiedTokenCache cache(boolean enabled, long maxSize) {
+        return new VerifiedTokenCache(new SimpleMeterRegistry(), enabled, maxSize, Duration.ofMinutes(5), clock,
+            Runnable::run);
+    }
+
+    private Date expiresIn(long millis) {
+        return new Date(clock.millis() + millis);
+    }
+
+    private static Authentication authentication(String email) {
+        AuthenticatedUser principal = new AuthenticatedUser(1L, email, "", true, AuthenticatedUser.authoritiesFor("CUSTOMER"));
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
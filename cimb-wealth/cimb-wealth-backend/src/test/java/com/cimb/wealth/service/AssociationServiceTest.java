@@ -0,0 +1,193 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.domain.Account;
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.domain.Money;
+import com.cimb.wealth.domain.Quantity;
+import com.cimb.wealth.domain.Transaction;
+import com.cimb.wealth.domain.User;
+import com.cimb.wealth.dto.AccountDto;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.dto.TransactionDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "cimb.graphql.cost.default-list-size=" + AssociationServiceTest.TRANSACTIONS_PER_ACCOUNT
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AssociationService.class)
+@Testcontainers
+class AssociationServiceTest {
+
+    private static final int ACCOUNT_COUNT = 100;
+
+    static final int TRANSACTIONS_PER_ACCOUNT = 3;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private AssociationService associationService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder()
+            .email("batch@cimb.com")
+            .password("encoded-password")
+            .firstName("Batch")
+            .lastName("User")
+            .role(User.Role.CUSTOMER)
+            .riskProfile(User.RiskProfile.MODERATE)
+            .active(true)
+            .build());
+
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            Account account = entityManager.persist(Account.builder()
+                .accountNumber("BATCH" + i)
+                .accountName("Batch Account " + i)
+                .accountType(Account.AccountType.INVESTMENT)
+                .balance(BigDecimal.ZERO)
+                .active(true)
+                .user(user)
+                .build());
+            for (String ticker : List.of("AAPL", "MSFT")) {
+                entityManager.persist(Holding.builder()
+                    .ticker(ticker)
+                    .assetName(ticker)
+                    .assetType(Holding.AssetType.STOCK)
+                    .sector("Technology")
+                    .quantity(Quantity.of("10"))
+                    .currentPrice(Money.of("100"))
+                    .averageCost(Money.of("90"))
+                    .account(account)
+                    .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void accountsWithHoldings_ShouldUseConstantQueries_ForManyAccounts() {
+        // When
+        Map<Long, List<AccountDto>> accounts = associationService.accountsByUserIds(List.of(user.getId()));
+        List<Long> accountIds = new ArrayList<>();
+        accounts.get(user.getId()).forEach(account -> accountIds.add(account.getId()));
+        Map<Long, List<HoldingDto>> holdings = associationService.holdingsByAccountIds(accountIds);
+
+        // Then
+        assertEquals(ACCOUNT_COUNT, accountIds.size());
+        assertEquals(ACCOUNT_COUNT, holdings.size());
+        holdings.values().forEach(accountHoldings -> assertEquals(2, accountHoldings.size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void holdingAccounts_ShouldLoadParentsInOneQuery() {
+        // Given
+        List<Long> accountIds = associationService.accountsByUserIds(List.of(user.getId()))
+            .get(user.getId()).stream().map(AccountDto::getId).toList();
+        statistics.clear();
+
+        // When
+        Map<Long, AccountDto> accounts = associationService.accountsByIds(accountIds);
+
+        // Then
+        assertEquals(ACCOUNT_COUNT, accounts.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void transactions_ShouldBeCappedPerAccount_NewestFirst() {
+        // Given: five transactions on one account, one on another
+        List<Account> accounts = entityManager.getEntityManager()
+            .createQuery("SELECT a FROM Account a WHERE a.user.id = :userId ORDER BY a.id", Account.class)
+            .setParameter("userId", user.getId())
+            .setMaxResults(2)
+            .getResultList();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        List<String> newestFirst = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            newestFirst.add(0, persistTransaction(accounts.get(0), start.plusDays(i)));
+        }
+        persistTransaction(accounts.get(1), start);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // When
+        Map<Long, List<TransactionDto>> transactions = associationService.transactionsByAccountIds(
+            List.of(accounts.get(0).getId(), accounts.get(1).getId()));
+
+        // Then
+        assertEquals(newestFirst.subList(0, TRANSACTIONS_PER_ACCOUNT),
+            transactions.get(accounts.get(0).getId()).stream().map(TransactionDto::getTransactionId).toList());
+        assertEquals(1, transactions.get(accounts.get(1).getId()).size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private String persistTransaction(Account account, LocalDateTime createdAt) {
+        Transaction transaction = entityManager.persist(Transaction.builder()
+            .transactionId("TX" + account.getId() + "-" + createdAt.toLocalDate())
+            .transactionType(Transaction.TransactionType.DEPOSIT)
+            .ticker("CASH")
+            .assetName("Cash")
+            .quantity(Quantity.of("0"))
+            .price(Money.of("0"))
+            .fees(Money.of("0"))
+            .totalAmount(Money.of("100"))
+            .status(Transaction.TransactionStatus.COMPLETED)
+            .account(account)
+            .build());
+        entityManager.flush();
+        // Auditing stamps the insert time, so the history is set afterwards
+        entityManager.getEntityManager().createNativeQuery("UPDATE transactions SET created_at = ?1 WHERE id = ?2")
+            .setParameter(1, createdAt)
+            .setParameter(2, transaction.getId())
+            .executeUpdate();
+        return transaction.getTransactionId();
+    }
+}
@@ -0,0 +1,127 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.PostgresIntegrationTest;
+import com.cimb.wealth.dto.Connection;
+import com.cimb.wealth.dto.Edge;
+import com.cimb.wealth.dto.HoldingDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionQueryServiceTest extends PostgresIntegrationTest {
+
+    private static final List<String> FIELDS = List.of("id", "ticker");
+
+    @Autowired
+    private ConnectionQueryService connectionQueryService;
+
+    private Long accountId;
+
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        accountId = insertAccount(insertUser("MODERATE"));
+        for (int i = 0; i < 5; i++) {
+            newestFirst.add(0, insertHolding(accountId, unique("KS"), "STOCK", "Technology", "1", "10.00", "10.00"));
+        }
+        // Newest first: one alone, then two pairs sharing a timestamp that the id orders
+        jdbcTemplate.update("UPDATE holdings SET created_at = (SELECT MIN(created_at) FROM holdings WHERE account_id = ?) "
+            + "WHERE account_id = ?", accountId, accountId);
+        jdbcTemplate.update("UPDATE holdings SET created_at = created_at + INTERVAL '1 minute' WHERE id IN (?, ?, ?)",
+            newestFirst.get(0), newestFirst.get(1), newestFirst.get(2));
+        jdbcTemplate.update("UPDATE holdings SET created_at = created_at + INTERVAL '1 minute' WHERE id = ?",
+            newestFirst.get(0));
+    }
+
+    @Test
+    void holdings_ShouldReturnEveryRowOnce_InKeysetOrder() {
+        // When
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        Connection<HoldingDto> page;
+        do {
+            page = holdings(2, after);
+            page.getEdges().forEach(edge -> ids.add(edge.getNode().getId()));
+            after = page.getPageInfo().getEndCursor();
+        } while (page.getPageInfo().isHasNextPage());
+
+        // Then
+        assertEquals(newestFirst, ids);
+    }
+
+    @Test
+    void firstPage_ShouldHaveNoPreviousPage() {
+        // When
+        Connection<HoldingDto> page = holdings(2, null);
+
+        // Then
+        assertFalse(page.getPageInfo().isHasPreviousPage());
+        assertTrue(page.getPageInfo().isHasNextPage());
+        assertEquals(2, page.getEdges().size());
+        assertEquals(page.getEdges().get(0).getCursor(), page.getPageInfo().getStartCursor());
+    }
+
+    @Test
+    void cursorAtTheFirstRow_ShouldHaveNoPreviousPage() {
+        // Given
+        String firstCursor = holdings(1, null).getPageInfo().getEndCursor();
+
+        // When
+        Connection<HoldingDto> page = holdings(2, firstCursor);
+
+        // Then
+        assertFalse(page.getPageInfo().isHasPreviousPage());
+        assertEquals(newestFirst.subList(1, 3), ids(page));
+    }
+
+    @Test
+    void cursorPastTheFirstRow_ShouldHavePreviousPage() {
+        // Given
+        String secondCursor = holdings(2, null).getPageInfo().getEndCursor();
+
+        // When
+        Connection<HoldingDto> page = holdings(2, secondCursor);
+
+        // Then
+        assertTrue(page.getPageInfo().isHasPreviousPage());
+        assertEquals(newestFirst.subList(2, 4), ids(page));
+    }
+
+    @Test
+    void lastPage_ShouldHaveNoNextPage() {
+        // Given
+        String fourthCursor = holdings(4, null).getPageInfo().getEndCursor();
+
+        // When
+        Connection<HoldingDto> page = holdings(2, fourthCursor);
+
+        // Then
+        assertFalse(page.getPageInfo().isHasNextPage());
+        assertTrue(page.getPageInfo().isHasPreviousPage());
+        assertEquals(newestFirst.subList(4, 5), ids(page));
+        assertEquals(5, page.getTotalCount());
+    }
+
+    @Test
+    void clientPortfolios_ShouldHaveNoPreviousPage_WhenNoClientSortsBeforeTheCursor() {
+        // When
+        Connection<?> page = connectionQueryService.clientPortfolios(1, KeysetCursor.FIRST.encode());
+
+        // Then
+        assertFalse(page.getPageInfo().isHasPreviousPage());
+    }
+
+    private Connection<HoldingDto> holdings(int first, String after) {
+        return connectionQueryService.holdings(FIELDS, accountId, first, after, null, null, null);
+    }
+
+    private static List<Long> ids(Connection<HoldingDto> page) {
+        return page.getEdges().stream().map(Edge::getNode).map(HoldingDto::getId).toList();
+    }
+}
@@ -0,0 +1,109 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.PostgresIntegrationTest;
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.dto.HoldingDto;
+import com.cimb.wealth.repository.AccountRepository;
+import com.cimb.wealth.repository.HoldingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioAggregationServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PortfolioAggregationService aggregationService;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        userId = insertUser("MODERATE");
+        Long brokerage = insertAccount(userId);
+        Long retirement = insertAccount(userId);
+        Long closed = insertAccount(userId);
+        jdbcTemplate.update("UPDATE accounts SET active = false WHERE id = ?", closed);
+
+        insertHolding(brokerage, unique("A"), "STOCK", "Technology", "10", "190.25", "150.10");
+        insertHolding(brokerage, unique("B"), "STOCK", "Finance", "33.5", "41.07", "45.00");
+        insertHolding(brokerage, unique("C"), "ETF", "Technology", "12", "410.00", "380.55");
+        insertHolding(brokerage, unique("D"), "BOND", "Government", "100", "98.40", "99.10");
+        insertHolding(retirement, unique("E"), "REIT", "Real Estate", "7.25", "88.88", "70.07");
+        insertHolding(retirement, unique("F"), "STOCK", "Technology", "3", "1203.10", "900.00");
+        insertHolding(retirement, unique("G"), "MUTUAL_FUND", "Finance", "55", "12.34", "11.11");
+        insertHolding(closed, unique("H"), "CRYPTO", "Digital Assets", "2", "40000.00", "20000.00");
+    }
+
+    @Test
+    void aggregate_ShouldMatchTheSectionsComputedFromTheHoldings() {
+        // Given: the sections computed one by one from the user's active holdings
+        List<Holding> holdings = holdingRepository.findByAccountIdIn(accountRepository.findActiveIdsByUserId(userId));
+        BigDecimal totalValue = sum(holdings, holding -> holding.getMarketValue().toBigDecimal());
+        BigDecimal costBasis = sum(holdings, holding ->
+            holding.getQuantity().times(holding.getAverageCost(), RoundingMode.HALF_UP).toBigDecimal());
+
+        // When
+        PortfolioAggregate aggregate = aggregationService.aggregate(userId);
+
+        // Then
+        assertEquals(7, aggregate.holdingCount());
+        assertEquals(0, totalValue.compareTo(aggregate.totalValue()));
+        assertEquals(0, costBasis.compareTo(aggregate.costBasis()));
+        assertAllocations(holdings, holding -> holding.getAssetType().name(), aggregate.byAssetType(), totalValue);
+        assertAllocations(holdings, Holding::getSector, aggregate.bySector(), totalValue);
+
+        List<Long> expectedTop = holdings.stream()
+            .sorted(Comparator.comparing((Holding holding) -> holding.getMarketValue()).reversed()
+                .thenComparing(Holding::getId))
+            .limit(5)
+            .map(Holding::getId)
+            .toList();
+        assertEquals(expectedTop, aggregate.topHoldings().stream().map(HoldingDto::getId).toList());
+    }
+
+    @Test
+    void aggregate_ShouldBeEmpty_WhenTheUserHoldsNothing() {
+        // When
+        PortfolioAggregate aggregate = aggregationService.aggregate(insertUser("CONSERVATIVE"));
+
+        // Then
+        assertEquals(0, aggregate.holdingCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(aggregate.totalValue()));
+        assertTrue(aggregate.byAssetType().isEmpty());
+        assertTrue(aggregate.bySector().isEmpty());
+        assertTrue(aggregate.topHoldings().isEmpty());
+    }
+
+    private static void assertAllocations(List<Holding> holdings, Function<Holding, String> key,
+                                          List<PortfolioAggregate.Allocation> allocations, BigDecimal totalValue) {
+        Map<String, BigDecimal> expected = new TreeMap<>();
+        holdings.forEach(holding -> expected.merge(key.apply(holding), holding.getMarketValue().toBigDecimal(),
+            BigDecimal::add));
+        assertEquals(expected.size(), allocations.size());
+        for (PortfolioAggregate.Allocation allocation : allocations) {
+            BigDecimal value = expected.get(allocation.key());
+            assertEquals(0, value.compareTo(allocation.marketValue()), allocation.key());
+            assertEquals(PortfolioAggregationService.percentage(value, totalValue), allocation.percentage());
+        }
+    }
+
+    private static BigDecimal sum(List<Holding> holdings, Function<Holding, BigDecimal> value) {
+        return holdings.stream().map(value).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,92 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.PostgresIntegrationTest;
+import com.cimb.wealth.dto.ClientPortfolioDto;
+import com.cimb.wealth.repository.PortfolioSnapshotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioSnapshotRebuildJobTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PortfolioSnapshotRebuildJob rebuildJob;
+
+    @Autowired
+    private PortfolioSnapshotRepository snapshotRepository;
+
+    @Test
+    void rebuildUsers_ShouldCorrectChangesMadeOutsideJpa() {
+        // Given
+        Long userId = insertUser("MODERATE");
+        Long accountId = insertAccount(userId);
+        insertHolding(accountId, unique("R"), "STOCK", "Technology", "3.33", "33.33", "10.01");
+        rebuildJob.rebuildUsers(List.of(userId));
+        jdbcTemplate.update("UPDATE holdings SET current_price = 40.00, market_value = 120.00 WHERE account_id = ?",
+            accountId);
+
+        // When
+        long written = rebuildJob.rebuildUsers(List.of(userId));
+        long rewritten = rebuildJob.rebuildUsers(List.of(userId));
+
+        // Then
+        assertEquals(2, written);
+        assertEquals(0, rewritten);
+        assertEquals(0, new BigDecimal("120.00").compareTo(userTotal(userId, "total_value")));
+        assertEquals(new BigDecimal("33.33"), userTotal(userId, "cost_basis"));
+    }
+
+    @Test
+    void userSnapshot_ShouldLeaveOutInactiveAccounts() {
+        // Given
+        Long userId = insertUser("MODERATE");
+        insertHolding(insertAccount(userId), unique("R"), "ETF", "Technology", "2", "100.00", "90.00");
+        Long closed = insertAccount(userId);
+        insertHolding(closed, unique("R"), "STOCK", "Finance", "1", "500.00", "400.00");
+        jdbcTemplate.update("UPDATE accounts SET active = false WHERE id = ?", closed);
+
+        // When
+        rebuildJob.rebuildUsers(List.of(userId));
+
+        // Then
+        assertEquals(0, new BigDecimal("200.00").compareTo(userTotal(userId, "total_value")));
+        assertFalse(jdbcTemplate.queryForObject("""
+            SELECT sector_allocation::text FROM portfolio_snapshots WHERE user_id = ? AND account_id IS NULL
+            """, String.class, userId).contains("Finance"));
+    }
+
+    @Test
+    void findClientPage_ShouldPageNewestFirstWithGainsFromTheSnapshot() {
+        // Given
+        Long older = insertUser("CONSERVATIVE");
+        insertHolding(insertAccount(older), unique("R"), "STOCK", "Technology", "10", "12.00", "10.00");
+        Long newer = insertUser("AGGRESSIVE");
+        rebuildJob.rebuildUsers(List.of(older, newer));
+
+        // When
+        List<ClientPortfolioDto> first = snapshotRepository.findClientPage(LocalDateTime.now().plusDays(1),
+            Long.MAX_VALUE, 1);
+        ClientPortfolioDto cursor = first.get(0);
+        List<ClientPortfolioDto> second = snapshotRepository.findClientPage(cursor.getCreatedAt(),
+            cursor.getUserId(), 1);
+
+        // Then
+        assertEquals(newer, cursor.getUserId());
+        assertEquals(0, BigDecimal.ZERO.compareTo(cursor.getTotalValue()));
+        ClientPortfolioDto next = second.get(0);
+        assertEquals(older, next.getUserId());
+        assertEquals(0, new BigDecimal("20.00").compareTo(next.getTotalGainLoss()));
+        assertEquals(0, new BigDecimal("20.00").compareTo(next.getTotalGainLossPercentage()));
+        assertEquals(1, next.getHoldingCount());
+    }
+
+    private BigDecimal userTotal(Long userId, String column) {
+        return jdbcTemplate.queryForObject("SELECT " + column
+            + " FROM portfolio_snapshots WHERE user_id = ? AND account_id IS NULL", BigDecimal.class, userId);
+    }
+}
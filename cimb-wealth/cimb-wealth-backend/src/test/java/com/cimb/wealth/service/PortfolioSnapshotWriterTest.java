@@ -0,0 +1,85 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.PostgresIntegrationTest;
+import com.cimb.wealth.domain.Holding;
+import com.cimb.wealth.domain.Quantity;
+import com.cimb.wealth.repository.HoldingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioSnapshotWriterTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private PortfolioSnapshotRebuildJob rebuildJob;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+
+    private Long accountId;
+
+    private Long holdingId;
+
+    @BeforeEach
+    void seed() {
+        userId = insertUser("MODERATE");
+        accountId = insertAccount(userId);
+        holdingId = insertHolding(accountId, unique("W"), "STOCK", "Technology", "10", "50.00", "40.00");
+        insertHolding(accountId, unique("W"), "BOND", "Government", "5", "100.00", "100.00");
+        rebuildJob.rebuildUsers(List.of(userId));
+    }
+
+    @Test
+    void holdingUpdate_ShouldRefreshTheAccountAndUserSnapshotsOnCommit() {
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Holding holding = holdingRepository.findById(holdingId).orElseThrow();
+            holding.setQuantity(Quantity.of("20"));
+            holdingRepository.save(holding);
+        });
+
+        // Then
+        Map<String, Object> account = snapshot("account_id = ?", accountId);
+        assertEquals(0, new BigDecimal("1500.00").compareTo((BigDecimal) account.get("total_value")));
+        assertEquals(0, new BigDecimal("1300.00").compareTo((BigDecimal) account.get("cost_basis")));
+        assertTrue(((String) account.get("sector_allocation")).contains("\"Technology\": 1000.00"));
+        Map<String, Object> user = snapshot("user_id = ? AND account_id IS NULL", userId);
+        assertEquals(0, new BigDecimal("1500.00").compareTo((BigDecimal) user.get("total_value")));
+        assertEquals(2, ((Number) user.get("holding_count")).intValue());
+    }
+
+    @Test
+    void rolledBackUpdate_ShouldLeaveTheSnapshotsUnchanged() {
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Holding holding = holdingRepository.findById(holdingId).orElseThrow();
+            holding.setQuantity(Quantity.of("20"));
+            holdingRepository.saveAndFlush(holding);
+            status.setRollbackOnly();
+        });
+
+        // Then
+        Map<String, Object> user = snapshot("user_id = ? AND account_id IS NULL", userId);
+        assertEquals(0, new BigDecimal("1000.00").compareTo((BigDecimal) user.get("total_value")));
+    }
+
+    private Map<String, Object> snapshot(String condition, Long id) {
+        return jdbcTemplate.queryForMap("""
+            SELECT total_value, cost_basis, holding_count, sector_allocation::text AS sector_allocation
+            FROM portfolio_snapshots WHERE
+            """ + condition, id);
+    }
+}
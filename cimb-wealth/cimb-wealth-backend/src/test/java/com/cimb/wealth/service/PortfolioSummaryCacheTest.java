@@ -0,0 +1,93 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.dto.PortfolioSummaryDto;
+import com.cimb.wealth.event.PortfolioChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioSummaryCacheTest {
+
+    private PortfolioSummaryCache cache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PortfolioSummaryCache(new SimpleMeterRegistry(), 100, 2, Duration.ofMinutes(5), Runnable::run);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_ShouldLoadOnce_WhenNothingChanged() {
+        // When
+        load(1L);
+        load(1L);
+
+        // Then
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void holdingChange_ShouldInvalidateOnlyTheAccountOwner() {
+        // Given
+        load(1L);
+        load(2L);
+        cache.trackAccounts(1L, List.of(10L));
+        cache.trackAccounts(2L, List.of(20L));
+
+        // When
+        cache.onPortfolioChanged(new PortfolioChangedEvent(null, 10L));
+        load(1L);
+        load(2L);
+
+        // Then
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void newAccount_ShouldInvalidateItsUser() {
+        // Given
+        load(1L);
+
+        // When
+        cache.onPortfolioChanged(new PortfolioChangedEvent(1L, 11L));
+        load(1L);
+        cache.onPortfolioChanged(new PortfolioChangedEvent(null, 11L));
+        load(1L);
+
+        // Then
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void evictedAccountOwner_ShouldDropItsUsersSummary() {
+        // Given: room for two tracked accounts
+        load(1L);
+        load(2L);
+        cache.trackAccounts(1L, List.of(10L));
+        cache.trackAccounts(2L, List.of(20L));
+
+        // When: a third account evicts one of the others
+        cache.trackAccounts(2L, List.of(21L));
+        load(1L);
+        load(2L);
+
+        // Then: exactly one user had to reload, without any change event
+        assertEquals(3, loads.get());
+    }
+
+    private PortfolioSummaryDto load(Long userId) {
+        return cache.get(userId, id -> {
+            loads.incrementAndGet();
+            return PortfolioSummaryDto.builder().totalValue(BigDecimal.ZERO).build();
+        });
+    }
+}
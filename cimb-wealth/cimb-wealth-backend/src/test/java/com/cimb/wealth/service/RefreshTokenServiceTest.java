@@ -0,0 +1,142 @@
+package com.cimb.wealth.service;
+
+import com.cimb.wealth.PostgresIntegrationTest;
+import com.cimb.wealth.domain.RefreshToken;
+import com.cimb.wealth.domain.User;
+import com.cimb.wealth.repository.RefreshTokenRepository;
+import com.cimb.wealth.repository.UserRepository;
+import com.cimb.wealth.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTokenServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findById(insertUser("MODERATE")).orElseThrow();
+    }
+
+    @Test
+    void rotate_ShouldRetireTheTokenAndIssueASuccessorInTheSameFamily() {
+        // Given
+        String issued = refreshTokenService.issue(user);
+
+        // When
+        String successor = refreshTokenService.rotate(issued).refreshToken();
+
+        // Then
+        Claims issuedClaims = jwtTokenProvider.parseClaims(issued);
+        Claims successorClaims = jwtTokenProvider.parseClaims(successor);
+        assertNotEquals(issuedClaims.getId(), successorClaims.getId());
+        assertEquals(family(issuedClaims), family(successorClaims));
+
+        RefreshToken retired = refreshTokenRepository.findByTokenId(issuedClaims.getId()).orElseThrow();
+        assertTrue(retired.getRevoked());
+        assertEquals(successorClaims.getId(), retired.getReplacedBy());
+        assertFalse(refreshTokenRepository.findByTokenId(successorClaims.getId()).orElseThrow().getRevoked());
+    }
+
+    @Test
+    void rotate_ShouldRevokeTheWholeFamily_WhenARotatedTokenIsReplayed() {
+        // Given
+        String issued = refreshTokenService.issue(user);
+        String successor = refreshTokenService.rotate(issued).refreshToken();
+
+        // When
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(issued));
+
+        // Then: the legitimate successor is revoked with it
+        String family = family(jwtTokenProvider.parseClaims(issued));
+        assertTrue(refreshTokenRepository.findActiveTokenIdsByFamily(family).isEmpty());
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(successor));
+    }
+
+    @Test
+    void rotate_ShouldNotTouchOtherFamilies_WhenATokenIsReplayed() {
+        // Given
+        String otherLogin = refreshTokenService.issue(user);
+        String issued = refreshTokenService.issue(user);
+        refreshTokenService.rotate(issued);
+
+        // When
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(issued));
+
+        // Then
+        assertNotNull(refreshTokenService.rotate(otherLogin).refreshToken());
+    }
+
+    @Test
+    void rotate_ShouldRejectAnExpiredToken() {
+        // Given
+        String tokenId = UUID.randomUUID().toString();
+        String familyId = UUID.randomUUID().toString();
+        refreshTokenRepository.save(RefreshToken.builder()
+            .tokenId(tokenId)
+            .familyId(familyId)
+            .userId(user.getId())
+            .expiresAt(LocalDateTime.now().minusMinutes(1))
+            .build());
+        String expired = jwtTokenProvider.generateRefreshToken(user, tokenId, familyId,
+            new Date(System.currentTimeMillis() - 60_000));
+
+        // When / Then
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(expired));
+        assertFalse(refreshTokenRepository.findByTokenId(tokenId).orElseThrow().getRevoked());
+    }
+
+    @Test
+    void rotate_ShouldRejectAnAccessToken() {
+        // Given
+        String accessToken = jwtTokenProvider.generateToken(user);
+
+        // When / Then
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(accessToken));
+    }
+
+    @Test
+    void deleteExpired_ShouldRemoveOnlyExpiredTokens() {
+        // Given
+        String live = jwtTokenProvider.parseClaims(refreshTokenService.issue(user)).getId();
+        String expiredId = UUID.randomUUID().toString();
+        refreshTokenRepository.save(RefreshToken.builder()
+            .tokenId(expiredId)
+            .familyId(UUID.randomUUID().toString())
+            .userId(user.getId())
+            .expiresAt(LocalDateTime.now().minusDays(1))
+            .build());
+
+        // When
+        refreshTokenService.deleteExpired();
+
+        // Then
+        assertTrue(refreshTokenRepository.findByTokenId(expiredId).isEmpty());
+        assertTrue(refreshTokenRepository.findByTokenId(live).isPresent());
+    }
+
+    private static String family(Claims claims) {
+        return claims.get(JwtTokenProvider.CLAIM_FAMILY, String.class);
+    }
+}
@@ -2,19 +2,25 @@ package com.cimb.wealth.service;
 
 import com.cimb.wealth.domain.User;
 import com.cimb.wealth.repository.UserRepository;
+import com.cimb.wealth.security.CredentialVerifier;
 import com.cimb.wealth.security.JwtTokenProvider;
+import com.cimb.wealth.security.TokenVersionRegistry;
+import com.cimb.wealth.security.VerifiedTokenCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -31,31 +37,37 @@ class UserServiceTest {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private AuthenticationManager authenticationManager;
+    private CredentialVerifier credentialVerifier;
 
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
-    @InjectMocks
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     private UserService userService;
 
     private User testUser;
-    private Authentication authentication;
 
     @BeforeEach
     void setUp() {
+        userService = userService(Runnable::run);
         testUser = User.builder()
             .id(1L)
             .email("test@cimb.com")
+            .password("encoded-password")
             .firstName("Test")
             .lastName("User")
             .role(User.Role.CUSTOMER)
             .riskProfile(User.RiskProfile.MODERATE)
             .active(true)
             .build();
-
-        authentication = mock(Authentication.class);
-        when(authentication.getName()).thenReturn("test@cimb.com");
     }
 
     @Test
@@ -66,14 +78,14 @@ class UserServiceTest {
         String token = "jwt-token";
         String refreshToken = "refresh-token";
 
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-            .thenReturn(authentication);
-        when(jwtTokenProvider.generateToken(authentication)).thenReturn(token);
-        when(jwtTokenProvider.generateRefreshToken(email)).thenReturn(refreshToken);
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
+        when(credentialVerifier.verify(password, "encoded-password"))
+            .thenReturn(CompletableFuture.completedFuture(new CredentialVerifier.Verification(true, null)));
+        when(jwtTokenProvider.generateToken(testUser)).thenReturn(token);
+        when(refreshTokenService.issue(testUser)).thenReturn(refreshToken);
 
         // When
-        var result = userService.login(email, password);
+        var result = userService.login(email, password).join();
 
         // Then
         assertNotNull(result);
@@ -81,10 +93,97 @@ class UserServiceTest {
         assertEquals(refreshToken, result.getRefreshToken());
         assertEquals(testUser.getEmail(), result.getUser().getEmail());
         
-        verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtTokenProvider).generateToken(authentication);
-        verify(jwtTokenProvider).generateRefreshToken(email);
+        verify(credentialVerifier).verify(password, "encoded-password");
+        verify(jwtTokenProvider).generateToken(testUser);
+        verify(refreshTokenService).issue(testUser);
         verify(userRepository).findByEmail(email);
+        verify(userRepository, never()).updatePassword(any(), anyString());
+    }
+
+    @Test
+    void login_ShouldUpgradeHash_WhenStoredCostIsOutdated() {
+        // Given
+        String email = "test@cimb.com";
+        String password = "password123";
+
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
+        when(credentialVerifier.verify(password, "encoded-password"))
+            .thenReturn(CompletableFuture.completedFuture(new CredentialVerifier.Verification(true, "upgraded-hash")));
+        when(jwtTokenProvider.generateToken(testUser)).thenReturn("jwt-token");
+        when(refreshTokenService.issue(testUser)).thenReturn("refresh-token");
+
+        // When
+        userService.login(email, password).join();
+
+        // Then
+        verify(userRepository).updatePassword(testUser.getId(), "upgraded-hash");
+    }
+
+    @Test
+    void login_ShouldFinishOffTheHashingPool() {
+        // Given
+        String email = "test@cimb.com";
+        String password = "password123";
+        ExecutorService hashingPool = Executors.newSingleThreadExecutor(task -> new Thread(task, "login-hash-test"));
+        ExecutorService loginPool = Executors.newSingleThreadExecutor(task -> new Thread(task, "login-test"));
+
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
+        when(credentialVerifier.verify(password, "encoded-password")).thenReturn(CompletableFuture.supplyAsync(
+            () -> new CredentialVerifier.Verification(true, "upgraded-hash"), hashingPool));
+        AtomicReference<String> writeThread = new AtomicReference<>();
+        when(userRepository.updatePassword(testUser.getId(), "upgraded-hash")).thenAnswer(invocation -> {
+            writeThread.set(threadName());
+            return 1;
+        });
+        when(jwtTokenProvider.generateToken(testUser)).thenAnswer(invocation -> threadName());
+        when(refreshTokenService.issue(testUser)).thenAnswer(invocation -> threadName());
+
+        try {
+            // When
+            var result = userService(loginPool).login(email, password).join();
+
+            // Then: the write, the insert and the signing all ran on the login executor
+            assertEquals("login-test", writeThread.get());
+            assertEquals("login-test", result.getToken());
+            assertEquals("login-test", result.getRefreshToken());
+        } finally {
+            hashingPool.shutdown();
+            loginPool.shutdown();
+        }
+    }
+
+    @Test
+    void login_ShouldFail_WhenPasswordDoesNotMatch() {
+        // Given
+        String email = "test@cimb.com";
+        String password = "wrong-password";
+
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
+        when(credentialVerifier.verify(password, "encoded-password"))
+            .thenReturn(CompletableFuture.completedFuture(new CredentialVerifier.Verification(false, null)));
+
+        // When & Then
+        CompletionException exception = assertThrows(CompletionException.class,
+            () -> userService.login(email, password).join());
+        assertInstanceOf(BadCredentialsException.class, exception.getCause());
+
+        verify(jwtTokenProvider, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void refreshToken_ShouldReturnRotatedToken() {
+        // Given
+        when(refreshTokenService.rotate("old-refresh-token"))
+            .thenReturn(new RefreshTokenService.Rotation(testUser, "new-refresh-token"));
+        when(jwtTokenProvider.generateToken(testUser)).thenReturn("jwt-token");
+
+        // When
+        var result = userService.refreshToken("old-refresh-token");
+
+        // Then
+        assertEquals("jwt-token", result.getToken());
+        assertEquals("new-refresh-token", result.getRefreshToken());
+        assertEquals(testUser.getEmail(), result.getUser().getEmail());
     }
 
     @Test
@@ -211,7 +310,22 @@ class UserServiceTest {
         userService.deleteUser(userId);
 
         // Then
+        assertFalse(testUser.getActive());
+        assertEquals(1, testUser.getTokenVersion());
+        
         verify(userRepository).findById(userId);
         verify(userRepository).save(any(User.class));
+        verify(tokenVersionRegistry).update(testUser.getEmail(), 1);
+        verify(verifiedTokenCache).invalidateUser(testUser.getEmail());
+        verify(refreshTokenService).revokeAllForUser(testUser.getId());
+    }
+
+    private UserService userService(Executor loginExecutor) {
+        return new UserService(userRepository, passwordEncoder, credentialVerifier, jwtTokenProvider,
+            tokenVersionRegistry, verifiedTokenCache, refreshTokenService, loginExecutor);
+    }
+
+    private static String threadName() {
+        return Thread.currentThread().getName();
     }
 }
@@ -0,0 +1,75 @@
+package com.cimb.wealth.valuation;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValuationBlockTest {
+
+    private static final LocalDate YEAR_START = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void encode_ShouldRoundTripAYearOfPoints() {
+        // Given: weekdays only, with values moving both ways
+        ValuationBlock block = new ValuationBlock(YEAR_START);
+        long value = 10_000_000;
+        for (LocalDate date = YEAR_START; date.getYear() == 2024; date = date.plusDays(1)) {
+            if (date.getDayOfWeek().getValue() <= 5) {
+                value += (date.getDayOfYear() % 7 - 3) * 1_234;
+                block.put(date, value);
+            }
+        }
+
+        // When
+        byte[] encoded = block.encode();
+        ValuationBlock decoded = ValuationBlock.decode(YEAR_START, encoded);
+
+        // Then
+        assertEquals(block.size(), decoded.size());
+        for (int i = 0; i < block.size(); i++) {
+            assertEquals(block.date(i), decoded.date(i));
+            assertEquals(block.units(i), decoded.units(i));
+        }
+        assertTrue(encoded.length < block.size() * 2, "encoded to " + encoded.length + " bytes");
+    }
+
+    @Test
+    void put_ShouldReplaceThePointOfTheSameDay() {
+        // Given
+        ValuationBlock block = new ValuationBlock(YEAR_START);
+        block.put(YEAR_START, 100);
+
+        // When
+        block.put(YEAR_START, -250);
+
+        // Then
+        ValuationBlock decoded = ValuationBlock.decode(YEAR_START, block.encode());
+        assertEquals(1, decoded.size());
+        assertEquals(-250, decoded.units(0));
+        assertThrows(IllegalArgumentException.class, () -> block.put(YEAR_START.minusDays(1), 1));
+    }
+
+    @Test
+    void sample_ShouldReturnTheClosingPointOfEachInterval() {
+        // Given: two years of daily points
+        ValuationBlock first = new ValuationBlock(YEAR_START);
+        ValuationBlock second = new ValuationBlock(YEAR_START.plusYears(1));
+        for (LocalDate date = YEAR_START; date.getYear() < 2026; date = date.plusDays(1)) {
+            (date.getYear() == 2024 ? first : second).put(date, date.getDayOfYear() * 100L);
+        }
+
+        // When
+        List<ValuationPoint> months = ValuationInterval.MONTH.sample(List.of(first, second),
+            LocalDate.of(2024, 11, 15), LocalDate.of(2025, 2, 10));
+
+        // Then
+        assertEquals(List.of(LocalDate.of(2024, 11, 30), LocalDate.of(2024, 12, 31),
+                LocalDate.of(2025, 1, 31), LocalDate.of(2025, 2, 10)),
+            months.stream().map(ValuationPoint::date).toList());
+        assertEquals(new BigDecimal("366.00"), months.get(1).value());
+    }
+}